@@ -3,6 +3,7 @@ package me.mat.jprocessor;
 import lombok.Setter;
 import me.mat.jprocessor.jar.JarLoadCallback;
 import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.stream.StreamingJar;
 import me.mat.jprocessor.mappings.MappingLoadCallback;
 import me.mat.jprocessor.mappings.MappingLoadException;
 import me.mat.jprocessor.mappings.MappingManager;
@@ -11,11 +12,13 @@ import me.mat.jprocessor.mappings.generation.GenerationType;
 import me.mat.jprocessor.mappings.generation.MappingGenerateCallback;
 import me.mat.jprocessor.mappings.generation.MappingGenerateException;
 import me.mat.jprocessor.mappings.generation.generator.MappingGenerator;
+import me.mat.jprocessor.transformer.VisitorTransformer;
 import me.mat.jprocessor.util.log.ConsoleLoggerImpl;
 import me.mat.jprocessor.util.log.Logger;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -170,6 +173,22 @@ public class JProcessor {
             });
         }
 
+        /**
+         * Transforms the classes of the provided jar with visitor transformers
+         * without loading it into the memory, the result is written to the output
+         *
+         * @param input        file handle of the jar
+         * @param output       file handle of the transformed jar
+         * @param transformers transformers in the order that they see the classes
+         */
+
+        public static void transform(File input, File output, VisitorTransformer... transformers) throws IOException {
+            if (!input.exists()) {
+                throw new FileNotFoundException("File '" + input.getAbsolutePath() + "' does not exist");
+            }
+            StreamingJar.transform(input, output, transformers);
+        }
+
     }
 
     public static final class Mapping {
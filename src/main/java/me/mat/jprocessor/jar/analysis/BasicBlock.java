@@ -0,0 +1,149 @@
+package me.mat.jprocessor.jar.analysis;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BasicBlock {
+
+    public final List<BasicBlock> successors = new ArrayList<>();
+
+    public final List<BasicBlock> predecessors = new ArrayList<>();
+
+    public final List<BasicBlock> exceptionSuccessors = new ArrayList<>();
+
+    public final List<BasicBlock> exceptionPredecessors = new ArrayList<>();
+
+    final List<BasicBlock> dominatorChildren = new ArrayList<>();
+
+    public final int index;
+
+    @NonNull
+    public final AbstractInsnNode first;
+
+    @NonNull
+    public final AbstractInsnNode last;
+
+    BasicBlock immediateDominator;
+
+    Loop loop;
+
+    int preOrder = -1;
+
+    int postOrder = -1;
+
+    /**
+     * Gets all the instructions in the block,
+     * including the labels and the line numbers
+     *
+     * @return {@link List}
+     */
+
+    public List<AbstractInsnNode> instructions() {
+        List<AbstractInsnNode> instructions = new ArrayList<>();
+        for (AbstractInsnNode instruction = first; instruction != null; instruction = instruction.getNext()) {
+            instructions.add(instruction);
+            if (instruction == last) {
+                break;
+            }
+        }
+        return instructions;
+    }
+
+    /**
+     * Gets the first instruction of the block
+     * that is not a label, line number or a frame
+     *
+     * @return {@link AbstractInsnNode}
+     */
+
+    public AbstractInsnNode firstRealInstruction() {
+        for (AbstractInsnNode instruction = first; instruction != null; instruction = instruction.getNext()) {
+            if (instruction.getOpcode() >= 0) {
+                return instruction;
+            }
+            if (instruction == last) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the last instruction of the block
+     * that is not a label, line number or a frame
+     *
+     * @return {@link AbstractInsnNode}
+     */
+
+    public AbstractInsnNode lastRealInstruction() {
+        for (AbstractInsnNode instruction = last; instruction != null; instruction = instruction.getPrevious()) {
+            if (instruction.getOpcode() >= 0) {
+                return instruction;
+            }
+            if (instruction == first) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the immediate dominator of the block, null
+     * for the entry block and the unreachable blocks
+     *
+     * @return {@link BasicBlock}
+     */
+
+    public BasicBlock immediateDominator() {
+        return immediateDominator;
+    }
+
+    /**
+     * Checks if the block dominates the provided block,
+     * every block dominates itself
+     *
+     * @param block block that you want to check
+     * @return {@link Boolean}
+     */
+
+    public boolean dominates(BasicBlock block) {
+        return isReachable() && block.isReachable()
+                && preOrder <= block.preOrder && block.postOrder <= postOrder;
+    }
+
+    /**
+     * Checks if the block can be reached from the entry block
+     *
+     * @return {@link Boolean}
+     */
+
+    public boolean isReachable() {
+        return preOrder != -1;
+    }
+
+    /**
+     * Returns the inner most loop that the block is in
+     *
+     * @return {@link Loop}
+     */
+
+    public Loop loop() {
+        return loop;
+    }
+
+    /**
+     * Returns the amount of loops that the block is in
+     *
+     * @return {@link Integer}
+     */
+
+    public int loopDepth() {
+        return loop != null ? loop.depth() : 0;
+    }
+
+}
@@ -0,0 +1,505 @@
+package me.mat.jprocessor.jar.analysis;
+
+import lombok.NonNull;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+public class ControlFlowGraph {
+
+    private final List<BasicBlock> blocks = new ArrayList<>();
+
+    private final List<Loop> loops = new ArrayList<>();
+
+    private final Map<AbstractInsnNode, BasicBlock> blockLookup = new IdentityHashMap<>();
+
+    public ControlFlowGraph(@NonNull InsnList instructions, List<TryCatchBlockNode> tryCatchBlocks) {
+        // if there are no instructions
+        if (instructions.size() == 0) {
+
+            // return out of the constructor
+            return;
+        }
+
+        // split the instructions into blocks and connect them
+        List<TryCatchBlockNode> handlers = tryCatchBlocks != null ? tryCatchBlocks : Collections.emptyList();
+        buildBlocks(instructions, handlers);
+        buildEdges(handlers);
+
+        // compute the dominators and find all the loops
+        buildDominators();
+        buildLoops();
+    }
+
+    /**
+     * Returns all the blocks in the order of the instructions
+     *
+     * @return {@link List}
+     */
+
+    public List<BasicBlock> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Returns the block that the method starts with
+     *
+     * @return {@link BasicBlock}
+     */
+
+    public BasicBlock getEntry() {
+        return blocks.isEmpty() ? null : blocks.get(0);
+    }
+
+    /**
+     * Gets the block that contains the provided instruction
+     *
+     * @param instruction instruction that you want to get the block for
+     * @return {@link BasicBlock}
+     */
+
+    public BasicBlock getBlock(AbstractInsnNode instruction) {
+        return blockLookup.get(instruction);
+    }
+
+    /**
+     * Returns all the loops, outer loops come before the loops nested in them
+     *
+     * @return {@link List}
+     */
+
+    public List<Loop> getLoops() {
+        return loops;
+    }
+
+    /**
+     * Checks if the first instruction dominates the second
+     * one, so every path to the second one passes the first one
+     *
+     * @param first  instruction that has to dominate
+     * @param second instruction that has to be dominated
+     * @return {@link Boolean}
+     */
+
+    public boolean dominates(AbstractInsnNode first, AbstractInsnNode second) {
+        // get the blocks of both instructions
+        BasicBlock firstBlock = getBlock(first);
+        BasicBlock secondBlock = getBlock(second);
+
+        // if any of the instructions is not in the graph
+        if (firstBlock == null || secondBlock == null) {
+
+            // return false
+            return false;
+        }
+
+        // if both instructions are in the same block check their order
+        if (firstBlock == secondBlock) {
+            for (AbstractInsnNode instruction = first; instruction != null; instruction = instruction.getNext()) {
+                if (instruction == second) {
+                    return true;
+                }
+                if (instruction == firstBlock.last) {
+                    break;
+                }
+            }
+            return false;
+        }
+
+        // else check if the first block dominates the second one
+        return firstBlock.dominates(secondBlock);
+    }
+
+    /**
+     * Splits the instructions into basic blocks, a block starts at every
+     * label that is jumped to or that starts, ends or handles a try catch
+     * block, and after every instruction that transfers the control
+     *
+     * @param instructions   instructions of the method
+     * @param tryCatchBlocks try catch blocks of the method
+     */
+
+    private void buildBlocks(InsnList instructions, List<TryCatchBlockNode> tryCatchBlocks) {
+        // collect all the labels that start a block
+        Set<LabelNode> leaders = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction instanceof JumpInsnNode) {
+                leaders.add(((JumpInsnNode) instruction).label);
+            } else if (instruction instanceof TableSwitchInsnNode) {
+                leaders.add(((TableSwitchInsnNode) instruction).dflt);
+                leaders.addAll(((TableSwitchInsnNode) instruction).labels);
+            } else if (instruction instanceof LookupSwitchInsnNode) {
+                leaders.add(((LookupSwitchInsnNode) instruction).dflt);
+                leaders.addAll(((LookupSwitchInsnNode) instruction).labels);
+            }
+        }
+        tryCatchBlocks.forEach(tryCatchBlockNode -> {
+            leaders.add(tryCatchBlockNode.start);
+            leaders.add(tryCatchBlockNode.end);
+            leaders.add(tryCatchBlockNode.handler);
+        });
+
+        // loop through all the instructions and split them into blocks
+        AbstractInsnNode first = instructions.getFirst();
+        boolean hasRealInstruction = false;
+        for (AbstractInsnNode instruction = first; instruction != null; instruction = instruction.getNext()) {
+
+            // if a leader label starts after real instructions end the current block before it
+            if (instruction != first && hasRealInstruction && leaders.contains(instruction)) {
+                addBlock(first, instruction.getPrevious());
+                first = instruction;
+                hasRealInstruction = false;
+            }
+
+            // if the instruction transfers the control end the block after it
+            if (instruction.getOpcode() >= 0) {
+                hasRealInstruction = true;
+                if (endsBlock(instruction) && instruction.getNext() != null) {
+                    addBlock(first, instruction);
+                    first = instruction.getNext();
+                    hasRealInstruction = false;
+                    continue;
+                }
+            }
+
+            // if this is the last instruction end the block
+            if (instruction.getNext() == null) {
+                addBlock(first, instruction);
+            }
+        }
+    }
+
+    /**
+     * Adds a block that spans the provided instructions
+     *
+     * @param first first instruction of the block
+     * @param last  last instruction of the block
+     */
+
+    private void addBlock(AbstractInsnNode first, AbstractInsnNode last) {
+        BasicBlock block = new BasicBlock(blocks.size(), first, last);
+        blocks.add(block);
+        for (AbstractInsnNode instruction = first; instruction != null; instruction = instruction.getNext()) {
+            blockLookup.put(instruction, block);
+            if (instruction == last) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Connects all the blocks with the normal
+     * and the exceptional control flow edges
+     *
+     * @param tryCatchBlocks try catch blocks of the method
+     */
+
+    private void buildEdges(List<TryCatchBlockNode> tryCatchBlocks) {
+        // loop through all the blocks
+        for (BasicBlock block : blocks) {
+
+            // get the instruction that ends the block
+            AbstractInsnNode instruction = block.lastRealInstruction();
+            BasicBlock next = block.index + 1 < blocks.size() ? blocks.get(block.index + 1) : null;
+
+            // connect the block based on how it ends
+            if (instruction instanceof JumpInsnNode) {
+                connect(block, getBlock(((JumpInsnNode) instruction).label));
+                if (instruction.getOpcode() != Opcodes.GOTO) {
+                    connect(block, next);
+                }
+            } else if (instruction instanceof TableSwitchInsnNode) {
+                connect(block, getBlock(((TableSwitchInsnNode) instruction).dflt));
+                ((TableSwitchInsnNode) instruction).labels.forEach(label -> connect(block, getBlock(label)));
+            } else if (instruction instanceof LookupSwitchInsnNode) {
+                connect(block, getBlock(((LookupSwitchInsnNode) instruction).dflt));
+                ((LookupSwitchInsnNode) instruction).labels.forEach(label -> connect(block, getBlock(label)));
+            } else if (instruction == null || !isExit(instruction)) {
+                connect(block, next);
+            }
+        }
+
+        // connect all the blocks in the try catch blocks to their handlers
+        for (TryCatchBlockNode tryCatchBlockNode : tryCatchBlocks) {
+            BasicBlock start = getBlock(tryCatchBlockNode.start);
+            BasicBlock end = getBlock(tryCatchBlockNode.end);
+            BasicBlock handler = getBlock(tryCatchBlockNode.handler);
+            if (start == null || handler == null) {
+                continue;
+            }
+
+            // the end label always starts a block, so the block that holds it is not covered
+            int endIndex = end != null ? end.index : blocks.size();
+            for (int i = start.index; i < endIndex; i++) {
+                BasicBlock block = blocks.get(i);
+                if (!block.exceptionSuccessors.contains(handler)) {
+                    block.exceptionSuccessors.add(handler);
+                    handler.exceptionPredecessors.add(block);
+                }
+            }
+        }
+    }
+
+    /**
+     * Connects the provided blocks with a normal control flow edge
+     *
+     * @param from block that the edge starts at
+     * @param to   block that the edge ends at
+     */
+
+    private static void connect(BasicBlock from, BasicBlock to) {
+        if (to != null && !from.successors.contains(to)) {
+            from.successors.add(to);
+            to.predecessors.add(from);
+        }
+    }
+
+    /**
+     * Computes the immediate dominators of all the blocks using the
+     * iterative algorithm by Cooper, Harvey and Kennedy over the
+     * reverse post order, the exceptional edges are included
+     */
+
+    private void buildDominators() {
+        // order all the reachable blocks in the reverse post order
+        List<BasicBlock> order = reversePostOrder();
+        int[] orderIndex = new int[blocks.size()];
+        Arrays.fill(orderIndex, -1);
+        for (int i = 0; i < order.size(); i++) {
+            orderIndex[order.get(i).index] = i;
+        }
+
+        // the entry block dominates itself
+        BasicBlock[] dominators = new BasicBlock[blocks.size()];
+        BasicBlock entry = order.get(0);
+        dominators[entry.index] = entry;
+
+        // loop until the dominators do not change anymore
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < order.size(); i++) {
+                BasicBlock block = order.get(i);
+
+                // intersect the dominators of all the processed predecessors
+                BasicBlock dominator = null;
+                for (BasicBlock predecessor : allPredecessors(block)) {
+                    if (dominators[predecessor.index] == null) {
+                        continue;
+                    }
+                    dominator = dominator == null ? predecessor : intersect(predecessor, dominator, dominators, orderIndex);
+                }
+
+                // update the dominator if it changed
+                if (dominator != null && dominators[block.index] != dominator) {
+                    dominators[block.index] = dominator;
+                    changed = true;
+                }
+            }
+        }
+
+        // build the dominator tree
+        for (BasicBlock block : order) {
+            if (block != entry) {
+                block.immediateDominator = dominators[block.index];
+                block.immediateDominator.dominatorChildren.add(block);
+            }
+        }
+
+        // number the dominator tree so the dominance checks are constant time
+        int counter = 0;
+        Deque<BasicBlock> stack = new ArrayDeque<>();
+        Deque<Iterator<BasicBlock>> iterators = new ArrayDeque<>();
+        entry.preOrder = counter++;
+        stack.push(entry);
+        iterators.push(entry.dominatorChildren.iterator());
+        while (!stack.isEmpty()) {
+            Iterator<BasicBlock> iterator = iterators.peek();
+            if (iterator.hasNext()) {
+                BasicBlock child = iterator.next();
+                child.preOrder = counter++;
+                stack.push(child);
+                iterators.push(child.dominatorChildren.iterator());
+            } else {
+                stack.pop().postOrder = counter++;
+                iterators.pop();
+            }
+        }
+    }
+
+    /**
+     * Finds the common dominator of the provided blocks
+     *
+     * @param first      first block
+     * @param second     second block
+     * @param dominators current dominators of all the blocks
+     * @param orderIndex reverse post order index of all the blocks
+     * @return {@link BasicBlock}
+     */
+
+    private static BasicBlock intersect(BasicBlock first, BasicBlock second, BasicBlock[] dominators, int[] orderIndex) {
+        while (first != second) {
+            while (orderIndex[first.index] > orderIndex[second.index]) {
+                first = dominators[first.index];
+            }
+            while (orderIndex[second.index] > orderIndex[first.index]) {
+                second = dominators[second.index];
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Orders all the reachable blocks in the reverse post order
+     *
+     * @return {@link List}
+     */
+
+    private List<BasicBlock> reversePostOrder() {
+        // define the list of the blocks in the post order
+        List<BasicBlock> order = new ArrayList<>();
+        boolean[] visited = new boolean[blocks.size()];
+
+        // walk the graph depth first without recursion
+        Deque<BasicBlock> stack = new ArrayDeque<>();
+        Deque<Iterator<BasicBlock>> iterators = new ArrayDeque<>();
+        visited[0] = true;
+        stack.push(blocks.get(0));
+        iterators.push(allSuccessors(blocks.get(0)).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<BasicBlock> iterator = iterators.peek();
+            if (iterator.hasNext()) {
+                BasicBlock successor = iterator.next();
+                if (!visited[successor.index]) {
+                    visited[successor.index] = true;
+                    stack.push(successor);
+                    iterators.push(allSuccessors(successor).iterator());
+                }
+            } else {
+                order.add(stack.pop());
+                iterators.pop();
+            }
+        }
+
+        // reverse the post order
+        Collections.reverse(order);
+        return order;
+    }
+
+    /**
+     * Finds all the natural loops, a loop is formed by every
+     * edge whose target dominates its source, loops that
+     * share the same header are merged together
+     */
+
+    private void buildLoops() {
+        // define the loops by their header blocks
+        Map<BasicBlock, Loop> headers = new LinkedHashMap<>();
+
+        // loop through all the edges and find the back edges
+        for (BasicBlock block : blocks) {
+            for (BasicBlock successor : allSuccessors(block)) {
+                if (successor.dominates(block)) {
+                    Loop loop = headers.computeIfAbsent(successor, Loop::new);
+                    loop.latches.add(block);
+                }
+            }
+        }
+
+        // collect the bodies of all the loops
+        for (Loop loop : headers.values()) {
+            boolean[] inLoop = new boolean[blocks.size()];
+            inLoop[loop.header.index] = true;
+            loop.blocks.add(loop.header);
+
+            // walk backwards from the latches until the header
+            Deque<BasicBlock> queue = new ArrayDeque<>(loop.latches);
+            while (!queue.isEmpty()) {
+                BasicBlock block = queue.poll();
+                if (inLoop[block.index] || !loop.header.dominates(block)) {
+                    continue;
+                }
+                inLoop[block.index] = true;
+                loop.blocks.add(block);
+                queue.addAll(allPredecessors(block));
+            }
+        }
+
+        // sort the loops from the largest to the smallest so outer loops come first
+        List<Loop> sorted = new ArrayList<>(headers.values());
+        sorted.sort(Comparator.comparingInt((Loop loop) -> loop.blocks.size()).reversed());
+
+        // assign the inner most loop to every block and link the nested loops
+        for (Loop loop : sorted) {
+            loop.parent = loop.header.loop;
+            if (loop.parent != null) {
+                loop.parent.children.add(loop);
+            }
+            loop.blocks.forEach(block -> block.loop = loop);
+        }
+        loops.addAll(sorted);
+    }
+
+    /**
+     * Gets all the normal and exceptional successors of the provided block
+     *
+     * @param block block that you want to get the successors for
+     * @return {@link List}
+     */
+
+    private static List<BasicBlock> allSuccessors(BasicBlock block) {
+        if (block.exceptionSuccessors.isEmpty()) {
+            return block.successors;
+        }
+        List<BasicBlock> successors = new ArrayList<>(block.successors);
+        successors.addAll(block.exceptionSuccessors);
+        return successors;
+    }
+
+    /**
+     * Gets all the normal and exceptional predecessors of the provided block
+     *
+     * @param block block that you want to get the predecessors for
+     * @return {@link List}
+     */
+
+    private static List<BasicBlock> allPredecessors(BasicBlock block) {
+        if (block.exceptionPredecessors.isEmpty()) {
+            return block.predecessors;
+        }
+        List<BasicBlock> predecessors = new ArrayList<>(block.predecessors);
+        predecessors.addAll(block.exceptionPredecessors);
+        return predecessors;
+    }
+
+    /**
+     * Checks if the provided instruction ends a block
+     *
+     * @param instruction instruction that you want to check
+     * @return {@link Boolean}
+     */
+
+    private static boolean endsBlock(AbstractInsnNode instruction) {
+        return instruction instanceof JumpInsnNode
+                || instruction instanceof TableSwitchInsnNode
+                || instruction instanceof LookupSwitchInsnNode
+                || isExit(instruction);
+    }
+
+    /**
+     * Checks if the provided instruction leaves the method
+     * or the current subroutine without falling through
+     *
+     * @param instruction instruction that you want to check
+     * @return {@link Boolean}
+     */
+
+    private static boolean isExit(AbstractInsnNode instruction) {
+        int opcode = instruction.getOpcode();
+        return (opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN)
+                || opcode == Opcodes.ATHROW
+                || opcode == Opcodes.RET;
+    }
+
+}
@@ -0,0 +1,148 @@
+package me.mat.jprocessor.jar.analysis;
+
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.analysis.SimpleVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+public class JarVerifier extends SimpleVerifier {
+
+    private static final Type OBJECT_TYPE = Type.getObjectType("java/lang/Object");
+
+    private final Map<String, MemoryClass> classes;
+
+    public JarVerifier(Map<String, MemoryClass> classes, Type currentClass, Type currentSuperClass,
+                       List<Type> currentClassInterfaces, boolean isInterface) {
+        super(Opcodes.ASM9, currentClass, currentSuperClass, currentClassInterfaces, isInterface);
+        this.classes = classes;
+    }
+
+    @Override
+    protected boolean isInterface(Type type) {
+        // if the class is loaded in the jar use its access
+        MemoryClass memoryClass = classes.get(type.getInternalName());
+        if (memoryClass != null) {
+            return memoryClass.isInterface();
+        }
+
+        // else fallback to the class path
+        try {
+            return super.isInterface(type);
+        } catch (TypeNotPresentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected Type getSuperClass(Type type) {
+        // if the class is loaded in the jar use its super class
+        MemoryClass memoryClass = classes.get(type.getInternalName());
+        if (memoryClass != null) {
+            return memoryClass.superName() != null ? Type.getObjectType(memoryClass.superName()) : null;
+        }
+
+        // else fallback to the class path
+        try {
+            return super.getSuperClass(type);
+        } catch (TypeNotPresentException e) {
+            return OBJECT_TYPE;
+        }
+    }
+
+    @Override
+    protected boolean isAssignableFrom(Type type1, Type type2) {
+        // if the types are the same or the target is an object
+        if (type1.equals(type2) || type1.equals(OBJECT_TYPE)) {
+            return true;
+        }
+
+        // if both types are arrays of objects compare their element types
+        if (type1.getSort() == Type.ARRAY && type2.getSort() == Type.ARRAY
+                && type1.getDimensions() == type2.getDimensions()
+                && type1.getElementType().getSort() == Type.OBJECT
+                && type2.getElementType().getSort() == Type.OBJECT) {
+            return isAssignableFrom(type1.getElementType(), type2.getElementType());
+        }
+
+        // if none of the types are loaded in the jar fallback to the class path
+        if (type1.getSort() != Type.OBJECT || type2.getSort() != Type.OBJECT
+                || (!classes.containsKey(type1.getInternalName()) && !classes.containsKey(type2.getInternalName()))) {
+            try {
+                return super.isAssignableFrom(type1, type2);
+            } catch (TypeNotPresentException e) {
+                return false;
+            }
+        }
+
+        // every class can be assigned to an interface during the verification
+        if (isInterface(type1)) {
+            return true;
+        }
+
+        // else walk the super classes of the second type
+        return isSubClassOf(type2.getInternalName(), type1);
+    }
+
+    @Override
+    protected Class<?> getClass(Type type) {
+        // if the class is loaded in the jar it can not be loaded
+        // from the class path so treat it as an object
+        if (type.getSort() == Type.OBJECT && classes.containsKey(type.getInternalName())) {
+            return Object.class;
+        }
+
+        // else load it from the class path
+        try {
+            return super.getClass(type);
+        } catch (TypeNotPresentException e) {
+            return Object.class;
+        }
+    }
+
+    /**
+     * Checks if the provided class extends the provided super class,
+     * the classes outside the jar are checked on the class path,
+     * which can only be the case if the super class is outside too
+     *
+     * @param className name of the class
+     * @param superType type of the super class
+     * @return {@link Boolean}
+     */
+
+    private boolean isSubClassOf(String className, Type superType) {
+        // loop through all the super classes
+        for (String name = className; name != null; ) {
+
+            // if the class is the super class
+            if (name.equals(superType.getInternalName())) {
+                return true;
+            }
+
+            // get the class from the jar
+            MemoryClass memoryClass = classes.get(name);
+
+            // if the class is not in the jar continue on the class path, a class
+            // outside of the jar can never extend a class that is in the jar
+            if (memoryClass == null) {
+                if (classes.containsKey(superType.getInternalName())) {
+                    return false;
+                }
+                try {
+                    return super.isAssignableFrom(superType, Type.getObjectType(name));
+                } catch (TypeNotPresentException e) {
+                    return false;
+                }
+            }
+
+            // continue with the super class
+            name = memoryClass.superName();
+        }
+
+        // else the class does not extend the super class
+        return false;
+    }
+
+}
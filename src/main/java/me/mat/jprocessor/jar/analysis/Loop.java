@@ -0,0 +1,65 @@
+package me.mat.jprocessor.jar.analysis;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class Loop {
+
+    public final List<BasicBlock> blocks = new ArrayList<>();
+
+    public final List<BasicBlock> latches = new ArrayList<>();
+
+    public final List<Loop> children = new ArrayList<>();
+
+    @NonNull
+    public final BasicBlock header;
+
+    Loop parent;
+
+    /**
+     * Returns the loop that this loop is nested in
+     *
+     * @return {@link Loop}
+     */
+
+    public Loop parent() {
+        return parent;
+    }
+
+    /**
+     * Returns the nesting depth of the
+     * loop, outer most loops have a depth of 1
+     *
+     * @return {@link Integer}
+     */
+
+    public int depth() {
+        int depth = 1;
+        for (Loop loop = parent; loop != null; loop = loop.parent) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Checks if the provided block is in this loop
+     * or in any of the loops nested in it
+     *
+     * @param block block that you want to check
+     * @return {@link Boolean}
+     */
+
+    public boolean contains(BasicBlock block) {
+        for (Loop loop = block.loop; loop != null; loop = loop.parent) {
+            if (loop == this) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
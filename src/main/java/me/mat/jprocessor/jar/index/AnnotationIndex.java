@@ -0,0 +1,128 @@
+package me.mat.jprocessor.jar.index;
+
+import me.mat.jprocessor.jar.memory.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class AnnotationIndex {
+
+    private final Map<String, List<MemoryAnnotatedElement>> elements = new HashMap<>();
+
+    public AnnotationIndex(Map<String, MemoryClass> classes) {
+        // collect all the annotated elements of every class in parallel
+        List<MemoryAnnotatedElement> annotatedElements = classes.values().parallelStream()
+                .flatMap(AnnotationIndex::collect)
+                .filter(element -> !element.annotations.isEmpty())
+                .collect(Collectors.toList());
+
+        // index every element by all of its annotation types, including the types outside of the jar
+        annotatedElements.forEach(element -> element.annotations.forEach(memoryAnnotation
+                -> elements.computeIfAbsent(memoryAnnotation.name(), name -> new ArrayList<>()).add(element)));
+    }
+
+    /**
+     * Gets all the elements that are annotated
+     * with the provided annotation
+     *
+     * @param name name of the annotation
+     * @return {@link List}
+     */
+
+    public List<MemoryAnnotatedElement> getAnnotated(String name) {
+        return elements.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * Gets all the elements that are annotated
+     * with the provided annotation
+     *
+     * @param annotation class of the annotation
+     * @return {@link List}
+     */
+
+    public List<MemoryAnnotatedElement> getAnnotated(Class<?> annotation) {
+        return getAnnotated(annotation.getName().replace('.', '/'));
+    }
+
+    /**
+     * Gets all the classes that are annotated
+     * with the provided annotation
+     *
+     * @param name name of the annotation
+     * @return {@link List}
+     */
+
+    public List<MemoryClass> getAnnotatedClasses(String name) {
+        return filter(name, MemoryClass.class);
+    }
+
+    /**
+     * Gets all the fields that are annotated
+     * with the provided annotation
+     *
+     * @param name name of the annotation
+     * @return {@link List}
+     */
+
+    public List<MemoryField> getAnnotatedFields(String name) {
+        return filter(name, MemoryField.class);
+    }
+
+    /**
+     * Gets all the methods that are annotated
+     * with the provided annotation
+     *
+     * @param name name of the annotation
+     * @return {@link List}
+     */
+
+    public List<MemoryMethod> getAnnotatedMethods(String name) {
+        return filter(name, MemoryMethod.class);
+    }
+
+    /**
+     * Gets all the method parameters that are
+     * annotated with the provided annotation
+     *
+     * @param name name of the annotation
+     * @return {@link List}
+     */
+
+    public List<MemoryParameter> getAnnotatedParameters(String name) {
+        return filter(name, MemoryParameter.class);
+    }
+
+    /**
+     * Gets all the annotated elements of the
+     * provided type for the provided annotation
+     *
+     * @param name name of the annotation
+     * @param type type of the elements
+     * @param <T>  type of the elements
+     * @return {@link List}
+     */
+
+    private <T extends MemoryAnnotatedElement> List<T> filter(String name, Class<T> type) {
+        return getAnnotated(name).stream().filter(type::isInstance).map(type::cast).collect(Collectors.toList());
+    }
+
+    /**
+     * Collects all the elements of the provided class
+     * that can be annotated, including the class itself
+     *
+     * @param memoryClass class that you want to collect the elements from
+     * @return {@link Stream}
+     */
+
+    private static Stream<MemoryAnnotatedElement> collect(MemoryClass memoryClass) {
+        return Stream.of(
+                Stream.<MemoryAnnotatedElement>of(memoryClass),
+                memoryClass.fields.stream(),
+                memoryClass.methods.stream(),
+                memoryClass.methods.stream().flatMap(memoryMethod -> memoryMethod.parameters.stream())
+        ).flatMap(stream -> stream);
+    }
+
+}
@@ -0,0 +1,244 @@
+package me.mat.jprocessor.jar.index;
+
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class CallGraph {
+
+    private final Map<MemoryMethod, List<CallSite>> callees = new IdentityHashMap<>();
+
+    private final Map<MemoryMethod, List<CallSite>> callers = new IdentityHashMap<>();
+
+    private final Map<String, List<CallSite>> references = new HashMap<>();
+
+    private final Map<String, List<MemoryMethod>> virtualTargets = new ConcurrentHashMap<>();
+
+    private final HierarchyIndex hierarchyIndex;
+
+    public CallGraph(Map<String, MemoryClass> classes, HierarchyIndex hierarchyIndex) {
+        this.hierarchyIndex = hierarchyIndex;
+
+        // collect the call sites of every method in parallel
+        List<CallSite> callSites = classes.values().parallelStream()
+                .flatMap(memoryClass -> memoryClass.methods.stream()
+                        .flatMap(memoryMethod -> collect(memoryClass, memoryMethod).stream()))
+                .collect(Collectors.toList());
+
+        // loop through all the call sites and index them
+        callSites.forEach(callSite -> {
+
+            // index the call site by its caller
+            callees.computeIfAbsent(callSite.caller, method -> new ArrayList<>()).add(callSite);
+
+            // index the call site by all of its targets
+            callSite.targets.forEach(target -> callers.computeIfAbsent(target, method -> new ArrayList<>()).add(callSite));
+
+            // index the call site by the method reference
+            references.computeIfAbsent(callSite.key(), key -> new ArrayList<>()).add(callSite);
+        });
+    }
+
+    /**
+     * Gets all the call sites in the provided method
+     *
+     * @param memoryMethod method that you want to get the call sites for
+     * @return {@link List}
+     */
+
+    public List<CallSite> getCallees(MemoryMethod memoryMethod) {
+        return callees.getOrDefault(memoryMethod, Collections.emptyList());
+    }
+
+    /**
+     * Gets all the call sites that might invoke the
+     * provided method, including virtual calls that
+     * are resolved through one of its super classes
+     *
+     * @param memoryMethod method that you want to get the callers for
+     * @return {@link List}
+     */
+
+    public List<CallSite> getCallers(MemoryMethod memoryMethod) {
+        return callers.getOrDefault(memoryMethod, Collections.emptyList());
+    }
+
+    /**
+     * Gets all the call sites that reference the provided
+     * method, the method does not have to be loaded in the jar
+     *
+     * @param owner       owner of the method
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link List}
+     */
+
+    public List<CallSite> getCallers(String owner, String name, String description) {
+        return references.getOrDefault(key(owner, name, description), Collections.emptyList());
+    }
+
+    /**
+     * Checks if the provided method calls itself
+     * either directly or through other methods
+     *
+     * @param memoryMethod method that you want to check
+     * @return {@link Boolean}
+     */
+
+    public boolean isRecursive(MemoryMethod memoryMethod) {
+        // define a set of the already visited methods
+        Set<MemoryMethod> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // define the queue of methods that need to be visited
+        Deque<MemoryMethod> queue = new ArrayDeque<>();
+        queue.add(memoryMethod);
+
+        // loop while there are methods to visit
+        while (!queue.isEmpty()) {
+
+            // loop through all the calls of the current method
+            for (CallSite callSite : getCallees(queue.poll())) {
+                for (MemoryMethod target : callSite.targets) {
+
+                    // if the target is the provided method it is recursive
+                    if (target == memoryMethod) {
+                        return true;
+                    }
+
+                    // else visit the target if it was not visited yet
+                    if (visited.add(target)) {
+                        queue.add(target);
+                    }
+                }
+            }
+        }
+
+        // else the method is not recursive
+        return false;
+    }
+
+    /**
+     * Collects all the call sites from the provided method
+     *
+     * @param memoryClass  class that the method is in
+     * @param memoryMethod method that you want to collect the call sites from
+     * @return {@link List}
+     */
+
+    private List<CallSite> collect(MemoryClass memoryClass, MemoryMethod memoryMethod) {
+        // define a list that will hold all the call sites
+        List<CallSite> callSites = new ArrayList<>();
+
+        // loop through all the instructions
+        for (AbstractInsnNode instruction = memoryMethod.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext()) {
+
+            // if the instruction is a method invoke
+            if (instruction instanceof MethodInsnNode) {
+                MethodInsnNode methodInsnNode = (MethodInsnNode) instruction;
+
+                // check if the invoke is dispatched virtually
+                boolean virtual = methodInsnNode.getOpcode() == Opcodes.INVOKEVIRTUAL
+                        || methodInsnNode.getOpcode() == Opcodes.INVOKEINTERFACE;
+
+                // add the call site
+                callSites.add(new CallSite(
+                        memoryClass, memoryMethod, instruction,
+                        methodInsnNode.owner, methodInsnNode.name, methodInsnNode.desc,
+                        resolve(virtual, methodInsnNode.owner, methodInsnNode.name, methodInsnNode.desc)
+                ));
+            } else if (instruction instanceof InvokeDynamicInsnNode) {
+                InvokeDynamicInsnNode invokeDynamicInsnNode = (InvokeDynamicInsnNode) instruction;
+
+                // add the call to the bootstrap method
+                collect(memoryClass, memoryMethod, instruction, invokeDynamicInsnNode.bsm, callSites);
+
+                // add the calls to all the method handles, for example lambda bodies
+                for (Object argument : invokeDynamicInsnNode.bsmArgs) {
+                    if (argument instanceof Handle) {
+                        collect(memoryClass, memoryMethod, instruction, (Handle) argument, callSites);
+                    }
+                }
+            }
+        }
+
+        // return all the call sites
+        return callSites;
+    }
+
+    /**
+     * Collects a call site from the provided method handle
+     *
+     * @param memoryClass  class that the method is in
+     * @param memoryMethod method that the handle is used in
+     * @param instruction  instruction that uses the handle
+     * @param handle       handle that you want to collect
+     * @param callSites    list that the call site will be added to
+     */
+
+    private void collect(MemoryClass memoryClass, MemoryMethod memoryMethod,
+                         AbstractInsnNode instruction, Handle handle, List<CallSite> callSites) {
+        // if the handle is a field handle
+        if (handle.getTag() < Opcodes.H_INVOKEVIRTUAL) {
+
+            // return out of the method
+            return;
+        }
+
+        // check if the handle is dispatched virtually
+        boolean virtual = handle.getTag() == Opcodes.H_INVOKEVIRTUAL
+                || handle.getTag() == Opcodes.H_INVOKEINTERFACE;
+
+        // add the call site
+        callSites.add(new CallSite(
+                memoryClass, memoryMethod, instruction,
+                handle.getOwner(), handle.getName(), handle.getDesc(),
+                resolve(virtual, handle.getOwner(), handle.getName(), handle.getDesc())
+        ));
+    }
+
+    /**
+     * Resolves all the methods that a call might invoke
+     *
+     * @param virtual     flag if the call is dispatched virtually
+     * @param owner       owner of the method
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link List}
+     */
+
+    private List<MemoryMethod> resolve(boolean virtual, String owner, String name, String description) {
+        // if the call is virtual resolve all the possible targets
+        if (virtual) {
+            return virtualTargets.computeIfAbsent(
+                    key(owner, name, description),
+                    key -> hierarchyIndex.resolveVirtualTargets(owner, name, description)
+            );
+        }
+
+        // else resolve the single target
+        MemoryMethod target = hierarchyIndex.resolveMethod(owner, name, description);
+        return target != null ? Collections.singletonList(target) : Collections.emptyList();
+    }
+
+    /**
+     * Builds a key for the provided method reference
+     *
+     * @param owner       owner of the method
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link String}
+     */
+
+    public static String key(String owner, String name, String description) {
+        return owner + "." + name + description;
+    }
+
+}
@@ -0,0 +1,57 @@
+package me.mat.jprocessor.jar.index;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CallSite {
+
+    @NonNull
+    public final MemoryClass callerClass;
+
+    @NonNull
+    public final MemoryMethod caller;
+
+    @NonNull
+    public final AbstractInsnNode instruction;
+
+    @NonNull
+    public final String owner;
+
+    @NonNull
+    public final String name;
+
+    @NonNull
+    public final String description;
+
+    @NonNull
+    public final List<MemoryMethod> targets;
+
+    /**
+     * Returns the key of the method reference
+     * that this call site invokes
+     *
+     * @return {@link String}
+     */
+
+    public String key() {
+        return CallGraph.key(owner, name, description);
+    }
+
+    /**
+     * Checks if the call site invokes
+     * a method that is loaded in the jar
+     *
+     * @return {@link Boolean}
+     */
+
+    public boolean isResolved() {
+        return !targets.isEmpty();
+    }
+
+}
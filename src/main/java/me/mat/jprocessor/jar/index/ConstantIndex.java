@@ -0,0 +1,145 @@
+package me.mat.jprocessor.jar.index;
+
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class ConstantIndex {
+
+    private final Map<Object, List<ConstantPosting>> constants = new HashMap<>();
+
+    private final TreeMap<String, List<ConstantPosting>> strings = new TreeMap<>();
+
+    public ConstantIndex(Map<String, MemoryClass> classes) {
+        // collect the constants of every class in parallel
+        List<ConstantPosting> postings = classes.values().parallelStream()
+                .flatMap(memoryClass -> collect(memoryClass).stream())
+                .collect(Collectors.toList());
+
+        // loop through all the postings
+        postings.forEach(posting -> {
+
+            // index the posting by its value
+            constants.computeIfAbsent(posting.value, value -> new ArrayList<>()).add(posting);
+
+            // if the value is a string index it for the prefix lookups
+            if (posting.value instanceof String) {
+                strings.computeIfAbsent((String) posting.value, value -> new ArrayList<>()).add(posting);
+            }
+        });
+    }
+
+    /**
+     * Gets all the places that use the provided constant
+     *
+     * @param value value of the constant
+     * @return {@link List}
+     */
+
+    public List<ConstantPosting> get(Object value) {
+        return constants.getOrDefault(value, Collections.emptyList());
+    }
+
+    /**
+     * Gets all the places that use a string
+     * constant which starts with the provided prefix
+     *
+     * @param prefix prefix that the string has to start with
+     * @return {@link List}
+     */
+
+    public List<ConstantPosting> getByPrefix(String prefix) {
+        // define a list that will hold all the postings
+        List<ConstantPosting> postings = new ArrayList<>();
+
+        // loop through all the strings from the prefix onwards while they still match
+        for (Map.Entry<String, List<ConstantPosting>> entry : strings.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            postings.addAll(entry.getValue());
+        }
+
+        // return all the postings
+        return postings;
+    }
+
+    /**
+     * Gets all the string constants
+     * that start with the provided prefix
+     *
+     * @param prefix prefix that the strings have to start with
+     * @return {@link List}
+     */
+
+    public List<String> getStrings(String prefix) {
+        // define a list that will hold all the strings
+        List<String> result = new ArrayList<>();
+
+        // loop through all the strings from the prefix onwards while they still match
+        for (String string : strings.tailMap(prefix, true).keySet()) {
+            if (!string.startsWith(prefix)) {
+                break;
+            }
+            result.add(string);
+        }
+
+        // return all the strings
+        return result;
+    }
+
+    /**
+     * Collects all the constants from the provided class
+     *
+     * @param memoryClass class that you want to collect the constants from
+     * @return {@link List}
+     */
+
+    private static List<ConstantPosting> collect(MemoryClass memoryClass) {
+        // define a list that will hold all the postings
+        List<ConstantPosting> postings = new ArrayList<>();
+
+        // loop through all the fields and collect their constant values
+        for (MemoryField memoryField : memoryClass.fields) {
+            if (memoryField.value() != null) {
+                postings.add(new ConstantPosting(memoryField.value(), memoryClass, null, memoryField, null, -1));
+            }
+        }
+
+        // loop through all the methods
+        for (MemoryMethod memoryMethod : memoryClass.methods) {
+
+            // define the index of the current instruction
+            int index = 0;
+
+            // loop through all the instructions
+            for (AbstractInsnNode instruction = memoryMethod.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext(), index++) {
+
+                // if the instruction loads a constant
+                if (instruction instanceof LdcInsnNode) {
+
+                    // add the constant
+                    postings.add(new ConstantPosting(((LdcInsnNode) instruction).cst, memoryClass, memoryMethod, null, instruction, index));
+                } else if (instruction instanceof InvokeDynamicInsnNode) {
+
+                    // add all the string arguments, for example string concatenation recipes
+                    for (Object argument : ((InvokeDynamicInsnNode) instruction).bsmArgs) {
+                        if (argument instanceof String) {
+                            postings.add(new ConstantPosting(argument, memoryClass, memoryMethod, null, instruction, index));
+                        }
+                    }
+                }
+            }
+        }
+
+        // return all the postings
+        return postings;
+    }
+
+}
@@ -0,0 +1,38 @@
+package me.mat.jprocessor.jar.index;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+@RequiredArgsConstructor
+public class ConstantPosting {
+
+    @NonNull
+    public final Object value;
+
+    @NonNull
+    public final MemoryClass memoryClass;
+
+    public final MemoryMethod memoryMethod;
+
+    public final MemoryField memoryField;
+
+    public final AbstractInsnNode instruction;
+
+    public final int index;
+
+    /**
+     * Checks if the constant is the
+     * initial value of a field
+     *
+     * @return {@link Boolean}
+     */
+
+    public boolean isFieldValue() {
+        return memoryField != null;
+    }
+
+}
@@ -0,0 +1,46 @@
+package me.mat.jprocessor.jar.index;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.FieldInsnNode;
+
+@RequiredArgsConstructor
+public class FieldUsage {
+
+    @NonNull
+    public final MemoryClass memoryClass;
+
+    @NonNull
+    public final MemoryMethod memoryMethod;
+
+    @NonNull
+    public final FieldInsnNode instruction;
+
+    @NonNull
+    public final MemoryField field;
+
+    /**
+     * Checks if the usage reads the field
+     *
+     * @return {@link Boolean}
+     */
+
+    public boolean isRead() {
+        return instruction.getOpcode() == Opcodes.GETFIELD || instruction.getOpcode() == Opcodes.GETSTATIC;
+    }
+
+    /**
+     * Checks if the usage writes to the field
+     *
+     * @return {@link Boolean}
+     */
+
+    public boolean isWrite() {
+        return instruction.getOpcode() == Opcodes.PUTFIELD || instruction.getOpcode() == Opcodes.PUTSTATIC;
+    }
+
+}
@@ -0,0 +1,206 @@
+package me.mat.jprocessor.jar.index;
+
+import me.mat.jprocessor.jar.memory.InstructionListener;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class FieldUsageIndex implements InstructionListener {
+
+    private final Map<MemoryField, List<FieldUsage>> usages = new IdentityHashMap<>();
+
+    private final Map<AbstractInsnNode, FieldUsage> instructions = new IdentityHashMap<>();
+
+    private final List<MemoryClass> classes = new ArrayList<>();
+
+    private final HierarchyIndex hierarchyIndex;
+
+    public FieldUsageIndex(Map<String, MemoryClass> classes, HierarchyIndex hierarchyIndex) {
+        this.hierarchyIndex = hierarchyIndex;
+
+        // collect the field usages of every method in parallel
+        List<FieldUsage> fieldUsages = classes.values().parallelStream()
+                .flatMap(memoryClass -> memoryClass.methods.stream()
+                        .flatMap(memoryMethod -> collect(memoryClass, memoryMethod).stream()))
+                .collect(Collectors.toList());
+
+        // index all the collected usages
+        fieldUsages.forEach(this::index);
+
+        // listen to all the edits made to the methods of every class so the
+        // index stays up to date, even for the methods that get added later
+        classes.values().forEach(memoryClass -> {
+            memoryClass.addListener(this);
+            this.classes.add(memoryClass);
+        });
+    }
+
+    /**
+     * Gets all the instructions that read or write the provided field
+     *
+     * @param memoryField field that you want to get the usages for
+     * @return {@link List}
+     */
+
+    public synchronized List<FieldUsage> getUsages(MemoryField memoryField) {
+        return new ArrayList<>(usages.getOrDefault(memoryField, Collections.emptyList()));
+    }
+
+    /**
+     * Gets all the instructions that read the provided field
+     *
+     * @param memoryField field that you want to get the reads for
+     * @return {@link List}
+     */
+
+    public List<FieldUsage> getReads(MemoryField memoryField) {
+        return getUsages(memoryField).stream().filter(FieldUsage::isRead).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets all the instructions that write to the provided field
+     *
+     * @param memoryField field that you want to get the writes for
+     * @return {@link List}
+     */
+
+    public List<FieldUsage> getWrites(MemoryField memoryField) {
+        return getUsages(memoryField).stream().filter(FieldUsage::isWrite).collect(Collectors.toList());
+    }
+
+    /**
+     * Checks if the provided field is never used in the jar
+     *
+     * @param memoryField field that you want to check
+     * @return {@link Boolean}
+     */
+
+    public synchronized boolean isUnused(MemoryField memoryField) {
+        return usages.getOrDefault(memoryField, Collections.emptyList()).isEmpty();
+    }
+
+    /**
+     * Checks if the provided field is only written to
+     * from the initializers of the class that declares it
+     *
+     * @param memoryField field that you want to check
+     * @return {@link Boolean}
+     */
+
+    public boolean isEffectivelyFinal(MemoryField memoryField) {
+        // get the name of the initializer that is allowed to write to the field
+        String initializer = memoryField.isStatic() ? "<clinit>" : "<init>";
+
+        // check that every write happens in the initializer of the declaring class
+        return getWrites(memoryField).stream().allMatch(fieldUsage
+                -> fieldUsage.memoryClass == memoryField.parent
+                && fieldUsage.memoryMethod.name().equals(initializer));
+    }
+
+    /**
+     * Stops listening to the edits of all the methods,
+     * should be called once the index is no longer used
+     */
+
+    public void close() {
+        classes.forEach(memoryClass -> memoryClass.removeListener(this));
+        classes.clear();
+    }
+
+    @Override
+    public synchronized void onAdd(MemoryMethod memoryMethod, AbstractInsnNode instruction) {
+        // if the instruction is a field instruction of a method
+        if (memoryMethod != null && instruction instanceof FieldInsnNode) {
+
+            // create the usage
+            FieldUsage fieldUsage = create(memoryMethod.parent, memoryMethod, (FieldInsnNode) instruction);
+
+            // if the field was resolved index the usage
+            if (fieldUsage != null) {
+                index(fieldUsage);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onRemove(MemoryMethod memoryMethod, AbstractInsnNode instruction) {
+        // remove the usage of the instruction
+        FieldUsage fieldUsage = instructions.remove(instruction);
+
+        // if the instruction was indexed remove it from the field usages
+        if (fieldUsage != null) {
+            usages.get(fieldUsage.field).remove(fieldUsage);
+        }
+    }
+
+    /**
+     * Indexes the provided field usage
+     *
+     * @param fieldUsage usage that you want to index
+     */
+
+    private void index(FieldUsage fieldUsage) {
+        usages.computeIfAbsent(fieldUsage.field, field -> new ArrayList<>()).add(fieldUsage);
+        instructions.put(fieldUsage.instruction, fieldUsage);
+    }
+
+    /**
+     * Collects all the field usages from the provided method
+     *
+     * @param memoryClass  class that the method is in
+     * @param memoryMethod method that you want to collect the usages from
+     * @return {@link List}
+     */
+
+    private List<FieldUsage> collect(MemoryClass memoryClass, MemoryMethod memoryMethod) {
+        // define a list that will hold all the usages
+        List<FieldUsage> fieldUsages = new ArrayList<>();
+
+        // loop through all the instructions
+        for (AbstractInsnNode instruction = memoryMethod.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext()) {
+
+            // if the instruction is a field instruction
+            if (instruction instanceof FieldInsnNode) {
+
+                // create the usage
+                FieldUsage fieldUsage = create(memoryClass, memoryMethod, (FieldInsnNode) instruction);
+
+                // if the field was resolved add the usage
+                if (fieldUsage != null) {
+                    fieldUsages.add(fieldUsage);
+                }
+            }
+        }
+
+        // return all the usages
+        return fieldUsages;
+    }
+
+    /**
+     * Creates a field usage for the provided instruction
+     *
+     * @param memoryClass  class that the instruction is in
+     * @param memoryMethod method that the instruction is in
+     * @param instruction  instruction that uses the field
+     * @return {@link FieldUsage}
+     */
+
+    private FieldUsage create(MemoryClass memoryClass, MemoryMethod memoryMethod, FieldInsnNode instruction) {
+        // resolve the field that the instruction uses
+        MemoryField memoryField = hierarchyIndex.resolveField(instruction.owner, instruction.name, instruction.desc);
+
+        // if the field is not loaded in the jar return null
+        if (memoryField == null) {
+            return null;
+        }
+
+        // else return the usage
+        return new FieldUsage(memoryClass, memoryMethod, instruction, memoryField);
+    }
+
+}
@@ -0,0 +1,343 @@
+package me.mat.jprocessor.jar.index;
+
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+
+import java.util.*;
+
+public class HierarchyIndex {
+
+    private final Map<String, List<MemoryClass>> subClasses = new HashMap<>();
+
+    private final Map<String, MemoryClass> classes;
+
+    public HierarchyIndex(Map<String, MemoryClass> classes) {
+        this.classes = classes;
+
+        // loop through all the classes
+        classes.values().forEach(memoryClass -> {
+
+            // register the class as a sub class of its super class
+            if (memoryClass.superName() != null) {
+                subClasses.computeIfAbsent(memoryClass.superName(), name -> new ArrayList<>()).add(memoryClass);
+            }
+
+            // register the class as a sub class of all its interfaces
+            if (memoryClass.interfaceNames() != null) {
+                memoryClass.interfaceNames().forEach(interfaceName
+                        -> subClasses.computeIfAbsent(interfaceName, name -> new ArrayList<>()).add(memoryClass));
+            }
+        });
+    }
+
+    /**
+     * Gets all the classes that directly extend
+     * or implement the provided class, the class
+     * does not have to be loaded in the jar
+     *
+     * @param className name of the class that you want to get the sub classes for
+     * @return {@link List}
+     */
+
+    public List<MemoryClass> getSubClasses(String className) {
+        return subClasses.getOrDefault(className, Collections.emptyList());
+    }
+
+    /**
+     * Gets all the classes that directly or indirectly
+     * extend or implement the provided class
+     *
+     * @param className name of the class that you want to get the sub classes for
+     * @return {@link Set}
+     */
+
+    public Set<MemoryClass> getAllSubClasses(String className) {
+        // define a set that will hold all the sub classes
+        Set<MemoryClass> result = new LinkedHashSet<>();
+
+        // define the queue of classes that need to be visited
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(className);
+
+        // loop while there are classes to visit
+        while (!queue.isEmpty()) {
+
+            // loop through all the direct sub classes of the current class
+            for (MemoryClass subClass : getSubClasses(queue.poll())) {
+
+                // if the sub class was not visited yet queue it
+                if (result.add(subClass)) {
+                    queue.add(subClass.name());
+                }
+            }
+        }
+
+        // return all the sub classes
+        return result;
+    }
+
+    /**
+     * Checks if the provided class extends
+     * or implements the provided super class
+     *
+     * @param memoryClass class that you want to check
+     * @param superName   name of the super class
+     * @return {@link Boolean}
+     */
+
+    public boolean isSubClassOf(MemoryClass memoryClass, String superName) {
+        // if the class is invalid
+        if (memoryClass == null) {
+
+            // return false
+            return false;
+        }
+
+        // if the class directly extends or implements the super class
+        if (superName.equals(memoryClass.superName())
+                || (memoryClass.interfaceNames() != null && memoryClass.interfaceNames().contains(superName))) {
+
+            // return true
+            return true;
+        }
+
+        // check all the interfaces
+        if (memoryClass.interfaceNames() != null) {
+            for (String interfaceName : memoryClass.interfaceNames()) {
+                if (isSubClassOf(classes.get(interfaceName), superName)) {
+                    return true;
+                }
+            }
+        }
+
+        // continue with the super class
+        return memoryClass.superName() != null && isSubClassOf(classes.get(memoryClass.superName()), superName);
+    }
+
+    /**
+     * Resolves a method reference to the method
+     * that declares it, searching the super classes
+     * first and then all the super interfaces
+     *
+     * @param owner       owner of the method reference
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link MemoryMethod}
+     */
+
+    public MemoryMethod resolveMethod(String owner, String name, String description) {
+        // search through all the super classes
+        for (MemoryClass memoryClass = classes.get(owner); memoryClass != null; memoryClass = classes.get(memoryClass.superName())) {
+
+            // get the method from the current class
+            MemoryMethod memoryMethod = findMethod(memoryClass, name, description);
+
+            // if the method was found return it
+            if (memoryMethod != null) {
+                return memoryMethod;
+            }
+        }
+
+        // else search through all the super interfaces
+        return resolveInterfaceMethod(classes.get(owner), name, description, new HashSet<>());
+    }
+
+    /**
+     * Resolves a field reference to the field that declares
+     * it, searching the class, its super interfaces and
+     * then its super class
+     *
+     * @param owner       owner of the field reference
+     * @param name        name of the field
+     * @param description description of the field
+     * @return {@link MemoryField}
+     */
+
+    public MemoryField resolveField(String owner, String name, String description) {
+        // get the owner class
+        MemoryClass memoryClass = classes.get(owner);
+
+        // if the class was not found
+        if (memoryClass == null) {
+
+            // return null
+            return null;
+        }
+
+        // search through the fields of the class
+        for (MemoryField memoryField : memoryClass.fields) {
+            if (memoryField.name().equals(name) && memoryField.description().equals(description)) {
+                return memoryField;
+            }
+        }
+
+        // search through all the interfaces
+        if (memoryClass.interfaceNames() != null) {
+            for (String interfaceName : memoryClass.interfaceNames()) {
+                MemoryField memoryField = resolveField(interfaceName, name, description);
+                if (memoryField != null) {
+                    return memoryField;
+                }
+            }
+        }
+
+        // continue with the super class
+        return memoryClass.superName() != null ? resolveField(memoryClass.superName(), name, description) : null;
+    }
+
+    /**
+     * Gets all the methods that could be invoked
+     * by a virtual call on the provided reference
+     *
+     * @param owner       owner of the method reference
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link List}
+     */
+
+    public List<MemoryMethod> resolveVirtualTargets(String owner, String name, String description) {
+        // define a list that will hold all the targets
+        List<MemoryMethod> targets = new ArrayList<>();
+
+        // add the method that the reference resolves to
+        MemoryMethod resolved = resolveMethod(owner, name, description);
+        if (resolved != null) {
+            targets.add(resolved);
+
+            // if the method can not be overridden it is the only target
+            if (resolved.isPrivate() || resolved.isStatic() || resolved.isFinal() || resolved.parent.isFinal()) {
+                return targets;
+            }
+        }
+
+        // add the method that every concrete sub class of the owner resolves to, which
+        // can also be a method that the sub class inherits from outside of the owner
+        getAllSubClasses(owner).forEach(subClass -> {
+            if (subClass.isAbstract() || subClass.isInterface()) {
+                return;
+            }
+            MemoryMethod memoryMethod = resolveMethod(subClass.name(), name, description);
+            if (memoryMethod != null && !memoryMethod.isStatic() && !memoryMethod.isPrivate()
+                    && targets.stream().noneMatch(target -> target == memoryMethod)) {
+                targets.add(memoryMethod);
+            }
+        });
+
+        // return all the targets
+        return targets;
+    }
+
+    /**
+     * Checks if all the super classes and super interfaces of
+     * the provided class are loaded in the jar, only then the
+     * methods of the class can be fully resolved in the jar
+     *
+     * @param className name of the class that you want to check
+     * @return {@link Boolean}
+     */
+
+    public boolean isHierarchyLoaded(String className) {
+        // define the queue of classes that need to be visited
+        Set<String> visited = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(className);
+
+        // loop while there are classes to visit
+        while (!queue.isEmpty()) {
+            String name = queue.poll();
+
+            // the object is the root of every hierarchy so it does not have to be loaded
+            if (name.equals("java/lang/Object") || !visited.add(name)) {
+                continue;
+            }
+
+            // if the class is not loaded the hierarchy is incomplete
+            MemoryClass memoryClass = classes.get(name);
+            if (memoryClass == null) {
+                return false;
+            }
+
+            // queue the super class and all the interfaces
+            if (memoryClass.superName() != null) {
+                queue.add(memoryClass.superName());
+            }
+            if (memoryClass.interfaceNames() != null) {
+                queue.addAll(memoryClass.interfaceNames());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds a method that is declared in the provided class
+     *
+     * @param memoryClass class that you want to search
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link MemoryMethod}
+     */
+
+    public static MemoryMethod findMethod(MemoryClass memoryClass, String name, String description) {
+        for (MemoryMethod memoryMethod : memoryClass.methods) {
+            if (memoryMethod.name().equals(name) && memoryMethod.description().equals(description)) {
+                return memoryMethod;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves a method in the super interfaces of the provided class
+     *
+     * @param memoryClass class that you want to start the search with
+     * @param name        name of the method
+     * @param description description of the method
+     * @param visited     set of the already visited interfaces
+     * @return {@link MemoryMethod}
+     */
+
+    private MemoryMethod resolveInterfaceMethod(MemoryClass memoryClass, String name, String description, Set<String> visited) {
+        // if the class is invalid
+        if (memoryClass == null) {
+
+            // return null
+            return null;
+        }
+
+        // loop through all the interfaces
+        if (memoryClass.interfaceNames() != null) {
+            for (String interfaceName : memoryClass.interfaceNames()) {
+
+                // if the interface was already visited skip it
+                if (!visited.add(interfaceName)) {
+                    continue;
+                }
+
+                // get the interface
+                MemoryClass interfaceClass = classes.get(interfaceName);
+                if (interfaceClass == null) {
+                    continue;
+                }
+
+                // if the method is declared in the interface return it
+                MemoryMethod memoryMethod = findMethod(interfaceClass, name, description);
+                if (memoryMethod != null) {
+                    return memoryMethod;
+                }
+
+                // else search the super interfaces
+                memoryMethod = resolveInterfaceMethod(interfaceClass, name, description, visited);
+                if (memoryMethod != null) {
+                    return memoryMethod;
+                }
+            }
+        }
+
+        // continue with the super class
+        return memoryClass.superName() != null
+                ? resolveInterfaceMethod(classes.get(memoryClass.superName()), name, description, visited)
+                : null;
+    }
+
+}
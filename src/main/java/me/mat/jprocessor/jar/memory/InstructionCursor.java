@@ -0,0 +1,145 @@
+package me.mat.jprocessor.jar.memory;
+
+import lombok.NonNull;
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class InstructionCursor implements Iterator<AbstractInsnNode>, AutoCloseable {
+
+    private final MemoryInstructions instructions;
+
+    private AbstractInsnNode current;
+
+    private AbstractInsnNode next;
+
+    InstructionCursor(MemoryInstructions instructions) {
+        this.instructions = instructions;
+        this.next = instructions.getFirst();
+    }
+
+    @Override
+    public boolean hasNext() {
+        // if there are no more instructions
+        if (next == null) {
+
+            // stop tracking the edits
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public AbstractInsnNode next() {
+        // if there are no more instructions
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+
+        // move the cursor to the next instruction
+        current = next;
+        next = next.getNext();
+        return current;
+    }
+
+    /**
+     * Returns the instruction that the cursor is at
+     *
+     * @return {@link AbstractInsnNode}
+     */
+
+    public AbstractInsnNode current() {
+        return current;
+    }
+
+    /**
+     * Removes the instruction that the cursor is at
+     */
+
+    @Override
+    public void remove() {
+        instructions.remove(checkCurrent());
+    }
+
+    /**
+     * Replaces the instruction that the cursor is at,
+     * the cursor moves to the new instruction
+     *
+     * @param instruction instruction that you want to replace it with
+     */
+
+    public void replace(@NonNull AbstractInsnNode instruction) {
+        instructions.set(checkCurrent(), instruction);
+        current = instruction;
+    }
+
+    /**
+     * Inserts an instruction before the instruction
+     * that the cursor is at, the cursor does not visit it
+     *
+     * @param instruction instruction that you want to insert
+     */
+
+    public void insertBefore(@NonNull AbstractInsnNode instruction) {
+        instructions.insertBefore(checkCurrent(), instruction);
+    }
+
+    /**
+     * Inserts an instruction after the instruction
+     * that the cursor is at, the cursor does not visit it
+     *
+     * @param instruction instruction that you want to insert
+     */
+
+    public void insertAfter(@NonNull AbstractInsnNode instruction) {
+        instructions.insertAfter(checkCurrent(), instruction);
+    }
+
+    /**
+     * Stops the cursor from tracking the edits
+     */
+
+    @Override
+    public void close() {
+        instructions.removeCursor(this);
+    }
+
+    /**
+     * Moves the cursor past an instruction
+     * that is about to be removed
+     *
+     * @param instruction instruction that is being removed
+     */
+
+    void onRemove(AbstractInsnNode instruction) {
+        if (instruction == next) {
+            next = instruction.getNext();
+        }
+    }
+
+    /**
+     * Stops the cursor since all the instructions were removed
+     */
+
+    void onClear() {
+        current = null;
+        next = null;
+    }
+
+    /**
+     * Gets the instruction that the cursor is at
+     * and makes sure that the cursor is at one
+     *
+     * @return {@link AbstractInsnNode}
+     */
+
+    private AbstractInsnNode checkCurrent() {
+        if (current == null) {
+            throw new IllegalStateException("The cursor is not at an instruction");
+        }
+        return current;
+    }
+
+}
@@ -0,0 +1,11 @@
+package me.mat.jprocessor.jar.memory;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+public interface InstructionListener {
+
+    void onAdd(MemoryMethod memoryMethod, AbstractInsnNode instruction);
+
+    void onRemove(MemoryMethod memoryMethod, AbstractInsnNode instruction);
+
+}
@@ -1,42 +1,79 @@
 package me.mat.jprocessor.jar.memory;
 
+import me.mat.jprocessor.util.LazyList;
+import me.mat.jprocessor.util.asm.ASMUtil;
 import org.objectweb.asm.tree.AnnotationNode;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public abstract class MemoryAnnotatedElement {
 
-    public final List<MemoryAnnotation> annotations = new ArrayList<>();
+    public final List<MemoryAnnotation> annotations = new LazyList<>();
+
+    private Map<String, MemoryAnnotation> annotationLookup = Collections.emptyMap();
 
     /**
-     * Loads all the annotations
+     * Sets up the visible and invisible annotations
+     * to be loaded into the memory on first access
      *
-     * @param annotations annotations that you want to load
-     * @param classes     map of all the loaded classes
+     * @param visibleAnnotations   runtime visible annotations that you want to load
+     * @param invisibleAnnotations runtime invisible annotations that you want to load
+     * @param classes              map of all the loaded classes
      */
 
-    protected void init(List<AnnotationNode> annotations, Map<String, MemoryClass> classes) {
-        // clear all the previous annotations
-        this.annotations.clear();
+    protected void init(List<AnnotationNode> visibleAnnotations, List<AnnotationNode> invisibleAnnotations,
+                        Map<String, MemoryClass> classes) {
+        // if there are no annotations
+        if (visibleAnnotations == null && invisibleAnnotations == null) {
 
-        // if the list is valid
-        if (annotations != null) {
+            // just clear all the previous annotations
+            this.annotations.clear();
+            this.annotationLookup = Collections.emptyMap();
+            return;
+        }
 
-            // loop through all the annotation nodes
-            annotations.forEach(annotationNode -> {
+        // load both the visible and the invisible annotations on first access
+        ((LazyList<MemoryAnnotation>) annotations).reset(() -> {
+            List<MemoryAnnotation> memoryAnnotations = new ArrayList<>();
+            this.annotationLookup = Collections.emptyMap();
+            this.load(memoryAnnotations, visibleAnnotations, true, classes);
+            this.load(memoryAnnotations, invisibleAnnotations, false, classes);
+            return memoryAnnotations;
+        });
+    }
 
-                // get the class name of the annotation
-                String annotationClass = annotationNode.desc.substring(1, annotationNode.desc.length() - 1);
+    /**
+     * Loads all the annotations
+     *
+     * @param memoryAnnotations list that the annotations will be loaded into
+     * @param annotations       annotations that you want to load
+     * @param visible           flag if the annotations are visible at runtime
+     * @param classes           map of all the loaded classes
+     */
+
+    private void load(List<MemoryAnnotation> memoryAnnotations, List<AnnotationNode> annotations,
+                      boolean visible, Map<String, MemoryClass> classes) {
+        // if the list is invalid
+        if (annotations == null) {
+
+            // return out of the method
+            return;
+        }
+
+        // loop through all the annotation nodes
+        for (AnnotationNode annotationNode : annotations) {
 
-                // if the classes pool contains the annotation class
-                if (classes.containsKey(annotationClass)) {
+            // add the annotation to the annotations list, the class of the
+            // annotation is only known if the annotation type is in the jar
+            MemoryClass annotationClass = classes.get(ASMUtil.getInternalName(annotationNode.desc));
+            MemoryAnnotation memoryAnnotation = new MemoryAnnotation(annotationNode, annotationClass, visible);
+            memoryAnnotations.add(memoryAnnotation);
 
-                    // add the annotation to the annotations list
-                    this.annotations.add(new MemoryAnnotation(annotationNode, classes.get(annotationClass)));
-                }
-            });
+            // and to the lookup table by the name of its type
+            if (annotationLookup.isEmpty()) {
+                annotationLookup = new HashMap<>();
+            }
+            annotationLookup.putIfAbsent(memoryAnnotation.name(), memoryAnnotation);
         }
     }
 
@@ -59,7 +96,7 @@ public abstract class MemoryAnnotatedElement {
      */
 
     public boolean isAnnotationPresent(Class<?> annotation) {
-        return isAnnotationPresent(annotation.getName().replaceAll("\\.", "/"));
+        return isAnnotationPresent(annotation.getName().replace('.', '/'));
     }
 
     /**
@@ -70,7 +107,11 @@ public abstract class MemoryAnnotatedElement {
      */
 
     public MemoryAnnotation getAnnotation(String name) {
-        return annotations.stream().filter(memoryAnnotation -> memoryAnnotation.annotationClass.name().equals(name)).findFirst().orElse(null);
+        // make sure that the annotations are loaded
+        ((LazyList<MemoryAnnotation>) annotations).load();
+
+        // get the annotation from the lookup table
+        return annotationLookup.get(name);
     }
 
     /**
@@ -81,7 +122,7 @@ public abstract class MemoryAnnotatedElement {
      */
 
     public MemoryAnnotation getAnnotation(Class<?> annotation) {
-        return getAnnotation(annotation.getName().replaceAll("\\.", "/"));
+        return getAnnotation(annotation.getName().replace('.', '/'));
     }
 
 }
@@ -1,6 +1,7 @@
 package me.mat.jprocessor.jar.memory;
 
 import lombok.NonNull;
+import me.mat.jprocessor.util.asm.ASMUtil;
 import org.objectweb.asm.tree.AnnotationNode;
 
 import java.util.HashMap;
@@ -14,12 +15,14 @@ public class MemoryAnnotation {
     @NonNull
     private final AnnotationNode annotationNode;
 
-    @NonNull
     public MemoryClass annotationClass;
 
-    public MemoryAnnotation(@NonNull AnnotationNode annotationNode, @NonNull MemoryClass annotationClass) {
+    public final boolean visible;
+
+    public MemoryAnnotation(@NonNull AnnotationNode annotationNode, MemoryClass annotationClass, boolean visible) {
         this.annotationNode = annotationNode;
         this.annotationClass = annotationClass;
+        this.visible = visible;
 
         // get the list of values
         List<Object> values = annotationNode.values;
@@ -52,6 +55,10 @@ public class MemoryAnnotation {
         }
     }
 
+    public MemoryAnnotation(@NonNull AnnotationNode annotationNode, MemoryClass annotationClass) {
+        this(annotationNode, annotationClass, true);
+    }
+
     /**
      * Gets the value of the ćannotation
      *
@@ -84,6 +91,17 @@ public class MemoryAnnotation {
         return values.getOrDefault(key, null);
     }
 
+    /**
+     * Returns the internal name of the annotation type,
+     * which is known even if the type is not in the jar
+     *
+     * @return {@link String}
+     */
+
+    public String name() {
+        return ASMUtil.getInternalName(annotationNode.desc);
+    }
+
     /**
      * Returns the description of the annotation node
      *
@@ -17,10 +17,8 @@ import org.objectweb.asm.tree.InnerClassNode;
 import org.objectweb.asm.tree.MethodNode;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
@@ -40,6 +38,8 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
 
     public final List<MemoryMethod> methods = new ArrayList<>();
 
+    private final List<InstructionListener> listeners = new CopyOnWriteArrayList<>();
+
     @NonNull
     private ClassNode classNode;
 
@@ -47,8 +47,11 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
 
     private MemoryClass superClass;
 
+    private Map<String, MemoryClass> classes = Collections.emptyMap();
+
     public boolean isMainClass;
-    public boolean isInnerClass;
+    public volatile boolean isInnerClass;
+    public volatile boolean computeFrames;
 
     /**
      * Initializes the class in the memory
@@ -66,6 +69,9 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
         superMethods.clear();
         annotations.clear();
 
+        // store the pool of the loaded classes
+        this.classes = classes;
+
         // get the outer class
         outerClass = classes.get(classNode.outerClass);
 
@@ -75,16 +81,70 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
         // load all the methods into the memory
         classNode.methods.forEach(methodNode -> methods.add(new MemoryMethod(this, methodNode).init(classes)));
 
-        // find all the extended interfaces
-        List<String> interfaces = classNode.interfaces;
-        if (interfaces != null) {
-            interfaces.forEach(className -> {
-                if (classes.containsKey(className)) {
-                    this.interfaces.put(className, classes.get(className));
-                }
-            });
+        // load all the inner classes
+        this.loadInnerClasses(classes);
+
+        // initialize all the annotations
+        this.init(classNode.visibleAnnotations, classNode.invisibleAnnotations, classes);
+
+        // find the super class and all the extended interfaces
+        this.resolveSuperTypes(classes);
+    }
+
+    /**
+     * Rebinds the class to its current class node after it was
+     * remapped, reusing all the loaded fields and methods instead
+     * of creating them again
+     *
+     * @param classes map of loaded classes for the loaded jar
+     * @return {@link Boolean} true if the super types of the class changed
+     */
+
+    boolean rebind(Map<String, MemoryClass> classes) {
+        // if the members no longer line up with the class node
+        if (fields.size() != classNode.fields.size() || methods.size() != classNode.methods.size()) {
+
+            // fallback to initializing the whole class again
+            initialize(classes);
+
+            // and treat the hierarchy as changed
+            return true;
+        }
+
+        // store the pool of the loaded classes and get the outer class
+        this.classes = classes;
+        outerClass = classes.get(classNode.outerClass);
+
+        // rebind all the fields to their new nodes
+        for (int i = 0; i < fields.size(); i++) {
+            fields.get(i).rebind(classNode.fields.get(i), classes);
+        }
+
+        // rebind all the methods to their new nodes
+        for (int i = 0; i < methods.size(); i++) {
+            methods.get(i).rebind(classNode.methods.get(i), classes);
         }
 
+        // reload all the inner classes
+        this.loadInnerClasses(classes);
+
+        // reload all the annotations
+        this.init(classNode.visibleAnnotations, classNode.invisibleAnnotations, classes);
+
+        // find the super types and return if they changed
+        return this.resolveSuperTypes(classes);
+    }
+
+    /**
+     * Loads all the inner classes of the current class
+     *
+     * @param classes map of loaded classes for the loaded jar
+     */
+
+    void loadInnerClasses(Map<String, MemoryClass> classes) {
+        // clear all the previous inner classes
+        innerClasses.clear();
+
         // loop through all the inner classes
         classNode.innerClasses.forEach(innerClassNode -> {
 
@@ -107,12 +167,46 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
             // load the inner class to the map
             innerClasses.put(innerClassNode.name, innerClass);
         });
+    }
 
-        // initialize all the annotations
-        this.init(classNode.visibleAnnotations, classes);
+    /**
+     * Finds the super class and all the extended
+     * interfaces from the loaded classes
+     *
+     * @param classes map of loaded classes for the loaded jar
+     * @return {@link Boolean} true if the super types changed
+     */
+
+    boolean resolveSuperTypes(Map<String, MemoryClass> classes) {
+        // store the previous super types
+        MemoryClass previousSuperClass = superClass;
+        List<MemoryClass> previousInterfaces = new ArrayList<>(this.interfaces.values());
+
+        // find all the extended interfaces
+        this.interfaces.clear();
+        List<String> interfaces = classNode.interfaces;
+        if (interfaces != null) {
+            interfaces.forEach(className -> {
+                if (classes.containsKey(className)) {
+                    this.interfaces.put(className, classes.get(className));
+                }
+            });
+        }
 
         // find the super class
+        superClass = null;
         this.findSuperClass(classes);
+
+        // check if any of the super types changed
+        if (previousSuperClass != superClass || previousInterfaces.size() != this.interfaces.size()) {
+            return true;
+        }
+        for (MemoryClass previousInterface : previousInterfaces) {
+            if (this.interfaces.get(previousInterface.name()) != previousInterface) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -121,6 +215,11 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
      */
 
     public void buildHierarchy() {
+        // clear all the previous hierarchy data
+        superFields.clear();
+        superMethods.clear();
+        methods.forEach(MemoryMethod::resetOverride);
+
         // collect all the super classes that might have overrides
         List<MemoryClass> superClasses = new ArrayList<>();
         findSuperClasses(superClass, superClasses);
@@ -170,18 +269,20 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
     public void transform(MethodTransformer methodTransformer) {
         // loop through all the methods
         methods.forEach(memoryMethod -> {
-            // transform the method
-            methodTransformer.transform(this, memoryMethod);
-
             // get the list of instructions
             MemoryInstructions instructions = memoryMethod.instructions;
 
-            // loop through all the instructions
-            for (int i = 0; i < instructions.size(); i++) {
+            // apply all the edits of the transformer as a single batch
+            instructions.edit(batch -> {
 
-                // and transform each instruction
-                methodTransformer.transform(this, memoryMethod, instructions, instructions.get(i));
-            }
+                // transform the method
+                methodTransformer.transform(this, memoryMethod);
+
+                // transform each instruction, the transformer is free to edit the
+                // instructions through the memory instructions while they are visited
+                instructions.traverse(instruction
+                        -> methodTransformer.transform(this, memoryMethod, instructions, instruction));
+            });
         });
     }
 
@@ -248,10 +349,21 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
         classNode.fields.add(fieldNode);
 
         MemoryField memoryField;
-        fields.add(memoryField = new MemoryField(this, fieldNode));
+        fields.add(memoryField = new MemoryField(this, fieldNode).init(classes));
         return memoryField;
     }
 
+    /**
+     * Removes a field from the current class in memory
+     *
+     * @param memoryField field that you want to remove
+     */
+
+    public void removeField(MemoryField memoryField) {
+        fields.removeIf(field -> field == memoryField);
+        classNode.fields.removeIf(memoryField::equals);
+    }
+
     /**
      * Attempts to find a field in one of the super classes
      * starting from the class
@@ -350,10 +462,92 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
         classNode.methods.add(methodNode);
 
         MemoryMethod memoryMethod;
-        methods.add(memoryMethod = new MemoryMethod(this, methodNode));
+        methods.add(memoryMethod = new MemoryMethod(this, methodNode).init(classes));
+
+        // register the listeners of the class on the new method
+        listeners.forEach(memoryMethod.instructions::addListener);
         return memoryMethod;
     }
 
+    /**
+     * Removes a method from the current class in memory
+     *
+     * @param memoryMethod method that you want to remove
+     */
+
+    public void removeMethod(MemoryMethod memoryMethod) {
+        methods.removeIf(method -> method == memoryMethod);
+        classNode.methods.removeIf(memoryMethod::equals);
+
+        // if the method has no instructions there is nothing to notify
+        if (memoryMethod.instructions == null) {
+            return;
+        }
+
+        // stop notifying the listeners of the class about the method
+        // and let them drop every instruction of the removed method
+        listeners.forEach(listener -> {
+            memoryMethod.instructions.removeListener(listener);
+            memoryMethod.getInstructions().forEach(instruction -> listener.onRemove(memoryMethod, instruction));
+        });
+    }
+
+    /**
+     * Registers a listener that gets notified about every edit made to
+     * the instructions of the methods in the current class, including
+     * the methods that are added to the class later on
+     *
+     * @param listener listener that you want to register
+     */
+
+    public void addListener(InstructionListener listener) {
+        listeners.add(listener);
+
+        // register the listener on all the current methods
+        methods.stream()
+                .filter(memoryMethod -> memoryMethod.instructions != null)
+                .forEach(memoryMethod -> memoryMethod.instructions.addListener(listener));
+    }
+
+    /**
+     * Removes a registered listener from the
+     * current class and all of its methods
+     *
+     * @param listener listener that you want to remove
+     */
+
+    public void removeListener(InstructionListener listener) {
+        listeners.remove(listener);
+
+        // remove the listener from all the current methods
+        methods.stream()
+                .filter(memoryMethod -> memoryMethod.instructions != null)
+                .forEach(memoryMethod -> memoryMethod.instructions.removeListener(listener));
+    }
+
+    /**
+     * Removes all the references to the provided classes from the
+     * inner class and nest attributes of the current class
+     *
+     * @param classNames names of the classes that were removed
+     */
+
+    void removeReferences(Set<String> classNames) {
+        // remove all the inner classes
+        classNode.innerClasses.removeIf(innerClassNode -> classNames.contains(innerClassNode.name));
+        innerClasses.keySet().removeIf(classNames::contains);
+
+        // remove all the nest members
+        if (classNode.nestMembers != null) {
+            classNode.nestMembers.removeIf(classNames::contains);
+        }
+
+        // remove all the permitted sub classes
+        if (classNode.permittedSubclasses != null) {
+            classNode.permittedSubclasses.removeIf(classNames::contains);
+        }
+    }
+
     /**
      * Attempts to find a method in the super classes
      *
@@ -401,7 +595,7 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
     public void write(JarOutputStream outputStream) {
         try {
             // create the class writer
-            CustomClassWriter classWriter = new CustomClassWriter(ClassWriter.COMPUTE_MAXS);
+            CustomClassWriter classWriter = createClassWriter();
 
             // load the class bytes into the class writer
             classNode.accept(classWriter);
@@ -424,7 +618,7 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
 
     public byte[] write() {
         // create the class writer
-        CustomClassWriter classWriter = new CustomClassWriter(ClassWriter.COMPUTE_MAXS);
+        CustomClassWriter classWriter = createClassWriter();
 
         // load the class bytes into the class writer
         classNode.accept(classWriter);
@@ -433,6 +627,21 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
         return classWriter.toByteArray();
     }
 
+    /**
+     * Creates the class writer for the class, if the class was
+     * marked to compute the frames the stack map frames are
+     * computed again with the class hierarchy of the jar, the
+     * classes older than java 6 do not have any frames
+     *
+     * @return {@link CustomClassWriter}
+     */
+
+    private CustomClassWriter createClassWriter() {
+        return computeFrames && (classNode.version & 0xFFFF) >= Opcodes.V1_6
+                ? new CustomClassWriter(ClassWriter.COMPUTE_FRAMES, classes)
+                : new CustomClassWriter(ClassWriter.COMPUTE_MAXS);
+    }
+
     /**
      * Checks if the current class is
      * a broken inner class
@@ -445,6 +654,17 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
     }
 
 
+    /**
+     * Returns the pool of the classes that
+     * were loaded together with this class
+     *
+     * @return {@link Map}
+     */
+
+    Map<String, MemoryClass> classes() {
+        return classes;
+    }
+
     /**
      * Returns the super class
      *
@@ -455,6 +675,72 @@ public class MemoryClass extends MemoryAnnotatedElement implements IAccessed {
         return superClass;
     }
 
+    /**
+     * Returns the class file version of the class
+     *
+     * @return {@link Integer}
+     */
+
+    public int version() {
+        return classNode.version;
+    }
+
+    /**
+     * Returns the name of the super class
+     *
+     * @return {@link String}
+     */
+
+    public String superName() {
+        return classNode.superName;
+    }
+
+    /**
+     * Returns the names of all the interfaces
+     * that the class implements
+     *
+     * @return {@link List}
+     */
+
+    public List<String> interfaceNames() {
+        return classNode.interfaces;
+    }
+
+    /**
+     * Returns the name of the nest host of the class
+     *
+     * @return {@link String}
+     */
+
+    public String nestHostName() {
+        return classNode.nestHostClass;
+    }
+
+    /**
+     * Returns the method that encloses the class
+     * if the class is a local or an anonymous class
+     *
+     * @return {@link MemoryMethod}
+     */
+
+    public MemoryMethod outerMethod() {
+        // if the class is not enclosed by a loaded method
+        if (outerClass == null || classNode.outerMethod == null) {
+
+            // return null
+            return null;
+        }
+
+        // find the enclosing method in the outer class
+        for (MemoryMethod memoryMethod : outerClass.methods) {
+            if (memoryMethod.name().equals(classNode.outerMethod)
+                    && memoryMethod.description().equals(classNode.outerMethodDesc)) {
+                return memoryMethod;
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns the outer class
      *
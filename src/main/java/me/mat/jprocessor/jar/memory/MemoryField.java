@@ -27,12 +27,28 @@ public class MemoryField extends MemoryAnnotatedElement implements IAccessed {
 
     public MemoryField init(Map<String, MemoryClass> classes) {
         // initialize all the annotations
-        this.init(fieldNode.visibleAnnotations, classes);
+        this.init(fieldNode.visibleAnnotations, fieldNode.invisibleAnnotations, classes);
 
         // return the instance of the field
         return this;
     }
 
+    /**
+     * Rebinds the field to the provided field node
+     * while keeping the current instance alive
+     *
+     * @param fieldNode field node that you want to rebind to
+     * @param classes   map of all the loaded classes
+     */
+
+    void rebind(FieldNode fieldNode, Map<String, MemoryClass> classes) {
+        // update the field node
+        this.fieldNode = fieldNode;
+
+        // reload all the annotations
+        this.init(classes);
+    }
+
     /**
      * Gets the name of the field
      *
@@ -53,6 +69,16 @@ public class MemoryField extends MemoryAnnotatedElement implements IAccessed {
         return fieldNode.desc;
     }
 
+    /**
+     * Gets the initial value of the field
+     *
+     * @return {@link Object}
+     */
+
+    public Object value() {
+        return fieldNode.value;
+    }
+
     /**
      * Gets the access of the field
      *
@@ -4,24 +4,34 @@ import lombok.NonNull;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class MemoryInstructions {
 
     private final Map<AbstractInsnNode, LabelNode> labelLookupTable = new HashMap<>();
 
+    private final List<InstructionListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Map<AbstractInsnNode, Boolean> pendingEvents = new LinkedHashMap<>();
+
+    private final List<InstructionCursor> cursors = new ArrayList<>();
+
     private final MemoryMethod memoryMethod;
 
     @NonNull
-    private final InsnList instructions;
+    private InsnList instructions;
+
+    private boolean labelsDirty = true;
+
+    private int editDepth = 0;
+
+    private int modificationCount = 0;
 
     public MemoryInstructions(MemoryMethod memoryMethod, InsnList instructions) {
         this.memoryMethod = memoryMethod;
         this.instructions = instructions;
-
-        // setup the lookup table
-        this.setupLabelLookupTable();
     }
 
     public MemoryInstructions() {
@@ -29,67 +39,224 @@ public class MemoryInstructions {
     }
 
     /**
-     * Sets up the label lookup table with the correct labels
+     * Points the current instructions at
+     * the provided list of instructions
+     *
+     * @param instructions list of instructions that you want to rebind to
+     */
+
+    void rebind(InsnList instructions) {
+        // update the instructions
+        this.instructions = instructions;
+
+        // and rebuild the label lookup table on the next access
+        invalidateLabels();
+    }
+
+    /**
+     * Starts a batch of edits, until the batch is committed the
+     * derived state such as the label lookup table is not updated
+     * and the listeners are not notified, batches can be nested
+     */
+
+    public void begin() {
+        editDepth++;
+    }
+
+    /**
+     * Commits the current batch of edits, once the outer most
+     * batch is committed all the listeners are notified about
+     * the net changes and the label lookup table is rebuilt
+     * on the next access
+     */
+
+    public void commit() {
+        // if there is no batch in progress
+        if (editDepth == 0) {
+            throw new IllegalStateException("There is no batch of edits to commit");
+        }
+
+        // if this is not the outer most batch
+        if (--editDepth > 0) {
+
+            // return out of the method
+            return;
+        }
+
+        // notify all the listeners about the net changes
+        List<Map.Entry<AbstractInsnNode, Boolean>> events = new ArrayList<>(pendingEvents.entrySet());
+        pendingEvents.clear();
+        events.forEach(event -> {
+            if (event.getValue()) {
+                notifyAdd(event.getKey());
+            } else {
+                notifyRemove(event.getKey());
+            }
+        });
+    }
+
+    /**
+     * Applies all the edits made by the provided
+     * consumer as a single batch of edits
+     *
+     * @param editor consumer that makes the edits
+     */
+
+    public void edit(@NonNull Consumer<MemoryInstructions> editor) {
+        begin();
+        try {
+            editor.accept(this);
+        } finally {
+            commit();
+        }
+    }
+
+    /**
+     * Checks if a batch of edits is in progress
+     *
+     * @return {@link Boolean}
+     */
+
+    public boolean isEditing() {
+        return editDepth > 0;
+    }
+
+    /**
+     * Creates a cursor over all the instructions, edits made through
+     * the cursor or through this list are safe while the cursor is
+     * open, removed instructions are skipped and newly inserted
+     * instructions are not visited, the cursor stops tracking the
+     * edits once it is exhausted or closed
+     *
+     * @return {@link InstructionCursor}
+     */
+
+    public InstructionCursor cursor() {
+        InstructionCursor cursor = new InstructionCursor(this);
+        cursors.add(cursor);
+        return cursor;
+    }
+
+    /**
+     * Visits every instruction in a single linear pass, the
+     * visitor is free to edit the instructions while visiting
+     *
+     * @param visitor visitor that will receive all the instructions
+     */
+
+    public void traverse(@NonNull Consumer<AbstractInsnNode> visitor) {
+        try (InstructionCursor cursor = cursor()) {
+            while (cursor.hasNext()) {
+                visitor.accept(cursor.next());
+            }
+        }
+    }
+
+    /**
+     * Stops tracking the edits for the provided cursor
+     *
+     * @param cursor cursor that you want to remove
+     */
+
+    void removeCursor(InstructionCursor cursor) {
+        cursors.removeIf(other -> other == cursor);
+    }
+
+    /**
+     * Sets up the label lookup table with the correct labels,
+     * in a single forward pass over all the instructions
      */
 
     private void setupLabelLookupTable() {
         // clear the lookup table
         labelLookupTable.clear();
 
+        // define the label that the current instruction is in
+        LabelNode labelNode = null;
+
         // loop through all the instructions
-        instructions.forEach(instruction -> {
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
 
-            // if the instruction is not a label instruction
-            if (!(instruction instanceof LabelNode)) {
+            // if the instruction is a label instruction it starts a new region
+            if (instruction instanceof LabelNode) {
+                labelNode = (LabelNode) instruction;
+            } else if (labelNode != null) {
 
-                // find the label node that the instruction is in
-                LabelNode labelNode = findLabel(instruction);
+                // else cache the label of the region to the lookup table
+                labelLookupTable.put(instruction, labelNode);
+            }
+        }
 
-                // if the label node was found
-                if (labelNode != null) {
+        // mark the lookup table as up to date
+        labelsDirty = false;
+    }
 
-                    // cache it to the lookup table
-                    labelLookupTable.put(instruction, labelNode);
-                }
-            }
-        });
+    /**
+     * Marks the label lookup table as outdated
+     * so it is rebuilt on the next access
+     */
+
+    private void invalidateLabels() {
+        modificationCount++;
+        if (!labelsDirty) {
+            labelsDirty = true;
+            labelLookupTable.clear();
+        }
     }
 
     /**
-     * Finds a label node for the
-     * provided instruction
+     * Updates the label lookup table after an instruction
+     * was added, instructions other than labels only need
+     * their own region looked up, a new label splits a
+     * region so the table is rebuilt on the next access
      *
-     * @param instruction instruction that you want to get the label node for
-     * @return {@link LabelNode}
+     * @param instruction instruction that was added
      */
 
-    private LabelNode findLabel(AbstractInsnNode instruction) {
-        // get the index of the instruction
-        int index = indexOf(instruction);
+    private void updateLabelsAdded(AbstractInsnNode instruction) {
+        modificationCount++;
 
-        // if the index is not found
-        if (index == -1) {
+        // if the table is outdated already
+        if (labelsDirty) {
 
-            // return null
-            return null;
+            // return out of the method
+            return;
         }
 
-        // loop from the instruction backwards
-        for (int i = index; i > 0; i--) {
-
-            // get the abstract node
-            AbstractInsnNode abstractInsnNode = get(i);
+        // if the instruction is a label or a batch of edits is in progress
+        if (instruction instanceof LabelNode || editDepth > 0) {
 
-            // if the instruction is a label node
-            if (abstractInsnNode instanceof LabelNode) {
+            // rebuild the table on the next access
+            invalidateLabels();
+            return;
+        }
 
-                // return it
-                return (LabelNode) abstractInsnNode;
+        // find the label that the instruction is in
+        for (AbstractInsnNode previous = instruction.getPrevious(); previous != null; previous = previous.getPrevious()) {
+            if (previous instanceof LabelNode) {
+                labelLookupTable.put(instruction, (LabelNode) previous);
+                return;
             }
         }
+    }
+
+    /**
+     * Updates the label lookup table after an instruction was removed
+     *
+     * @param instruction instruction that was removed
+     */
 
-        // else return null
-        return null;
+    private void updateLabelsRemoved(AbstractInsnNode instruction) {
+        modificationCount++;
+
+        // if the instruction is a label its region merges with the previous one
+        if (instruction instanceof LabelNode || editDepth > 0) {
+            invalidateLabels();
+        } else if (!labelsDirty) {
+
+            // else drop the instruction from the table
+            labelLookupTable.remove(instruction);
+        }
     }
 
     /**
@@ -188,8 +355,11 @@ public class MemoryInstructions {
         // add the instruction
         instructions.add(instruction);
 
-        // and setup the label lookup table
-        setupLabelLookupTable();
+        // notify all the listeners
+        notifyAdd(instruction);
+
+        // and update the label lookup table
+        updateLabelsAdded(instruction);
     }
 
     /**
@@ -201,9 +371,6 @@ public class MemoryInstructions {
     public void add(MemoryInstructions instructions) {
         // add the instruction list
         instructions.addInto(this, false);
-
-        // and setup the label lookup table
-        setupLabelLookupTable();
     }
 
     /**
@@ -216,8 +383,11 @@ public class MemoryInstructions {
         // insert the instruction
         instructions.insert(instruction);
 
-        // and setup the label lookup table
-        setupLabelLookupTable();
+        // notify all the listeners
+        notifyAdd(instruction);
+
+        // and update the label lookup table
+        updateLabelsAdded(instruction);
     }
 
     /**
@@ -241,8 +411,11 @@ public class MemoryInstructions {
         // insert the instruction
         instructions.insert(targetInstruction, instruction);
 
-        // setup the lookup table
-        setupLabelLookupTable();
+        // notify all the listeners
+        notifyAdd(instruction);
+
+        // update the lookup table
+        updateLabelsAdded(instruction);
     }
 
     /**
@@ -253,11 +426,17 @@ public class MemoryInstructions {
      */
 
     public void insertAfter(AbstractInsnNode targetInstruction, MemoryInstructions instructions) {
+        // get all the instructions that are being inserted
+        List<AbstractInsnNode> inserted = snapshot(instructions);
+
         // insert the instructions
         this.instructions.insert(targetInstruction, instructions.instructions);
 
-        // setup the lookup table
-        setupLabelLookupTable();
+        // notify all the listeners
+        inserted.forEach(this::notifyAdd);
+
+        // rebuild the lookup table on the next access
+        invalidateLabels();
     }
 
     /**
@@ -271,8 +450,11 @@ public class MemoryInstructions {
         // insert the instruction
         instructions.insertBefore(targetInstruction, instruction);
 
-        // setup the lookup table
-        setupLabelLookupTable();
+        // notify all the listeners
+        notifyAdd(instruction);
+
+        // update the lookup table
+        updateLabelsAdded(instruction);
     }
 
     /**
@@ -283,11 +465,60 @@ public class MemoryInstructions {
      */
 
     public void insertBefore(AbstractInsnNode targetInstruction, MemoryInstructions instructions) {
+        // get all the instructions that are being inserted
+        List<AbstractInsnNode> inserted = snapshot(instructions);
+
         // insert the instructions
         this.instructions.insertBefore(targetInstruction, instructions.instructions);
 
-        // setup the lookup table
-        setupLabelLookupTable();
+        // notify all the listeners
+        inserted.forEach(this::notifyAdd);
+
+        // rebuild the lookup table on the next access
+        invalidateLabels();
+    }
+
+    /**
+     * Removes an instruction from the instructions list
+     *
+     * @param instruction instruction that you want to remove
+     */
+
+    public void remove(AbstractInsnNode instruction) {
+        // move all the open cursors past the instruction
+        cursors.forEach(cursor -> cursor.onRemove(instruction));
+
+        // remove the instruction
+        instructions.remove(instruction);
+
+        // notify all the listeners
+        notifyRemove(instruction);
+
+        // update the lookup table
+        updateLabelsRemoved(instruction);
+    }
+
+    /**
+     * Replaces an instruction with another instruction
+     *
+     * @param targetInstruction instruction that you want to replace
+     * @param instruction       instruction that you want to replace it with
+     */
+
+    public void set(AbstractInsnNode targetInstruction, AbstractInsnNode instruction) {
+        // move all the open cursors past the replaced instruction
+        cursors.forEach(cursor -> cursor.onRemove(targetInstruction));
+
+        // replace the instruction
+        instructions.set(targetInstruction, instruction);
+
+        // notify all the listeners
+        notifyRemove(targetInstruction);
+        notifyAdd(instruction);
+
+        // update the lookup table
+        updateLabelsRemoved(targetInstruction);
+        updateLabelsAdded(instruction);
     }
 
     /**
@@ -295,7 +526,118 @@ public class MemoryInstructions {
      */
 
     public void clear() {
+        // notify all the listeners about every removed instruction
+        if (!listeners.isEmpty()) {
+            snapshot(this).forEach(this::notifyRemove);
+        }
+
+        // stop all the open cursors
+        cursors.forEach(InstructionCursor::onClear);
+
+        // clear the instructions
         this.instructions.clear();
+
+        // clear the lookup table, an empty list has no labels to rebuild
+        labelLookupTable.clear();
+        labelsDirty = false;
+        modificationCount++;
+    }
+
+    /**
+     * Registers a listener that gets notified
+     * about every edit made to the instructions
+     *
+     * @param listener listener that you want to register
+     */
+
+    public void addListener(InstructionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a registered listener
+     *
+     * @param listener listener that you want to remove
+     */
+
+    public void removeListener(InstructionListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies all the listeners that an instruction was added
+     *
+     * @param instruction instruction that was added
+     */
+
+    private void notifyAdd(AbstractInsnNode instruction) {
+        // if there are no listeners
+        if (listeners.isEmpty()) {
+
+            // return out of the method
+            return;
+        }
+
+        // if a batch of edits is in progress
+        if (editDepth > 0) {
+
+            // cancel out a pending removal or queue the addition
+            if (pendingEvents.remove(instruction) == null) {
+                pendingEvents.put(instruction, true);
+            }
+            return;
+        }
+
+        // else notify all the listeners
+        listeners.forEach(listener -> listener.onAdd(memoryMethod, instruction));
+    }
+
+    /**
+     * Notifies all the listeners that an instruction was removed
+     *
+     * @param instruction instruction that was removed
+     */
+
+    private void notifyRemove(AbstractInsnNode instruction) {
+        // if there are no listeners
+        if (listeners.isEmpty()) {
+
+            // return out of the method
+            return;
+        }
+
+        // if a batch of edits is in progress
+        if (editDepth > 0) {
+
+            // cancel out a pending addition or queue the removal
+            if (pendingEvents.remove(instruction) == null) {
+                pendingEvents.put(instruction, false);
+            }
+            return;
+        }
+
+        // else notify all the listeners
+        listeners.forEach(listener -> listener.onRemove(memoryMethod, instruction));
+    }
+
+    /**
+     * Copies the provided instructions into a list
+     * if any listener needs to be notified about them
+     *
+     * @param instructions instructions that you want to copy
+     * @return {@link List}
+     */
+
+    private List<AbstractInsnNode> snapshot(MemoryInstructions instructions) {
+        // if there are no listeners
+        if (listeners.isEmpty()) {
+
+            // return an empty list
+            return Collections.emptyList();
+        }
+
+        // else copy all the instructions into a list
+        return Arrays.asList(instructions.instructions.toArray());
     }
 
     /**
@@ -318,10 +660,13 @@ public class MemoryInstructions {
 
             // and copy every single instructions into the new instruction list
             instructions.instructions.add(instruction);
+
+            // notify all the listeners of the new instruction list
+            instructions.notifyAdd(instruction);
         }
 
-        // setup the label lookup table
-        instructions.setupLabelLookupTable();
+        // rebuild the label lookup table on the next access
+        instructions.invalidateLabels();
     }
 
     /**
@@ -344,10 +689,13 @@ public class MemoryInstructions {
 
             // and copy every single instructions into the new instruction list
             instructions.instructions.insert(instruction);
+
+            // notify all the listeners of the new instruction list
+            instructions.notifyAdd(instruction);
         }
 
-        // setup the label lookup table
-        instructions.setupLabelLookupTable();
+        // rebuild the label lookup table on the next access
+        instructions.invalidateLabels();
     }
 
     /**
@@ -403,6 +751,17 @@ public class MemoryInstructions {
         return instructions.size();
     }
 
+    /**
+     * Returns the amount of edits made through the current
+     * instructions, used to invalidate the state derived from them
+     *
+     * @return {@link Integer}
+     */
+
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
     /**
      * Gets the label for the provided instruction
      *
@@ -411,7 +770,13 @@ public class MemoryInstructions {
      */
 
     public LabelNode getLabelForInstruction(AbstractInsnNode instruction) {
-        return labelLookupTable.getOrDefault(instruction, null);
+        // if the lookup table is outdated rebuild it
+        if (labelsDirty) {
+            setupLabelLookupTable();
+        }
+
+        // get the label from the lookup table
+        return labelLookupTable.get(instruction);
     }
 
     /**
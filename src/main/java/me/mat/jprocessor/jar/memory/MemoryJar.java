@@ -1,11 +1,22 @@
 package me.mat.jprocessor.jar.memory;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import me.mat.jprocessor.JProcessor;
+import me.mat.jprocessor.jar.index.AnnotationIndex;
+import me.mat.jprocessor.jar.index.CallGraph;
+import me.mat.jprocessor.jar.index.ConstantIndex;
+import me.mat.jprocessor.jar.index.FieldUsageIndex;
+import me.mat.jprocessor.jar.index.HierarchyIndex;
+import me.mat.jprocessor.jar.query.ClassQuery;
+import me.mat.jprocessor.jar.query.FieldQuery;
+import me.mat.jprocessor.jar.query.MethodQuery;
+import me.mat.jprocessor.jar.shrink.Shrinker;
 import me.mat.jprocessor.mappings.MappingManager;
 import me.mat.jprocessor.transformer.ClassTransformer;
 import me.mat.jprocessor.transformer.FieldTransformer;
 import me.mat.jprocessor.transformer.MethodTransformer;
+import me.mat.jprocessor.transformer.ParallelTransformer;
 import me.mat.jprocessor.util.JarUtil;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
@@ -13,9 +24,11 @@ import org.objectweb.asm.tree.ClassNode;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
 
 @Getter
 public class MemoryJar {
@@ -26,6 +39,21 @@ public class MemoryJar {
 
     private MemoryManifest manifest;
 
+    private HierarchyIndex hierarchyIndex;
+
+    private CallGraph callGraph;
+
+    private FieldUsageIndex fieldUsageIndex;
+
+    private ConstantIndex constantIndex;
+
+    private AnnotationIndex annotationIndex;
+
+    private ForkJoinPool transformPool = ForkJoinPool.commonPool();
+
+    @Getter(AccessLevel.NONE)
+    private boolean ownsTransformPool;
+
     public MemoryJar(Map<String, byte[]> classData, Map<String, byte[]> resourceData, String mainClass) {
         // log to console that the jar's classes are loading into the memory
         JProcessor.Logging.info("Loading from provided memory");
@@ -73,8 +101,7 @@ public class MemoryJar {
         });
 
         // setup the class hierarchy
-        classes.forEach((className, memoryClass) -> memoryClass.initialize(classes));
-        classes.forEach((className, memoryClass) -> memoryClass.buildHierarchy());
+        setupHierarchy();
 
         // log to console how many classes were loaded
         JProcessor.Logging.info("Loaded '%d' classes into memory", classes.size());
@@ -123,8 +150,7 @@ public class MemoryJar {
         });
 
         // setup the class hierarchy
-        classes.forEach((className, memoryClass) -> memoryClass.initialize(classes));
-        classes.forEach((className, memoryClass) -> memoryClass.buildHierarchy());
+        setupHierarchy();
 
         // log to console how many classes were loaded
         JProcessor.Logging.info("Loaded '%d' classes into memory", classes.size());
@@ -154,6 +180,21 @@ public class MemoryJar {
         this(file, null);
     }
 
+    /**
+     * Initializes all the classes and builds the class hierarchy,
+     * both phases run in parallel since every class only writes
+     * to its own state, and the hierarchy phase only reads the
+     * state that the initialization phase already finished writing
+     */
+
+    private void setupHierarchy() {
+        // initialize all the classes
+        classes.values().parallelStream().forEach(memoryClass -> memoryClass.initialize(classes));
+
+        // build the hierarchy for all the classes
+        classes.values().parallelStream().forEach(MemoryClass::buildHierarchy);
+    }
+
     /**
      * Transforms all the classes
      * wit the provided class transformer
@@ -162,7 +203,7 @@ public class MemoryJar {
      */
 
     public void transformClasses(ClassTransformer classTransformer) {
-        classes.forEach((className, memoryClass) -> memoryClass.transform(classTransformer));
+        transform(classTransformer, memoryClass -> memoryClass.transform(classTransformer));
     }
 
     /**
@@ -173,7 +214,7 @@ public class MemoryJar {
      */
 
     public void transformFields(FieldTransformer fieldTransformer) {
-        classes.forEach((className, memoryClass) -> memoryClass.transform(fieldTransformer));
+        transform(fieldTransformer, memoryClass -> memoryClass.transform(fieldTransformer));
     }
 
     /**
@@ -184,7 +225,79 @@ public class MemoryJar {
      */
 
     public void transformMethods(MethodTransformer methodTransformer) {
-        classes.forEach((className, memoryClass) -> memoryClass.transform(methodTransformer));
+        transform(methodTransformer, memoryClass -> memoryClass.transform(methodTransformer));
+    }
+
+    /**
+     * Sets the pool that the parallel transformers run on, the common
+     * pool is used by default, the provided pool stays owned by the
+     * caller who has to shut it down, only the pools created by
+     * {@link #setParallelism(int)} are owned and shut down by the jar
+     * once they are replaced
+     *
+     * @param transformPool pool that you want to use or null to run every transformer one class at a time
+     */
+
+    public void setTransformPool(ForkJoinPool transformPool) {
+        replaceTransformPool(transformPool, false);
+    }
+
+    /**
+     * Creates a dedicated pool with the provided
+     * amount of threads for the parallel transformers,
+     * the pool is owned by the jar and shut down
+     * once it is replaced by another pool
+     *
+     * @param parallelism amount of the threads, 1 runs every transformer one class at a time
+     */
+
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism has to be at least 1");
+        }
+        if (parallelism > 1) {
+            replaceTransformPool(new ForkJoinPool(parallelism), true);
+        } else {
+            replaceTransformPool(null, false);
+        }
+    }
+
+    /**
+     * Replaces the transform pool and shuts
+     * down the old pool if the jar created it
+     *
+     * @param transformPool pool that replaces the old one
+     * @param owned         flag if the jar created the pool
+     */
+
+    private void replaceTransformPool(ForkJoinPool transformPool, boolean owned) {
+        // if the jar created the old pool nobody else can shut it down
+        if (ownsTransformPool && this.transformPool != transformPool) {
+            this.transformPool.shutdown();
+        }
+        this.transformPool = transformPool;
+        this.ownsTransformPool = owned;
+    }
+
+    /**
+     * Applies the provided action to all the classes, in parallel
+     * on the transform pool if the transformer is a {@link ParallelTransformer}
+     *
+     * @param transformer transformer that is applied
+     * @param action      action that applies the transformer to a class
+     */
+
+    private void transform(Object transformer, Consumer<MemoryClass> action) {
+        // if the transformer can not run in parallel transform one class at a time
+        ForkJoinPool pool = transformPool;
+        if (!(transformer instanceof ParallelTransformer) || !((ParallelTransformer) transformer).isParallel() || pool == null) {
+            classes.values().forEach(action);
+            return;
+        }
+
+        // else spread the classes across the pool, a parallel stream
+        // started from inside of a pool runs on the threads of that pool
+        pool.submit(() -> classes.values().parallelStream().forEach(action)).join();
     }
 
     /**
@@ -198,9 +311,111 @@ public class MemoryJar {
         // remap all the classes
         classes.forEach((className, memoryClass) -> memoryClass.map(this, mappingManager));
 
-        // setup the class hierarchy
-        classes.forEach((className, memoryClass) -> memoryClass.initialize(classes));
-        classes.forEach((className, memoryClass) -> memoryClass.buildHierarchy());
+        // re-key all the classes by their new names
+        List<MemoryClass> remappedClasses = new ArrayList<>(classes.values());
+        classes.clear();
+        remappedClasses.forEach(memoryClass -> classes.put(memoryClass.name(), memoryClass));
+
+        // rebind all the classes to their remapped nodes and collect the ones whose super types changed
+        List<MemoryClass> changedClasses = new ArrayList<>();
+        remappedClasses.forEach(memoryClass -> {
+            if (memoryClass.rebind(classes)) {
+                changedClasses.add(memoryClass);
+            }
+        });
+
+        // only rebuild the hierarchy of the classes that were affected
+        updateHierarchy(changedClasses);
+
+        // drop all the indexes since they point at the old nodes
+        invalidateIndexes();
+    }
+
+    /**
+     * Updates the hierarchy of the provided class
+     * and all the classes that extend or implement it,
+     * should be called after editing the super types
+     * or the members of the class
+     *
+     * @param memoryClass class that was edited
+     */
+
+    public void updateHierarchy(MemoryClass memoryClass) {
+        // find the super types of the class again
+        memoryClass.resolveSuperTypes(classes);
+
+        // update the hierarchy of the class
+        updateHierarchy(Collections.singletonList(memoryClass));
+
+        // drop all the indexes since the hierarchy changed
+        invalidateIndexes();
+    }
+
+    /**
+     * Rebuilds the hierarchy data for the provided classes
+     * and every class that extends or implements any of them
+     *
+     * @param changedClasses classes whose hierarchy changed
+     */
+
+    void updateHierarchy(Collection<MemoryClass> changedClasses) {
+        // if nothing changed
+        if (changedClasses.isEmpty()) {
+
+            // return out of the method
+            return;
+        }
+
+        // define a cache of classes that were already checked
+        Map<MemoryClass, Boolean> affected = new IdentityHashMap<>();
+        changedClasses.forEach(memoryClass -> affected.put(memoryClass, true));
+
+        // find all the affected classes
+        List<MemoryClass> affectedClasses = classes.values().stream()
+                .filter(memoryClass -> isAffected(memoryClass, affected))
+                .collect(Collectors.toList());
+
+        // rebuild the hierarchy for every affected class
+        affectedClasses.parallelStream().forEach(MemoryClass::buildHierarchy);
+    }
+
+    /**
+     * Checks if the provided class or any
+     * of its super types is in the affected cache
+     *
+     * @param memoryClass class that you want to check
+     * @param affected    cache of classes that were already checked
+     * @return {@link Boolean}
+     */
+
+    private boolean isAffected(MemoryClass memoryClass, Map<MemoryClass, Boolean> affected) {
+        // if the class is invalid
+        if (memoryClass == null) {
+
+            // return false
+            return false;
+        }
+
+        // if the class was already checked return the cached result
+        Boolean cached = affected.get(memoryClass);
+        if (cached != null) {
+            return cached;
+        }
+
+        // mark the class as not affected while checking it
+        affected.put(memoryClass, false);
+
+        // check the super class and all the interfaces
+        boolean result = isAffected(memoryClass.superClass(), affected);
+        for (MemoryClass interfaceClass : memoryClass.interfaces.values()) {
+            result |= isAffected(interfaceClass, affected);
+        }
+
+        // cache the result
+        affected.put(memoryClass, result);
+
+        // and return it
+        return result;
     }
 
     /**
@@ -247,9 +462,251 @@ public class MemoryJar {
         classes.put(name, memoryClass);
 
         memoryClass.initialize(classes);
+        invalidateIndexes();
+        return memoryClass;
+    }
+
+    /**
+     * Loads the provided class from the class path of
+     * the processor and adds it to the jar, used to embed
+     * the support classes that the processed code calls
+     *
+     * @param aClass class that you want to add
+     * @return {@link MemoryClass}
+     */
+
+    public MemoryClass addClass(Class<?> aClass) {
+        return addClass(aClass, Collections.emptyMap());
+    }
+
+    /**
+     * Loads the provided class from the class path of the processor,
+     * moves it and the classes it references to their new names
+     * and adds it to the jar, so that the embedded copy can not
+     * clash with the copies that other jars embed
+     *
+     * @param aClass      class that you want to add
+     * @param relocations new internal names of the classes mapped by their current internal names
+     * @return {@link MemoryClass}
+     * @throws IllegalStateException if the jar already contains a class with the same name
+     */
+
+    public MemoryClass addClass(Class<?> aClass, Map<String, String> relocations) {
+        // load the class under its new name
+        MemoryClass memoryClass = JarUtil.load(aClass, relocations);
+
+        // if the class is already in the jar
+        if (classes.containsKey(memoryClass.name())) {
+
+            // throw an exception
+            throw new IllegalStateException("The jar already contains the class '" + memoryClass.name() + "'");
+        }
+
+        // add the class to the pool
+        classes.put(memoryClass.name(), memoryClass);
+
+        // initialize the class with the pool of the jar
+        memoryClass.initialize(classes);
+        memoryClass.buildHierarchy();
+        invalidateIndexes();
         return memoryClass;
     }
 
+    /**
+     * Adds a resource to the jar, replacing
+     * the resource with the same path
+     *
+     * @param path path of the resource
+     * @param data data of the resource
+     */
+
+    public void addResource(String path, byte[] data) {
+        resources.put(path, new MemoryResource(data));
+    }
+
+    /**
+     * Gets the hierarchy index of the jar,
+     * building it if it was not built yet
+     *
+     * @return {@link HierarchyIndex}
+     */
+
+    public synchronized HierarchyIndex getHierarchyIndex() {
+        if (hierarchyIndex == null) {
+            hierarchyIndex = new HierarchyIndex(classes);
+        }
+        return hierarchyIndex;
+    }
+
+    /**
+     * Gets the call graph of the jar, building it
+     * if it was not built yet, the call graph is a
+     * snapshot so it should be invalidated after
+     * the method bodies were edited
+     *
+     * @return {@link CallGraph}
+     */
+
+    public synchronized CallGraph getCallGraph() {
+        if (callGraph == null) {
+            callGraph = new CallGraph(classes, getHierarchyIndex());
+        }
+        return callGraph;
+    }
+
+    /**
+     * Gets the field usage index of the jar, building it if it
+     * was not built yet, the index is kept up to date with all
+     * the edits made through {@link MemoryInstructions}
+     *
+     * @return {@link FieldUsageIndex}
+     */
+
+    public synchronized FieldUsageIndex getFieldUsageIndex() {
+        if (fieldUsageIndex == null) {
+            fieldUsageIndex = new FieldUsageIndex(classes, getHierarchyIndex());
+        }
+        return fieldUsageIndex;
+    }
+
+    /**
+     * Gets the constant index of the jar,
+     * building it if it was not built yet
+     *
+     * @return {@link ConstantIndex}
+     */
+
+    public synchronized ConstantIndex getConstantIndex() {
+        if (constantIndex == null) {
+            constantIndex = new ConstantIndex(classes);
+        }
+        return constantIndex;
+    }
+
+    /**
+     * Gets the annotation index of the jar,
+     * building it if it was not built yet
+     *
+     * @return {@link AnnotationIndex}
+     */
+
+    public synchronized AnnotationIndex getAnnotationIndex() {
+        if (annotationIndex == null) {
+            annotationIndex = new AnnotationIndex(classes);
+        }
+        return annotationIndex;
+    }
+
+    /**
+     * Removes the provided classes from the jar, all the
+     * references to them from the inner class and nest
+     * attributes of the remaining classes are removed too
+     *
+     * @param classNames names of the classes that you want to remove
+     */
+
+    public void removeClasses(Collection<String> classNames) {
+        // remove all the classes from the pool
+        Set<String> removed = new HashSet<>(classNames);
+        classes.keySet().removeAll(removed);
+
+        // remove all the references to the removed classes
+        classes.values().forEach(memoryClass -> memoryClass.removeReferences(removed));
+
+        // build the hierarchy again since the super members might have changed
+        classes.values().parallelStream().forEach(MemoryClass::buildHierarchy);
+
+        // drop all the indexes since they might point to removed classes
+        invalidateIndexes();
+    }
+
+    /**
+     * Computes the frames of every method in the jar in parallel
+     * so that the later lookups are served from the cache
+     *
+     * @param sources flag if the source frames should be computed too
+     */
+
+    public void computeFrames(boolean sources) {
+        // compute the frames of all the methods and count the failures
+        long failed = classes.values().parallelStream()
+                .flatMap(memoryClass -> memoryClass.methods.stream())
+                .filter(memoryMethod -> {
+                    boolean analyzed = memoryMethod.getFrames() != null;
+                    if (sources) {
+                        analyzed &= memoryMethod.getSourceFrames() != null;
+                    }
+                    return !analyzed;
+                })
+                .count();
+
+        // if some of the methods could not be analyzed let the user know
+        if (failed > 0) {
+            JProcessor.Logging.warn("Failed to compute the frames of %d method(s)", failed);
+        }
+    }
+
+    /**
+     * Creates a shrinker for the jar that removes all
+     * the classes and members that can not be reached
+     * from the main class or the configured keep rules
+     *
+     * @return {@link Shrinker}
+     */
+
+    public Shrinker shrinker() {
+        return new Shrinker(this);
+    }
+
+    /**
+     * Starts a query over all the classes in the jar
+     *
+     * @return {@link ClassQuery}
+     */
+
+    public ClassQuery queryClasses() {
+        return new ClassQuery(this);
+    }
+
+    /**
+     * Starts a query over all the methods in the jar
+     *
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery queryMethods() {
+        return new MethodQuery(this);
+    }
+
+    /**
+     * Starts a query over all the fields in the jar
+     *
+     * @return {@link FieldQuery}
+     */
+
+    public FieldQuery queryFields() {
+        return new FieldQuery(this);
+    }
+
+    /**
+     * Drops all the built indexes so that
+     * they are built again on the next access
+     */
+
+    public synchronized void invalidateIndexes() {
+        // stop the field usage index from listening to the edits
+        if (fieldUsageIndex != null) {
+            fieldUsageIndex.close();
+        }
+
+        // drop all the indexes
+        hierarchyIndex = null;
+        callGraph = null;
+        fieldUsageIndex = null;
+        constantIndex = null;
+        annotationIndex = null;
+    }
+
     /**
      * Gets a class by the provided class name
      *
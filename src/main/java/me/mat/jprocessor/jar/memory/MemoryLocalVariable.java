@@ -11,6 +11,16 @@ public class MemoryLocalVariable {
     @NonNull
     private LocalVariableNode localVariableNode;
 
+    /**
+     * Rebinds the local variable to the provided node
+     *
+     * @param localVariableNode local variable node that you want to rebind to
+     */
+
+    void rebind(LocalVariableNode localVariableNode) {
+        this.localVariableNode = localVariableNode;
+    }
+
     /**
      * Gets the name of the local variable
      *
@@ -2,19 +2,27 @@ package me.mat.jprocessor.jar.memory;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import me.mat.jprocessor.jar.analysis.ControlFlowGraph;
+import me.mat.jprocessor.jar.analysis.JarVerifier;
+import me.mat.jprocessor.util.LazyList;
 import me.mat.jprocessor.util.asm.ASMUtil;
 import me.mat.jprocessor.util.asm.IAccessed;
-import org.objectweb.asm.tree.InsnList;
-import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+import org.objectweb.asm.tree.analysis.*;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public class MemoryMethod extends MemoryAnnotatedElement implements IAccessed {
 
-    public final List<MemoryLocalVariable> localVariables = new ArrayList<>();
+    public final List<MemoryLocalVariable> localVariables = new LazyList<>();
+
+    public final List<MemoryParameter> parameters = new LazyList<>();
 
     @NonNull
     public MemoryClass parent;
@@ -27,6 +35,24 @@ public class MemoryMethod extends MemoryAnnotatedElement implements IAccessed {
     public MemoryClass baseClass = null;
     public MemoryMethod baseMethod = null;
 
+    private ControlFlowGraph controlFlowGraph;
+
+    private InsnList controlFlowGraphInstructions;
+
+    private int controlFlowGraphModification;
+
+    private Frame<BasicValue>[] frames;
+
+    private InsnList framesInstructions;
+
+    private int framesModification;
+
+    private Frame<SourceValue>[] sourceFrames;
+
+    private InsnList sourceFramesInstructions;
+
+    private int sourceFramesModification;
+
     /**
      * Loads all the annotation for the current method
      *
@@ -39,20 +65,119 @@ public class MemoryMethod extends MemoryAnnotatedElement implements IAccessed {
         this.instructions = new MemoryInstructions(this, methodNode.instructions);
 
         // initialize all the annotations
-        this.init(methodNode.visibleAnnotations, classes);
+        this.init(methodNode.visibleAnnotations, methodNode.invisibleAnnotations, classes);
+        this.loadParameters(classes);
 
-        // if the local variables are valid
-        if (methodNode.localVariables != null) {
-
-            // loop through all the variables and load them into the memory
-            methodNode.localVariables.forEach(localVariableNode
-                    -> localVariables.add(new MemoryLocalVariable(localVariableNode)));
-        }
+        // load the local variables into the memory on first access
+        this.loadLocalVariables();
 
         // return the instance of the field
         return this;
     }
 
+    /**
+     * Rebinds the method to the provided method node
+     * while keeping the current instance, its instructions
+     * and its local variables alive
+     *
+     * @param methodNode method node that you want to rebind to
+     * @param classes    map of all the loaded classes
+     */
+
+    void rebind(MethodNode methodNode, Map<String, MemoryClass> classes) {
+        // update the method node
+        this.methodNode = methodNode;
+
+        // point the instructions at the new instruction list
+        if (instructions != null) {
+            instructions.rebind(methodNode.instructions);
+        } else {
+            instructions = new MemoryInstructions(this, methodNode.instructions);
+        }
+
+        // reload all the annotations
+        this.init(methodNode.visibleAnnotations, methodNode.invisibleAnnotations, classes);
+        this.loadParameters(classes);
+
+        // get the new local variables
+        List<LocalVariableNode> localVariableNodes = methodNode.localVariables;
+
+        // if the local variables were loaded and still line up with the cached ones
+        if (((LazyList<MemoryLocalVariable>) localVariables).isLoaded()
+                && localVariableNodes != null && localVariableNodes.size() == localVariables.size()) {
+
+            // rebind every local variable to its new node
+            for (int i = 0; i < localVariableNodes.size(); i++) {
+                localVariables.get(i).rebind(localVariableNodes.get(i));
+            }
+        } else {
+
+            // else reload all the local variables on first access
+            this.loadLocalVariables();
+        }
+    }
+
+    /**
+     * Sets up the local variables of the method
+     * to be loaded into the memory on first access
+     */
+
+    private void loadLocalVariables() {
+        // get the local variables of the method node
+        List<LocalVariableNode> localVariableNodes = methodNode.localVariables;
+
+        // create the wrappers once the local variables are accessed
+        ((LazyList<MemoryLocalVariable>) localVariables).reset(() -> {
+            List<MemoryLocalVariable> variables = new ArrayList<>();
+            if (localVariableNodes != null) {
+                localVariableNodes.forEach(localVariableNode
+                        -> variables.add(new MemoryLocalVariable(localVariableNode)));
+            }
+            return variables;
+        });
+    }
+
+    /**
+     * Loads the parameters of the method, the parameters
+     * are only loaded when the method has parameter
+     * annotations since they are otherwise not needed
+     *
+     * @param classes map of all the loaded classes
+     */
+
+    private void loadParameters(Map<String, MemoryClass> classes) {
+        // clear all the previous parameters
+        parameters.clear();
+
+        // if the method does not have any parameter annotations
+        if (methodNode.visibleParameterAnnotations == null && methodNode.invisibleParameterAnnotations == null) {
+
+            // return out of the method
+            return;
+        }
+
+        // load all the parameters into the memory on first access
+        MethodNode methodNode = this.methodNode;
+        ((LazyList<MemoryParameter>) parameters).reset(() -> {
+            List<MemoryParameter> memoryParameters = new ArrayList<>();
+            int count = Type.getArgumentTypes(methodNode.desc).length;
+            for (int i = 0; i < count; i++) {
+                memoryParameters.add(new MemoryParameter(this, i).init(methodNode, classes));
+            }
+            return memoryParameters;
+        });
+    }
+
+    /**
+     * Clears the override information
+     * of the current method
+     */
+
+    void resetOverride() {
+        this.baseClass = null;
+        this.baseMethod = null;
+    }
+
     /**
      * Checks if this method overrides the provided method
      *
@@ -128,6 +253,162 @@ public class MemoryMethod extends MemoryAnnotatedElement implements IAccessed {
         return methodNode.instructions;
     }
 
+    /**
+     * Gets the control flow graph of the method, the graph is cached
+     * until the instructions are edited through {@link MemoryInstructions}
+     *
+     * @return {@link ControlFlowGraph}
+     */
+
+    public synchronized ControlFlowGraph getControlFlowGraph() {
+        // get the current state of the instructions
+        InsnList insnList = methodNode.instructions;
+        int modification = instructions != null ? instructions.getModificationCount() : -1;
+
+        // if the instructions changed since the graph was built
+        if (controlFlowGraph == null || instructions == null
+                || controlFlowGraphInstructions != insnList
+                || controlFlowGraphModification != modification) {
+
+            // build the graph again
+            controlFlowGraph = new ControlFlowGraph(insnList, methodNode.tryCatchBlocks);
+            controlFlowGraphInstructions = insnList;
+            controlFlowGraphModification = modification;
+        }
+
+        // return the graph
+        return controlFlowGraph;
+    }
+
+    /**
+     * Gets the frames of the method with the types of all the locals and
+     * stack values before every instruction, the frames are cached until
+     * the instructions are edited through {@link MemoryInstructions}
+     *
+     * @return array of the frames or null if the method could not be analyzed
+     */
+
+    public synchronized Frame<BasicValue>[] getFrames() {
+        // if the instructions changed since the frames were computed
+        if (!isCurrent(framesInstructions, framesModification)) {
+
+            // compute the frames again
+            frames = analyze(new JarVerifier(
+                    parent.classes(),
+                    Type.getObjectType(parent.name()),
+                    parent.superName() != null ? Type.getObjectType(parent.superName()) : null,
+                    parent.interfaceNames() != null
+                            ? parent.interfaceNames().stream().map(Type::getObjectType).collect(Collectors.toList())
+                            : null,
+                    parent.isInterface()
+            ));
+            framesInstructions = methodNode.instructions;
+            framesModification = instructions != null ? instructions.getModificationCount() : -1;
+        }
+
+        // return the frames
+        return frames;
+    }
+
+    /**
+     * Gets the frames of the method with the instructions that produced
+     * all the locals and stack values before every instruction, the frames
+     * are cached until the instructions are edited through {@link MemoryInstructions}
+     *
+     * @return array of the frames or null if the method could not be analyzed
+     */
+
+    public synchronized Frame<SourceValue>[] getSourceFrames() {
+        // if the instructions changed since the frames were computed
+        if (!isCurrent(sourceFramesInstructions, sourceFramesModification)) {
+
+            // compute the frames again
+            sourceFrames = analyze(new SourceInterpreter());
+            sourceFramesInstructions = methodNode.instructions;
+            sourceFramesModification = instructions != null ? instructions.getModificationCount() : -1;
+        }
+
+        // return the frames
+        return sourceFrames;
+    }
+
+    /**
+     * Checks if the value cached for the provided
+     * state of the instructions is still up to date
+     *
+     * @param insnList     instructions that the value was computed for
+     * @param modification modification count that the value was computed for
+     * @return {@link Boolean}
+     */
+
+    private boolean isCurrent(InsnList insnList, int modification) {
+        return instructions != null
+                && insnList == methodNode.instructions
+                && modification == instructions.getModificationCount();
+    }
+
+    /**
+     * Analyzes the method with the provided interpreter
+     *
+     * @param interpreter interpreter that the values will be computed with
+     * @param <V>         type of the values
+     * @return array of the frames or null if the method could not be analyzed
+     */
+
+    private <V extends Value> Frame<V>[] analyze(Interpreter<V> interpreter) {
+        // if the method was edited or the maxs were never computed the
+        // maxs might be out of date so compute them before the analysis
+        if ((instructions != null && instructions.getModificationCount() != 0)
+                || (methodNode.maxStack == 0 && methodNode.maxLocals == 0)) {
+            ASMUtil.computeMaxs(methodNode);
+        }
+
+        // analyze the method
+        try {
+            return new Analyzer<>(interpreter).analyze(parent.name(), methodNode);
+        } catch (AnalyzerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the first local that is not used by the
+     * arguments or by any of the instructions of the method
+     *
+     * @return {@link Integer}
+     */
+
+    public int nextFreeLocal() {
+        // start after the arguments of the method
+        int local = Type.getArgumentsAndReturnSizes(methodNode.desc) >> 2;
+        if (isStatic()) {
+            local--;
+        }
+
+        // move past every local that the instructions use
+        for (AbstractInsnNode instruction = methodNode.instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction instanceof VarInsnNode) {
+                int opcode = instruction.getOpcode();
+                boolean wide = opcode == Opcodes.LLOAD || opcode == Opcodes.DLOAD
+                        || opcode == Opcodes.LSTORE || opcode == Opcodes.DSTORE;
+                local = Math.max(local, ((VarInsnNode) instruction).var + (wide ? 2 : 1));
+            } else if (instruction instanceof IincInsnNode) {
+                local = Math.max(local, ((IincInsnNode) instruction).var + 1);
+            }
+        }
+        return local;
+    }
+
+    /**
+     * Returns all the try catch blocks in the method
+     *
+     * @return {@link List}
+     */
+
+    public List<TryCatchBlockNode> getTryCatchBlocks() {
+        return methodNode.tryCatchBlocks;
+    }
+
     /**
      * Gets the access of the method
      *
@@ -0,0 +1,51 @@
+package me.mat.jprocessor.jar.memory;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class MemoryParameter extends MemoryAnnotatedElement {
+
+    @NonNull
+    public final MemoryMethod parent;
+
+    public final int index;
+
+    /**
+     * Loads all the annotations of the current parameter
+     *
+     * @param methodNode method node that the parameter is from
+     * @param classes    map of all the loaded classes
+     * @return {@link MemoryParameter}
+     */
+
+    MemoryParameter init(MethodNode methodNode, Map<String, MemoryClass> classes) {
+        // initialize the visible and invisible annotations of the parameter
+        this.init(
+                get(methodNode.visibleParameterAnnotations),
+                get(methodNode.invisibleParameterAnnotations),
+                classes
+        );
+
+        // return the instance of the parameter
+        return this;
+    }
+
+    /**
+     * Gets the annotations of the current parameter
+     * from the provided parameter annotations array
+     *
+     * @param parameterAnnotations annotations of all the parameters
+     * @return {@link List}
+     */
+
+    private List<AnnotationNode> get(List<AnnotationNode>[] parameterAnnotations) {
+        return parameterAnnotations != null && index < parameterAnnotations.length ? parameterAnnotations[index] : null;
+    }
+
+}
@@ -0,0 +1,74 @@
+package me.mat.jprocessor.jar.query;
+
+import lombok.NonNull;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+public class ClassQuery extends Query<MemoryClass, ClassQuery> {
+
+    public ClassQuery(MemoryJar memoryJar) {
+        super(memoryJar);
+    }
+
+    /**
+     * Only matches the class with the provided name
+     *
+     * @param className name of the class
+     * @return {@link ClassQuery}
+     */
+
+    public ClassQuery named(@NonNull String className) {
+        return filter(QueryFilter.indexed(() -> {
+            MemoryClass memoryClass = memoryJar.getClass(className);
+            return memoryClass != null ? Collections.singletonList(memoryClass) : Collections.emptyList();
+        }));
+    }
+
+    /**
+     * Only matches the classes that directly or
+     * indirectly extend or implement the provided class
+     *
+     * @param superName name of the super class
+     * @return {@link ClassQuery}
+     */
+
+    public ClassQuery extending(@NonNull String superName) {
+        return filter(QueryFilter.indexed(()
+                -> new ArrayList<>(memoryJar.getHierarchyIndex().getAllSubClasses(superName))));
+    }
+
+    /**
+     * Only matches the classes that are
+     * annotated with the provided annotation
+     *
+     * @param annotation name of the annotation
+     * @return {@link ClassQuery}
+     */
+
+    public ClassQuery annotatedWith(@NonNull String annotation) {
+        return filter(QueryFilter.indexed(()
+                -> memoryJar.getAnnotationIndex().getAnnotatedClasses(annotation)));
+    }
+
+    /**
+     * Only matches the classes that are
+     * annotated with the provided annotation
+     *
+     * @param annotation class of the annotation
+     * @return {@link ClassQuery}
+     */
+
+    public ClassQuery annotatedWith(@NonNull Class<?> annotation) {
+        return annotatedWith(annotation.getName().replace('.', '/'));
+    }
+
+    @Override
+    protected Stream<MemoryClass> all() {
+        return memoryJar.getClasses().values().stream();
+    }
+
+}
@@ -0,0 +1,110 @@
+package me.mat.jprocessor.jar.query;
+
+import lombok.NonNull;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class FieldQuery extends Query<MemoryField, FieldQuery> {
+
+    public FieldQuery(MemoryJar memoryJar) {
+        super(memoryJar);
+    }
+
+    /**
+     * Only matches the fields with the provided name
+     *
+     * @param name name of the field
+     * @return {@link FieldQuery}
+     */
+
+    public FieldQuery named(@NonNull String name) {
+        return matching(memoryField -> memoryField.name().equals(name));
+    }
+
+    /**
+     * Only matches the fields with the provided description
+     *
+     * @param description description of the field
+     * @return {@link FieldQuery}
+     */
+
+    public FieldQuery describedAs(@NonNull String description) {
+        return matching(memoryField -> memoryField.description().equals(description));
+    }
+
+    /**
+     * Only matches the fields that are
+     * declared in the provided class
+     *
+     * @param className name of the class
+     * @return {@link FieldQuery}
+     */
+
+    public FieldQuery inClass(@NonNull String className) {
+        return filter(QueryFilter.indexed(() -> {
+            MemoryClass memoryClass = memoryJar.getClass(className);
+            return memoryClass != null ? memoryClass.fields : Collections.emptyList();
+        }));
+    }
+
+    /**
+     * Only matches the fields that are declared in the classes
+     * that directly or indirectly extend the provided class
+     *
+     * @param superName name of the super class
+     * @return {@link FieldQuery}
+     */
+
+    public FieldQuery inClassesExtending(@NonNull String superName) {
+        return filter(QueryFilter.indexed(() -> memoryJar.getHierarchyIndex().getAllSubClasses(superName)
+                .stream()
+                .flatMap(memoryClass -> memoryClass.fields.stream())
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Only matches the fields that are
+     * annotated with the provided annotation
+     *
+     * @param annotation name of the annotation
+     * @return {@link FieldQuery}
+     */
+
+    public FieldQuery annotatedWith(@NonNull String annotation) {
+        return filter(QueryFilter.indexed(()
+                -> memoryJar.getAnnotationIndex().getAnnotatedFields(annotation)));
+    }
+
+    /**
+     * Only matches the fields that are
+     * annotated with the provided annotation
+     *
+     * @param annotation class of the annotation
+     * @return {@link FieldQuery}
+     */
+
+    public FieldQuery annotatedWith(@NonNull Class<?> annotation) {
+        return annotatedWith(annotation.getName().replace('.', '/'));
+    }
+
+    /**
+     * Only matches the fields that are never used in the jar
+     *
+     * @return {@link FieldQuery}
+     */
+
+    public FieldQuery unused() {
+        return matching(memoryField -> memoryJar.getFieldUsageIndex().isUnused(memoryField));
+    }
+
+    @Override
+    protected Stream<MemoryField> all() {
+        return memoryJar.getClasses().values().stream().flatMap(memoryClass -> memoryClass.fields.stream());
+    }
+
+}
@@ -0,0 +1,167 @@
+package me.mat.jprocessor.jar.query;
+
+import lombok.NonNull;
+import me.mat.jprocessor.jar.index.CallSite;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class MethodQuery extends Query<MemoryMethod, MethodQuery> {
+
+    public MethodQuery(MemoryJar memoryJar) {
+        super(memoryJar);
+    }
+
+    /**
+     * Only matches the methods with the provided name
+     *
+     * @param name name of the method
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery named(@NonNull String name) {
+        return matching(memoryMethod -> memoryMethod.name().equals(name));
+    }
+
+    /**
+     * Only matches the methods with the provided description
+     *
+     * @param description description of the method
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery describedAs(@NonNull String description) {
+        return matching(memoryMethod -> memoryMethod.description().equals(description));
+    }
+
+    /**
+     * Only matches the methods that are
+     * declared in the provided class
+     *
+     * @param className name of the class
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery inClass(@NonNull String className) {
+        return filter(QueryFilter.indexed(() -> {
+            MemoryClass memoryClass = memoryJar.getClass(className);
+            return memoryClass != null ? memoryClass.methods : Collections.emptyList();
+        }));
+    }
+
+    /**
+     * Only matches the methods that are declared in the classes
+     * that directly or indirectly extend the provided class
+     *
+     * @param superName name of the super class
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery inClassesExtending(@NonNull String superName) {
+        return filter(QueryFilter.indexed(() -> memoryJar.getHierarchyIndex().getAllSubClasses(superName)
+                .stream()
+                .flatMap(memoryClass -> memoryClass.methods.stream())
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Only matches the methods that are
+     * annotated with the provided annotation
+     *
+     * @param annotation name of the annotation
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery annotatedWith(@NonNull String annotation) {
+        return filter(QueryFilter.indexed(()
+                -> memoryJar.getAnnotationIndex().getAnnotatedMethods(annotation)));
+    }
+
+    /**
+     * Only matches the methods that are
+     * annotated with the provided annotation
+     *
+     * @param annotation class of the annotation
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery annotatedWith(@NonNull Class<?> annotation) {
+        return annotatedWith(annotation.getName().replace('.', '/'));
+    }
+
+    /**
+     * Only matches the methods that reference the provided
+     * method, the method does not have to be loaded in the jar
+     *
+     * @param owner       owner of the method
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery calling(@NonNull String owner, @NonNull String name, @NonNull String description) {
+        return filter(QueryFilter.indexed(()
+                -> callers(memoryJar.getCallGraph().getCallers(owner, name, description))));
+    }
+
+    /**
+     * Only matches the methods that might invoke the provided
+     * method, including the virtual calls through its super classes
+     *
+     * @param memoryMethod method that has to be called
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery calling(@NonNull MemoryMethod memoryMethod) {
+        return filter(QueryFilter.indexed(()
+                -> callers(memoryJar.getCallGraph().getCallers(memoryMethod))));
+    }
+
+    /**
+     * Only matches the methods that load the provided constant
+     *
+     * @param value value of the constant
+     * @return {@link MethodQuery}
+     */
+
+    public MethodQuery usingConstant(@NonNull Object value) {
+        return filter(QueryFilter.indexed(() -> distinct(memoryJar.getConstantIndex().get(value).stream()
+                .filter(posting -> posting.memoryMethod != null)
+                .map(posting -> posting.memoryMethod))));
+    }
+
+    @Override
+    protected Stream<MemoryMethod> all() {
+        return memoryJar.getClasses().values().stream().flatMap(memoryClass -> memoryClass.methods.stream());
+    }
+
+    /**
+     * Gets all the distinct methods that contain the provided call sites
+     *
+     * @param callSites call sites that you want to get the methods for
+     * @return {@link Collection}
+     */
+
+    private static Collection<MemoryMethod> callers(List<CallSite> callSites) {
+        return distinct(callSites.stream().map(callSite -> callSite.caller));
+    }
+
+    /**
+     * Collects the provided methods while
+     * removing the duplicate instances
+     *
+     * @param methods methods that you want to collect
+     * @return {@link Collection}
+     */
+
+    private static Collection<MemoryMethod> distinct(Stream<MemoryMethod> methods) {
+        Set<MemoryMethod> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        methods.forEach(result::add);
+        return new ArrayList<>(result);
+    }
+
+}
@@ -0,0 +1,129 @@
+package me.mat.jprocessor.jar.query;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public abstract class Query<T, Q extends Query<T, Q>> {
+
+    private final List<QueryFilter<T>> filters = new ArrayList<>();
+
+    @NonNull
+    protected final MemoryJar memoryJar;
+
+    private boolean parallel = false;
+
+    /**
+     * Streams all the elements of the jar that
+     * the query is able to return
+     *
+     * @return {@link Stream}
+     */
+
+    protected abstract Stream<T> all();
+
+    /**
+     * Adds a custom filter that every result has to match
+     *
+     * @param predicate predicate that the results have to match
+     * @return {@link Query}
+     */
+
+    public Q matching(@NonNull Predicate<T> predicate) {
+        filters.add(QueryFilter.of(predicate));
+        return self();
+    }
+
+    /**
+     * Makes the query run in parallel
+     *
+     * @return {@link Query}
+     */
+
+    public Q parallel() {
+        this.parallel = true;
+        return self();
+    }
+
+    /**
+     * Plans and runs the query, the most selective
+     * index backed filter is used as the source and
+     * all the other filters are checked against it
+     *
+     * @return {@link Stream}
+     */
+
+    public Stream<T> stream() {
+        // find the indexed filter that matches the least elements
+        QueryFilter<T> source = null;
+        for (QueryFilter<T> filter : filters) {
+            if (filter.isIndexed() && (source == null || filter.getCandidates().size() < source.getCandidates().size())) {
+                source = filter;
+            }
+        }
+
+        // get the source of the query
+        Stream<T> stream;
+        if (source != null) {
+            Collection<T> candidates = source.getCandidates();
+            stream = parallel ? candidates.parallelStream() : candidates.stream();
+        } else {
+            stream = all();
+            if (parallel) {
+                stream = stream.parallel();
+            }
+        }
+
+        // apply all the remaining filters
+        for (QueryFilter<T> filter : filters) {
+            if (filter != source) {
+                stream = stream.filter(filter);
+            }
+        }
+
+        // return the planned stream
+        return stream;
+    }
+
+    /**
+     * Runs the query and collects all the results
+     *
+     * @return {@link List}
+     */
+
+    public List<T> list() {
+        return stream().collect(Collectors.toList());
+    }
+
+    /**
+     * Adds a filter to the query
+     *
+     * @param filter filter that you want to add
+     * @return {@link Query}
+     */
+
+    protected Q filter(QueryFilter<T> filter) {
+        filters.add(filter);
+        return self();
+    }
+
+    /**
+     * Returns the instance of the query
+     *
+     * @return {@link Query}
+     */
+
+    @SuppressWarnings("unchecked")
+    private Q self() {
+        return (Q) this;
+    }
+
+}
@@ -0,0 +1,104 @@
+package me.mat.jprocessor.jar.query;
+
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+class QueryFilter<T> implements Predicate<T> {
+
+    private final Predicate<T> predicate;
+
+    private final Supplier<Collection<T>> candidatesSupplier;
+
+    private Collection<T> candidates;
+
+    private volatile Set<T> candidateSet;
+
+    private QueryFilter(Predicate<T> predicate, Supplier<Collection<T>> candidatesSupplier) {
+        this.predicate = predicate;
+        this.candidatesSupplier = candidatesSupplier;
+    }
+
+    /**
+     * Creates a filter that can only be checked
+     * against the elements one by one
+     *
+     * @param predicate predicate that the elements have to match
+     * @return {@link QueryFilter}
+     */
+
+    static <T> QueryFilter<T> of(@NonNull Predicate<T> predicate) {
+        return new QueryFilter<>(predicate, null);
+    }
+
+    /**
+     * Creates a filter that is backed by an index, the index
+     * lookup is used both as the possible source of the query
+     * and to test the elements coming from other sources
+     *
+     * @param candidatesSupplier supplier of all the elements that match the filter
+     * @return {@link QueryFilter}
+     */
+
+    static <T> QueryFilter<T> indexed(@NonNull Supplier<Collection<T>> candidatesSupplier) {
+        return new QueryFilter<>(null, candidatesSupplier);
+    }
+
+    /**
+     * Checks if the filter is backed by an index
+     *
+     * @return {@link Boolean}
+     */
+
+    boolean isIndexed() {
+        return candidatesSupplier != null;
+    }
+
+    /**
+     * Gets all the elements that match the filter,
+     * only valid for the filters backed by an index
+     *
+     * @return {@link Collection}
+     */
+
+    synchronized Collection<T> getCandidates() {
+        if (candidates == null) {
+            candidates = candidatesSupplier.get();
+        }
+        return candidates;
+    }
+
+    @Override
+    public boolean test(T element) {
+        // if the filter is not backed by an index test the predicate
+        if (predicate != null) {
+            return predicate.test(element);
+        }
+
+        // else check if the element is one of the candidates
+        Set<T> set = candidateSet;
+        return (set != null ? set : getCandidateSet()).contains(element);
+    }
+
+    /**
+     * Gets all the matching elements as an identity set,
+     * since the memory elements compare by name
+     *
+     * @return {@link Set}
+     */
+
+    private synchronized Set<T> getCandidateSet() {
+        if (candidateSet == null) {
+            Set<T> set = Collections.newSetFromMap(new IdentityHashMap<>());
+            set.addAll(getCandidates());
+            candidateSet = set;
+        }
+        return candidateSet;
+    }
+
+}
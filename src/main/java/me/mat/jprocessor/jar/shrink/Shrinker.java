@@ -0,0 +1,571 @@
+package me.mat.jprocessor.jar.shrink;
+
+import lombok.NonNull;
+import me.mat.jprocessor.JProcessor;
+import me.mat.jprocessor.jar.index.CallGraph;
+import me.mat.jprocessor.jar.index.CallSite;
+import me.mat.jprocessor.jar.index.HierarchyIndex;
+import me.mat.jprocessor.jar.memory.*;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+public class Shrinker {
+
+    private static final String SERVICES = "META-INF/services/";
+
+    private static final List<String> OBJECT_METHODS = Arrays.asList(
+            "toString()Ljava/lang/String;",
+            "hashCode()I",
+            "equals(Ljava/lang/Object;)Z",
+            "clone()Ljava/lang/Object;",
+            "finalize()V"
+    );
+
+    private static final List<String> SERIALIZATION_METHODS = Arrays.asList(
+            "writeObject(Ljava/io/ObjectOutputStream;)V",
+            "readObject(Ljava/io/ObjectInputStream;)V",
+            "readObjectNoData()V",
+            "writeReplace()Ljava/lang/Object;",
+            "readResolve()Ljava/lang/Object;"
+    );
+
+    private final List<Predicate<MemoryClass>> classRules = new ArrayList<>();
+
+    private final List<Predicate<MemoryMethod>> methodRules = new ArrayList<>();
+
+    private final List<Predicate<MemoryField>> fieldRules = new ArrayList<>();
+
+    private final Set<MemoryClass> reachableClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final Set<MemoryMethod> reachableMethods = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final Set<MemoryField> reachableFields = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final Set<MemoryClass> keptClasses = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final Deque<MemoryClass> classQueue = new ArrayDeque<>();
+
+    private final Deque<MemoryMethod> methodQueue = new ArrayDeque<>();
+
+    private final Map<String, MemoryClass> classes;
+
+    private final MemoryJar memoryJar;
+
+    private HierarchyIndex hierarchyIndex;
+
+    private CallGraph callGraph;
+
+    public Shrinker(@NonNull MemoryJar memoryJar) {
+        this.memoryJar = memoryJar;
+        this.classes = memoryJar.getClasses();
+    }
+
+    /**
+     * Keeps the provided class with all of its members
+     *
+     * @param className name of the class
+     * @return {@link Shrinker}
+     */
+
+    public Shrinker keepClass(@NonNull String className) {
+        return keepClasses(memoryClass -> memoryClass.name().equals(className));
+    }
+
+    /**
+     * Keeps all the classes that match the
+     * provided rule with all of their members
+     *
+     * @param rule rule that the classes have to match
+     * @return {@link Shrinker}
+     */
+
+    public Shrinker keepClasses(@NonNull Predicate<MemoryClass> rule) {
+        classRules.add(rule);
+        return this;
+    }
+
+    /**
+     * Keeps all the methods that match the provided rule
+     *
+     * @param rule rule that the methods have to match
+     * @return {@link Shrinker}
+     */
+
+    public Shrinker keepMethods(@NonNull Predicate<MemoryMethod> rule) {
+        methodRules.add(rule);
+        return this;
+    }
+
+    /**
+     * Keeps all the fields that match the provided rule
+     *
+     * @param rule rule that the fields have to match
+     * @return {@link Shrinker}
+     */
+
+    public Shrinker keepFields(@NonNull Predicate<MemoryField> rule) {
+        fieldRules.add(rule);
+        return this;
+    }
+
+    /**
+     * Computes all the reachable classes, methods and
+     * fields and removes everything else from the jar
+     */
+
+    public void shrink() {
+        // get the indexes that the reachability is computed over
+        hierarchyIndex = memoryJar.getHierarchyIndex();
+        callGraph = memoryJar.getCallGraph();
+
+        // mark all the entry points
+        if (!markEntryPoints()) {
+
+            // if there are no entry points log to console and keep the jar untouched
+            JProcessor.Logging.warn("No entry points were found, skipping the shrinking");
+            return;
+        }
+
+        // process the work lists until nothing new is reachable
+        while (!classQueue.isEmpty() || !methodQueue.isEmpty()) {
+            while (!classQueue.isEmpty()) {
+                processClass(classQueue.poll());
+            }
+            while (!methodQueue.isEmpty()) {
+                processMethod(methodQueue.poll());
+            }
+        }
+
+        // define the counters of the removed elements
+        int removedMethods = 0;
+        int removedFields = 0;
+
+        // loop through all the reachable classes that were not kept as a whole
+        for (MemoryClass memoryClass : reachableClasses) {
+            if (keptClasses.contains(memoryClass)) {
+                continue;
+            }
+
+            // remove all the unreachable methods
+            for (MemoryMethod memoryMethod : new ArrayList<>(memoryClass.methods)) {
+                if (!reachableMethods.contains(memoryMethod)) {
+                    memoryClass.removeMethod(memoryMethod);
+                    removedMethods++;
+                }
+            }
+
+            // remove all the unreachable fields
+            for (MemoryField memoryField : new ArrayList<>(memoryClass.fields)) {
+                if (!reachableFields.contains(memoryField)) {
+                    memoryClass.removeField(memoryField);
+                    removedFields++;
+                }
+            }
+        }
+
+        // collect all the unreachable classes
+        List<String> removedClasses = new ArrayList<>();
+        classes.forEach((className, memoryClass) -> {
+            if (!reachableClasses.contains(memoryClass)) {
+                removedClasses.add(className);
+            }
+        });
+
+        // remove all the unreachable classes from the jar
+        memoryJar.removeClasses(removedClasses);
+
+        // log to console how much was removed
+        JProcessor.Logging.info(
+                "Removed '%d' classes, '%d' methods and '%d' fields",
+                removedClasses.size(), removedMethods, removedFields
+        );
+    }
+
+    /**
+     * Marks the main class, the service providers
+     * and everything that matches the keep rules
+     *
+     * @return {@link Boolean} true if any entry point was found
+     */
+
+    private boolean markEntryPoints() {
+        // mark the main class and its main method
+        MemoryManifest manifest = memoryJar.getManifest();
+        classes.values().forEach(memoryClass -> {
+            if (memoryClass.isMainClass || (manifest != null && memoryClass.name().equals(manifest.mainClass))) {
+                markClass(memoryClass);
+                memoryClass.methods.stream().filter(MemoryMethod::isMainMethod).forEach(this::markMethod);
+            }
+        });
+
+        // mark all the service providers, since they are loaded by name
+        memoryJar.getResources().forEach((path, resource) -> {
+            if (path.startsWith(SERVICES)) {
+                markClass(classes.get(path.substring(SERVICES.length()).replace('.', '/')));
+                for (String line : new String(resource.getData(), StandardCharsets.UTF_8).split("\n")) {
+                    String className = line.split("#")[0].trim().replace('.', '/');
+                    MemoryClass memoryClass = classes.get(className);
+                    if (memoryClass != null) {
+                        markClass(memoryClass);
+                        markMethod(HierarchyIndex.findMethod(memoryClass, "<init>", "()V"));
+                    }
+                }
+            }
+        });
+
+        // mark everything that matches the keep rules
+        classes.values().forEach(memoryClass -> {
+            if (classRules.stream().anyMatch(rule -> rule.test(memoryClass))) {
+                keptClasses.add(memoryClass);
+                markClass(memoryClass);
+                memoryClass.methods.forEach(this::markMethod);
+                memoryClass.fields.forEach(this::markField);
+            }
+            memoryClass.methods.stream()
+                    .filter(memoryMethod -> methodRules.stream().anyMatch(rule -> rule.test(memoryMethod)))
+                    .forEach(this::markMethod);
+            memoryClass.fields.stream()
+                    .filter(memoryField -> fieldRules.stream().anyMatch(rule -> rule.test(memoryField)))
+                    .forEach(this::markField);
+        });
+
+        // return if anything was marked
+        return !reachableClasses.isEmpty();
+    }
+
+    /**
+     * Processes a reachable class, marking everything
+     * that the class needs in order to be loaded
+     *
+     * @param memoryClass class that you want to process
+     */
+
+    private void processClass(MemoryClass memoryClass) {
+        // mark all the super types
+        markClassName(memoryClass.superName());
+        if (memoryClass.interfaceNames() != null) {
+            memoryClass.interfaceNames().forEach(this::markClassName);
+        }
+
+        // mark the outer class, the enclosing method and the nest host
+        markClass(memoryClass.outerClass());
+        markMethod(memoryClass.outerMethod());
+        markClassName(memoryClass.nestHostName());
+
+        // mark all the annotations of the class
+        markAnnotations(memoryClass);
+
+        // mark the static initializer since it runs when the class is loaded
+        markMethod(HierarchyIndex.findMethod(memoryClass, "<clinit>", "()V"));
+
+        // annotation members are read reflectively
+        if (memoryClass.isAnnotation()) {
+            memoryClass.methods.forEach(this::markMethod);
+        }
+
+        // enum constants are looked up by name
+        if (memoryClass.isEnum()) {
+            memoryClass.methods.stream()
+                    .filter(memoryMethod -> memoryMethod.name().equals("values") || memoryMethod.name().equals("valueOf"))
+                    .forEach(this::markMethod);
+        }
+
+        // collect all the super types that are not loaded in the jar
+        Set<String> externalTypes = new HashSet<>();
+        collectExternalTypes(memoryClass, externalTypes, new HashSet<>());
+        externalTypes.remove("java/lang/Object");
+
+        // loop through all the methods of the class
+        for (MemoryMethod memoryMethod : memoryClass.methods) {
+            String signature = memoryMethod.name() + memoryMethod.description();
+
+            // if the method might be called by a library type
+            // that the class extends, or by the serialization
+            if ((isVirtual(memoryMethod) && (!externalTypes.isEmpty() || OBJECT_METHODS.contains(signature)))
+                    || (externalTypes.contains("java/io/Serializable") && SERIALIZATION_METHODS.contains(signature))) {
+
+                // mark the method
+                markMethod(memoryMethod);
+            }
+        }
+
+        // serializable classes keep all of their fields
+        if (externalTypes.contains("java/io/Serializable")) {
+            memoryClass.fields.forEach(this::markField);
+        }
+
+        // mark all the overrides of the reachable methods in the super types
+        Set<MemoryClass> superTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectSuperTypes(memoryClass, superTypes);
+        for (MemoryClass superType : superTypes) {
+            for (MemoryMethod memoryMethod : superType.methods) {
+                if (reachableMethods.contains(memoryMethod) && isVirtual(memoryMethod)) {
+                    markMethod(hierarchyIndex.resolveMethod(memoryClass.name(), memoryMethod.name(), memoryMethod.description()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes a reachable method, marking everything
+     * that the method references in its body
+     *
+     * @param memoryMethod method that you want to process
+     */
+
+    private void processMethod(MemoryMethod memoryMethod) {
+        // mark the class of the method
+        markClass(memoryMethod.parent);
+
+        // mark the types of the description and the annotations
+        markDescription(memoryMethod.description());
+        markAnnotations(memoryMethod);
+        memoryMethod.parameters.forEach(this::markAnnotations);
+
+        // mark the implementations of the method in all the reachable sub classes
+        if (isVirtual(memoryMethod)) {
+            for (MemoryClass subClass : hierarchyIndex.getAllSubClasses(memoryMethod.parent.name())) {
+                if (reachableClasses.contains(subClass)) {
+                    markMethod(hierarchyIndex.resolveMethod(subClass.name(), memoryMethod.name(), memoryMethod.description()));
+                }
+            }
+        }
+
+        // mark the methods that the method calls, the overrides are marked
+        // once the classes that declare them become reachable
+        for (CallSite callSite : callGraph.getCallees(memoryMethod)) {
+            markClassName(callSite.owner);
+            markMethod(hierarchyIndex.resolveMethod(callSite.owner, callSite.name, callSite.description));
+        }
+
+        // mark all the caught exceptions
+        if (memoryMethod.getTryCatchBlocks() != null) {
+            memoryMethod.getTryCatchBlocks().forEach(tryCatchBlockNode -> markClassName(tryCatchBlockNode.type));
+        }
+
+        // loop through all the instructions
+        for (AbstractInsnNode instruction = memoryMethod.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction instanceof FieldInsnNode) {
+                FieldInsnNode fieldInsnNode = (FieldInsnNode) instruction;
+                markClassName(fieldInsnNode.owner);
+                markDescription(fieldInsnNode.desc);
+                markField(hierarchyIndex.resolveField(fieldInsnNode.owner, fieldInsnNode.name, fieldInsnNode.desc));
+            } else if (instruction instanceof MethodInsnNode) {
+                markDescription(((MethodInsnNode) instruction).desc);
+            } else if (instruction instanceof TypeInsnNode) {
+                markClassName(((TypeInsnNode) instruction).desc);
+            } else if (instruction instanceof MultiANewArrayInsnNode) {
+                markDescription(((MultiANewArrayInsnNode) instruction).desc);
+            } else if (instruction instanceof LdcInsnNode) {
+                markConstant(((LdcInsnNode) instruction).cst);
+            } else if (instruction instanceof InvokeDynamicInsnNode) {
+                InvokeDynamicInsnNode invokeDynamicInsnNode = (InvokeDynamicInsnNode) instruction;
+                markDescription(invokeDynamicInsnNode.desc);
+                markConstant(invokeDynamicInsnNode.bsm);
+                for (Object argument : invokeDynamicInsnNode.bsmArgs) {
+                    markConstant(argument);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks a class as reachable
+     *
+     * @param memoryClass class that you want to mark
+     */
+
+    private void markClass(MemoryClass memoryClass) {
+        if (memoryClass != null && reachableClasses.add(memoryClass)) {
+            classQueue.add(memoryClass);
+        }
+    }
+
+    /**
+     * Marks a class as reachable by its name, array
+     * descriptors are marked by their element type
+     *
+     * @param className name of the class that you want to mark
+     */
+
+    private void markClassName(String className) {
+        if (className == null) {
+            return;
+        }
+        if (className.startsWith("[")) {
+            markDescription(className);
+        } else {
+            markClass(classes.get(className));
+        }
+    }
+
+    /**
+     * Marks a method as reachable
+     *
+     * @param memoryMethod method that you want to mark
+     */
+
+    private void markMethod(MemoryMethod memoryMethod) {
+        if (memoryMethod != null && reachableMethods.add(memoryMethod)) {
+            methodQueue.add(memoryMethod);
+        }
+    }
+
+    /**
+     * Marks a field as reachable
+     *
+     * @param memoryField field that you want to mark
+     */
+
+    private void markField(MemoryField memoryField) {
+        if (memoryField != null && reachableFields.add(memoryField)) {
+            markClass(memoryField.parent);
+            markDescription(memoryField.description());
+            markAnnotations(memoryField);
+        }
+    }
+
+    /**
+     * Marks all the classes that are used in
+     * the provided field or method description
+     *
+     * @param description description that you want to mark
+     */
+
+    private void markDescription(String description) {
+        if (description.startsWith("(")) {
+            for (Type type : Type.getArgumentTypes(description)) {
+                markType(type);
+            }
+            markType(Type.getReturnType(description));
+        } else {
+            markType(Type.getType(description));
+        }
+    }
+
+    /**
+     * Marks the class of the provided type
+     *
+     * @param type type that you want to mark
+     */
+
+    private void markType(Type type) {
+        if (type.getSort() == Type.ARRAY) {
+            type = type.getElementType();
+        }
+        if (type.getSort() == Type.OBJECT) {
+            markClass(classes.get(type.getInternalName()));
+        } else if (type.getSort() == Type.METHOD) {
+            markDescription(type.getDescriptor());
+        }
+    }
+
+    /**
+     * Marks everything that the provided constant references
+     *
+     * @param constant constant that you want to mark
+     */
+
+    private void markConstant(Object constant) {
+        if (constant instanceof Type) {
+            markType((Type) constant);
+        } else if (constant instanceof Handle) {
+            Handle handle = (Handle) constant;
+            markClassName(handle.getOwner());
+            markDescription(handle.getDesc());
+            if (handle.getTag() < Opcodes.H_INVOKEVIRTUAL) {
+                markField(hierarchyIndex.resolveField(handle.getOwner(), handle.getName(), handle.getDesc()));
+            } else {
+                markMethod(hierarchyIndex.resolveMethod(handle.getOwner(), handle.getName(), handle.getDesc()));
+            }
+        } else if (constant instanceof ConstantDynamic) {
+            ConstantDynamic constantDynamic = (ConstantDynamic) constant;
+            markDescription(constantDynamic.getDescriptor());
+            markConstant(constantDynamic.getBootstrapMethod());
+            for (int i = 0; i < constantDynamic.getBootstrapMethodArgumentCount(); i++) {
+                markConstant(constantDynamic.getBootstrapMethodArgument(i));
+            }
+        }
+    }
+
+    /**
+     * Marks the classes of all the annotations of the provided element
+     *
+     * @param element element that you want to mark the annotations for
+     */
+
+    private void markAnnotations(MemoryAnnotatedElement element) {
+        element.annotations.forEach(memoryAnnotation -> markClass(memoryAnnotation.annotationClass));
+    }
+
+    /**
+     * Checks if the provided method is dispatched virtually
+     *
+     * @param memoryMethod method that you want to check
+     * @return {@link Boolean}
+     */
+
+    private static boolean isVirtual(MemoryMethod memoryMethod) {
+        return !memoryMethod.isStatic() && !memoryMethod.isPrivate() && !memoryMethod.name().startsWith("<");
+    }
+
+    /**
+     * Collects all the loaded super types of the provided class
+     *
+     * @param memoryClass class that you want to collect the super types for
+     * @param superTypes  set that the super types will be collected into
+     */
+
+    private void collectSuperTypes(MemoryClass memoryClass, Set<MemoryClass> superTypes) {
+        MemoryClass superClass = classes.get(memoryClass.superName());
+        if (superClass != null && superTypes.add(superClass)) {
+            collectSuperTypes(superClass, superTypes);
+        }
+        if (memoryClass.interfaceNames() != null) {
+            for (String interfaceName : memoryClass.interfaceNames()) {
+                MemoryClass interfaceClass = classes.get(interfaceName);
+                if (interfaceClass != null && superTypes.add(interfaceClass)) {
+                    collectSuperTypes(interfaceClass, superTypes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects all the super types of the
+     * provided class that are not loaded in the jar
+     *
+     * @param memoryClass   class that you want to collect the super types for
+     * @param externalTypes set that the super types will be collected into
+     * @param visited       set of the already visited classes
+     */
+
+    private void collectExternalTypes(MemoryClass memoryClass, Set<String> externalTypes, Set<String> visited) {
+        if (!visited.add(memoryClass.name())) {
+            return;
+        }
+        List<String> superTypes = new ArrayList<>();
+        if (memoryClass.superName() != null) {
+            superTypes.add(memoryClass.superName());
+        }
+        if (memoryClass.interfaceNames() != null) {
+            superTypes.addAll(memoryClass.interfaceNames());
+        }
+        for (String superType : superTypes) {
+            MemoryClass superClass = classes.get(superType);
+            if (superClass != null) {
+                collectExternalTypes(superClass, externalTypes, visited);
+            } else {
+                externalTypes.add(superType);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,328 @@
+package me.mat.jprocessor.jar.stream;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import me.mat.jprocessor.JProcessor;
+import me.mat.jprocessor.transformer.VisitorTransformer;
+import me.mat.jprocessor.util.JarUtil;
+import me.mat.jprocessor.util.asm.ClassHeader;
+import me.mat.jprocessor.util.asm.CustomClassWriter;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class StreamingJar {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final int BATCH_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * Transforms all the classes of the input jar with the provided
+     * visitor transformers and writes them into the output jar, the
+     * classes go straight from a class reader into a class writer
+     * so they are never loaded into the tree model, only the headers
+     * of the classes stay in memory while the entries are streamed
+     * through in batches of about {@value #BATCH_SIZE} bytes
+     *
+     * @param input        jar that you want to transform
+     * @param output       file that the transformed jar is written to
+     * @param pool         pool that the classes are transformed on
+     * @param transformers transformers in the order that they see the classes
+     * @throws IOException           if the input could not be read or the output could not be written
+     * @throws IllegalStateException if one of the transformers failed to transform a class
+     */
+
+    public static void transform(@NonNull File input, @NonNull File output, @NonNull ForkJoinPool pool,
+                                 @NonNull List<VisitorTransformer> transformers) throws IOException {
+        // log to console that the jar is being streamed
+        JProcessor.Logging.info("Streaming '%s' into '%s'", input.getName(), output.getAbsolutePath());
+
+        // combine the writer flags of all the transformers
+        int flags = 0;
+        for (VisitorTransformer transformer : transformers) {
+            flags |= transformer.getWriterFlags();
+        }
+        int writerFlags = flags;
+
+        // if any of the classes could not be transformed no partial jar is left behind
+        try {
+            stream(input, output, pool, transformers, writerFlags);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(output.toPath());
+            throw e;
+        }
+    }
+
+    /**
+     * Streams all the entries of the input jar through
+     * the transformers and into the output jar
+     *
+     * @param input        jar that you want to transform
+     * @param output       file that the transformed jar is written to
+     * @param pool         pool that the classes are transformed on
+     * @param transformers transformers in the order that they see the classes
+     * @param writerFlags  flags of the class writers
+     * @throws IOException if the input could not be read or the output could not be written
+     */
+
+    private static void stream(File input, File output, ForkJoinPool pool, List<VisitorTransformer> transformers,
+                               int writerFlags) throws IOException {
+        try (JarFile jarFile = new JarFile(input);
+             JarOutputStream out = new JarOutputStream(Files.newOutputStream(output.toPath()))) {
+
+            // only the frames need the headers of the classes to find their common super classes
+            Map<String, ClassHeader> headers = (writerFlags & ClassWriter.COMPUTE_FRAMES) != 0
+                    ? readHeaders(jarFile, pool, transformers)
+                    : Collections.emptyMap();
+
+            // transform the entries in batches and write every batch in the order of the entries
+            read(jarFile, batch -> {
+                pool.submit(() -> batch.parallelStream()
+                        .filter(entry -> entry.name.endsWith(CLASS_SUFFIX))
+                        .forEach(entry -> transform(entry, transformers, writerFlags, headers))).join();
+                for (Entry entry : batch) {
+                    out.putNextEntry(new JarEntry(entry.name));
+                    out.write(entry.data);
+                    out.closeEntry();
+                }
+            });
+        }
+    }
+
+    /**
+     * Transforms all the classes of the input jar on the common pool
+     *
+     * @param input        jar that you want to transform
+     * @param output       file that the transformed jar is written to
+     * @param transformers transformers in the order that they see the classes
+     * @throws IOException if the input could not be read or the output could not be written
+     */
+
+    public static void transform(File input, File output, VisitorTransformer... transformers) throws IOException {
+        List<VisitorTransformer> list = new ArrayList<>();
+        for (VisitorTransformer transformer : transformers) {
+            list.add(transformer);
+        }
+        transform(input, output, ForkJoinPool.commonPool(), list);
+    }
+
+    /**
+     * Reads the headers of all the classes as the transformers leave
+     * them, the writers see the renamed classes so their headers have
+     * to be found by the new names, the code of the classes is skipped
+     *
+     * @param jarFile      jar that you want to read the headers from
+     * @param pool         pool that the headers are read on
+     * @param transformers transformers in the order that they see the classes
+     * @return {@link Map}
+     * @throws IOException if the jar could not be read
+     */
+
+    private static Map<String, ClassHeader> readHeaders(JarFile jarFile, ForkJoinPool pool,
+                                                        List<VisitorTransformer> transformers) throws IOException {
+        Map<String, ClassHeader> headers = new HashMap<>();
+        read(jarFile, batch -> {
+            pool.submit(() -> batch.parallelStream().forEach(entry -> readHeader(entry, transformers))).join();
+
+            // the first class with a name wins, in the order of the entries
+            batch.forEach(entry -> {
+                if (entry.header != null) {
+                    headers.putIfAbsent(entry.header.name, entry.header);
+                }
+            });
+        });
+        return headers;
+    }
+
+    /**
+     * Reads the header of a single class by streaming it through the
+     * transformers without its code and recording what comes out
+     *
+     * @param entry        entry of the class
+     * @param transformers transformers in the order that they see the class
+     */
+
+    private static void readHeader(Entry entry, List<VisitorTransformer> transformers) {
+        // if the class can not be parsed it has no header, it is reported once it gets copied
+        ClassReader classReader;
+        try {
+            classReader = new ClassReader(entry.data);
+        } catch (RuntimeException e) {
+            return;
+        }
+
+        // record the header that comes out of the end of the chain
+        ClassVisitor classVisitor = new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                entry.header = new ClassHeader(name, access, superName);
+            }
+        };
+        for (int i = transformers.size() - 1; i >= 0; i--) {
+            classVisitor = transformers.get(i).transform(classVisitor);
+        }
+
+        // stream the class through the chain
+        try {
+            classReader.accept(classVisitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to transform '" + entry.name + "'", e);
+        }
+    }
+
+    /**
+     * Transforms a single class by chaining the visitors of all
+     * the transformers between its reader and a new writer, the
+     * classes that can not be parsed are copied without any changes
+     *
+     * @param entry        entry of the class
+     * @param transformers transformers in the order that they see the class
+     * @param flags        flags of the class writer
+     * @param headers      headers of all the classes in the jar by their transformed names
+     */
+
+    private static void transform(Entry entry, List<VisitorTransformer> transformers, int flags, Map<String, ClassHeader> headers) {
+        // if the class can not be parsed copy it as it is
+        ClassReader classReader = entry.reader();
+        if (classReader == null) {
+            return;
+        }
+
+        try {
+            // the writer shares the constant pool of the reader so the unchanged parts are copied
+            ClassWriter classWriter = new CustomClassWriter(classReader, flags, headers);
+
+            // chain the transformers so that the first one receives the class first
+            ClassVisitor classVisitor = classWriter;
+            for (int i = transformers.size() - 1; i >= 0; i--) {
+                classVisitor = transformers.get(i).transform(classVisitor);
+            }
+
+            // stream the class through the chain
+            classReader.accept(classVisitor, 0);
+            entry.data = classWriter.toByteArray();
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to transform '" + entry.name + "'", e);
+        }
+
+        // if the class was renamed its entry follows the new name, in the same directory
+        String oldPath = classReader.getClassName() + CLASS_SUFFIX;
+        String newPath = new ClassReader(entry.data).getClassName() + CLASS_SUFFIX;
+        if (!oldPath.equals(newPath) && entry.name.endsWith(oldPath)) {
+            entry.name = entry.name.substring(0, entry.name.length() - oldPath.length()) + newPath;
+        }
+
+        // release the original data of the class
+        entry.classReader = null;
+    }
+
+    /**
+     * Reads the entries of the jar in their order and passes them on in
+     * batches, so only a single batch of entries is in memory at once,
+     * the signature files are skipped since the transformed classes break them
+     *
+     * @param jarFile  jar that you want to read
+     * @param consumer consumer that handles every batch of the entries
+     * @throws IOException if the jar could not be read
+     */
+
+    private static void read(JarFile jarFile, BatchConsumer consumer) throws IOException {
+        List<Entry> batch = new ArrayList<>();
+        long size = 0;
+
+        // loop through all the jar entries
+        Enumeration<JarEntry> enumeration = jarFile.entries();
+        while (enumeration.hasMoreElements()) {
+            JarEntry jarEntry = enumeration.nextElement();
+
+            // if the entry is a directory or a signature skip it
+            String name = jarEntry.getName();
+            if (jarEntry.isDirectory() || name.endsWith(".SF") || name.endsWith(".RSA") || name.endsWith(".DSA")) {
+                continue;
+            }
+
+            // read the data of the entry
+            try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+                Entry entry = new Entry(name, JarUtil.read(inputStream));
+                batch.add(entry);
+                size += entry.data.length;
+            }
+
+            // if the batch is full pass it on and start a new one
+            if (size >= BATCH_SIZE) {
+                consumer.accept(batch);
+                batch = new ArrayList<>();
+                size = 0;
+            }
+        }
+
+        // pass on the last batch
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BatchConsumer {
+
+        void accept(List<Entry> batch) throws IOException;
+
+    }
+
+    private static final class Entry {
+
+        private String name;
+
+        private byte[] data;
+
+        private ClassReader classReader;
+
+        private ClassHeader header;
+
+        private boolean parsed;
+
+        private Entry(String name, byte[] data) {
+            this.name = name;
+            this.data = data;
+        }
+
+        /**
+         * Gets the reader for the original data of the entry,
+         * the entry is only parsed once
+         *
+         * @return {@link ClassReader} or null if the entry is not a valid class
+         */
+
+        private ClassReader reader() {
+            // if the entry was already parsed return the reader
+            if (parsed || !name.endsWith(CLASS_SUFFIX)) {
+                return classReader;
+            }
+            parsed = true;
+
+            // parse the header of the class
+            try {
+                classReader = new ClassReader(data);
+            } catch (RuntimeException e) {
+                JProcessor.Logging.warn("Copying '%s' without transforming it, it is not a valid class: %s", name, e);
+            }
+            return classReader;
+        }
+
+    }
+
+}
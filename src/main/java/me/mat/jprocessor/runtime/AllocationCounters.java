@@ -0,0 +1,117 @@
+package me.mat.jprocessor.runtime;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the allocations that the allocation instrumentation records,
+ * this class is copied into the processed jar so it can only depend on
+ * the standard library, the amount of the probes is patched in by the
+ * instrumentation
+ */
+
+public final class AllocationCounters {
+
+    private static final int PROBES = probes();
+
+    private static final LongAdder[] COUNTS = create(PROBES);
+
+    private AllocationCounters() {
+    }
+
+    /**
+     * Records an allocation at the provided site
+     *
+     * @param id id of the allocation site
+     */
+
+    public static void allocate(int id) {
+        COUNTS[id].increment();
+    }
+
+    /**
+     * Returns the amount of the allocation sites
+     *
+     * @return {@link Integer}
+     */
+
+    public static int size() {
+        return PROBES;
+    }
+
+    /**
+     * Gets the amount of the allocations at the provided site
+     *
+     * @param id id of the allocation site
+     * @return {@link Long}
+     */
+
+    public static long getCount(int id) {
+        return COUNTS[id].sum();
+    }
+
+    /**
+     * Resets all the counters
+     */
+
+    public static void reset() {
+        for (LongAdder count : COUNTS) {
+            count.reset();
+        }
+    }
+
+    /**
+     * Prints all the allocation sites that allocated
+     * anything, the most allocating sites come first
+     *
+     * @param out stream that you want to print to
+     */
+
+    public static void dump(PrintStream out) {
+        // take a snapshot of all the counters
+        long[] counts = new long[PROBES];
+        Integer[] sites = new Integer[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            counts[i] = getCount(i);
+            sites[i] = i;
+        }
+
+        // sort the sites by their counts
+        Arrays.sort(sites, (first, second) -> Long.compare(counts[second], counts[first]));
+
+        // print all the sites that allocated anything
+        String[] names = ProbeTables.load("allocation", PROBES);
+        for (Integer site : sites) {
+            if (counts[site] > 0) {
+                out.println(names[site] + " count=" + counts[site]);
+            }
+        }
+    }
+
+    /**
+     * Creates the counters for all the probes
+     *
+     * @param probes amount of the probes
+     * @return {@link LongAdder[]}
+     */
+
+    private static LongAdder[] create(int probes) {
+        LongAdder[] counters = new LongAdder[probes];
+        for (int i = 0; i < probes; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Returns the amount of the probes, patched by the instrumentation
+     *
+     * @return {@link Integer}
+     */
+
+    private static int probes() {
+        return 0;
+    }
+
+}
@@ -0,0 +1,166 @@
+package me.mat.jprocessor.runtime;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Holds the probe arrays that the coverage instrumentation records into,
+ * this class is copied into the processed jar so it can only depend on
+ * the standard library, the amount of the probes is patched in by the
+ * instrumentation
+ *
+ * <p>every class owns a contiguous range of the probes, its array is stored
+ * at the id of its first probe and is created on the first invocation</p>
+ */
+
+public final class CoverageProbes {
+
+    public static final int MAGIC = 0x4A50434F;
+
+    private static final int PROBES = probes();
+
+    private static final boolean[][] ARRAYS = new boolean[PROBES][];
+
+    private CoverageProbes() {
+    }
+
+    /**
+     * Gets the probe array of the class, the instrumented
+     * methods call this once per invocation
+     *
+     * @param first id of the first probe of the class
+     * @param size  amount of the probes of the class
+     * @return {@link Boolean[]}
+     */
+
+    public static boolean[] get(int first, int size) {
+        boolean[] probes = ARRAYS[first];
+        return probes != null ? probes : create(first, size);
+    }
+
+    /**
+     * Returns the amount of the probes
+     *
+     * @return {@link Integer}
+     */
+
+    public static int size() {
+        return PROBES;
+    }
+
+    /**
+     * Checks if the provided probe was executed
+     *
+     * @param id id of the probe
+     * @return {@link Boolean}
+     */
+
+    public static boolean isCovered(int id) {
+        // find the array of the class that the probe could belong to
+        for (int first = id; first >= 0; first--) {
+            boolean[] probes = ARRAYS[first];
+            if (probes != null) {
+
+                // if the probe is outside of the array the class was never executed
+                return id - first < probes.length && probes[id - first];
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resets all the probes
+     */
+
+    public static void reset() {
+        for (boolean[] probes : ARRAYS) {
+            if (probes != null) {
+                Arrays.fill(probes, false);
+            }
+        }
+    }
+
+    /**
+     * Writes the state of all the probes ordered by their id
+     *
+     * @param out stream that you want to write to
+     * @throws IOException if the stream could not be written to
+     */
+
+    public static void dump(OutputStream out) throws IOException {
+        DataOutputStream output = new DataOutputStream(out);
+        output.writeInt(MAGIC);
+        output.writeInt(PROBES);
+        for (boolean covered : snapshot()) {
+            output.writeBoolean(covered);
+        }
+        output.flush();
+    }
+
+    /**
+     * Prints all the probes that were not executed
+     *
+     * @param out stream that you want to print to
+     */
+
+    public static void dump(PrintStream out) {
+        String[] names = ProbeTables.load("coverage", PROBES);
+        boolean[] snapshot = snapshot();
+        int covered = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (snapshot[i]) {
+                covered++;
+            } else {
+                out.println("missed " + names[i]);
+            }
+        }
+        out.println("covered " + covered + " of " + PROBES + " blocks");
+    }
+
+    /**
+     * Copies the state of all the probes ordered by their id in a single
+     * pass over the arrays, every array covers the range of its class
+     *
+     * @return {@link Boolean[]}
+     */
+
+    private static boolean[] snapshot() {
+        boolean[] snapshot = new boolean[PROBES];
+        for (int first = 0; first < PROBES; first++) {
+            boolean[] probes = ARRAYS[first];
+            if (probes != null) {
+                System.arraycopy(probes, 0, snapshot, first, Math.min(probes.length, PROBES - first));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Creates the probe array of the class
+     *
+     * @param first id of the first probe of the class
+     * @param size  amount of the probes of the class
+     * @return {@link Boolean[]}
+     */
+
+    private static synchronized boolean[] create(int first, int size) {
+        if (ARRAYS[first] == null) {
+            ARRAYS[first] = new boolean[size];
+        }
+        return ARRAYS[first];
+    }
+
+    /**
+     * Returns the amount of the probes, patched by the instrumentation
+     *
+     * @return {@link Integer}
+     */
+
+    private static int probes() {
+        return 0;
+    }
+
+}
@@ -0,0 +1,164 @@
+package me.mat.jprocessor.runtime;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the lock wait times that the lock instrumentation records,
+ * this class is copied into the processed jar so it can only depend on
+ * the standard library, the amount of the probes is patched in by the
+ * instrumentation
+ */
+
+public final class LockTimings {
+
+    private static final int PROBES = probes();
+
+    private static final LongAdder[] ACQUIRES = create(PROBES);
+
+    private static final LongAdder[] NANOS = create(PROBES);
+
+    private static final LongAccumulator[] MAX_NANOS = createMax(PROBES);
+
+    private LockTimings() {
+    }
+
+    /**
+     * Returns the time right before a lock is acquired
+     *
+     * @return {@link Long}
+     */
+
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records that the lock of the provided site was acquired
+     *
+     * @param id    id of the lock site
+     * @param start start time that was returned by {@link #start()}
+     */
+
+    public static void acquired(int id, long start) {
+        long wait = System.nanoTime() - start;
+        ACQUIRES[id].increment();
+        NANOS[id].add(wait);
+        MAX_NANOS[id].accumulate(wait);
+    }
+
+    /**
+     * Returns the amount of the lock sites
+     *
+     * @return {@link Integer}
+     */
+
+    public static int size() {
+        return PROBES;
+    }
+
+    /**
+     * Gets the amount of the acquires of the provided lock site
+     *
+     * @param id id of the lock site
+     * @return {@link Long}
+     */
+
+    public static long getAcquires(int id) {
+        return ACQUIRES[id].sum();
+    }
+
+    /**
+     * Gets the total wait time of the provided lock site
+     *
+     * @param id id of the lock site
+     * @return time in nanoseconds
+     */
+
+    public static long getNanos(int id) {
+        return NANOS[id].sum();
+    }
+
+    /**
+     * Gets the longest wait time of the provided lock site
+     *
+     * @param id id of the lock site
+     * @return time in nanoseconds
+     */
+
+    public static long getMaxNanos(int id) {
+        return MAX_NANOS[id].get();
+    }
+
+    /**
+     * Resets all the counters
+     */
+
+    public static void reset() {
+        for (int i = 0; i < PROBES; i++) {
+            ACQUIRES[i].reset();
+            NANOS[i].reset();
+            MAX_NANOS[i].reset();
+        }
+    }
+
+    /**
+     * Prints the wait times of all the acquired lock sites
+     *
+     * @param out stream that you want to print to
+     */
+
+    public static void dump(PrintStream out) {
+        String[] names = ProbeTables.load("lock", PROBES);
+        for (int i = 0; i < PROBES; i++) {
+            long acquires = getAcquires(i);
+            if (acquires == 0) {
+                continue;
+            }
+            out.println(names[i] + " acquires=" + acquires + " totalWaitNanos=" + getNanos(i)
+                    + " avgWaitNanos=" + getNanos(i) / acquires + " maxWaitNanos=" + getMaxNanos(i));
+        }
+    }
+
+    /**
+     * Creates the counters for all the probes
+     *
+     * @param probes amount of the probes
+     * @return {@link LongAdder[]}
+     */
+
+    private static LongAdder[] create(int probes) {
+        LongAdder[] counters = new LongAdder[probes];
+        for (int i = 0; i < probes; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Creates the maximum trackers for all the probes
+     *
+     * @param probes amount of the probes
+     * @return {@link LongAccumulator[]}
+     */
+
+    private static LongAccumulator[] createMax(int probes) {
+        LongAccumulator[] accumulators = new LongAccumulator[probes];
+        for (int i = 0; i < probes; i++) {
+            accumulators[i] = new LongAccumulator(Math::max, 0);
+        }
+        return accumulators;
+    }
+
+    /**
+     * Returns the amount of the probes, patched by the instrumentation
+     *
+     * @return {@link Integer}
+     */
+
+    private static int probes() {
+        return 0;
+    }
+
+}
@@ -0,0 +1,166 @@
+package me.mat.jprocessor.runtime;
+
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the timings that the timing instrumentation records, this
+ * class is copied into the processed jar so it can only depend on the
+ * standard library, the amount of the probes and the sample rate are
+ * patched in by the instrumentation, only the sampled calls touch any
+ * of the counters so the amount of the calls is estimated from them
+ */
+
+public final class MethodTimings {
+
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final int PROBES = probes();
+
+    private static final int SAMPLE_RATE = sampleRate();
+
+    private static final LongAdder[] SAMPLES = create(PROBES);
+
+    private static final LongAdder[] NANOS = create(PROBES);
+
+    private MethodTimings() {
+    }
+
+    /**
+     * Records the entry into the provided method
+     *
+     * @param id id of the method
+     * @return start time of the call or {@link #NOT_SAMPLED}
+     */
+
+    public static long enter(int id) {
+        if (SAMPLE_RATE > 1 && ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the exit from the provided method
+     *
+     * @param id    id of the method
+     * @param start start time that was returned by {@link #enter(int)}
+     */
+
+    public static void exit(int id, long start) {
+        if (start != NOT_SAMPLED) {
+            NANOS[id].add(System.nanoTime() - start);
+            SAMPLES[id].increment();
+        }
+    }
+
+    /**
+     * Returns the amount of the instrumented methods
+     *
+     * @return {@link Integer}
+     */
+
+    public static int size() {
+        return PROBES;
+    }
+
+    /**
+     * Gets the amount of the calls of the provided method, scaled
+     * from the timed calls so it is only exact without sampling
+     *
+     * @param id id of the method
+     * @return {@link Long}
+     */
+
+    public static long getCalls(int id) {
+        return getSamples(id) * SAMPLE_RATE;
+    }
+
+    /**
+     * Gets the amount of the timed calls of the provided method
+     *
+     * @param id id of the method
+     * @return {@link Long}
+     */
+
+    public static long getSamples(int id) {
+        return SAMPLES[id].sum();
+    }
+
+    /**
+     * Gets the total time of the timed calls of the provided method
+     *
+     * @param id id of the method
+     * @return time in nanoseconds
+     */
+
+    public static long getNanos(int id) {
+        return NANOS[id].sum();
+    }
+
+    /**
+     * Resets all the counters
+     */
+
+    public static void reset() {
+        for (int i = 0; i < PROBES; i++) {
+            SAMPLES[i].reset();
+            NANOS[i].reset();
+        }
+    }
+
+    /**
+     * Prints the timings of all the called methods
+     *
+     * @param out stream that you want to print to
+     */
+
+    public static void dump(PrintStream out) {
+        String[] names = ProbeTables.load("timing", PROBES);
+        for (int i = 0; i < PROBES; i++) {
+            long samples = getSamples(i);
+            if (samples == 0) {
+                continue;
+            }
+            out.println(names[i] + " calls=" + getCalls(i) + " samples=" + samples
+                    + " avgNanos=" + getNanos(i) / samples);
+        }
+    }
+
+    /**
+     * Creates the counters for all the probes
+     *
+     * @param probes amount of the probes
+     * @return {@link LongAdder[]}
+     */
+
+    private static LongAdder[] create(int probes) {
+        LongAdder[] counters = new LongAdder[probes];
+        for (int i = 0; i < probes; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Returns the amount of the probes, patched by the instrumentation
+     *
+     * @return {@link Integer}
+     */
+
+    private static int probes() {
+        return 0;
+    }
+
+    /**
+     * Returns the sample rate, patched by the instrumentation
+     *
+     * @return {@link Integer}
+     */
+
+    private static int sampleRate() {
+        return 1;
+    }
+
+}
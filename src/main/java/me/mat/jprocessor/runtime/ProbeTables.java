@@ -0,0 +1,69 @@
+package me.mat.jprocessor.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the probe tables that the instrumentation embeds into the jar,
+ * this class is copied into the processed jar so it can only depend
+ * on the standard library, the tables are stored next to the class
+ * since every jar gets its own copy of the runtime in its own package
+ */
+
+public final class ProbeTables {
+
+    private ProbeTables() {
+    }
+
+    /**
+     * Loads the readable names of all the probes of the provided kind,
+     * the probes that are missing from the table are named by their id
+     *
+     * @param kind   kind of the instrumentation
+     * @param probes amount of the probes
+     * @return array of the names indexed by the probe id
+     */
+
+    public static String[] load(String kind, int probes) {
+        // name all the probes by their id
+        String[] names = new String[probes];
+        for (int i = 0; i < probes; i++) {
+            names[i] = "#" + i;
+        }
+
+        // if the table was not embedded return the ids
+        InputStream inputStream = ProbeTables.class.getResourceAsStream(kind + ".table");
+        if (inputStream == null) {
+            return names;
+        }
+
+        // read all the entries of the table
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                // if the entry is not valid skip it
+                String[] parts = line.split("\t", -1);
+                if (parts.length < 6) {
+                    continue;
+                }
+
+                // if the id is in range name the probe
+                int id = Integer.parseInt(parts[0]);
+                if (id >= 0 && id < probes) {
+                    names[id] = parts[1].replace('/', '.') + "." + parts[2] + parts[3]
+                            + (parts[4].equals("-1") ? "" : ":" + parts[4])
+                            + (parts[5].isEmpty() ? "" : " " + parts[5]);
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+
+        // return the names of the probes
+        return names;
+    }
+
+}
@@ -0,0 +1,144 @@
+package me.mat.jprocessor.runtime;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the method entries and exits that the trace instrumentation
+ * places into a preallocated off heap ring buffer, this class is copied
+ * into the processed jar so it can only depend on the standard library,
+ * the capacity of the buffer is patched in by the instrumentation
+ */
+
+public final class TraceBuffer {
+
+    public static final int MAGIC = 0x4A505452;
+
+    public static final int ENTRY = 0;
+
+    public static final int EXIT = 1;
+
+    public static final int EVENT_SIZE = 24;
+
+    private static final int CAPACITY = capacity();
+
+    private static final ByteBuffer BUFFER = ByteBuffer.allocateDirect(CAPACITY * EVENT_SIZE).order(ByteOrder.nativeOrder());
+
+    private static final AtomicLong WRITTEN = new AtomicLong();
+
+    private TraceBuffer() {
+    }
+
+    /**
+     * Records the entry into the provided method
+     *
+     * @param id id of the method
+     */
+
+    public static void enter(int id) {
+        record(id, ENTRY);
+    }
+
+    /**
+     * Records the exit from the provided method
+     *
+     * @param id id of the method
+     */
+
+    public static void exit(int id) {
+        record(id, EXIT);
+    }
+
+    /**
+     * Returns the amount of the events that the buffer can hold
+     *
+     * @return {@link Integer}
+     */
+
+    public static int size() {
+        return CAPACITY;
+    }
+
+    /**
+     * Returns the amount of the events that were recorded
+     * since the start, including the overwritten ones
+     *
+     * @return {@link Long}
+     */
+
+    public static long getWritten() {
+        return WRITTEN.get();
+    }
+
+    /**
+     * Writes all the events that are still in the buffer from the oldest to
+     * the newest one, the events that are recorded while the buffer is
+     * dumped can overwrite the events that are being written
+     *
+     * @param out stream that you want to write to
+     * @throws IOException if the stream could not be written to
+     */
+
+    public static void dump(OutputStream out) throws IOException {
+        // write the header of the dump
+        DataOutputStream output = new DataOutputStream(out);
+        long written = WRITTEN.get();
+        int events = (int) Math.min(written, CAPACITY);
+        output.writeInt(MAGIC);
+        output.writeLong(written);
+        output.writeInt(events);
+
+        // write all the events starting with the oldest one
+        for (long sequence = written - events; sequence < written; sequence++) {
+            int offset = offset(sequence);
+            output.writeLong(BUFFER.getLong(offset));
+            output.writeLong(BUFFER.getLong(offset + 8));
+            output.writeInt(BUFFER.getInt(offset + 16));
+            output.writeInt(BUFFER.getInt(offset + 20));
+        }
+        output.flush();
+    }
+
+    /**
+     * Records an event into the next slot of the buffer, without
+     * any allocation so it can be used on the hot paths
+     *
+     * @param id   id of the method
+     * @param type type of the event
+     */
+
+    private static void record(int id, int type) {
+        int offset = offset(WRITTEN.getAndIncrement());
+        BUFFER.putLong(offset, System.nanoTime());
+        BUFFER.putLong(offset + 8, Thread.currentThread().getId());
+        BUFFER.putInt(offset + 16, id);
+        BUFFER.putInt(offset + 20, type);
+    }
+
+    /**
+     * Gets the offset of the slot of the provided event in the buffer
+     *
+     * @param sequence sequence number of the event
+     * @return {@link Integer}
+     */
+
+    private static int offset(long sequence) {
+        return (int) (sequence & (CAPACITY - 1)) * EVENT_SIZE;
+    }
+
+    /**
+     * Returns the amount of the events that the buffer can
+     * hold, always a power of two, patched by the instrumentation
+     *
+     * @return {@link Integer}
+     */
+
+    private static int capacity() {
+        return 1 << 16;
+    }
+
+}
@@ -0,0 +1,22 @@
+package me.mat.jprocessor.transformer;
+
+/**
+ * Marks a transformer that only reads and writes the class that it is
+ * given and is safe to use from many threads at once, the jar runs
+ * these transformers on its transform pool instead of one class at a time
+ */
+
+public interface ParallelTransformer {
+
+    /**
+     * Checks if the transformer can currently run on many classes
+     * at once, for the transformers that combine other transformers
+     *
+     * @return {@link Boolean}
+     */
+
+    default boolean isParallel() {
+        return true;
+    }
+
+}
@@ -0,0 +1,133 @@
+package me.mat.jprocessor.transformer;
+
+import lombok.NonNull;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fuses many transformers into a single traversal of the jar, every class,
+ * field, method and instruction is visited once and handed to all the
+ * transformers in the order that they were added
+ *
+ * <p>unlike running the transformers one after another, a transformer sees
+ * an instruction right after the earlier transformers visited that same
+ * instruction, not after they visited the whole jar, an instruction that
+ * an earlier transformer removes is not handed to the later ones</p>
+ */
+
+public class TransformerPipeline implements ClassTransformer, ParallelTransformer {
+
+    private final List<Object> transformers = new ArrayList<>();
+
+    private final List<ClassTransformer> classTransformers = new ArrayList<>();
+
+    private final List<FieldTransformer> fieldTransformers = new ArrayList<>();
+
+    private final List<MethodTransformer> methodTransformers = new ArrayList<>();
+
+    /**
+     * Adds a class transformer to the end of the pipeline,
+     * it also receives all the fields, methods and instructions
+     *
+     * @param classTransformer class transformer that you want to add
+     * @return {@link TransformerPipeline}
+     */
+
+    public TransformerPipeline add(@NonNull ClassTransformer classTransformer) {
+        transformers.add(classTransformer);
+        classTransformers.add(classTransformer);
+        fieldTransformers.add(classTransformer);
+        methodTransformers.add(classTransformer);
+        return this;
+    }
+
+    /**
+     * Adds a field transformer to the end of the pipeline
+     *
+     * @param fieldTransformer field transformer that you want to add
+     * @return {@link TransformerPipeline}
+     */
+
+    public TransformerPipeline add(@NonNull FieldTransformer fieldTransformer) {
+        transformers.add(fieldTransformer);
+        fieldTransformers.add(fieldTransformer);
+        return this;
+    }
+
+    /**
+     * Adds a method transformer to the end of the pipeline,
+     * it also receives all the instructions
+     *
+     * @param methodTransformer method transformer that you want to add
+     * @return {@link TransformerPipeline}
+     */
+
+    public TransformerPipeline add(@NonNull MethodTransformer methodTransformer) {
+        transformers.add(methodTransformer);
+        methodTransformers.add(methodTransformer);
+        return this;
+    }
+
+    /**
+     * Checks if the pipeline can run on many classes at
+     * once, which is only the case if all the transformers can
+     *
+     * @return {@link Boolean}
+     */
+
+    @Override
+    public boolean isParallel() {
+        return transformers.stream().allMatch(transformer -> transformer instanceof ParallelTransformer
+                && ((ParallelTransformer) transformer).isParallel());
+    }
+
+    @Override
+    public void transform(MemoryClass memoryClass) {
+        classTransformers.forEach(classTransformer -> classTransformer.transform(memoryClass));
+    }
+
+    @Override
+    public void transform(MemoryClass memoryClass, MemoryField memoryField) {
+        fieldTransformers.forEach(fieldTransformer -> fieldTransformer.transform(memoryClass, memoryField));
+    }
+
+    @Override
+    public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod) {
+        methodTransformers.forEach(methodTransformer -> methodTransformer.transform(memoryClass, memoryMethod));
+    }
+
+    @Override
+    public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod,
+                          MemoryInstructions instructions, AbstractInsnNode instruction) {
+        for (MethodTransformer methodTransformer : methodTransformers) {
+
+            // if one of the earlier transformers removed the instruction stop
+            if (isRemoved(instructions, instruction)) {
+                return;
+            }
+
+            // transform the instruction
+            methodTransformer.transform(memoryClass, memoryMethod, instructions, instruction);
+        }
+    }
+
+    /**
+     * Checks if the provided instruction is no longer in the instructions
+     *
+     * @param instructions instructions of the method
+     * @param instruction  instruction that you want to check
+     * @return {@link Boolean}
+     */
+
+    private static boolean isRemoved(MemoryInstructions instructions, AbstractInsnNode instruction) {
+        return instruction.getPrevious() == null && instruction.getNext() == null
+                && instructions.getFirst() != instruction;
+    }
+
+}
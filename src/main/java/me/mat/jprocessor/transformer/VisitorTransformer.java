@@ -0,0 +1,37 @@
+package me.mat.jprocessor.transformer;
+
+import org.objectweb.asm.ClassVisitor;
+
+/**
+ * Transforms the classes while they are streamed from a class reader into
+ * a class writer, without loading them into the tree model, the same
+ * transformer is used from many threads at once so it has to be thread safe
+ */
+
+public interface VisitorTransformer {
+
+    /**
+     * Wraps the next visitor of the chain with the visitor of the
+     * transformer, a new visitor is requested for every class, when
+     * the frames are computed every class is also streamed through
+     * the chain once without its code to learn its transformed header
+     *
+     * @param next visitor that receives the transformed class
+     * @return {@link ClassVisitor} or the next visitor if the transformer does nothing
+     */
+
+    ClassVisitor transform(ClassVisitor next);
+
+    /**
+     * Returns the flags that the class writer needs for the edits of the
+     * transformer, the unchanged methods are only copied without
+     * being parsed again when none of the transformers need any
+     *
+     * @return flags of the {@link org.objectweb.asm.ClassWriter}
+     */
+
+    default int getWriterFlags() {
+        return 0;
+    }
+
+}
@@ -0,0 +1,720 @@
+package me.mat.jprocessor.transformer.impl;
+
+import lombok.NonNull;
+import me.mat.jprocessor.jar.index.CallGraph;
+import me.mat.jprocessor.jar.index.HierarchyIndex;
+import me.mat.jprocessor.jar.memory.*;
+import me.mat.jprocessor.transformer.ClassTransformer;
+import me.mat.jprocessor.util.asm.IAccessed;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+import org.objectweb.asm.tree.analysis.BasicValue;
+import org.objectweb.asm.tree.analysis.Frame;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MethodInliner implements ClassTransformer {
+
+    private static final int DEFAULT_MAX_SIZE = 24;
+
+    private final Map<String, Boolean> externalAccess = new ConcurrentHashMap<>();
+
+    private final Map<String, MemoryClass> classes;
+
+    private final MemoryJar memoryJar;
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    private boolean closedWorld;
+
+    public MethodInliner(@NonNull MemoryJar memoryJar) {
+        this.memoryJar = memoryJar;
+        this.classes = memoryJar.getClasses();
+    }
+
+    /**
+     * Sets the max amount of instructions
+     * that a method can have to be inlined
+     *
+     * @param maxSize max amount of instructions
+     * @return {@link MethodInliner}
+     */
+
+    public MethodInliner maxSize(int maxSize) {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Sets if the jar contains every class of the program, only then
+     * the overridable methods can be inlined, since no class outside
+     * of the jar can extend their classes and override them
+     *
+     * @param closedWorld flag if the jar contains every class of the program
+     * @return {@link MethodInliner}
+     */
+
+    public MethodInliner closedWorld(boolean closedWorld) {
+        this.closedWorld = closedWorld;
+        return this;
+    }
+
+    /**
+     * Inlines the calls in all the classes of the jar, the indexes
+     * of the jar are dropped once after all the classes are done,
+     * the stale call graph is still valid for the recursion checks
+     * since an inlined call only adds edges that were already paths
+     */
+
+    public void inline() {
+        // inline the calls in all the classes
+        boolean inlined = false;
+        for (MemoryClass memoryClass : new ArrayList<>(classes.values())) {
+            inlined |= inline(memoryClass);
+        }
+
+        // if any of the calls was inlined the indexes are no longer valid
+        if (inlined) {
+            memoryJar.invalidateIndexes();
+        }
+    }
+
+    /**
+     * Inlines the calls in all the methods of the provided class,
+     * if any of the calls was inlined the indexes of the jar are
+     * dropped since the call graph no longer matches the code
+     *
+     * @param memoryClass class that you want to inline the calls in
+     */
+
+    @Override
+    public void transform(MemoryClass memoryClass) {
+        // if any of the calls was inlined the indexes are no longer valid
+        if (inline(memoryClass)) {
+            memoryJar.invalidateIndexes();
+        }
+    }
+
+    /**
+     * Inlines the calls in all the methods of the provided class
+     * and marks the class for frame computation if anything changed
+     *
+     * @param memoryClass class that you want to inline the calls in
+     * @return true if any of the calls was inlined
+     */
+
+    private boolean inline(MemoryClass memoryClass) {
+        // inline the calls in all the methods, the methods are processed one by one
+        // since a method can be the caller and the inlined method at the same time
+        boolean inlined = false;
+        for (MemoryMethod memoryMethod : memoryClass.methods) {
+            inlined |= inline(memoryMethod);
+        }
+
+        // if any of the calls was inlined the old stack map frames are no longer valid
+        if (inlined) {
+            memoryClass.computeFrames = true;
+        }
+        return inlined;
+    }
+
+    /**
+     * Inlines all the calls in the provided method that
+     * invoke a small method with a single known target,
+     * the calls of the inlined code are not inlined again
+     *
+     * @param caller method that you want to inline the calls in
+     * @return true if any of the calls was inlined
+     */
+
+    public boolean inline(MemoryMethod caller) {
+        // get the instructions of the method
+        MemoryInstructions instructions = caller.instructions;
+
+        // if the method has no code
+        if (instructions == null || instructions.size() == 0) {
+
+            // return out of the method
+            return false;
+        }
+
+        // collect all the calls before any of them gets inlined
+        List<MethodInsnNode> calls = new ArrayList<>();
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction instanceof MethodInsnNode) {
+                calls.add((MethodInsnNode) instruction);
+            }
+        }
+
+        // inline all the calls as a single batch of edits
+        boolean[] inlined = {false};
+        instructions.edit(batch -> calls.forEach(call -> {
+
+            // resolve the only method that the call can invoke
+            MemoryMethod callee = resolveTarget(call);
+
+            // if the method can be inlined replace the call with its body
+            if (callee != null && canInline(caller, call, callee)) {
+                inline(caller, instructions, call, callee);
+                inlined[0] = true;
+            }
+        }));
+
+        // return if any of the calls was inlined
+        return inlined[0];
+    }
+
+    /**
+     * Resolves the only method that the provided call can invoke,
+     * virtual calls are resolved with the hierarchy of the jar
+     *
+     * @param call call that you want to resolve
+     * @return {@link MemoryMethod} or null if the call has more than one possible target
+     */
+
+    private MemoryMethod resolveTarget(MethodInsnNode call) {
+        HierarchyIndex hierarchyIndex = memoryJar.getHierarchyIndex();
+
+        // resolve the method that the call refers to
+        MemoryMethod resolved = hierarchyIndex.resolveMethod(call.owner, call.name, call.desc);
+        if (resolved == null || resolved.name().startsWith("<")) {
+            return null;
+        }
+
+        switch (call.getOpcode()) {
+            case Opcodes.INVOKESTATIC:
+                return resolved.isStatic() ? resolved : null;
+            case Opcodes.INVOKESPECIAL:
+
+                // only the private calls, the super calls depend on the class they are made from
+                return resolved.isPrivate() && !resolved.isStatic() ? resolved : null;
+            default:
+
+                // a default method is only the target if no super class outside of the jar declares the method
+                if (resolved.isStatic() || (resolved.parent.isInterface() && !hierarchyIndex.isHierarchyLoaded(call.owner))) {
+                    return null;
+                }
+
+                // if the method can not be overridden it is the only target
+                if (!resolved.isAbstract() && (resolved.isPrivate() || resolved.isFinal()
+                        || resolved.parent.isFinal() || classes.get(call.owner).isFinal())) {
+                    return resolved;
+                }
+
+                // else every class that can receive the call has to be known
+                return closedWorld ? resolveOnlyImplementation(hierarchyIndex, call) : null;
+        }
+    }
+
+    /**
+     * Resolves the method that every concrete class that can receive
+     * the provided virtual call resolves it to, the hierarchy of all
+     * the classes has to be loaded so that no inherited method is missed
+     *
+     * @param hierarchyIndex hierarchy of the jar
+     * @param call           call that you want to resolve
+     * @return {@link MemoryMethod} or null if the classes do not agree on a single method
+     */
+
+    private MemoryMethod resolveOnlyImplementation(HierarchyIndex hierarchyIndex, MethodInsnNode call) {
+        // collect the owner and all of its sub classes
+        List<MemoryClass> receivers = new ArrayList<>(hierarchyIndex.getAllSubClasses(call.owner));
+        receivers.add(classes.get(call.owner));
+
+        // resolve the call on every class that can be instantiated
+        MemoryMethod target = null;
+        for (MemoryClass receiver : receivers) {
+            if (receiver.isAbstract() || receiver.isInterface()) {
+                continue;
+            }
+
+            // if a super type is outside of the jar the class could inherit a method that is not known
+            if (!hierarchyIndex.isHierarchyLoaded(receiver.name())) {
+                return null;
+            }
+
+            // all the classes have to resolve to the same implementation
+            MemoryMethod memoryMethod = hierarchyIndex.resolveMethod(receiver.name(), call.name, call.desc);
+            if (memoryMethod == null || memoryMethod.isAbstract() || memoryMethod.isStatic()
+                    || (target != null && target != memoryMethod)) {
+                return null;
+            }
+            target = memoryMethod;
+        }
+        return target;
+    }
+
+    /**
+     * Checks if the provided method can be inlined into the caller
+     *
+     * @param caller method that makes the call
+     * @param call   call that invokes the method
+     * @param callee method that is invoked
+     * @return {@link Boolean}
+     */
+
+    private boolean canInline(MemoryMethod caller, MethodInsnNode call, MemoryMethod callee) {
+        // the method has to have a small body that does not need its own frame
+        if (callee == caller || callee.isAbstract() || callee.isNative() || callee.isSynchronized()
+                || callee.instructions == null || size(callee) > maxSize) {
+            return false;
+        }
+
+        // the inlined code can not use features that the version of the caller does not support
+        if ((caller.parent.version() & 0xFFFF) < (callee.parent.version() & 0xFFFF)) {
+            return false;
+        }
+
+        // a static call is what initializes the class of the method, so it can only be removed if
+        // the class has no initializer or it is the class of the caller which is already initialized
+        if (callee.isStatic() && callee.parent != caller.parent && hasInitializer(callee.parent)) {
+            return false;
+        }
+
+        // a recursive method would never stop inlining
+        CallGraph callGraph = memoryJar.getCallGraph();
+        if (callGraph.isRecursive(callee)) {
+            return false;
+        }
+
+        // every return has to leave nothing but the returned value on the stack
+        Frame<BasicValue>[] frames = callee.getFrames();
+        if (frames == null || !hasCleanReturns(callee, frames)) {
+            return false;
+        }
+
+        // a handler clears the whole stack, so if the caller keeps values
+        // on the stack below the arguments they would be lost
+        if (!callee.getTryCatchBlocks().isEmpty() && !hasEmptyStack(caller, call)) {
+            return false;
+        }
+
+        // everything that the method uses has to be accessible from the caller, including
+        // the class of the method itself if the receiver needs to be cast to it
+        return caller.parent == callee.parent || (isAccessible(caller.parent, callee)
+                && (callee.isStatic() || isAccessible(caller.parent, Type.getObjectType(callee.parent.name()))));
+    }
+
+    /**
+     * Replaces the call with the body of the provided method, the
+     * arguments are stored into fresh locals, the locals of the
+     * method are moved past the locals of the caller and its try
+     * catch blocks are placed before the ones of the caller
+     *
+     * @param caller       method that makes the call
+     * @param instructions instructions of the caller
+     * @param call         call that you want to replace
+     * @param callee       method that is invoked
+     */
+
+    private void inline(MemoryMethod caller, MemoryInstructions instructions, MethodInsnNode call, MemoryMethod callee) {
+        // get the first local that the caller does not use
+        int base = caller.nextFreeLocal();
+
+        // compute the locals that the arguments are stored in
+        Type[] arguments = Type.getArgumentTypes(callee.description());
+        int[] locals = new int[arguments.length];
+        int local = base + (callee.isStatic() ? 0 : 1);
+        for (int i = 0; i < arguments.length; i++) {
+            locals[i] = local;
+            local += arguments[i].getSize();
+        }
+
+        // define the list of the inlined instructions
+        List<AbstractInsnNode> inlined = new ArrayList<>();
+
+        // store all the arguments, the last one is on the top of the stack
+        for (int i = arguments.length - 1; i >= 0; i--) {
+            inlined.add(new VarInsnNode(arguments[i].getOpcode(Opcodes.ISTORE), locals[i]));
+        }
+
+        // store the receiver and keep the null check of the call, if the call was made
+        // through a super type the receiver is cast to the class that declares the method
+        if (!callee.isStatic()) {
+            if (!call.owner.equals(callee.parent.name())) {
+                inlined.add(new TypeInsnNode(Opcodes.CHECKCAST, callee.parent.name()));
+            }
+            inlined.add(new VarInsnNode(Opcodes.ASTORE, base));
+            inlined.add(new VarInsnNode(Opcodes.ALOAD, base));
+            inlined.add(new MethodInsnNode(Opcodes.INVOKEVIRTUAL, "java/lang/Object", "getClass", "()Ljava/lang/Class;", false));
+            inlined.add(new InsnNode(Opcodes.POP));
+        }
+
+        // create a copy of every label of the method
+        Map<LabelNode, LabelNode> labels = new IdentityHashMap<>();
+        for (AbstractInsnNode instruction = callee.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction instanceof LabelNode) {
+                labels.put((LabelNode) instruction, new LabelNode());
+            }
+        }
+
+        // copy all the instructions, the line numbers are dropped since
+        // they belong to the source file of the method and the frames
+        // are computed again once the class is written
+        LabelNode end = new LabelNode();
+        AbstractInsnNode last = lastRealInstruction(callee);
+        for (AbstractInsnNode instruction = callee.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction instanceof LineNumberNode || instruction instanceof FrameNode) {
+                continue;
+            }
+
+            // every return jumps to the end of the inlined code with the returned value on the stack
+            if (instruction.getOpcode() >= Opcodes.IRETURN && instruction.getOpcode() <= Opcodes.RETURN) {
+                if (instruction != last) {
+                    inlined.add(new JumpInsnNode(Opcodes.GOTO, end));
+                }
+                continue;
+            }
+
+            // copy the instruction and move its locals past the locals of the caller
+            AbstractInsnNode copy = instruction.clone(labels);
+            if (copy instanceof VarInsnNode) {
+                ((VarInsnNode) copy).var += base;
+            } else if (copy instanceof IincInsnNode) {
+                ((IincInsnNode) copy).var += base;
+            }
+            inlined.add(copy);
+        }
+        inlined.add(end);
+
+        // replace the call with the inlined instructions
+        inlined.forEach(instruction -> instructions.insertBefore(call, instruction));
+        instructions.remove(call);
+
+        // copy the try catch blocks in front of the ones of the caller since they are nested in them
+        List<TryCatchBlockNode> tryCatchBlocks = new ArrayList<>();
+        callee.getTryCatchBlocks().forEach(tryCatchBlock -> tryCatchBlocks.add(new TryCatchBlockNode(
+                labels.get(tryCatchBlock.start), labels.get(tryCatchBlock.end),
+                labels.get(tryCatchBlock.handler), tryCatchBlock.type
+        )));
+        caller.getTryCatchBlocks().addAll(0, tryCatchBlocks);
+    }
+
+    /**
+     * Checks if the provided class has a static initializer
+     *
+     * @param memoryClass class that you want to check
+     * @return {@link Boolean}
+     */
+
+    private static boolean hasInitializer(MemoryClass memoryClass) {
+        return memoryClass.methods.stream().anyMatch(memoryMethod -> memoryMethod.name().equals("<clinit>"));
+    }
+
+    /**
+     * Checks if every return of the method leaves
+     * nothing but the returned value on the stack
+     *
+     * @param callee method that you want to check
+     * @param frames frames of the method
+     * @return {@link Boolean}
+     */
+
+    private static boolean hasCleanReturns(MemoryMethod callee, Frame<BasicValue>[] frames) {
+        int index = 0;
+        for (AbstractInsnNode instruction = callee.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext(), index++) {
+            int opcode = instruction.getOpcode();
+            if (opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN && frames[index] != null
+                    && frames[index].getStackSize() != (opcode == Opcodes.RETURN ? 0 : 1)) {
+                return false;
+            }
+            if (opcode == Opcodes.JSR || opcode == Opcodes.RET) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the stack of the caller holds
+     * nothing but the arguments of the call
+     *
+     * @param caller method that makes the call
+     * @param call   call that you want to check
+     * @return {@link Boolean}
+     */
+
+    private static boolean hasEmptyStack(MemoryMethod caller, MethodInsnNode call) {
+        // if the caller could not be analyzed
+        Frame<BasicValue>[] frames = caller.getFrames();
+        if (frames == null) {
+
+            // return false
+            return false;
+        }
+
+        // get the frame before the call
+        Frame<BasicValue> frame = frames[caller.getInstructions().indexOf(call)];
+
+        // check that only the receiver and the arguments are on the stack
+        int arguments = Type.getArgumentTypes(call.desc).length + (call.getOpcode() == Opcodes.INVOKESTATIC ? 0 : 1);
+        return frame != null && frame.getStackSize() == arguments;
+    }
+
+    /**
+     * Checks if all the classes and members that the
+     * method uses can be accessed from the provided class
+     *
+     * @param caller class that the method is inlined into
+     * @param callee method that you want to check
+     * @return {@link Boolean}
+     */
+
+    private boolean isAccessible(MemoryClass caller, MemoryMethod callee) {
+        // check all the caught exceptions
+        for (TryCatchBlockNode tryCatchBlock : callee.getTryCatchBlocks()) {
+            if (tryCatchBlock.type != null && !isAccessible(caller, Type.getObjectType(tryCatchBlock.type))) {
+                return false;
+            }
+        }
+
+        // check all the instructions
+        for (AbstractInsnNode instruction = callee.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction instanceof FieldInsnNode) {
+                FieldInsnNode fieldInsnNode = (FieldInsnNode) instruction;
+                if (!isAccessible(caller, fieldInsnNode.owner, fieldInsnNode.name, fieldInsnNode.desc, true)) {
+                    return false;
+                }
+            } else if (instruction instanceof MethodInsnNode) {
+                MethodInsnNode methodInsnNode = (MethodInsnNode) instruction;
+
+                // the super and private calls only work from the class that declares the method
+                if (methodInsnNode.getOpcode() == Opcodes.INVOKESPECIAL && !methodInsnNode.name.equals("<init>")) {
+                    return false;
+                }
+                if (!isAccessible(caller, methodInsnNode.owner, methodInsnNode.name, methodInsnNode.desc, false)) {
+                    return false;
+                }
+            } else if (instruction instanceof TypeInsnNode) {
+                if (!isAccessible(caller, Type.getObjectType(((TypeInsnNode) instruction).desc))) {
+                    return false;
+                }
+            } else if (instruction instanceof MultiANewArrayInsnNode) {
+                if (!isAccessible(caller, Type.getType(((MultiANewArrayInsnNode) instruction).desc))) {
+                    return false;
+                }
+            } else if (instruction instanceof LdcInsnNode) {
+                if (!isAccessible(caller, ((LdcInsnNode) instruction).cst)) {
+                    return false;
+                }
+            } else if (instruction instanceof InvokeDynamicInsnNode) {
+                InvokeDynamicInsnNode invokeDynamicInsnNode = (InvokeDynamicInsnNode) instruction;
+                if (!isAccessible(caller, invokeDynamicInsnNode.bsm)) {
+                    return false;
+                }
+                for (Object argument : invokeDynamicInsnNode.bsmArgs) {
+                    if (!isAccessible(caller, argument)) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        // else everything is accessible
+        return true;
+    }
+
+    /**
+     * Checks if the provided constant can be loaded from the provided class
+     *
+     * @param caller   class that the constant is loaded from
+     * @param constant constant that you want to check
+     * @return {@link Boolean}
+     */
+
+    private boolean isAccessible(MemoryClass caller, Object constant) {
+        if (constant instanceof Type) {
+            Type type = (Type) constant;
+            return type.getSort() == Type.METHOD || isAccessible(caller, type);
+        }
+        if (constant instanceof Handle) {
+            Handle handle = (Handle) constant;
+            return isAccessible(caller, handle.getOwner(), handle.getName(), handle.getDesc(), handle.getTag() <= Opcodes.H_PUTSTATIC);
+        }
+
+        // the dynamic constants are resolved in the context of the class that declares them
+        return !(constant instanceof ConstantDynamic);
+    }
+
+    /**
+     * Checks if the provided type can be used from the provided class
+     *
+     * @param caller class that the type is used from
+     * @param type   type that you want to check
+     * @return {@link Boolean}
+     */
+
+    private boolean isAccessible(MemoryClass caller, Type type) {
+        // only the classes have an access
+        if (type.getSort() == Type.ARRAY) {
+            type = type.getElementType();
+        }
+        if (type.getSort() != Type.OBJECT) {
+            return true;
+        }
+
+        // if the class is loaded in the jar check its access
+        MemoryClass memoryClass = classes.get(type.getInternalName());
+        if (memoryClass != null) {
+            return memoryClass.isPublic() || isSamePackage(caller.name(), memoryClass.name());
+        }
+
+        // else check it on the class path
+        return externalAccess.computeIfAbsent(type.getInternalName(), name -> {
+            Class<?> clazz = loadClass(name);
+            return clazz != null && Modifier.isPublic(clazz.getModifiers());
+        });
+    }
+
+    /**
+     * Checks if the provided member can be used from the provided class
+     *
+     * @param caller      class that the member is used from
+     * @param owner       owner of the member reference
+     * @param name        name of the member
+     * @param description description of the member
+     * @param field       flag if the member is a field
+     * @return {@link Boolean}
+     */
+
+    private boolean isAccessible(MemoryClass caller, String owner, String name, String description, boolean field) {
+        // the owner of the reference has to be accessible
+        if (!isAccessible(caller, Type.getObjectType(owner))) {
+            return false;
+        }
+
+        // the methods of the arrays are inherited from the object
+        if (owner.startsWith("[")) {
+            owner = "java/lang/Object";
+        }
+
+        // if the member is declared in the jar check its access
+        HierarchyIndex hierarchyIndex = memoryJar.getHierarchyIndex();
+        if (classes.containsKey(owner)) {
+            IAccessed member;
+            MemoryClass declaringClass;
+            if (field) {
+                MemoryField memoryField = hierarchyIndex.resolveField(owner, name, description);
+                member = memoryField;
+                declaringClass = memoryField != null ? memoryField.parent : null;
+            } else {
+                MemoryMethod memoryMethod = hierarchyIndex.resolveMethod(owner, name, description);
+                member = memoryMethod;
+                declaringClass = memoryMethod != null ? memoryMethod.parent : null;
+            }
+
+            // if the member was found in the jar
+            if (member != null) {
+                if (member.isPrivate()) {
+                    return declaringClass == caller;
+                }
+                return member.isPublic() || (!member.isProtected() && isSamePackage(caller.name(), declaringClass.name()));
+            }
+
+            // else the member is inherited from the first class outside the jar
+            while (classes.containsKey(owner)) {
+                owner = classes.get(owner).superName();
+                if (owner == null) {
+                    return false;
+                }
+            }
+        }
+
+        // check the member on the class path, only the public members are accepted
+        String ownerName = owner;
+        return externalAccess.computeIfAbsent(ownerName + "." + name + description, key -> {
+            Class<?> clazz = loadClass(ownerName);
+            if (clazz == null || !Modifier.isPublic(clazz.getModifiers())) {
+                return false;
+            }
+            if (field) {
+                for (Field member : clazz.getFields()) {
+                    if (member.getName().equals(name) && Type.getDescriptor(member.getType()).equals(description)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            for (Method member : clazz.getMethods()) {
+                if (member.getName().equals(name) && Type.getMethodDescriptor(member).equals(description)) {
+                    return true;
+                }
+            }
+            return name.equals("<init>") && Arrays.stream(clazz.getConstructors())
+                    .anyMatch(constructor -> Type.getConstructorDescriptor(constructor).equals(description));
+        });
+    }
+
+    /**
+     * Counts the instructions of the method that
+     * are not labels, line numbers or frames
+     *
+     * @param memoryMethod method that you want to measure
+     * @return {@link Integer}
+     */
+
+    private static int size(MemoryMethod memoryMethod) {
+        int size = 0;
+        for (AbstractInsnNode instruction = memoryMethod.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction.getOpcode() >= 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the last instruction of the method
+     * that is not a label, line number or a frame
+     *
+     * @param memoryMethod method that you want to check
+     * @return {@link AbstractInsnNode}
+     */
+
+    private static AbstractInsnNode lastRealInstruction(MemoryMethod memoryMethod) {
+        for (AbstractInsnNode instruction = memoryMethod.getInstructions().getLast(); instruction != null; instruction = instruction.getPrevious()) {
+            if (instruction.getOpcode() >= 0) {
+                return instruction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if both classes are in the same package
+     *
+     * @param first  name of the first class
+     * @param second name of the second class
+     * @return {@link Boolean}
+     */
+
+    private static boolean isSamePackage(String first, String second) {
+        int firstIndex = first.lastIndexOf('/');
+        int secondIndex = second.lastIndexOf('/');
+        return firstIndex == secondIndex && (firstIndex == -1 || first.regionMatches(0, second, 0, firstIndex));
+    }
+
+    /**
+     * Loads the provided class from the class
+     * path without initializing it
+     *
+     * @param name internal name of the class
+     * @return {@link Class}
+     */
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name.replace('/', '.'), false, MethodInliner.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,808 @@
+package me.mat.jprocessor.transformer.impl;
+
+import me.mat.jprocessor.jar.analysis.BasicBlock;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.transformer.ClassTransformer;
+import me.mat.jprocessor.transformer.ParallelTransformer;
+import me.mat.jprocessor.util.asm.ASMUtil;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+
+public class PeepholeOptimizer implements ClassTransformer, ParallelTransformer {
+
+    private static final int MAX_PASSES = 16;
+
+    @Override
+    public void transform(MemoryClass memoryClass) {
+        // optimize all the methods in parallel, every method only edits its own instructions
+        boolean optimized = memoryClass.methods.parallelStream()
+                .map(this::optimize)
+                .reduce(false, Boolean::logicalOr);
+
+        // if any of the methods changed the old stack map frames are no longer valid
+        if (optimized) {
+            memoryClass.computeFrames = true;
+        }
+    }
+
+    /**
+     * Optimizes the provided method until none
+     * of the optimizations change it anymore
+     *
+     * @param memoryMethod method that you want to optimize
+     * @return true if the method was changed
+     */
+
+    public boolean optimize(MemoryMethod memoryMethod) {
+        // get the instructions of the method
+        MemoryInstructions instructions = memoryMethod.instructions;
+
+        // if the method has no code or uses subroutines
+        if (instructions == null || instructions.size() == 0 || hasSubroutines(instructions)) {
+
+            // return out of the method
+            return false;
+        }
+
+        // apply all the optimizations as a single batch of edits
+        boolean[] optimized = {false};
+        instructions.edit(batch -> {
+            for (int pass = 0; pass < MAX_PASSES; pass++) {
+
+                // run all the optimizations, every one of them can open up new ones for the others
+                boolean changed = foldConstants(instructions);
+                changed |= removeRedundantPairs(instructions);
+                changed |= collapseJumps(instructions);
+                changed |= removeEmptyTryCatchBlocks(memoryMethod);
+                changed |= removeUnreachableCode(memoryMethod, instructions);
+                changed |= removeDeadStores(memoryMethod, instructions);
+
+                // if nothing changed the method is fully optimized
+                if (!changed) {
+                    break;
+                }
+                optimized[0] = true;
+            }
+        });
+
+        // return if the method was changed
+        return optimized[0];
+    }
+
+    /**
+     * Folds all the arithmetic, conversions and conditional
+     * jumps that only operate on constant values
+     *
+     * @param instructions instructions of the method
+     * @return true if any of the instructions was changed
+     */
+
+    private boolean foldConstants(MemoryInstructions instructions) {
+        boolean changed = false;
+
+        // loop through all the instructions
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; ) {
+
+            // if the instruction does not push a constant move to the next one
+            Object first = ASMUtil.getConstant(instruction);
+            AbstractInsnNode next = instruction.getNext();
+            if (first == null || next == null) {
+                instruction = next;
+                continue;
+            }
+
+            // try to fold the constant with the next instruction
+            Object folded = fold(first, next.getOpcode());
+            if (folded != null) {
+                AbstractInsnNode constant = ASMUtil.pushConstant(folded);
+                instructions.remove(instruction);
+                instructions.set(next, constant);
+                instruction = constant;
+                changed = true;
+                continue;
+            }
+
+            // try to resolve a conditional jump on the constant
+            if (next instanceof JumpInsnNode && first instanceof Integer) {
+                Boolean taken = compare((Integer) first, 0, next.getOpcode(), Opcodes.IFEQ);
+                if (taken != null) {
+                    instruction = resolveJump(instructions, (JumpInsnNode) next, taken, instruction);
+                    changed = true;
+                    continue;
+                }
+            }
+
+            // if the next instruction does not push a constant either move to the next one
+            Object second = ASMUtil.getConstant(next);
+            AbstractInsnNode operation = next.getNext();
+            if (second == null || operation == null) {
+                instruction = next;
+                continue;
+            }
+
+            // try to fold both constants with the operation
+            folded = fold(first, second, operation.getOpcode());
+            if (folded != null) {
+                AbstractInsnNode constant = ASMUtil.pushConstant(folded);
+                instructions.remove(instruction);
+                instructions.remove(next);
+                instructions.set(operation, constant);
+                instruction = constant;
+                changed = true;
+                continue;
+            }
+
+            // try to resolve a conditional jump that compares both constants
+            if (operation instanceof JumpInsnNode && first instanceof Integer && second instanceof Integer) {
+                Boolean taken = compare((Integer) first, (Integer) second, operation.getOpcode(), Opcodes.IF_ICMPEQ);
+                if (taken != null) {
+                    instructions.remove(instruction);
+                    instruction = resolveJump(instructions, (JumpInsnNode) operation, taken, next);
+                    changed = true;
+                    continue;
+                }
+            }
+
+            // move to the next instruction
+            instruction = next;
+        }
+
+        // return if any of the instructions was changed
+        return changed;
+    }
+
+    /**
+     * Removes the pairs of instructions that cancel each other
+     * out, for example a load that is stored back into the
+     * same local or a value that is pushed just to be popped
+     *
+     * @param instructions instructions of the method
+     * @return true if any of the instructions was changed
+     */
+
+    private boolean removeRedundantPairs(MemoryInstructions instructions) {
+        boolean changed = false;
+
+        // loop through all the instructions
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; ) {
+            AbstractInsnNode next = instruction.getNext();
+
+            // a nop does nothing
+            if (instruction.getOpcode() == Opcodes.NOP) {
+                instructions.remove(instruction);
+                instruction = next;
+                changed = true;
+                continue;
+            }
+
+            // a cast that is repeated right after the same cast always succeeds
+            if (next != null && instruction.getOpcode() == Opcodes.CHECKCAST && next.getOpcode() == Opcodes.CHECKCAST
+                    && ((TypeInsnNode) instruction).desc.equals(((TypeInsnNode) next).desc)) {
+                instructions.remove(next);
+                changed = true;
+                continue;
+            }
+
+            // if the pair cancels out remove both instructions and step back
+            // since the removal might have created a new pair with the previous one
+            if (next != null && isRedundantPair(instruction, next)) {
+                AbstractInsnNode previous = instruction.getPrevious();
+                AbstractInsnNode following = next.getNext();
+                instructions.remove(instruction);
+                instructions.remove(next);
+                instruction = previous != null ? previous : following;
+                changed = true;
+                continue;
+            }
+
+            // move to the next instruction
+            instruction = next;
+        }
+
+        // return if any of the instructions was changed
+        return changed;
+    }
+
+    /**
+     * Retargets all the jumps that land on a goto to the final
+     * target of the goto chain and removes the jumps that only
+     * jump to the instruction that follows them anyway
+     *
+     * @param instructions instructions of the method
+     * @return true if any of the instructions was changed
+     */
+
+    private boolean collapseJumps(MemoryInstructions instructions) {
+        boolean changed = false;
+
+        // loop through all the instructions
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; ) {
+            AbstractInsnNode next = instruction.getNext();
+
+            // if the instruction is not a jump move to the next one
+            if (!(instruction instanceof JumpInsnNode) || instruction.getOpcode() == Opcodes.JSR) {
+                instruction = next;
+                continue;
+            }
+            JumpInsnNode jump = (JumpInsnNode) instruction;
+
+            // if the jump lands on the instruction that follows it anyway
+            if (nextReal(jump.getNext()) == nextReal(jump.label)) {
+
+                // a goto can be removed and a conditional jump only has to pop its operands
+                if (jump.getOpcode() == Opcodes.GOTO) {
+                    instructions.remove(jump);
+                } else {
+                    instructions.set(jump, new InsnNode(isBinaryJump(jump.getOpcode()) ? Opcodes.POP2 : Opcodes.POP));
+                }
+                instruction = next;
+                changed = true;
+                continue;
+            }
+
+            // if the jump lands on a goto retarget it to the end of the chain
+            LabelNode target = resolveTarget(jump.label);
+            if (target != jump.label) {
+                JumpInsnNode retargeted = new JumpInsnNode(jump.getOpcode(), target);
+                instructions.set(jump, retargeted);
+                changed = true;
+            }
+
+            // move to the next instruction
+            instruction = next;
+        }
+
+        // return if any of the instructions was changed
+        return changed;
+    }
+
+    /**
+     * Removes all the instructions that can not be reached from
+     * the start of the method or from any of the reachable handlers
+     *
+     * @param memoryMethod method that you want to clean up
+     * @param instructions instructions of the method
+     * @return true if any of the instructions was changed
+     */
+
+    private boolean removeUnreachableCode(MemoryMethod memoryMethod, MemoryInstructions instructions) {
+        // collect all the real instructions of the unreachable blocks, the labels
+        // are kept since the debug information and try catch blocks might use them
+        List<AbstractInsnNode> unreachable = new ArrayList<>();
+        for (BasicBlock block : memoryMethod.getControlFlowGraph().getBlocks()) {
+            if (!block.isReachable()) {
+                block.instructions().stream()
+                        .filter(instruction -> instruction.getOpcode() >= 0)
+                        .forEach(unreachable::add);
+            }
+        }
+
+        // remove all the unreachable instructions
+        unreachable.forEach(instructions::remove);
+
+        // the handlers of the removed code might not protect anything anymore
+        removeEmptyTryCatchBlocks(memoryMethod);
+
+        // return if any of the instructions was changed
+        return !unreachable.isEmpty();
+    }
+
+    /**
+     * Removes all the stores into locals that are never read afterwards,
+     * the stored value is popped instead so that the next pass can remove
+     * it completely if it was pushed without any side effects
+     *
+     * @param memoryMethod method that you want to clean up
+     * @param instructions instructions of the method
+     * @return true if any of the instructions was changed
+     */
+
+    private boolean removeDeadStores(MemoryMethod memoryMethod, MemoryInstructions instructions) {
+        // get the blocks of the method
+        List<BasicBlock> blocks = memoryMethod.getControlFlowGraph().getBlocks();
+
+        // compute the locals that are live at the start of every block
+        Map<BasicBlock, BitSet> liveIn = new IdentityHashMap<>();
+        boolean updated;
+        do {
+            updated = false;
+
+            // walk the blocks backwards since the liveness flows against the control flow
+            for (int i = blocks.size() - 1; i >= 0; i--) {
+                BasicBlock block = blocks.get(i);
+                if (!block.isReachable()) {
+                    continue;
+                }
+
+                // walk the block and check if its live locals changed
+                BitSet live = walkBlock(block, liveIn, null);
+                if (!live.equals(liveIn.get(block))) {
+                    liveIn.put(block, live);
+                    updated = true;
+                }
+            }
+        } while (updated);
+
+        // collect all the stores into locals that are not live afterwards
+        List<AbstractInsnNode> deadStores = new ArrayList<>();
+        for (BasicBlock block : blocks) {
+            if (block.isReachable()) {
+                walkBlock(block, liveIn, deadStores);
+            }
+        }
+
+        // replace all the dead stores with pops and remove the dead increments
+        deadStores.forEach(store -> {
+            if (store instanceof IincInsnNode) {
+                instructions.remove(store);
+            } else {
+                int opcode = store.getOpcode() == Opcodes.LSTORE || store.getOpcode() == Opcodes.DSTORE
+                        ? Opcodes.POP2 : Opcodes.POP;
+                instructions.set(store, new InsnNode(opcode));
+            }
+        });
+
+        // return if any of the instructions was changed
+        return !deadStores.isEmpty();
+    }
+
+    /**
+     * Removes all the try catch blocks that do not
+     * protect any instructions, since the class
+     * file format does not allow empty ranges
+     *
+     * @param memoryMethod method that you want to clean up
+     * @return true if any of the try catch blocks was removed
+     */
+
+    private boolean removeEmptyTryCatchBlocks(MemoryMethod memoryMethod) {
+        // if the method has no try catch blocks
+        List<TryCatchBlockNode> tryCatchBlocks = memoryMethod.getTryCatchBlocks();
+        if (tryCatchBlocks == null) {
+
+            // return out of the method
+            return false;
+        }
+
+        // an empty range adds no edges to the control flow graph,
+        // so the cached graph stays valid after the removal
+        return tryCatchBlocks.removeIf(tryCatchBlock -> {
+            for (AbstractInsnNode instruction = tryCatchBlock.start; instruction != null && instruction != tryCatchBlock.end; instruction = instruction.getNext()) {
+                if (instruction.getOpcode() >= 0) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Walks the block backwards and computes the locals that are live at
+     * its start, every store into a local that is not live afterwards
+     * is added to the dead stores if they are provided
+     *
+     * @param block      block that you want to walk
+     * @param liveIn     locals that are live at the start of every block
+     * @param deadStores list that the dead stores will be added to or null
+     * @return {@link BitSet}
+     */
+
+    private static BitSet walkBlock(BasicBlock block, Map<BasicBlock, BitSet> liveIn, List<AbstractInsnNode> deadStores) {
+        // the locals that are live at the end of the block are live at the start of its successors
+        BitSet live = new BitSet();
+        block.successors.forEach(successor -> live.or(liveIn.getOrDefault(successor, new BitSet())));
+
+        // an exception can be thrown at any point in the block so every local
+        // that is live in one of the handlers is live through out the whole block
+        BitSet handlerLive = new BitSet();
+        block.exceptionSuccessors.forEach(handler -> handlerLive.or(liveIn.getOrDefault(handler, new BitSet())));
+        live.or(handlerLive);
+
+        // loop through all the instructions backwards
+        List<AbstractInsnNode> instructions = block.instructions();
+        for (int i = instructions.size() - 1; i >= 0; i--) {
+            AbstractInsnNode instruction = instructions.get(i);
+            int opcode = instruction.getOpcode();
+
+            // if the instruction stores into a local
+            if (instruction instanceof VarInsnNode && opcode >= Opcodes.ISTORE && opcode <= Opcodes.ASTORE) {
+                int var = ((VarInsnNode) instruction).var;
+
+                // if the local is not read afterwards the store is dead
+                if (!live.get(var) && deadStores != null) {
+                    deadStores.add(instruction);
+                }
+                live.clear(var);
+            } else if (instruction instanceof VarInsnNode) {
+
+                // else if the instruction loads a local it is live
+                live.set(((VarInsnNode) instruction).var);
+            } else if (instruction instanceof IincInsnNode) {
+                int var = ((IincInsnNode) instruction).var;
+
+                // if the local is not read afterwards the increment is dead
+                if (!live.get(var) && deadStores != null) {
+                    deadStores.add(instruction);
+                }
+                live.set(var);
+            }
+
+            // the locals of the handlers stay live before every instruction
+            live.or(handlerLive);
+        }
+
+        // return the locals that are live at the start of the block
+        return live;
+    }
+
+    /**
+     * Folds a constant with an unary operation
+     *
+     * @param value  value of the constant
+     * @param opcode opcode of the operation
+     * @return folded constant or null if the operation can not be folded
+     */
+
+    private static Object fold(Object value, int opcode) {
+        if (value instanceof Integer) {
+            int i = (Integer) value;
+            switch (opcode) {
+                case Opcodes.INEG:
+                    return -i;
+                case Opcodes.I2L:
+                    return (long) i;
+                case Opcodes.I2F:
+                    return (float) i;
+                case Opcodes.I2D:
+                    return (double) i;
+                case Opcodes.I2B:
+                    return (int) (byte) i;
+                case Opcodes.I2C:
+                    return (int) (char) i;
+                case Opcodes.I2S:
+                    return (int) (short) i;
+            }
+        } else if (value instanceof Long) {
+            long l = (Long) value;
+            switch (opcode) {
+                case Opcodes.LNEG:
+                    return -l;
+                case Opcodes.L2I:
+                    return (int) l;
+                case Opcodes.L2F:
+                    return (float) l;
+                case Opcodes.L2D:
+                    return (double) l;
+            }
+        } else if (value instanceof Float) {
+            float f = (Float) value;
+            switch (opcode) {
+                case Opcodes.FNEG:
+                    return -f;
+                case Opcodes.F2I:
+                    return (int) f;
+                case Opcodes.F2L:
+                    return (long) f;
+                case Opcodes.F2D:
+                    return (double) f;
+            }
+        } else if (value instanceof Double) {
+            double d = (Double) value;
+            switch (opcode) {
+                case Opcodes.DNEG:
+                    return -d;
+                case Opcodes.D2I:
+                    return (int) d;
+                case Opcodes.D2L:
+                    return (long) d;
+                case Opcodes.D2F:
+                    return (float) d;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Folds two constants with a binary operation
+     *
+     * @param first  value of the first constant
+     * @param second value of the second constant
+     * @param opcode opcode of the operation
+     * @return folded constant or null if the operation can not be folded
+     */
+
+    private static Object fold(Object first, Object second, int opcode) {
+        if (first instanceof Integer && second instanceof Integer) {
+            int a = (Integer) first;
+            int b = (Integer) second;
+            switch (opcode) {
+                case Opcodes.IADD:
+                    return a + b;
+                case Opcodes.ISUB:
+                    return a - b;
+                case Opcodes.IMUL:
+                    return a * b;
+                case Opcodes.IDIV:
+                    return b != 0 ? a / b : null;
+                case Opcodes.IREM:
+                    return b != 0 ? a % b : null;
+                case Opcodes.IAND:
+                    return a & b;
+                case Opcodes.IOR:
+                    return a | b;
+                case Opcodes.IXOR:
+                    return a ^ b;
+                case Opcodes.ISHL:
+                    return a << b;
+                case Opcodes.ISHR:
+                    return a >> b;
+                case Opcodes.IUSHR:
+                    return a >>> b;
+            }
+        } else if (first instanceof Long && second instanceof Long) {
+            long a = (Long) first;
+            long b = (Long) second;
+            switch (opcode) {
+                case Opcodes.LADD:
+                    return a + b;
+                case Opcodes.LSUB:
+                    return a - b;
+                case Opcodes.LMUL:
+                    return a * b;
+                case Opcodes.LDIV:
+                    return b != 0 ? a / b : null;
+                case Opcodes.LREM:
+                    return b != 0 ? a % b : null;
+                case Opcodes.LAND:
+                    return a & b;
+                case Opcodes.LOR:
+                    return a | b;
+                case Opcodes.LXOR:
+                    return a ^ b;
+                case Opcodes.LCMP:
+                    return Long.compare(a, b);
+            }
+        } else if (first instanceof Long && second instanceof Integer) {
+            long a = (Long) first;
+            int b = (Integer) second;
+            switch (opcode) {
+                case Opcodes.LSHL:
+                    return a << b;
+                case Opcodes.LSHR:
+                    return a >> b;
+                case Opcodes.LUSHR:
+                    return a >>> b;
+            }
+        } else if (first instanceof Float && second instanceof Float) {
+            float a = (Float) first;
+            float b = (Float) second;
+            switch (opcode) {
+                case Opcodes.FADD:
+                    return a + b;
+                case Opcodes.FSUB:
+                    return a - b;
+                case Opcodes.FMUL:
+                    return a * b;
+                case Opcodes.FDIV:
+                    return a / b;
+                case Opcodes.FREM:
+                    return a % b;
+                case Opcodes.FCMPL:
+                    return Float.isNaN(a) || Float.isNaN(b) ? -1 : a == b ? 0 : a < b ? -1 : 1;
+                case Opcodes.FCMPG:
+                    return Float.isNaN(a) || Float.isNaN(b) ? 1 : a == b ? 0 : a < b ? -1 : 1;
+            }
+        } else if (first instanceof Double && second instanceof Double) {
+            double a = (Double) first;
+            double b = (Double) second;
+            switch (opcode) {
+                case Opcodes.DADD:
+                    return a + b;
+                case Opcodes.DSUB:
+                    return a - b;
+                case Opcodes.DMUL:
+                    return a * b;
+                case Opcodes.DDIV:
+                    return a / b;
+                case Opcodes.DREM:
+                    return a % b;
+                case Opcodes.DCMPL:
+                    return Double.isNaN(a) || Double.isNaN(b) ? -1 : a == b ? 0 : a < b ? -1 : 1;
+                case Opcodes.DCMPG:
+                    return Double.isNaN(a) || Double.isNaN(b) ? 1 : a == b ? 0 : a < b ? -1 : 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evaluates a conditional jump on two integers
+     *
+     * @param a      first value
+     * @param b      second value
+     * @param opcode opcode of the jump
+     * @param base   first opcode of the family of the jump, {@link Opcodes#IFEQ} or {@link Opcodes#IF_ICMPEQ}
+     * @return true if the jump is taken, null if the opcode is not in the family
+     */
+
+    private static Boolean compare(int a, int b, int opcode, int base) {
+        switch (opcode - base) {
+            case 0:
+                return a == b;
+            case 1:
+                return a != b;
+            case 2:
+                return a < b;
+            case 3:
+                return a >= b;
+            case 4:
+                return a > b;
+            case 5:
+                return a <= b;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Replaces a conditional jump whose outcome is known with a goto
+     * or removes it completely, together with the constant it consumed
+     *
+     * @param instructions instructions of the method
+     * @param jump         jump that you want to resolve
+     * @param taken        flag if the jump is always taken
+     * @param constant     constant instruction that was pushed for the jump
+     * @return instruction that the folding should continue with
+     */
+
+    private static AbstractInsnNode resolveJump(MemoryInstructions instructions, JumpInsnNode jump,
+                                                boolean taken, AbstractInsnNode constant) {
+        AbstractInsnNode next = jump.getNext();
+        instructions.remove(constant);
+        if (taken) {
+            JumpInsnNode jumpInsnNode = new JumpInsnNode(Opcodes.GOTO, jump.label);
+            instructions.set(jump, jumpInsnNode);
+            return jumpInsnNode.getNext();
+        }
+        instructions.remove(jump);
+        return next;
+    }
+
+    /**
+     * Checks if the provided pair of adjacent
+     * instructions has no effect at all
+     *
+     * @param first  first instruction
+     * @param second instruction that follows the first one
+     * @return {@link Boolean}
+     */
+
+    private static boolean isRedundantPair(AbstractInsnNode first, AbstractInsnNode second) {
+        int opcode = first.getOpcode();
+        int nextOpcode = second.getOpcode();
+
+        // a local that is loaded and stored back into itself
+        if (first instanceof VarInsnNode && second instanceof VarInsnNode
+                && opcode >= Opcodes.ILOAD && opcode <= Opcodes.ALOAD
+                && nextOpcode == opcode + (Opcodes.ISTORE - Opcodes.ILOAD)
+                && ((VarInsnNode) first).var == ((VarInsnNode) second).var) {
+            return true;
+        }
+
+        // a value that is pushed without side effects just to be popped
+        if (nextOpcode == Opcodes.POP || nextOpcode == Opcodes.POP2) {
+            int size = pushedSize(first);
+            return size != 0 && size == (nextOpcode == Opcodes.POP ? 1 : 2);
+        }
+
+        // two swaps cancel each other out
+        return opcode == Opcodes.SWAP && nextOpcode == Opcodes.SWAP;
+    }
+
+    /**
+     * Gets the size of the value that the instruction
+     * pushes if it does not have any side effects
+     *
+     * @param instruction instruction that you want to check
+     * @return size of the pushed value or 0 if the instruction has side effects
+     */
+
+    private static int pushedSize(AbstractInsnNode instruction) {
+        int opcode = instruction.getOpcode();
+
+        // constants and strings
+        Object constant = ASMUtil.getConstant(instruction);
+        if (constant != null) {
+            return constant instanceof Long || constant instanceof Double ? 2 : 1;
+        }
+        if (opcode == Opcodes.ACONST_NULL
+                || (instruction instanceof LdcInsnNode && ((LdcInsnNode) instruction).cst instanceof String)) {
+            return 1;
+        }
+
+        // locals and duplicates
+        switch (opcode) {
+            case Opcodes.ILOAD:
+            case Opcodes.FLOAD:
+            case Opcodes.ALOAD:
+            case Opcodes.DUP:
+                return 1;
+            case Opcodes.LLOAD:
+            case Opcodes.DLOAD:
+            case Opcodes.DUP2:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Checks if the provided conditional jump compares two values
+     *
+     * @param opcode opcode of the jump
+     * @return {@link Boolean}
+     */
+
+    private static boolean isBinaryJump(int opcode) {
+        return opcode >= Opcodes.IF_ICMPEQ && opcode <= Opcodes.IF_ACMPNE;
+    }
+
+    /**
+     * Follows a chain of gotos to the label that it ends on
+     *
+     * @param label label that the chain starts at
+     * @return {@link LabelNode}
+     */
+
+    private static LabelNode resolveTarget(LabelNode label) {
+        Set<LabelNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        LabelNode target = label;
+        while (visited.add(target)) {
+
+            // if the label does not land on a goto the chain ends here
+            AbstractInsnNode instruction = nextReal(target);
+            if (instruction == null || instruction.getOpcode() != Opcodes.GOTO) {
+                break;
+            }
+            target = ((JumpInsnNode) instruction).label;
+        }
+        return target;
+    }
+
+    /**
+     * Gets the first instruction starting from the provided
+     * one that is not a label, line number or a frame
+     *
+     * @param instruction instruction that you want to start at
+     * @return {@link AbstractInsnNode}
+     */
+
+    private static AbstractInsnNode nextReal(AbstractInsnNode instruction) {
+        while (instruction != null && instruction.getOpcode() < 0) {
+            instruction = instruction.getNext();
+        }
+        return instruction;
+    }
+
+    /**
+     * Checks if the method uses the legacy subroutines,
+     * those methods are left untouched
+     *
+     * @param instructions instructions of the method
+     * @return {@link Boolean}
+     */
+
+    private static boolean hasSubroutines(MemoryInstructions instructions) {
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction.getOpcode() == Opcodes.JSR || instruction.getOpcode() == Opcodes.RET) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
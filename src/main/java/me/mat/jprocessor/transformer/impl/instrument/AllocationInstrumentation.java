@@ -0,0 +1,75 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.runtime.AllocationCounters;
+import me.mat.jprocessor.util.asm.ASMUtil;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class AllocationInstrumentation extends Instrumentation {
+
+    public static final String KIND = "allocation";
+
+
+    private static final String[] PRIMITIVE_ARRAYS = {
+            "[Z", "[C", "[F", "[D", "[B", "[S", "[I", "[J"
+    };
+
+    public AllocationInstrumentation(MemoryJar memoryJar, Predicate<MemoryMethod> selector) {
+        super(memoryJar, KIND, selector, AllocationCounters.class);
+    }
+
+    @Override
+    protected boolean instrument(MemoryMethod memoryMethod, MemoryInstructions instructions) {
+        // collect all the allocation sites before the probes are placed
+        List<AbstractInsnNode> sites = new ArrayList<>();
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (getAllocatedType(instruction) != null) {
+                sites.add(instruction);
+            }
+        }
+
+        // count the allocation in front of every site
+        sites.forEach(instruction -> {
+            Probe probe = probeTable.add(memoryMethod, lineOf(instruction), getAllocatedType(instruction));
+            insertBefore(instructions, instruction, Arrays.asList(
+                    ASMUtil.pushConstant(probe.id),
+                    new MethodInsnNode(Opcodes.INVOKESTATIC, runtime(), "allocate", "(I)V", false)
+            ));
+        });
+
+        // return if any of the sites was instrumented
+        return !sites.isEmpty();
+    }
+
+    /**
+     * Gets the type that the provided instruction allocates
+     *
+     * @param instruction instruction that you want to check
+     * @return descriptor of the array or the internal name of the class, null if the instruction does not allocate
+     */
+
+    private static String getAllocatedType(AbstractInsnNode instruction) {
+        switch (instruction.getOpcode()) {
+            case Opcodes.NEW:
+                return ((TypeInsnNode) instruction).desc;
+            case Opcodes.ANEWARRAY:
+                return "[" + Type.getObjectType(((TypeInsnNode) instruction).desc).getDescriptor();
+            case Opcodes.NEWARRAY:
+                return PRIMITIVE_ARRAYS[((IntInsnNode) instruction).operand - Opcodes.T_BOOLEAN];
+            case Opcodes.MULTIANEWARRAY:
+                return ((MultiANewArrayInsnNode) instruction).desc;
+            default:
+                return null;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import me.mat.jprocessor.jar.analysis.BasicBlock;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.runtime.CoverageProbes;
+import me.mat.jprocessor.util.asm.ASMUtil;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class CoverageInstrumentation extends Instrumentation {
+
+    public static final String KIND = "coverage";
+
+
+    private final List<LdcInsnNode> classSizes = new ArrayList<>();
+
+    private int classStart;
+
+    public CoverageInstrumentation(MemoryJar memoryJar, Predicate<MemoryMethod> selector) {
+        super(memoryJar, KIND, selector, CoverageProbes.class);
+    }
+
+    /**
+     * Places a probe into every basic block of the selected methods,
+     * the probes of a class are kept together so that they can be
+     * stored in a single array, which means the classes are
+     * instrumented one at a time
+     *
+     * @param memoryClass class that you want to instrument
+     */
+
+    @Override
+    public synchronized void transform(MemoryClass memoryClass) {
+        // the probes of the class start after all the existing ones
+        classStart = probeTable.size();
+        classSizes.clear();
+
+        // instrument all the selected methods
+        super.transform(memoryClass);
+
+        // now that all the probes are known fill in the size of the probe array
+        int size = probeTable.size() - classStart;
+        classSizes.forEach(instruction -> instruction.cst = size);
+    }
+
+    @Override
+    protected boolean instrument(MemoryMethod memoryMethod, MemoryInstructions instructions) {
+        // collect the first instruction of every reachable block before the probes are placed
+        List<AbstractInsnNode> blocks = new ArrayList<>();
+        for (BasicBlock block : memoryMethod.getControlFlowGraph().getBlocks()) {
+            AbstractInsnNode instruction = block.firstRealInstruction();
+            if (block.isReachable() && instruction != null) {
+                blocks.add(instruction);
+            }
+        }
+
+        // fetch the probe array of the class once at the start of the method
+        int probes = memoryMethod.nextFreeLocal();
+        LdcInsnNode size = new LdcInsnNode(0);
+        classSizes.add(size);
+        insertBefore(instructions, instructions.getFirst(), Arrays.asList(
+                ASMUtil.pushConstant(classStart),
+                size,
+                new MethodInsnNode(Opcodes.INVOKESTATIC, runtime(), "get", "(II)[Z", false),
+                new VarInsnNode(Opcodes.ASTORE, probes)
+        ));
+
+        // mark every block as executed when it is entered
+        for (int i = 0; i < blocks.size(); i++) {
+            AbstractInsnNode instruction = blocks.get(i);
+            Probe probe = probeTable.add(memoryMethod, lineOf(instruction), "block " + i);
+            insertBefore(instructions, instruction, Arrays.asList(
+                    new VarInsnNode(Opcodes.ALOAD, probes),
+                    ASMUtil.pushConstant(probe.id - classStart),
+                    new InsnNode(Opcodes.ICONST_1),
+                    new InsnNode(Opcodes.BASTORE)
+            ));
+        }
+        return true;
+    }
+
+}
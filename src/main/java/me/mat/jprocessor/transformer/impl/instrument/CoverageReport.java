@@ -0,0 +1,168 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import lombok.NonNull;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.runtime.CoverageProbes;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+public class CoverageReport {
+
+    private final MemoryJar memoryJar;
+
+    private final ProbeTable probeTable;
+
+    private final boolean[] covered;
+
+    private CoverageReport(@NonNull MemoryJar memoryJar, @NonNull ProbeTable probeTable, boolean[] covered) {
+        this.memoryJar = memoryJar;
+        this.probeTable = probeTable;
+        this.covered = covered;
+    }
+
+    /**
+     * Checks if the provided probe was executed
+     *
+     * @param probe probe that you want to check
+     * @return {@link Boolean}
+     */
+
+    public boolean isCovered(Probe probe) {
+        return probe.id >= 0 && probe.id < covered.length && covered[probe.id];
+    }
+
+    /**
+     * Gets all the probes of the provided method
+     *
+     * @param memoryMethod method that you want to get the probes for
+     * @return {@link List}
+     */
+
+    public List<Probe> getProbes(MemoryMethod memoryMethod) {
+        return probeTable.getProbes().stream()
+                .filter(probe -> probe.isIn(memoryMethod.parent.name(), memoryMethod.name(), memoryMethod.description()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the method that the provided probe is in
+     *
+     * @param probe probe that you want to get the method for
+     * @return {@link MemoryMethod} or null if the method is not in the jar
+     */
+
+    public MemoryMethod getMethod(Probe probe) {
+        MemoryClass memoryClass = memoryJar.getClass(probe.owner);
+        if (memoryClass == null) {
+            return null;
+        }
+        return memoryClass.methods.stream()
+                .filter(memoryMethod -> memoryMethod.name().equals(probe.name) && memoryMethod.description().equals(probe.description))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Gets all the lines of the method
+     * that had any of their blocks executed
+     *
+     * @param memoryMethod method that you want to get the lines for
+     * @return {@link Set}
+     */
+
+    public Set<Integer> getCoveredLines(MemoryMethod memoryMethod) {
+        return getProbes(memoryMethod).stream()
+                .filter(probe -> probe.line != -1 && isCovered(probe))
+                .map(probe -> probe.line)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Gets all the lines of the method
+     * that had none of their blocks executed
+     *
+     * @param memoryMethod method that you want to get the lines for
+     * @return {@link Set}
+     */
+
+    public Set<Integer> getMissedLines(MemoryMethod memoryMethod) {
+        Set<Integer> lines = getProbes(memoryMethod).stream()
+                .filter(probe -> probe.line != -1)
+                .map(probe -> probe.line)
+                .collect(Collectors.toCollection(TreeSet::new));
+        lines.removeAll(getCoveredLines(memoryMethod));
+        return lines;
+    }
+
+    /**
+     * Returns the amount of the executed probes
+     *
+     * @return {@link Integer}
+     */
+
+    public int getCoveredCount() {
+        int count = 0;
+        for (boolean probe : covered) {
+            if (probe) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the table of all the probes
+     *
+     * @return {@link ProbeTable}
+     */
+
+    public ProbeTable getProbeTable() {
+        return probeTable;
+    }
+
+    /**
+     * Reads a dump of the probes and maps them to the methods of
+     * the jar using the probe table that is embedded into the jar
+     *
+     * @param inputStream stream that contains the dump
+     * @param memoryJar   jar that was instrumented
+     * @return {@link CoverageReport}
+     * @throws IOException if the dump or the probe table could not be read
+     */
+
+    public static CoverageReport read(InputStream inputStream, MemoryJar memoryJar) throws IOException {
+        // if the jar was not instrumented
+        ProbeTable probeTable = ProbeTable.read(memoryJar, CoverageInstrumentation.KIND);
+        if (probeTable == null) {
+
+            // throw an exception
+            throw new IOException("The jar does not contain a coverage probe table");
+        }
+
+        // if the data is not a dump of the probes
+        DataInputStream input = new DataInputStream(inputStream);
+        if (input.readInt() != CoverageProbes.MAGIC) {
+
+            // throw an exception
+            throw new IOException("The data is not a dump of the coverage probes");
+        }
+
+        // read the state of all the probes
+        boolean[] covered = new boolean[input.readInt()];
+        for (int i = 0; i < covered.length; i++) {
+            covered[i] = input.readBoolean();
+        }
+
+        // create the report
+        return new CoverageReport(memoryJar, probeTable, covered);
+    }
+
+}
@@ -0,0 +1,381 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import lombok.NonNull;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.runtime.ProbeTables;
+import me.mat.jprocessor.transformer.ClassTransformer;
+import me.mat.jprocessor.util.asm.ASMUtil;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+public abstract class Instrumentation implements ClassTransformer {
+
+    private static final String RUNTIME_PACKAGE = "me/mat/jprocessor/runtime/";
+
+    private static final String RUNTIME_DIRECTORY = "jprocessor_runtime/";
+
+    protected final ProbeTable probeTable = new ProbeTable();
+
+    protected final MemoryJar memoryJar;
+
+    private final String kind;
+
+    private final Predicate<MemoryMethod> selector;
+
+    private final Class<?> runtimeClass;
+
+    private String runtimePackage;
+
+    protected Instrumentation(@NonNull MemoryJar memoryJar, @NonNull String kind,
+                              @NonNull Predicate<MemoryMethod> selector, @NonNull Class<?> runtimeClass) {
+        this.memoryJar = memoryJar;
+        this.kind = kind;
+        this.selector = selector;
+        this.runtimeClass = runtimeClass;
+    }
+
+    /**
+     * Instruments all the selected methods of the jar, embeds
+     * the runtime support classes and the probe table into the
+     * jar and patches the amount of the probes into the runtime
+     *
+     * @throws IllegalStateException if the jar was already instrumented with the same runtime package
+     */
+
+    public void instrument() {
+        // a jar can only be instrumented once, the probe ids would otherwise clash
+        String runtimePackage = getRuntimePackage();
+        if (memoryJar.getClasses().containsKey(runtime())) {
+            throw new IllegalStateException("The jar already contains the " + kind + " runtime in '" + runtimePackage + "'");
+        }
+
+        // instrument all the classes that are in the jar before the runtime is embedded
+        new ArrayList<>(memoryJar.getClasses().values()).forEach(this::transform);
+
+        // embed the runtime classes into the package of the jar and configure them
+        Map<String, String> relocations = new HashMap<>();
+        relocations.put(Type.getInternalName(ProbeTables.class), runtimePackage + ProbeTables.class.getSimpleName());
+        relocations.put(Type.getInternalName(runtimeClass), runtime());
+        memoryJar.addClass(ProbeTables.class, relocations);
+        configure(memoryJar.addClass(runtimeClass, relocations));
+
+        // embed the probe table next to the runtime so that the probes can be mapped back to the code
+        memoryJar.addResource(ProbeTable.path(runtimePackage, kind), probeTable.toBytes());
+    }
+
+    /**
+     * Sets the package that the runtime is embedded into, by default
+     * the package is derived from the kind and the classes of the jar
+     * and placed under the package that all the classes of the jar share
+     *
+     * @param runtimePackage internal name of the package, ending with a slash
+     */
+
+    public synchronized void setRuntimePackage(@NonNull String runtimePackage) {
+        if (!runtimePackage.endsWith("/")) {
+            throw new IllegalArgumentException("The runtime package has to end with a slash");
+        }
+        this.runtimePackage = runtimePackage;
+    }
+
+    /**
+     * Gets the package that the runtime is embedded into, every jar gets
+     * its own copy of the runtime so that two instrumented jars on
+     * the same class path do not share the probes of each other, the
+     * copy sits inside of the package that the classes of the jar share
+     * so the jar never defines classes in a namespace it does not own,
+     * the jars without a shared package get it at the top level
+     *
+     * @return internal name of the package, ending with a slash
+     */
+
+    public synchronized String getRuntimePackage() {
+        // if the package was not set derive it from the classes of the jar
+        if (runtimePackage == null) {
+            List<String> names = new ArrayList<>(memoryJar.getClasses().keySet());
+            names.removeIf(Instrumentation::isRuntime);
+            Collections.sort(names);
+            runtimePackage = commonPackage(names) + RUNTIME_DIRECTORY + kind + "_" + Integer.toHexString(names.hashCode()) + "/";
+        }
+        return runtimePackage;
+    }
+
+    /**
+     * Gets the internal name of the embedded runtime class
+     * that the placed probes call
+     *
+     * @return {@link String}
+     */
+
+    public String runtime() {
+        return getRuntimePackage() + runtimeClass.getSimpleName();
+    }
+
+    /**
+     * Instruments the selected methods of the provided class, the
+     * runtime is not embedded so {@link #instrument()} should be
+     * preferred unless the class is processed on its own
+     *
+     * @param memoryClass class that you want to instrument
+     */
+
+    @Override
+    public void transform(MemoryClass memoryClass) {
+        // the runtime can not instrument itself or the runtimes of the other instrumentations
+        if (isRuntime(memoryClass.name()) || memoryClass.name().startsWith(getRuntimePackage())) {
+            return;
+        }
+
+        // instrument all the selected methods, one by one so the probe ids follow the order of the methods
+        boolean instrumented = false;
+        for (MemoryMethod memoryMethod : memoryClass.methods) {
+            if (isInstrumentable(memoryMethod) && selector.test(memoryMethod)) {
+                MemoryInstructions instructions = memoryMethod.instructions;
+                instructions.begin();
+                try {
+                    instrumented |= instrument(memoryMethod, instructions);
+                } finally {
+                    instructions.commit();
+                }
+            }
+        }
+
+        // if any of the methods changed the old stack map frames are no longer valid
+        if (instrumented) {
+            memoryClass.computeFrames = true;
+        }
+    }
+
+    /**
+     * Returns the table of all the probes
+     * that were placed by the instrumentation
+     *
+     * @return {@link ProbeTable}
+     */
+
+    public ProbeTable getProbeTable() {
+        return probeTable;
+    }
+
+    /**
+     * Places the probes into the provided method, all the
+     * edits are made as a single batch of edits
+     *
+     * @param memoryMethod method that you want to instrument
+     * @param instructions instructions of the method
+     * @return true if any of the probes was placed
+     */
+
+    protected abstract boolean instrument(MemoryMethod memoryMethod, MemoryInstructions instructions);
+
+    /**
+     * Configures the embedded runtime class,
+     * patches the amount of the probes by default
+     *
+     * @param runtimeClass runtime class that was embedded into the jar
+     */
+
+    protected void configure(MemoryClass runtimeClass) {
+        patch(runtimeClass, "probes", probeTable.size());
+    }
+
+    /**
+     * Replaces the body of a static method of the runtime
+     * class so that it returns the provided value
+     *
+     * @param runtimeClass runtime class that was embedded into the jar
+     * @param name         name of the method
+     * @param value        value that the method should return
+     */
+
+    protected static void patch(MemoryClass runtimeClass, String name, int value) {
+        runtimeClass.methods.stream()
+                .filter(memoryMethod -> memoryMethod.name().equals(name) && memoryMethod.description().equals("()I"))
+                .findFirst()
+                .ifPresent(memoryMethod -> memoryMethod.instructions.edit(instructions -> {
+                    instructions.clear();
+                    instructions.add(ASMUtil.pushConstant(value));
+                    instructions.add(new InsnNode(Opcodes.IRETURN));
+                    memoryMethod.getTryCatchBlocks().clear();
+                }));
+    }
+
+    /**
+     * Gets the line of the source code that
+     * the provided instruction belongs to
+     *
+     * @param instruction instruction that you want to get the line for
+     * @return line of the instruction or -1 if the method has no line numbers
+     */
+
+    protected static int lineOf(AbstractInsnNode instruction) {
+        for (AbstractInsnNode previous = instruction; previous != null; previous = previous.getPrevious()) {
+            if (previous instanceof LineNumberNode) {
+                return ((LineNumberNode) previous).line;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the first line number of the method
+     *
+     * @param instructions instructions of the method
+     * @return {@link AbstractInsnNode} or null if the method has no line numbers
+     */
+
+    protected static AbstractInsnNode firstLine(MemoryInstructions instructions) {
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction instanceof LineNumberNode) {
+                return instruction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Places the entry instructions at the start of the method and the
+     * exit instructions before every return and into a handler that
+     * throws the exception that left the method again, the constructors
+     * can not catch the exceptions of the super constructor call so
+     * only their normal exits get the exit instructions
+     *
+     * @param memoryMethod method that you want to surround
+     * @param instructions instructions of the method
+     * @param entry        instructions that run when the method is entered
+     * @param exit         creates the instructions that run when the method exits
+     */
+
+    protected static void surround(MemoryMethod memoryMethod, MemoryInstructions instructions,
+                                   List<AbstractInsnNode> entry, Supplier<List<AbstractInsnNode>> exit) {
+        // collect all the returns before the probes are placed
+        List<AbstractInsnNode> returns = new ArrayList<>();
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (isReturn(instruction.getOpcode())) {
+                returns.add(instruction);
+            }
+        }
+
+        // place the entry at the start of the method
+        LabelNode rangeStart = new LabelNode();
+        List<AbstractInsnNode> start = new ArrayList<>(entry);
+        start.add(rangeStart);
+        insertBefore(instructions, instructions.getFirst(), start);
+
+        // place the exit before every return
+        returns.forEach(instruction -> insertBefore(instructions, instruction, exit.get()));
+
+        // if the method is a constructor return
+        if (memoryMethod.name().equals("<init>")) {
+            return;
+        }
+
+        // place the exit into a handler that throws the exception again
+        LabelNode rangeEnd = new LabelNode();
+        LabelNode handler = new LabelNode();
+        instructions.add(rangeEnd);
+        instructions.add(handler);
+        exit.get().forEach(instructions::add);
+        instructions.add(new InsnNode(Opcodes.ATHROW));
+
+        // the handler is the outer most one so it goes after all the existing ones
+        memoryMethod.getTryCatchBlocks().add(new TryCatchBlockNode(rangeStart, rangeEnd, handler, null));
+    }
+
+    /**
+     * Checks if the provided opcode returns from the method
+     *
+     * @param opcode opcode that you want to check
+     * @return {@link Boolean}
+     */
+
+    protected static boolean isReturn(int opcode) {
+        return opcode >= Opcodes.IRETURN && opcode <= Opcodes.RETURN;
+    }
+
+    /**
+     * Inserts all the provided instructions in their order
+     * in front of the provided instruction
+     *
+     * @param instructions instructions of the method
+     * @param target       instruction that you want to insert in front of
+     * @param inserted     instructions that you want to insert
+     */
+
+    protected static void insertBefore(MemoryInstructions instructions, AbstractInsnNode target, List<AbstractInsnNode> inserted) {
+        inserted.forEach(instruction -> instructions.insertBefore(target, instruction));
+    }
+
+    /**
+     * Checks if the provided class is a runtime class, either
+     * the original one or a copy embedded into a jar
+     *
+     * @param name internal name of the class
+     * @return {@link Boolean}
+     */
+
+    private static boolean isRuntime(String name) {
+        return name.startsWith(RUNTIME_PACKAGE) || name.startsWith(RUNTIME_DIRECTORY) || name.contains("/" + RUNTIME_DIRECTORY);
+    }
+
+    /**
+     * Gets the package that all the provided classes share
+     *
+     * @param names sorted internal names of the classes
+     * @return internal name of the package ending with a slash or an empty string if they share none
+     */
+
+    private static String commonPackage(List<String> names) {
+        // if there are no classes they share no package
+        if (names.isEmpty()) {
+            return "";
+        }
+
+        // the first and the last of the sorted names differ the most so their shared package is shared by all
+        String first = names.get(0);
+        String last = names.get(names.size() - 1);
+        int length = 0;
+        while (length < first.length() && length < last.length() && first.charAt(length) == last.charAt(length)) {
+            length++;
+        }
+
+        // cut the shared prefix back to a whole package
+        return first.substring(0, first.lastIndexOf('/', length - 1) + 1);
+    }
+
+    /**
+     * Checks if the method has code that can be instrumented,
+     * the methods that use subroutines are skipped since
+     * their frames can not be computed
+     *
+     * @param memoryMethod method that you want to check
+     * @return {@link Boolean}
+     */
+
+    private static boolean isInstrumentable(MemoryMethod memoryMethod) {
+        // if the method has no code
+        if (memoryMethod.isAbstract() || memoryMethod.isNative()
+                || memoryMethod.instructions == null || memoryMethod.instructions.size() == 0) {
+
+            // return false
+            return false;
+        }
+
+        // check that the method does not use subroutines
+        for (AbstractInsnNode instruction = memoryMethod.getInstructions().getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction.getOpcode() == Opcodes.JSR || instruction.getOpcode() == Opcodes.RET) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,109 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.runtime.LockTimings;
+import me.mat.jprocessor.util.asm.ASMUtil;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class LockInstrumentation extends Instrumentation {
+
+    public static final String KIND = "lock";
+
+
+    public LockInstrumentation(MemoryJar memoryJar, Predicate<MemoryMethod> selector) {
+        super(memoryJar, KIND, selector, LockTimings.class);
+    }
+
+    /**
+     * Measures the wait time of every monitorenter in the method, the
+     * synchronized methods acquire their lock before any of their code
+     * runs so they are turned into methods that lock explicitly,
+     * which means that their synchronized modifier is removed
+     *
+     * @param memoryMethod method that you want to instrument
+     * @param instructions instructions of the method
+     * @return true if any of the probes was placed
+     */
+
+    @Override
+    protected boolean instrument(MemoryMethod memoryMethod, MemoryInstructions instructions) {
+        // get the locals for the start time and the lock of the method
+        int start = memoryMethod.nextFreeLocal();
+        int lock = start + 2;
+
+        // collect all the lock sites before the probes are placed
+        List<AbstractInsnNode> sites = new ArrayList<>();
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+            if (instruction.getOpcode() == Opcodes.MONITORENTER) {
+                sites.add(instruction);
+            }
+        }
+
+        // measure the wait time of every lock site
+        sites.forEach(instruction -> {
+            Probe probe = probeTable.add(memoryMethod, lineOf(instruction), "monitorenter");
+            insertBefore(instructions, instruction, Arrays.asList(
+                    new MethodInsnNode(Opcodes.INVOKESTATIC, runtime(), "start", "()J", false),
+                    new VarInsnNode(Opcodes.LSTORE, start)
+            ));
+
+            // a monitorenter is never the last instruction of a method
+            insertBefore(instructions, instruction.getNext(), acquired(probe, start));
+        });
+
+        // if the method is not synchronized or its lock can not be loaded return
+        if (!memoryMethod.isSynchronized() || (memoryMethod.isStatic() && (memoryMethod.parent.version() & 0xFFFF) < Opcodes.V1_5)) {
+            return !sites.isEmpty();
+        }
+
+        // acquire the lock of the method explicitly and measure the wait time
+        Probe probe = probeTable.add(memoryMethod, lineOf(firstLine(instructions)), "synchronized");
+        List<AbstractInsnNode> enter = new ArrayList<>(Arrays.asList(
+                memoryMethod.isStatic()
+                        ? new LdcInsnNode(Type.getObjectType(memoryMethod.parent.name()))
+                        : new VarInsnNode(Opcodes.ALOAD, 0),
+                new InsnNode(Opcodes.DUP),
+                new VarInsnNode(Opcodes.ASTORE, lock),
+                new MethodInsnNode(Opcodes.INVOKESTATIC, runtime(), "start", "()J", false),
+                new VarInsnNode(Opcodes.LSTORE, start),
+                new InsnNode(Opcodes.MONITORENTER)
+        ));
+        enter.addAll(acquired(probe, start));
+
+        // release the lock before every return and when an exception leaves the method
+        surround(memoryMethod, instructions, enter, () -> Arrays.asList(
+                new VarInsnNode(Opcodes.ALOAD, lock),
+                new InsnNode(Opcodes.MONITOREXIT)
+        ));
+
+        // the method now holds its lock by itself
+        memoryMethod.setAccess(memoryMethod.getAccess() & ~Opcodes.ACC_SYNCHRONIZED);
+        return true;
+    }
+
+    /**
+     * Creates the instructions that record the acquired lock
+     *
+     * @param probe probe of the lock site
+     * @param start local that holds the start time
+     * @return {@link List}
+     */
+
+    private List<AbstractInsnNode> acquired(Probe probe, int start) {
+        return Arrays.asList(
+                ASMUtil.pushConstant(probe.id),
+                new VarInsnNode(Opcodes.LLOAD, start),
+                new MethodInsnNode(Opcodes.INVOKESTATIC, runtime(), "acquired", "(IJ)V", false)
+        );
+    }
+
+}
@@ -0,0 +1,45 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class Probe {
+
+    public final int id;
+
+    @NonNull
+    public final String owner;
+
+    @NonNull
+    public final String name;
+
+    @NonNull
+    public final String description;
+
+    public final int line;
+
+    @NonNull
+    public final String detail;
+
+    /**
+     * Checks if the probe belongs to the provided method
+     *
+     * @param owner       owner of the method
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link Boolean}
+     */
+
+    public boolean isIn(String owner, String name, String description) {
+        return this.owner.equals(owner) && this.name.equals(name) && this.description.equals(description);
+    }
+
+    @Override
+    public String toString() {
+        return owner.replace('/', '.') + "." + name + description
+                + (line == -1 ? "" : ":" + line)
+                + (detail.isEmpty() ? "" : " " + detail);
+    }
+
+}
@@ -0,0 +1,153 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.jar.memory.MemoryResource;
+import me.mat.jprocessor.runtime.ProbeTables;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ProbeTable {
+
+    private static final String SUFFIX = ".table";
+
+    private final List<Probe> probes = new ArrayList<>();
+
+    /**
+     * Adds a probe to the provided method
+     *
+     * @param memoryMethod method that the probe is in
+     * @param line         line of the probe or -1 if it is not known
+     * @param detail       detail of the probe, for example the allocated type
+     * @return {@link Probe}
+     */
+
+    public synchronized Probe add(MemoryMethod memoryMethod, int line, String detail) {
+        Probe probe = new Probe(probes.size(), memoryMethod.parent.name(), memoryMethod.name(), memoryMethod.description(), line, detail);
+        probes.add(probe);
+        return probe;
+    }
+
+    /**
+     * Gets the probe with the provided id
+     *
+     * @param id id of the probe
+     * @return {@link Probe}
+     */
+
+    public synchronized Probe get(int id) {
+        return id >= 0 && id < probes.size() ? probes.get(id) : null;
+    }
+
+    /**
+     * Returns the amount of the probes
+     *
+     * @return {@link Integer}
+     */
+
+    public synchronized int size() {
+        return probes.size();
+    }
+
+    /**
+     * Returns all the probes ordered by their id
+     *
+     * @return {@link List}
+     */
+
+    public synchronized List<Probe> getProbes() {
+        return new ArrayList<>(probes);
+    }
+
+    /**
+     * Writes the table into the format that
+     * is embedded into the instrumented jar
+     *
+     * @return {@link Byte[]}
+     */
+
+    public synchronized byte[] toBytes() {
+        StringBuilder builder = new StringBuilder();
+        probes.forEach(probe -> builder.append(probe.id).append('\t')
+                .append(probe.owner).append('\t')
+                .append(probe.name).append('\t')
+                .append(probe.description).append('\t')
+                .append(probe.line).append('\t')
+                .append(probe.detail).append('\n'));
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a table from the format that
+     * is embedded into the instrumented jar
+     *
+     * @param data data of the table
+     * @return {@link ProbeTable}
+     */
+
+    public static ProbeTable read(byte[] data) {
+        ProbeTable probeTable = new ProbeTable();
+
+        // loop through all the entries of the table
+        for (String line : new String(data, StandardCharsets.UTF_8).split("\n")) {
+
+            // if the entry is not valid skip it
+            String[] parts = line.split("\t", -1);
+            if (parts.length < 6) {
+                continue;
+            }
+
+            // add the probe
+            probeTable.probes.add(new Probe(
+                    Integer.parseInt(parts[0]), parts[1], parts[2], parts[3],
+                    Integer.parseInt(parts[4]), parts[5]
+            ));
+        }
+
+        // return the table
+        return probeTable;
+    }
+
+    /**
+     * Reads the table of the provided kind of
+     * instrumentation from the resources of the jar
+     *
+     * @param memoryJar jar that was instrumented
+     * @param kind      kind of the instrumentation
+     * @return {@link ProbeTable} or null if the jar was not instrumented
+     */
+
+    public static ProbeTable read(MemoryJar memoryJar, String kind) {
+        // loop through all the resources of the jar
+        for (Map.Entry<String, MemoryResource> entry : memoryJar.getResources().entrySet()) {
+            String path = entry.getKey();
+
+            // if the resource is a table of the kind that sits next to an embedded runtime read it
+            String runtimePackage = path.substring(0, path.lastIndexOf('/') + 1);
+            if (path.equals(path(runtimePackage, kind))
+                    && memoryJar.getClasses().containsKey(runtimePackage + ProbeTables.class.getSimpleName())) {
+                return read(entry.getValue().getData());
+            }
+        }
+
+        // else the jar was not instrumented
+        return null;
+    }
+
+    /**
+     * Gets the path of the table of the provided
+     * kind of instrumentation inside of the jar
+     *
+     * @param runtimePackage package that the runtime was embedded into
+     * @param kind           kind of the instrumentation
+     * @return {@link String}
+     */
+
+    public static String path(String runtimePackage, String kind) {
+        return runtimePackage + kind + SUFFIX;
+    }
+
+}
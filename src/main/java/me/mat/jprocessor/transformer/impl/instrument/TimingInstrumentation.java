@@ -0,0 +1,80 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.runtime.MethodTimings;
+import me.mat.jprocessor.util.asm.ASMUtil;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class TimingInstrumentation extends Instrumentation {
+
+    public static final String KIND = "timing";
+
+
+    private int sampleRate = 1;
+
+    public TimingInstrumentation(MemoryJar memoryJar, Predicate<MemoryMethod> selector) {
+        super(memoryJar, KIND, selector, MethodTimings.class);
+    }
+
+    /**
+     * Sets how many calls share a single timed call, every call is
+     * still counted but only one in the provided amount is timed
+     *
+     * @param sampleRate amount of the calls per timed call
+     * @return {@link TimingInstrumentation}
+     */
+
+    public TimingInstrumentation sampleRate(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("The sample rate has to be at least 1");
+        }
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    @Override
+    protected void configure(MemoryClass runtimeClass) {
+        super.configure(runtimeClass);
+        patch(runtimeClass, "sampleRate", sampleRate);
+    }
+
+    @Override
+    protected boolean instrument(MemoryMethod memoryMethod, MemoryInstructions instructions) {
+        // register the method and get a local for the start time
+        Probe probe = probeTable.add(memoryMethod, lineOf(firstLine(instructions)), "");
+        int start = memoryMethod.nextFreeLocal();
+
+        // record the entry and every exit of the method
+        surround(memoryMethod, instructions, Arrays.asList(
+                ASMUtil.pushConstant(probe.id),
+                new MethodInsnNode(Opcodes.INVOKESTATIC, runtime(), "enter", "(I)J", false),
+                new VarInsnNode(Opcodes.LSTORE, start)
+        ), () -> exit(probe, start));
+        return true;
+    }
+
+    /**
+     * Creates the instructions that record the exit from the method
+     *
+     * @param probe probe of the method
+     * @param start local that holds the start time
+     * @return {@link List}
+     */
+
+    private List<AbstractInsnNode> exit(Probe probe, int start) {
+        return Arrays.asList(
+                ASMUtil.pushConstant(probe.id),
+                new VarInsnNode(Opcodes.LLOAD, start),
+                new MethodInsnNode(Opcodes.INVOKESTATIC, runtime(), "exit", "(IJ)V", false)
+        );
+    }
+
+}
@@ -0,0 +1,23 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class TraceEvent {
+
+    public final long timestamp;
+
+    public final long threadId;
+
+    public final int id;
+
+    public final Probe probe;
+
+    public final boolean entry;
+
+    @Override
+    public String toString() {
+        return timestamp + " [" + threadId + "] " + (entry ? "enter " : "exit ") + (probe != null ? probe : "#" + id);
+    }
+
+}
@@ -0,0 +1,74 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.runtime.TraceBuffer;
+import me.mat.jprocessor.util.asm.ASMUtil;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class TraceInstrumentation extends Instrumentation {
+
+    public static final String KIND = "trace";
+
+
+    private int capacity = 1 << 16;
+
+    public TraceInstrumentation(MemoryJar memoryJar, Predicate<MemoryMethod> selector) {
+        super(memoryJar, KIND, selector, TraceBuffer.class);
+    }
+
+    /**
+     * Sets the amount of the events that the ring buffer
+     * holds before the oldest events are overwritten
+     *
+     * @param capacity amount of the events, has to be a power of two
+     * @return {@link TraceInstrumentation}
+     */
+
+    public TraceInstrumentation capacity(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1 || capacity > Integer.MAX_VALUE / TraceBuffer.EVENT_SIZE) {
+            throw new IllegalArgumentException("The capacity has to be a power of two that fits into a single buffer");
+        }
+        this.capacity = capacity;
+        return this;
+    }
+
+    @Override
+    protected void configure(MemoryClass runtimeClass) {
+        patch(runtimeClass, "capacity", capacity);
+    }
+
+    @Override
+    protected boolean instrument(MemoryMethod memoryMethod, MemoryInstructions instructions) {
+        // register the method
+        Probe probe = probeTable.add(memoryMethod, lineOf(firstLine(instructions)), "");
+
+        // record the entry and every exit of the method
+        surround(memoryMethod, instructions, event(probe, "enter"), () -> event(probe, "exit"));
+        return true;
+    }
+
+    /**
+     * Creates the instructions that record an event of the method
+     *
+     * @param probe probe of the method
+     * @param name  name of the method of the buffer that records the event
+     * @return {@link List}
+     */
+
+    private List<AbstractInsnNode> event(Probe probe, String name) {
+        return Arrays.asList(
+                ASMUtil.pushConstant(probe.id),
+                new MethodInsnNode(Opcodes.INVOKESTATIC, runtime(), name, "(I)V", false)
+        );
+    }
+
+}
@@ -0,0 +1,69 @@
+package me.mat.jprocessor.transformer.impl.instrument;
+
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.runtime.TraceBuffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TraceReader {
+
+    /**
+     * Decodes a dump of the trace buffer and maps all
+     * the events to the probes of the provided table
+     *
+     * @param inputStream stream that contains the dump
+     * @param probeTable  table of the traced methods or null if it is not known
+     * @return list of the events from the oldest to the newest one
+     * @throws IOException if the dump could not be read
+     */
+
+    public static List<TraceEvent> read(InputStream inputStream, ProbeTable probeTable) throws IOException {
+        DataInputStream input = new DataInputStream(inputStream);
+
+        // if the dump is not a dump of the trace buffer
+        if (input.readInt() != TraceBuffer.MAGIC) {
+
+            // throw an exception
+            throw new IOException("The data is not a dump of the trace buffer");
+        }
+
+        // skip the total amount of the written events and read the events
+        input.readLong();
+        int size = input.readInt();
+        List<TraceEvent> events = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long timestamp = input.readLong();
+            long threadId = input.readLong();
+            int id = input.readInt();
+            int type = input.readInt();
+            events.add(new TraceEvent(
+                    timestamp, threadId, id,
+                    probeTable != null ? probeTable.get(id) : null,
+                    type == TraceBuffer.ENTRY
+            ));
+        }
+
+        // return the events
+        return events;
+    }
+
+    /**
+     * Decodes a dump of the trace buffer using
+     * the table that is embedded into the jar
+     *
+     * @param data      data of the dump
+     * @param memoryJar jar that was instrumented
+     * @return list of the events from the oldest to the newest one
+     * @throws IOException if the dump could not be read
+     */
+
+    public static List<TraceEvent> read(byte[] data, MemoryJar memoryJar) throws IOException {
+        return read(new ByteArrayInputStream(data), ProbeTable.read(memoryJar, TraceInstrumentation.KIND));
+    }
+
+}
@@ -0,0 +1,41 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+class AlternativePattern extends Pattern {
+
+    @NonNull
+    private final List<Pattern> patterns;
+
+    @Override
+    void compile(PatternProgram program) {
+        // define a list of all the jumps to the end of the alternatives
+        List<Integer> jumps = new ArrayList<>();
+
+        // loop through all the alternatives
+        for (int i = 0; i < patterns.size(); i++) {
+
+            // if this is the last alternative compile it without a split
+            if (i == patterns.size() - 1) {
+                patterns.get(i).compile(program);
+                break;
+            }
+
+            // split between this alternative and the next one
+            int split = program.emitSplit();
+            program.setFirst(split, program.size());
+            patterns.get(i).compile(program);
+            jumps.add(program.emitJump());
+            program.setSecond(split, program.size());
+        }
+
+        // point all the jumps at the end of the alternatives
+        jumps.forEach(jump -> program.setFirst(jump, program.size()));
+    }
+
+}
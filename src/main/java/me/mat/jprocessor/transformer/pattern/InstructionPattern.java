@@ -0,0 +1,27 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+import java.util.function.Predicate;
+
+@RequiredArgsConstructor
+class InstructionPattern extends Pattern {
+
+    @NonNull
+    private final Predicate<AbstractInsnNode> predicate;
+
+    private final String captureName;
+
+    @Override
+    void compile(PatternProgram program) {
+        program.emitMatch(predicate, captureName);
+    }
+
+    @Override
+    public Pattern capture(@NonNull String name) {
+        return new InstructionPattern(predicate, name);
+    }
+
+}
@@ -0,0 +1,229 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import lombok.NonNull;
+import org.objectweb.asm.tree.*;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+public abstract class Pattern {
+
+    /**
+     * Compiles the pattern into the provided program
+     *
+     * @param program program that the pattern is compiled into
+     */
+
+    abstract void compile(PatternProgram program);
+
+    /**
+     * Captures the instruction that this pattern matches under
+     * the provided name, only single instruction patterns
+     * can be captured
+     *
+     * @param name name of the capture
+     * @return {@link Pattern}
+     */
+
+    public Pattern capture(@NonNull String name) {
+        throw new IllegalStateException("Only single instruction patterns can be captured");
+    }
+
+    /**
+     * Matches any instruction
+     *
+     * @return {@link Pattern}
+     */
+
+    public static Pattern any() {
+        return matching(instruction -> true);
+    }
+
+    /**
+     * Matches an instruction that matches the provided predicate
+     *
+     * @param predicate predicate that the instruction has to match
+     * @return {@link Pattern}
+     */
+
+    public static Pattern matching(@NonNull Predicate<AbstractInsnNode> predicate) {
+        return new InstructionPattern(predicate, null);
+    }
+
+    /**
+     * Matches an instruction with one of the provided opcodes
+     *
+     * @param opcodes opcodes that the instruction can have
+     * @return {@link Pattern}
+     */
+
+    public static Pattern opcode(int... opcodes) {
+        // if there is a single opcode compare it directly
+        if (opcodes.length == 1) {
+            int opcode = opcodes[0];
+            return matching(instruction -> instruction.getOpcode() == opcode);
+        }
+
+        // else search through all the opcodes
+        int[] sorted = opcodes.clone();
+        Arrays.sort(sorted);
+        return matching(instruction -> Arrays.binarySearch(sorted, instruction.getOpcode()) >= 0);
+    }
+
+    /**
+     * Matches a field instruction, any
+     * of the values can be null to match all
+     *
+     * @param opcode      opcode of the instruction or -1 for any
+     * @param owner       owner of the field
+     * @param name        name of the field
+     * @param description description of the field
+     * @return {@link Pattern}
+     */
+
+    public static Pattern field(int opcode, String owner, String name, String description) {
+        return matching(instruction -> {
+            if (!(instruction instanceof FieldInsnNode) || (opcode != -1 && instruction.getOpcode() != opcode)) {
+                return false;
+            }
+            FieldInsnNode fieldInsnNode = (FieldInsnNode) instruction;
+            return matches(owner, fieldInsnNode.owner)
+                    && matches(name, fieldInsnNode.name)
+                    && matches(description, fieldInsnNode.desc);
+        });
+    }
+
+    /**
+     * Matches a method invoke instruction, any
+     * of the values can be null to match all
+     *
+     * @param opcode      opcode of the instruction or -1 for any
+     * @param owner       owner of the method
+     * @param name        name of the method
+     * @param description description of the method
+     * @return {@link Pattern}
+     */
+
+    public static Pattern method(int opcode, String owner, String name, String description) {
+        return matching(instruction -> {
+            if (!(instruction instanceof MethodInsnNode) || (opcode != -1 && instruction.getOpcode() != opcode)) {
+                return false;
+            }
+            MethodInsnNode methodInsnNode = (MethodInsnNode) instruction;
+            return matches(owner, methodInsnNode.owner)
+                    && matches(name, methodInsnNode.name)
+                    && matches(description, methodInsnNode.desc);
+        });
+    }
+
+    /**
+     * Matches a type instruction, the type
+     * can be null to match all the types
+     *
+     * @param opcode opcode of the instruction or -1 for any
+     * @param type   internal name of the type
+     * @return {@link Pattern}
+     */
+
+    public static Pattern type(int opcode, String type) {
+        return matching(instruction -> instruction instanceof TypeInsnNode
+                && (opcode == -1 || instruction.getOpcode() == opcode)
+                && matches(type, ((TypeInsnNode) instruction).desc));
+    }
+
+    /**
+     * Matches a constant load instruction
+     * with a constant that matches the predicate
+     *
+     * @param predicate predicate that the constant has to match
+     * @return {@link Pattern}
+     */
+
+    public static Pattern ldc(@NonNull Predicate<Object> predicate) {
+        return matching(instruction -> instruction instanceof LdcInsnNode
+                && predicate.test(((LdcInsnNode) instruction).cst));
+    }
+
+    /**
+     * Matches a constant load instruction
+     * that loads the provided constant
+     *
+     * @param value value of the constant
+     * @return {@link Pattern}
+     */
+
+    public static Pattern ldc(@NonNull Object value) {
+        return ldc(value::equals);
+    }
+
+    /**
+     * Matches all the provided patterns one after another
+     *
+     * @param patterns patterns that you want to match
+     * @return {@link Pattern}
+     */
+
+    public static Pattern sequence(@NonNull Pattern... patterns) {
+        return new SequencePattern(Arrays.asList(patterns));
+    }
+
+    /**
+     * Matches any of the provided patterns,
+     * the first pattern has the priority
+     *
+     * @param patterns patterns that you want to match
+     * @return {@link Pattern}
+     */
+
+    public static Pattern anyOf(@NonNull Pattern... patterns) {
+        return new AlternativePattern(Arrays.asList(patterns));
+    }
+
+    /**
+     * Matches the provided pattern once or not at all
+     *
+     * @param pattern pattern that you want to match
+     * @return {@link Pattern}
+     */
+
+    public static Pattern optional(@NonNull Pattern pattern) {
+        return new RepeatPattern(pattern, 0, false);
+    }
+
+    /**
+     * Matches the provided pattern any number of times
+     *
+     * @param pattern pattern that you want to match
+     * @return {@link Pattern}
+     */
+
+    public static Pattern zeroOrMore(@NonNull Pattern pattern) {
+        return new RepeatPattern(pattern, 0, true);
+    }
+
+    /**
+     * Matches the provided pattern at least once
+     *
+     * @param pattern pattern that you want to match
+     * @return {@link Pattern}
+     */
+
+    public static Pattern oneOrMore(@NonNull Pattern pattern) {
+        return new RepeatPattern(pattern, 1, true);
+    }
+
+    /**
+     * Checks if the provided value matches the expected value,
+     * an expected value of null matches all the values
+     *
+     * @param expected expected value
+     * @param value    value that you want to check
+     * @return {@link Boolean}
+     */
+
+    private static boolean matches(String expected, String value) {
+        return expected == null || Objects.equals(expected, value);
+    }
+
+}
@@ -0,0 +1,66 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class PatternMatch {
+
+    @NonNull
+    public final Pattern pattern;
+
+    public final MemoryClass memoryClass;
+
+    public final MemoryMethod memoryMethod;
+
+    @NonNull
+    public final AbstractInsnNode first;
+
+    @NonNull
+    public final AbstractInsnNode last;
+
+    @NonNull
+    private final Map<String, Integer> slots;
+
+    @NonNull
+    private final AbstractInsnNode[] captures;
+
+    /**
+     * Gets the instruction that was captured
+     * under the provided name
+     *
+     * @param name name of the capture
+     * @return {@link AbstractInsnNode}
+     */
+
+    public AbstractInsnNode get(String name) {
+        Integer slot = slots.get(name);
+        return slot != null ? captures[slot] : null;
+    }
+
+    /**
+     * Gets all the instructions of the match,
+     * including the labels and the line numbers
+     *
+     * @return {@link List}
+     */
+
+    public List<AbstractInsnNode> instructions() {
+        List<AbstractInsnNode> instructions = new ArrayList<>();
+        for (AbstractInsnNode instruction = first; instruction != null; instruction = instruction.getNext()) {
+            instructions.add(instruction);
+            if (instruction == last) {
+                break;
+            }
+        }
+        return instructions;
+    }
+
+}
@@ -0,0 +1,345 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import lombok.NonNull;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class PatternMatcher {
+
+    private final List<Pattern> patterns;
+
+    private final PatternProgram program;
+
+    public PatternMatcher(@NonNull List<Pattern> patterns) {
+        this.patterns = new ArrayList<>(patterns);
+        this.program = new PatternProgram(this.patterns);
+    }
+
+    public PatternMatcher(@NonNull Pattern... patterns) {
+        this(Arrays.asList(patterns));
+    }
+
+    /**
+     * Matches all the patterns against all the methods of the jar,
+     * the methods are matched in parallel so all the used predicates
+     * have to be thread safe
+     *
+     * @param memoryJar jar that you want to match
+     * @return {@link List}
+     */
+
+    public List<PatternMatch> match(MemoryJar memoryJar) {
+        return memoryJar.getClasses().values().parallelStream()
+                .flatMap(memoryClass -> memoryClass.methods.stream()
+                        .flatMap(memoryMethod -> match(memoryClass, memoryMethod).stream()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Matches all the patterns against all the methods of the jar
+     * in parallel and then passes every match to the handler one by
+     * one, so the handler is free to edit the matched instructions
+     *
+     * @param memoryJar jar that you want to scan
+     * @param handler   handler that will receive all the matches
+     */
+
+    public void scan(MemoryJar memoryJar, @NonNull Consumer<PatternMatch> handler) {
+        match(memoryJar).forEach(handler);
+    }
+
+    /**
+     * Matches all the patterns against the provided method
+     *
+     * @param memoryClass  class that the method is in
+     * @param memoryMethod method that you want to match
+     * @return {@link List}
+     */
+
+    public List<PatternMatch> match(MemoryClass memoryClass, @NonNull MemoryMethod memoryMethod) {
+        return match(memoryClass, memoryMethod, memoryMethod.getInstructions());
+    }
+
+    /**
+     * Matches all the patterns against the provided instructions
+     *
+     * @param instructions instructions that you want to match
+     * @return {@link List}
+     */
+
+    public List<PatternMatch> match(@NonNull InsnList instructions) {
+        return match(null, null, instructions);
+    }
+
+    /**
+     * Matches all the patterns in a single pass over the instructions, all
+     * the patterns are advanced together, every pattern reports its leftmost
+     * longest matches and the matches of one pattern never overlap, a match
+     * is only reported once no thread of its pattern that started at the same
+     * or an earlier instruction is alive anymore, labels, line numbers and
+     * frames are skipped
+     *
+     * @param memoryClass  class that the instructions are in
+     * @param memoryMethod method that the instructions are in
+     * @param instructions instructions that you want to match
+     * @return {@link List}
+     */
+
+    private List<PatternMatch> match(MemoryClass memoryClass, MemoryMethod memoryMethod, InsnList instructions) {
+        // define a list that will hold all the matches
+        List<PatternMatch> matches = new ArrayList<>();
+
+        // define the thread lists and the marks used to skip duplicate threads
+        PatternThreads current = new PatternThreads(program.size());
+        PatternThreads next = new PatternThreads(program.size());
+        int[] marks = new int[program.size()];
+        int generation = 1;
+        current.generation = generation;
+
+        // define the completed matches of every pattern that might still be beaten by a longer or an earlier one
+        List<List<Candidate>> candidates = new ArrayList<>();
+        patterns.forEach(pattern -> candidates.add(new ArrayList<>()));
+
+        // loop through all the instructions
+        int position = 0;
+        for (AbstractInsnNode instruction = instructions.getFirst(); instruction != null; instruction = instruction.getNext()) {
+
+            // skip all the pseudo instructions
+            if (instruction.getOpcode() < 0) {
+                continue;
+            }
+
+            // start a new thread for every pattern at the current instruction
+            for (int start : program.starts) {
+                add(current, marks, start, instruction, position, null, false);
+            }
+
+            // advance all the threads that match the current instruction
+            next.clear();
+            next.generation = ++generation;
+            for (int i = 0; i < current.size; i++) {
+                int pc = current.pcs[i];
+                if (!program.predicates[pc].test(instruction)) {
+                    continue;
+                }
+
+                // capture the instruction if needed
+                AbstractInsnNode[] captures = current.captures[i];
+                int slot = program.first[pc];
+                if (slot != -1) {
+                    captures = captures != null ? captures.clone() : new AbstractInsnNode[program.captureCount];
+                    captures[slot] = instruction;
+                }
+
+                // add the thread to the next step
+                add(next, marks, pc + 1, current.starts[i], current.positions[i], captures, true);
+            }
+
+            // collect the completed matches, the threads that completed do not advance any further
+            for (int i = 0; i < next.size; i++) {
+                int pc = next.pcs[i];
+                if (program.operations[pc] == PatternProgram.ACCEPT) {
+                    offer(candidates.get(program.first[pc]), new Candidate(
+                            next.positions[i], position, next.starts[i], instruction, next.captures[i]
+                    ));
+                }
+            }
+
+            retain(next, -1, Integer.MAX_VALUE);
+
+            // report all the matches that can no longer be beaten and drop the threads that overlap them
+            for (int pattern = 0; pattern < patterns.size(); pattern++) {
+                report(matches, candidates.get(pattern), pattern, next, memoryClass, memoryMethod);
+            }
+
+            // mark only the alive threads so that the operations of the dropped threads can be reached again
+            next.generation = ++generation;
+            for (int i = 0; i < next.size; i++) {
+                marks[next.pcs[i]] = next.generation;
+            }
+
+            // swap the thread lists
+            PatternThreads swap = current;
+            current = next;
+            next = swap;
+            position++;
+        }
+
+        // no thread is alive anymore so all the remaining matches are final
+        current.clear();
+        for (int pattern = 0; pattern < patterns.size(); pattern++) {
+            report(matches, candidates.get(pattern), pattern, current, memoryClass, memoryMethod);
+        }
+
+        // return all the matches
+        return matches;
+    }
+
+    /**
+     * Adds a completed match to the matches of its pattern that
+     * are not reported yet, which are ordered by their start,
+     * a match replaces the shorter match with the same start
+     *
+     * @param candidates matches of the pattern that are not reported yet
+     * @param candidate  match that was completed
+     */
+
+    private static void offer(List<Candidate> candidates, Candidate candidate) {
+        // find the place of the match among the matches with an earlier start
+        int index = candidates.size();
+        while (index > 0 && candidates.get(index - 1).start >= candidate.start) {
+            index--;
+        }
+
+        // the match completed later so it is longer than a match with the same start
+        if (index < candidates.size() && candidates.get(index).start == candidate.start) {
+            candidates.set(index, candidate);
+        } else {
+            candidates.add(index, candidate);
+        }
+    }
+
+    /**
+     * Reports the leftmost matches of the pattern that none of the alive
+     * threads can beat anymore, every reported match removes the matches
+     * and the threads of the pattern that started before its end
+     *
+     * @param matches      list that the matches are reported into
+     * @param candidates   matches of the pattern that are not reported yet
+     * @param pattern      index of the pattern
+     * @param threads      threads that are alive
+     * @param memoryClass  class that the instructions are in
+     * @param memoryMethod method that the instructions are in
+     */
+
+    private void report(List<PatternMatch> matches, List<Candidate> candidates, int pattern, PatternThreads threads,
+                        MemoryClass memoryClass, MemoryMethod memoryMethod) {
+        while (!candidates.isEmpty()) {
+
+            // if a thread that started at the same or an earlier instruction could still complete stop
+            Candidate candidate = candidates.get(0);
+            for (int i = 0; i < threads.size; i++) {
+                if (program.patterns[threads.pcs[i]] == pattern && threads.positions[i] <= candidate.start) {
+                    return;
+                }
+            }
+
+            // report the match
+            matches.add(new PatternMatch(
+                    patterns.get(pattern), memoryClass, memoryMethod,
+                    candidate.first, candidate.last, program.captures.get(pattern),
+                    candidate.captures != null ? candidate.captures : new AbstractInsnNode[program.captureCount]
+            ));
+
+            // drop everything of the pattern that overlaps the match
+            candidates.removeIf(other -> other.start <= candidate.end);
+            retain(threads, pattern, candidate.end);
+        }
+    }
+
+    /**
+     * Removes the threads of the pattern that started at or
+     * before the provided position and all the completed threads
+     *
+     * @param threads  list of the threads
+     * @param pattern  index of the pattern or -1 to only remove the completed threads
+     * @param position last position that is removed
+     */
+
+    private void retain(PatternThreads threads, int pattern, int position) {
+        int size = 0;
+        for (int i = 0; i < threads.size; i++) {
+            int pc = threads.pcs[i];
+            if (program.operations[pc] == PatternProgram.ACCEPT
+                    || (program.patterns[pc] == pattern && threads.positions[i] <= position)) {
+                continue;
+            }
+            threads.pcs[size] = pc;
+            threads.starts[size] = threads.starts[i];
+            threads.positions[size] = threads.positions[i];
+            threads.captures[size] = threads.captures[i];
+            size++;
+        }
+        for (int i = size; i < threads.size; i++) {
+            threads.starts[i] = null;
+            threads.captures[i] = null;
+        }
+        threads.size = size;
+    }
+
+    /**
+     * Adds a thread to the provided list, following
+     * all the splits and jumps until a match operation
+     *
+     * @param threads  list that you want to add the thread to
+     * @param marks    marks of the operations that are already in the list
+     * @param pc       program counter of the thread
+     * @param start    first instruction that the thread matched
+     * @param position position of the first instruction
+     * @param captures captured instructions of the thread
+     * @param consumed flag if the thread already matched an instruction
+     */
+
+    private void add(PatternThreads threads, int[] marks, int pc, AbstractInsnNode start,
+                     int position, AbstractInsnNode[] captures, boolean consumed) {
+        // if the operation is already in the list
+        if (marks[pc] == threads.generation) {
+
+            // return out of the method
+            return;
+        }
+        marks[pc] = threads.generation;
+
+        // handle the operation
+        switch (program.operations[pc]) {
+            case PatternProgram.JUMP:
+                add(threads, marks, program.first[pc], start, position, captures, consumed);
+                break;
+            case PatternProgram.SPLIT:
+                add(threads, marks, program.first[pc], start, position, captures, consumed);
+                add(threads, marks, program.second[pc], start, position, captures, consumed);
+                break;
+            case PatternProgram.ACCEPT:
+                // empty matches are never reported
+                if (consumed) {
+                    threads.add(pc, start, position, captures);
+                }
+                break;
+            default:
+                threads.add(pc, start, position, captures);
+                break;
+        }
+    }
+
+    private static final class Candidate {
+
+        private final int start;
+
+        private final int end;
+
+        private final AbstractInsnNode first;
+
+        private final AbstractInsnNode last;
+
+        private final AbstractInsnNode[] captures;
+
+        private Candidate(int start, int end, AbstractInsnNode first, AbstractInsnNode last, AbstractInsnNode[] captures) {
+            this.start = start;
+            this.end = end;
+            this.first = first;
+            this.last = last;
+            this.captures = captures;
+        }
+
+    }
+
+}
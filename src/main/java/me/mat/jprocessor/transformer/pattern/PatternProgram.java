@@ -0,0 +1,160 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+class PatternProgram {
+
+    static final int MATCH = 0;
+    static final int SPLIT = 1;
+    static final int JUMP = 2;
+    static final int ACCEPT = 3;
+
+    final List<Map<String, Integer>> captures = new ArrayList<>();
+
+    final List<Integer> starts = new ArrayList<>();
+
+    int[] operations = new int[16];
+
+    int[] first = new int[16];
+
+    int[] second = new int[16];
+
+    int[] patterns = new int[16];
+
+    Predicate<AbstractInsnNode>[] predicates = newPredicates(16);
+
+    private int size;
+
+    int captureCount;
+
+    /**
+     * Compiles all the provided patterns into a single program
+     *
+     * @param patterns patterns that you want to compile
+     */
+
+    PatternProgram(List<Pattern> patterns) {
+        for (Pattern pattern : patterns) {
+            // register the start of the pattern
+            starts.add(size);
+            captures.add(new HashMap<>());
+
+            // compile the pattern and accept at its end
+            pattern.compile(this);
+            first[emit(ACCEPT)] = starts.size() - 1;
+        }
+
+        // get the highest amount of captures of a single pattern
+        captureCount = captures.stream().mapToInt(Map::size).max().orElse(0);
+    }
+
+    /**
+     * Emits an instruction match operation
+     *
+     * @param predicate   predicate that the instruction has to match
+     * @param captureName name of the capture or null
+     */
+
+    void emitMatch(Predicate<AbstractInsnNode> predicate, String captureName) {
+        int index = emit(MATCH);
+        predicates[index] = predicate;
+
+        // assign the capture a slot in the current pattern
+        Map<String, Integer> slots = captures.get(captures.size() - 1);
+        first[index] = captureName != null ? slots.computeIfAbsent(captureName, name -> slots.size()) : -1;
+    }
+
+    /**
+     * Emits a split operation, the targets
+     * have to be set after the emit
+     *
+     * @return {@link Integer} index of the operation
+     */
+
+    int emitSplit() {
+        return emit(SPLIT);
+    }
+
+    /**
+     * Emits a jump operation, the target
+     * has to be set after the emit
+     *
+     * @return {@link Integer} index of the operation
+     */
+
+    int emitJump() {
+        return emit(JUMP);
+    }
+
+    /**
+     * Sets the first target of the provided operation
+     *
+     * @param index  index of the operation
+     * @param target target of the operation
+     */
+
+    void setFirst(int index, int target) {
+        first[index] = target;
+    }
+
+    /**
+     * Sets the second target of the provided operation
+     *
+     * @param index  index of the operation
+     * @param target target of the operation
+     */
+
+    void setSecond(int index, int target) {
+        second[index] = target;
+    }
+
+    /**
+     * Returns the amount of operations in the program
+     *
+     * @return {@link Integer}
+     */
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Emits an operation into the program
+     *
+     * @param operation operation that you want to emit
+     * @return {@link Integer} index of the operation
+     */
+
+    private int emit(int operation) {
+        // grow the program if needed
+        if (size == operations.length) {
+            int length = size * 2;
+            operations = Arrays.copyOf(operations, length);
+            first = Arrays.copyOf(first, length);
+            second = Arrays.copyOf(second, length);
+            patterns = Arrays.copyOf(patterns, length);
+            predicates = Arrays.copyOf(predicates, length);
+        }
+
+        // add the operation
+        operations[size] = operation;
+        patterns[size] = starts.size() - 1;
+        return size++;
+    }
+
+    /**
+     * Creates a new array of predicates
+     *
+     * @param length length of the array
+     * @return {@link Predicate[]}
+     */
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<AbstractInsnNode>[] newPredicates(int length) {
+        return new Predicate[length];
+    }
+
+}
@@ -0,0 +1,55 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import org.objectweb.asm.tree.AbstractInsnNode;
+
+class PatternThreads {
+
+    final int[] pcs;
+
+    final AbstractInsnNode[] starts;
+
+    final int[] positions;
+
+    final AbstractInsnNode[][] captures;
+
+    int size;
+
+    int generation;
+
+    PatternThreads(int capacity) {
+        this.pcs = new int[capacity];
+        this.starts = new AbstractInsnNode[capacity];
+        this.positions = new int[capacity];
+        this.captures = new AbstractInsnNode[capacity][];
+    }
+
+    /**
+     * Adds a thread to the list
+     *
+     * @param pc       program counter of the thread
+     * @param start    first instruction that the thread matched
+     * @param position position of the first instruction, pseudo instructions not counted
+     * @param captures captured instructions of the thread
+     */
+
+    void add(int pc, AbstractInsnNode start, int position, AbstractInsnNode[] captures) {
+        this.pcs[size] = pc;
+        this.starts[size] = start;
+        this.positions[size] = position;
+        this.captures[size] = captures;
+        size++;
+    }
+
+    /**
+     * Removes all the threads from the list
+     */
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            starts[i] = null;
+            captures[i] = null;
+        }
+        size = 0;
+    }
+
+}
@@ -0,0 +1,45 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class RepeatPattern extends Pattern {
+
+    @NonNull
+    private final Pattern pattern;
+
+    private final int minimum;
+
+    private final boolean repeated;
+
+    @Override
+    void compile(PatternProgram program) {
+        // if the pattern has to match at least once
+        if (minimum > 0) {
+
+            // match the pattern and optionally loop back to it
+            int start = program.size();
+            pattern.compile(program);
+            if (repeated) {
+                int split = program.emitSplit();
+                program.setFirst(split, start);
+                program.setSecond(split, program.size());
+            }
+            return;
+        }
+
+        // else split between matching the pattern and skipping it
+        int split = program.emitSplit();
+        program.setFirst(split, program.size());
+        pattern.compile(program);
+
+        // if the pattern can repeat jump back to the split
+        if (repeated) {
+            int jump = program.emitJump();
+            program.setFirst(jump, split);
+        }
+        program.setSecond(split, program.size());
+    }
+
+}
@@ -0,0 +1,19 @@
+package me.mat.jprocessor.transformer.pattern;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class SequencePattern extends Pattern {
+
+    @NonNull
+    private final List<Pattern> patterns;
+
+    @Override
+    void compile(PatternProgram program) {
+        patterns.forEach(pattern -> pattern.compile(program));
+    }
+
+}
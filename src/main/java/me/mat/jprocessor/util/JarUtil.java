@@ -5,6 +5,8 @@ import lombok.NoArgsConstructor;
 import me.mat.jprocessor.jar.memory.MemoryClass;
 import me.mat.jprocessor.jar.memory.MemoryResource;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.SimpleRemapper;
 import org.objectweb.asm.tree.ClassNode;
 
 import java.io.ByteArrayOutputStream;
@@ -46,6 +48,19 @@ public class JarUtil {
      */
 
     public static MemoryClass load(Class<?> aClass) {
+        return load(aClass, Collections.emptyMap());
+    }
+
+    /**
+     * Loads a class into memory and moves all the
+     * references to the provided classes to their new names
+     *
+     * @param aClass      class that you want to load
+     * @param relocations new internal names of the classes mapped by their current internal names
+     * @return {@link MemoryClass}
+     */
+
+    public static MemoryClass load(Class<?> aClass, Map<String, String> relocations) {
         // get the class input stream from the resources
         InputStream inputStream = ResourceUtil.getClassResource(aClass);
         if (inputStream == null) {
@@ -60,10 +75,13 @@ public class JarUtil {
             throw new RuntimeException(e);
         }
 
-        // load the class node
-        ClassNode classNode = getClassNode(data);
-        if (classNode == null) {
-            throw new RuntimeException("Failed to load the ClassNode: " + aClass.getName());
+        // load the class node and relocate the classes while it is read
+        ClassNode classNode = new ClassNode();
+        try {
+            new ClassReader(data).accept(relocations.isEmpty() ? classNode
+                    : new ClassRemapper(classNode, new SimpleRemapper(relocations)), 0);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Failed to load the ClassNode: " + aClass.getName(), e);
         }
 
         // define a new memory class
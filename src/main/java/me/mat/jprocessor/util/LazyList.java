@@ -0,0 +1,109 @@
+package me.mat.jprocessor.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class LazyList<T> extends AbstractList<T> {
+
+    private volatile List<T> elements;
+
+    private Supplier<List<T>> loader;
+
+    /**
+     * Creates an empty list that is
+     * already considered as loaded
+     */
+
+    public LazyList() {
+        this.elements = new ArrayList<>();
+    }
+
+    /**
+     * Replaces the contents of the list with the provided loader,
+     * the loader is only called once the list is first accessed
+     *
+     * @param loader loader that creates the elements of the list
+     */
+
+    public synchronized void reset(Supplier<List<T>> loader) {
+        this.loader = loader;
+        this.elements = null;
+    }
+
+    /**
+     * Checks if the elements of the list were already loaded
+     *
+     * @return {@link Boolean}
+     */
+
+    public boolean isLoaded() {
+        return elements != null;
+    }
+
+    /**
+     * Loads the elements of the list
+     * if they were not loaded yet
+     *
+     * @return {@link List}
+     */
+
+    public List<T> load() {
+        // get the loaded elements
+        List<T> list = elements;
+
+        // if the elements were not loaded yet
+        if (list == null) {
+            synchronized (this) {
+
+                // load the elements if no other thread loaded them in the meantime
+                if (elements == null) {
+                    List<T> loaded = loader != null ? loader.get() : Collections.emptyList();
+                    elements = loaded instanceof ArrayList ? loaded : new ArrayList<>(loaded);
+                    loader = null;
+                }
+                list = elements;
+            }
+        }
+
+        // return the loaded elements
+        return list;
+    }
+
+    @Override
+    public T get(int index) {
+        return load().get(index);
+    }
+
+    @Override
+    public int size() {
+        return load().size();
+    }
+
+    @Override
+    public T set(int index, T element) {
+        return load().set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        load().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        modCount++;
+        return load().remove(index);
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.loader = null;
+        this.elements = new ArrayList<>();
+        modCount++;
+    }
+
+}
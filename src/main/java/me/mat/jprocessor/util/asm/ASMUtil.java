@@ -2,8 +2,10 @@ package me.mat.jprocessor.util.asm;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.objectweb.asm.tree.FieldNode;
-import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
 
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
@@ -51,6 +53,116 @@ public class ASMUtil {
         return first.name.equals(second.name) && first.desc.equals(second.desc) && first.access == second.access;
     }
 
+    /**
+     * Gets the internal name of the provided object descriptor
+     *
+     * @param description descriptor that you want to convert
+     * @return {@link String}
+     */
+
+    public static String getInternalName(String description) {
+        return description.substring(1, description.length() - 1);
+    }
+
+    /**
+     * Computes the max stack size and the max locals of the provided
+     * method by writing it into an empty class with the class writer
+     *
+     * @param methodNode method that you want to compute the maxs for
+     */
+
+    public static void computeMaxs(MethodNode methodNode) {
+        // write the method into an empty class
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "Maxs", null, "java/lang/Object", null);
+        methodNode.accept(classWriter);
+        classWriter.visitEnd();
+
+        // read the method back with the computed maxs
+        ClassNode classNode = new ClassNode();
+        new ClassReader(classWriter.toByteArray()).accept(classNode, ClassReader.SKIP_DEBUG);
+
+        // update the maxs of the method
+        MethodNode computed = classNode.methods.get(0);
+        methodNode.maxStack = computed.maxStack;
+        methodNode.maxLocals = computed.maxLocals;
+    }
+
+    /**
+     * Gets the numeric constant that the provided instruction pushes
+     *
+     * @param instruction instruction that you want to get the constant from
+     * @return {@link Integer}, {@link Long}, {@link Float}, {@link Double} or null if it is not a numeric constant
+     */
+
+    public static Object getConstant(AbstractInsnNode instruction) {
+        int opcode = instruction.getOpcode();
+        if (opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.ICONST_5) {
+            return opcode - Opcodes.ICONST_0;
+        }
+        if (opcode == Opcodes.LCONST_0 || opcode == Opcodes.LCONST_1) {
+            return (long) (opcode - Opcodes.LCONST_0);
+        }
+        if (opcode >= Opcodes.FCONST_0 && opcode <= Opcodes.FCONST_2) {
+            return (float) (opcode - Opcodes.FCONST_0);
+        }
+        if (opcode == Opcodes.DCONST_0 || opcode == Opcodes.DCONST_1) {
+            return (double) (opcode - Opcodes.DCONST_0);
+        }
+        if (opcode == Opcodes.BIPUSH || opcode == Opcodes.SIPUSH) {
+            return ((IntInsnNode) instruction).operand;
+        }
+        if (instruction instanceof LdcInsnNode) {
+            Object constant = ((LdcInsnNode) instruction).cst;
+            if (constant instanceof Integer || constant instanceof Long
+                    || constant instanceof Float || constant instanceof Double) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the shortest instruction that
+     * pushes the provided numeric constant
+     *
+     * @param constant {@link Integer}, {@link Long}, {@link Float} or {@link Double} that you want to push
+     * @return {@link AbstractInsnNode}
+     */
+
+    public static AbstractInsnNode pushConstant(Object constant) {
+        if (constant instanceof Integer) {
+            int value = (Integer) constant;
+            if (value >= -1 && value <= 5) {
+                return new InsnNode(Opcodes.ICONST_0 + value);
+            }
+            if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                return new IntInsnNode(Opcodes.BIPUSH, value);
+            }
+            if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                return new IntInsnNode(Opcodes.SIPUSH, value);
+            }
+        } else if (constant instanceof Long) {
+            long value = (Long) constant;
+            if (value == 0L || value == 1L) {
+                return new InsnNode(Opcodes.LCONST_0 + (int) value);
+            }
+        } else if (constant instanceof Float) {
+            // compare the bits so that negative zero is not turned into a positive zero
+            int bits = Float.floatToIntBits((Float) constant);
+            if (bits == Float.floatToIntBits(0f) || bits == Float.floatToIntBits(1f) || bits == Float.floatToIntBits(2f)) {
+                return new InsnNode(Opcodes.FCONST_0 + (int) (float) (Float) constant);
+            }
+        } else if (constant instanceof Double) {
+            // compare the bits so that negative zero is not turned into a positive zero
+            long bits = Double.doubleToLongBits((Double) constant);
+            if (bits == Double.doubleToLongBits(0d) || bits == Double.doubleToLongBits(1d)) {
+                return new InsnNode(Opcodes.DCONST_0 + (int) (double) (Double) constant);
+            }
+        }
+        return new LdcInsnNode(constant);
+    }
+
     /**
      * Turns a java type into a asm type
      *
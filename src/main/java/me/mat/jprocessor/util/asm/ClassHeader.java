@@ -0,0 +1,52 @@
+package me.mat.jprocessor.util.asm;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+
+@RequiredArgsConstructor
+public class ClassHeader {
+
+    @NonNull
+    public final String name;
+
+    public final int access;
+
+    public final String superName;
+
+    /**
+     * Checks if the class is an interface
+     *
+     * @return {@link Boolean}
+     */
+
+    public boolean isInterface() {
+        return (access & Opcodes.ACC_INTERFACE) != 0;
+    }
+
+    /**
+     * Reads the header of the provided class
+     * without parsing the rest of the class
+     *
+     * @param classReader reader of the class
+     * @return {@link ClassHeader}
+     */
+
+    public static ClassHeader read(ClassReader classReader) {
+        return new ClassHeader(classReader.getClassName(), classReader.getAccess(), classReader.getSuperName());
+    }
+
+    /**
+     * Gets the header of the provided class
+     *
+     * @param memoryClass class that you want to get the header for
+     * @return {@link ClassHeader}
+     */
+
+    public static ClassHeader of(MemoryClass memoryClass) {
+        return new ClassHeader(memoryClass.name(), memoryClass.getAccess(), memoryClass.superName());
+    }
+
+}
@@ -1,19 +1,127 @@
 package me.mat.jprocessor.util.asm;
 
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassWriter;
 
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
 public class CustomClassWriter extends ClassWriter {
 
+    private static final String OBJECT = "java/lang/Object";
+
+    private final Function<String, ClassHeader> headers;
+
     public CustomClassWriter(int flags) {
         super(flags);
+        this.headers = name -> null;
+    }
+
+    public CustomClassWriter(int flags, Map<String, MemoryClass> classes) {
+        super(flags);
+        this.headers = name -> {
+            MemoryClass memoryClass = classes.get(name);
+            return memoryClass != null ? ClassHeader.of(memoryClass) : null;
+        };
+    }
+
+    public CustomClassWriter(ClassReader classReader, int flags, Map<String, ClassHeader> headers) {
+        super(classReader, flags);
+        this.headers = headers::get;
     }
 
     @Override
     protected String getCommonSuperClass(String type1, String type2) {
+        // if none of the classes are loaded in the jar use the class path
+        if (headers.apply(type1) == null && headers.apply(type2) == null) {
+            try {
+                return super.getCommonSuperClass(type1, type2);
+            } catch (TypeNotPresentException e) {
+                return type1;
+            }
+        }
+
+        // if any of the classes is an interface the common class is an object
+        if (isInterface(type1) || isInterface(type2)) {
+            return OBJECT;
+        }
+
+        // collect all the super classes of the first class
+        Set<String> superClasses = new HashSet<>();
+        for (String name = type1; name != null; name = getSuperName(name)) {
+            superClasses.add(name);
+        }
+
+        // find the first super class of the second class that they share
+        for (String name = type2; name != null; name = getSuperName(name)) {
+            if (superClasses.contains(name)) {
+                return name;
+            }
+        }
+
+        // else the common class is an object
+        return OBJECT;
+    }
+
+    /**
+     * Checks if the provided class is an interface,
+     * the classes outside the jar are checked on the class path
+     *
+     * @param type internal name of the class
+     * @return {@link Boolean}
+     */
+
+    private boolean isInterface(String type) {
+        // if the class is loaded in the jar use its access
+        ClassHeader header = headers.apply(type);
+        if (header != null) {
+            return header.isInterface();
+        }
+
+        // else load it from the class path
+        Class<?> clazz = loadClass(type);
+        return clazz != null && clazz.isInterface();
+    }
+
+    /**
+     * Gets the name of the super class of the provided
+     * class, the classes outside the jar are loaded
+     * from the class path
+     *
+     * @param type internal name of the class
+     * @return {@link String}
+     */
+
+    private String getSuperName(String type) {
+        // if the class is loaded in the jar use its super class
+        ClassHeader header = headers.apply(type);
+        if (header != null) {
+            return header.superName;
+        }
+
+        // else load it from the class path
+        Class<?> clazz = loadClass(type);
+        return clazz != null && clazz.getSuperclass() != null
+                ? clazz.getSuperclass().getName().replace('.', '/')
+                : null;
+    }
+
+    /**
+     * Loads the provided class from the class
+     * path without initializing it
+     *
+     * @param type internal name of the class
+     * @return {@link Class}
+     */
+
+    private Class<?> loadClass(String type) {
         try {
-            return super.getCommonSuperClass(type1, type2);
-        } catch (TypeNotPresentException e) {
-            return type1;
+            return Class.forName(type.replace('/', '.'), false, getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
         }
     }
 
@@ -0,0 +1,167 @@
+package me.mat.jprocess.jar.analysis;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.analysis.BasicBlock;
+import me.mat.jprocessor.jar.analysis.ControlFlowGraph;
+import me.mat.jprocessor.jar.analysis.Loop;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+public class ControlFlowGraphTest {
+
+    @Test
+    public void dominators() {
+        // build the graph of the branching method
+        MemoryMethod memoryMethod = method("branch");
+        ControlFlowGraph controlFlowGraph = memoryMethod.getControlFlowGraph();
+        AbstractInsnNode then = find(memoryMethod, Opcodes.ICONST_1);
+        AbstractInsnNode otherwise = find(memoryMethod, Opcodes.ICONST_2);
+        AbstractInsnNode exit = find(memoryMethod, Opcodes.IRETURN);
+
+        // check that the entry dominates every reachable block
+        BasicBlock entry = controlFlowGraph.getEntry();
+        assert entry.immediateDominator() == null;
+        assert controlFlowGraph.getBlocks().stream()
+                .filter(BasicBlock::isReachable)
+                .allMatch(entry::dominates);
+
+        // check that neither branch dominates the merge point
+        assert !controlFlowGraph.dominates(then, exit);
+        assert !controlFlowGraph.dominates(otherwise, exit);
+        assert controlFlowGraph.getBlock(exit).immediateDominator() == entry;
+
+        // check the order of the instructions in the same block
+        assert controlFlowGraph.dominates(entry.first, entry.last);
+        assert !controlFlowGraph.dominates(entry.last, entry.first) || entry.first == entry.last;
+    }
+
+    @Test
+    public void loops() {
+        // build the graph of the nested loops
+        MemoryMethod memoryMethod = method("nested");
+        ControlFlowGraph controlFlowGraph = memoryMethod.getControlFlowGraph();
+
+        // check that both loops were found with the outer loop first
+        assert controlFlowGraph.getLoops().size() == 2;
+        Loop outer = controlFlowGraph.getLoops().get(0);
+        Loop inner = controlFlowGraph.getLoops().get(1);
+        assert outer.parent() == null && inner.parent() == outer;
+        assert outer.children.contains(inner);
+        assert !outer.latches.isEmpty();
+
+        // check the depth of the inner loop body and the exit
+        BasicBlock body = controlFlowGraph.getBlock(find(memoryMethod, Opcodes.IMUL));
+        assert body.loopDepth() == 2 && body.loop() == inner;
+        assert outer.contains(body);
+        assert controlFlowGraph.getBlock(find(memoryMethod, Opcodes.IRETURN)).loopDepth() == 0;
+        assert outer.header.dominates(body);
+    }
+
+    @Test
+    public void exceptionEdges() {
+        // build the graph of the method with a handler
+        MemoryMethod memoryMethod = method("guarded");
+        ControlFlowGraph controlFlowGraph = memoryMethod.getControlFlowGraph();
+
+        // check that the handler is reached through an exception edge
+        BasicBlock handler = controlFlowGraph.getBlock(memoryMethod.getTryCatchBlocks().get(0).handler);
+        assert handler.isReachable();
+        assert !handler.exceptionPredecessors.isEmpty();
+        assert handler.exceptionPredecessors.get(0).exceptionSuccessors.contains(handler);
+    }
+
+    @Test
+    public void unreachableBlocks() {
+        // build instructions that jump over a dead instruction
+        InsnList instructions = new InsnList();
+        LabelNode target = new LabelNode();
+        AbstractInsnNode dead = new InsnNode(Opcodes.NOP);
+        instructions.add(new JumpInsnNode(Opcodes.GOTO, target));
+        instructions.add(dead);
+        instructions.add(target);
+        instructions.add(new InsnNode(Opcodes.RETURN));
+
+        // check that the dead block is not reachable
+        ControlFlowGraph controlFlowGraph = new ControlFlowGraph(instructions, null);
+        assert !controlFlowGraph.getBlock(dead).isReachable();
+        assert controlFlowGraph.getBlock(dead).immediateDominator() == null;
+        assert controlFlowGraph.getBlock(target).isReachable();
+    }
+
+    @Test
+    public void cachedUntilEdited() {
+        // get the graph of the method twice
+        MemoryMethod memoryMethod = method("branch");
+        ControlFlowGraph controlFlowGraph = memoryMethod.getControlFlowGraph();
+        assert memoryMethod.getControlFlowGraph() == controlFlowGraph;
+
+        // check that an edit rebuilds the graph
+        memoryMethod.instructions.insert(new InsnNode(Opcodes.NOP));
+        assert memoryMethod.getControlFlowGraph() != controlFlowGraph;
+    }
+
+    /**
+     * Loads the fixture and gets the method with the provided name
+     *
+     * @param name name of the method
+     * @return {@link MemoryMethod}
+     */
+
+    private static MemoryMethod method(String name) {
+        MemoryClass memoryClass = TestJar.getClass(TestJar.load(Flow.class), Flow.class);
+        return TestJar.getMethod(memoryClass, name);
+    }
+
+    /**
+     * Finds the first instruction with the provided opcode
+     *
+     * @param memoryMethod method that you want to search
+     * @param opcode       opcode of the instruction
+     * @return {@link AbstractInsnNode}
+     */
+
+    private static AbstractInsnNode find(MemoryMethod memoryMethod, int opcode) {
+        for (AbstractInsnNode instruction : memoryMethod.getInstructions()) {
+            if (instruction.getOpcode() == opcode) {
+                return instruction;
+            }
+        }
+        throw new IllegalArgumentException("The method has no instruction with the opcode " + opcode);
+    }
+
+    public static class Flow {
+
+        static int branch(int value) {
+            int result;
+            if (value > 0) {
+                result = 1;
+            } else {
+                result = 2;
+            }
+            return result;
+        }
+
+        static int nested(int size) {
+            int total = 0;
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    total += i * j;
+                }
+            }
+            return total;
+        }
+
+        static int guarded(String value) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+    }
+
+}
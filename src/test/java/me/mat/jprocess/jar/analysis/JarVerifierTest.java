@@ -0,0 +1,149 @@
+package me.mat.jprocess.jar.analysis;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.analysis.JarVerifier;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.analysis.BasicValue;
+import org.objectweb.asm.tree.analysis.Frame;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JarVerifierTest {
+
+    @Test
+    public void assignability() {
+        // create a verifier that knows about all the fixture classes
+        MemoryJar memoryJar = TestJar.load(Fruit.class, Apple.class, Pear.class, Stone.class, Edible.class, Basket.class);
+        TestVerifier verifier = verifier(memoryJar, Fruit.class, Apple.class, Pear.class, Stone.class, Edible.class, Basket.class);
+
+        // check that the sub classes can be assigned to their super class
+        assert verifier.isSubType(Apple.class, Fruit.class);
+        assert verifier.isSubType(Apple.class, Object.class);
+        assert !verifier.isSubType(Fruit.class, Apple.class);
+
+        // check that the unrelated jar classes are not assignable
+        assert !verifier.isSubType(Apple.class, Pear.class);
+        assert !verifier.isSubType(Stone.class, Fruit.class);
+
+        // check that a class path class is never a jar class
+        assert !verifier.isSubType(String.class, Fruit.class);
+
+        // check the merges of the jar and class path types
+        assert verifier.merge(value(Apple.class), value(Pear.class)).getType().equals(Type.getType(Fruit.class));
+        assert verifier.merge(value(Apple.class), value(Stone.class)).getType().equals(Type.getType(Object.class));
+        assert verifier.isSubType(Apple[].class, Fruit[].class);
+        assert !verifier.isSubType(Apple[].class, Pear[].class);
+    }
+
+    @Test
+    public void frames() {
+        // get the frames of the method that merges both fruits
+        MemoryJar memoryJar = TestJar.load(Fruit.class, Apple.class, Pear.class, Stone.class, Edible.class, Basket.class);
+        MemoryMethod memoryMethod = TestJar.getMethod(TestJar.getClass(memoryJar, Basket.class), "pick");
+        Frame<BasicValue>[] frames = memoryMethod.getFrames();
+        assert frames != null;
+
+        // check that the returned value was merged into the common super class
+        AbstractInsnNode exit = memoryMethod.getInstructions().getLast();
+        while (exit.getOpcode() != Opcodes.ARETURN) {
+            exit = exit.getPrevious();
+        }
+        Frame<BasicValue> frame = frames[memoryMethod.getInstructions().indexOf(exit)];
+        assert frame.getStack(frame.getStackSize() - 1).getType().equals(Type.getType(Fruit.class));
+
+        // check that the frames are cached until the instructions are edited
+        assert memoryMethod.getFrames() == frames;
+        assert memoryMethod.getSourceFrames() == memoryMethod.getSourceFrames();
+        memoryMethod.instructions.insert(new InsnNode(Opcodes.NOP));
+        assert memoryMethod.getFrames() != frames;
+        assert memoryMethod.getFrames().length == frames.length + 1;
+
+        // compute the frames of the whole jar
+        memoryJar.computeFrames(true);
+        assert memoryMethod.getFrames() != null;
+    }
+
+    /**
+     * Creates a verifier for the first provided
+     * class that knows about all the provided classes
+     *
+     * @param memoryJar jar that the classes are in
+     * @param classes   classes that the verifier knows about
+     * @return {@link TestVerifier}
+     */
+
+    private static TestVerifier verifier(MemoryJar memoryJar, Class<?>... classes) {
+        // map all the classes by their names
+        Map<String, MemoryClass> memoryClasses = new HashMap<>();
+        for (Class<?> aClass : classes) {
+            MemoryClass memoryClass = TestJar.getClass(memoryJar, aClass);
+            memoryClasses.put(memoryClass.name(), memoryClass);
+        }
+
+        // create the verifier for the first class
+        return new TestVerifier(memoryClasses, Type.getType(classes[0]), Type.getType(Object.class), null, false);
+    }
+
+    /**
+     * Creates a value of the provided class
+     *
+     * @param aClass class of the value
+     * @return {@link BasicValue}
+     */
+
+    private static BasicValue value(Class<?> aClass) {
+        return new BasicValue(Type.getType(aClass));
+    }
+
+    private static final class TestVerifier extends JarVerifier {
+
+        private TestVerifier(Map<String, MemoryClass> classes, Type currentClass, Type currentSuperClass,
+                             List<Type> currentClassInterfaces, boolean isInterface) {
+            super(classes, currentClass, currentSuperClass, currentClassInterfaces, isInterface);
+        }
+
+        private boolean isSubType(Class<?> aClass, Class<?> superClass) {
+            return isSubTypeOf(value(aClass), value(superClass));
+        }
+
+    }
+
+    public interface Edible {
+    }
+
+    public static class Fruit implements Edible {
+    }
+
+    public static class Apple extends Fruit {
+    }
+
+    public static class Pear extends Fruit {
+    }
+
+    public static class Stone {
+    }
+
+    public static class Basket {
+
+        static Fruit pick(boolean apple) {
+            Fruit fruit;
+            if (apple) {
+                fruit = new Apple();
+            } else {
+                fruit = new Pear();
+            }
+            return fruit;
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+package me.mat.jprocess.jar.index;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.index.AnnotationIndex;
+import me.mat.jprocessor.jar.memory.MemoryAnnotation;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.util.asm.ASMUtil;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+public class AnnotationIndexTest {
+
+    private static final String ROUTE = Route.class.getName().replace('.', '/');
+
+    private static final String MARKER = Marker.class.getName().replace('.', '/');
+
+    @Test
+    public void annotatedElements() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Route.class, Marker.class, Controller.class);
+        AnnotationIndex annotationIndex = memoryJar.getAnnotationIndex();
+        MemoryClass controller = TestJar.getClass(memoryJar, Controller.class);
+        MemoryMethod users = TestJar.getMethod(controller, "users");
+
+        // check the elements that are annotated with the route
+        assert annotationIndex.getAnnotated(Route.class).size() == 3;
+        assert annotationIndex.getAnnotatedClasses(ROUTE).get(0) == controller;
+        assert annotationIndex.getAnnotatedMethods(ROUTE).contains(users);
+
+        // check the elements that are annotated with the marker
+        assert annotationIndex.getAnnotatedFields(MARKER).get(0) == TestJar.getField(controller, "name");
+        assert annotationIndex.getAnnotatedParameters(MARKER).size() == 1;
+        assert annotationIndex.getAnnotatedParameters(MARKER).get(0).parent == users;
+        assert annotationIndex.getAnnotatedParameters(MARKER).get(0).index == 1;
+
+        // check an annotation that is not used
+        assert annotationIndex.getAnnotated(Override.class).isEmpty();
+    }
+
+    @Test
+    public void annotationLookup() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Route.class, Marker.class, Controller.class);
+        MemoryClass controller = TestJar.getClass(memoryJar, Controller.class);
+
+        // check the visible annotation and its value
+        MemoryAnnotation route = TestJar.getMethod(controller, "users").getAnnotation(Route.class);
+        assert route != null && route.visible;
+        assert route.getValue("value").equals("/users");
+
+        // check the invisible annotation
+        MemoryAnnotation marker = TestJar.getField(controller, "name").getAnnotation(MARKER);
+        assert marker != null && !marker.visible;
+
+        // check the elements without the annotation
+        assert !controller.isAnnotationPresent(Marker.class);
+        assert !TestJar.getMethod(controller, "<init>").isAnnotationPresent(ROUTE);
+    }
+
+    @Test
+    public void externalAnnotations() {
+        // load the fixture classes without the annotation types of the jdk
+        MemoryJar memoryJar = TestJar.load(Route.class, Marker.class, Controller.class);
+        MemoryMethod legacy = TestJar.getMethod(TestJar.getClass(memoryJar, Controller.class), "legacy");
+
+        // check that the annotation is found although its type is not in the jar
+        MemoryAnnotation deprecated = legacy.getAnnotation(Deprecated.class);
+        assert deprecated != null && deprecated.annotationClass == null;
+        assert deprecated.name().equals("java/lang/Deprecated");
+
+        // check that the external annotation is indexed
+        assert memoryJar.getAnnotationIndex().getAnnotatedMethods("java/lang/Deprecated").size() == 1;
+        assert memoryJar.getAnnotationIndex().getAnnotatedMethods("java/lang/Deprecated").get(0) == legacy;
+
+        // check that the annotations of the jar know their classes
+        assert legacy.getAnnotation(Route.class).annotationClass == TestJar.getClass(memoryJar, Route.class);
+    }
+
+    @Test
+    public void internalNames() {
+        // check that the descriptors are converted to internal names
+        assert ASMUtil.getInternalName("L" + ROUTE + ";").equals(ROUTE);
+        assert ASMUtil.getInternalName("Ljava/lang/String;").equals("java/lang/String");
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Route {
+
+        String value();
+
+    }
+
+    public @interface Marker {
+
+    }
+
+    @Route("/")
+    public static class Controller {
+
+        @Marker
+        String name;
+
+        @Route("/users")
+        public String users(int page, @Marker String filter) {
+            return name + page + filter;
+        }
+
+        @Deprecated
+        @Route("/legacy")
+        public String legacy() {
+            return name;
+        }
+
+    }
+
+}
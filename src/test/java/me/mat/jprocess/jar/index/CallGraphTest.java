@@ -0,0 +1,149 @@
+package me.mat.jprocess.jar.index;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.index.CallGraph;
+import me.mat.jprocessor.jar.index.CallSite;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.IntSupplier;
+
+public class CallGraphTest {
+
+    @Test
+    public void directCalls() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        CallGraph callGraph = memoryJar.getCallGraph();
+        MemoryClass calls = TestJar.getClass(memoryJar, Calls.class);
+        MemoryMethod helper = TestJar.getMethod(calls, "helper");
+
+        // check the calls made by the caller
+        List<CallSite> callees = callGraph.getCallees(TestJar.getMethod(calls, "caller"));
+        assert callees.size() == 2;
+        assert callees.stream().allMatch(callSite -> callSite.targets.size() == 1 && callSite.targets.get(0) == helper);
+
+        // check that the callers include the method reference of the lambda
+        List<CallSite> callers = callGraph.getCallers(helper);
+        assert callers.size() == 3;
+        assert callers.stream().anyMatch(callSite -> callSite.caller == TestJar.getMethod(calls, "supplier"));
+    }
+
+    @Test
+    public void virtualCalls() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        CallGraph callGraph = memoryJar.getCallGraph();
+        MemoryMethod baseValue = TestJar.getMethod(TestJar.getClass(memoryJar, Base.class), "value");
+        MemoryMethod implValue = TestJar.getMethod(TestJar.getClass(memoryJar, Impl.class), "value");
+
+        // check that the virtual call targets both implementations
+        List<CallSite> callees = callGraph.getCallees(TestJar.getMethod(TestJar.getClass(memoryJar, Calls.class), "dispatch"));
+        assert callees.size() == 1;
+        assert callees.get(0).targets.size() == 2;
+
+        // check that both implementations know about the call site
+        assert callGraph.getCallers(baseValue).size() == 1;
+        assert callGraph.getCallers(implValue).size() == 1;
+    }
+
+    @Test
+    public void externalCalls() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+
+        // check that the calls to the classes outside of the jar are indexed by their reference
+        List<CallSite> callers = memoryJar.getCallGraph().getCallers("java/lang/Math", "abs", "(I)I");
+        assert callers.size() == 1;
+        assert !callers.get(0).isResolved();
+        assert callers.get(0).caller == TestJar.getMethod(TestJar.getClass(memoryJar, Calls.class), "external");
+    }
+
+    @Test
+    public void recursion() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        CallGraph callGraph = memoryJar.getCallGraph();
+        MemoryClass calls = TestJar.getClass(memoryJar, Calls.class);
+
+        // check that the mutual recursion is found
+        assert callGraph.isRecursive(TestJar.getMethod(calls, "even"));
+        assert callGraph.isRecursive(TestJar.getMethod(calls, "odd"));
+        assert !callGraph.isRecursive(TestJar.getMethod(calls, "caller"));
+    }
+
+    @Test
+    public void invalidatedAfterEdits() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        CallGraph callGraph = memoryJar.getCallGraph();
+
+        // check that the graph is cached until the indexes are invalidated
+        assert memoryJar.getCallGraph() == callGraph;
+        memoryJar.invalidateIndexes();
+        assert memoryJar.getCallGraph() != callGraph;
+    }
+
+    /**
+     * Loads all the fixture classes into memory
+     *
+     * @return {@link MemoryJar}
+     */
+
+    private static MemoryJar load() {
+        return TestJar.load(Calls.class, Base.class, Impl.class);
+    }
+
+    public static class Calls {
+
+        static int helper() {
+            return 1;
+        }
+
+        static int caller() {
+            return helper() + helper();
+        }
+
+        static IntSupplier supplier() {
+            return Calls::helper;
+        }
+
+        static int even(int n) {
+            return n == 0 ? 1 : odd(n - 1);
+        }
+
+        static int odd(int n) {
+            return n == 0 ? 0 : even(n - 1);
+        }
+
+        static int dispatch(Base base) {
+            return base.value();
+        }
+
+        static int external(int value) {
+            return Math.abs(value);
+        }
+
+    }
+
+    public static class Base {
+
+        public int value() {
+            return 0;
+        }
+
+    }
+
+    public static class Impl extends Base {
+
+        @Override
+        public int value() {
+            return 1;
+        }
+
+    }
+
+}
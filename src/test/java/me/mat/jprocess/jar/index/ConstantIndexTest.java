@@ -0,0 +1,70 @@
+package me.mat.jprocess.jar.index;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.index.ConstantIndex;
+import me.mat.jprocessor.jar.index.ConstantPosting;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ConstantIndexTest {
+
+    @Test
+    public void constants() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Endpoints.class);
+        ConstantIndex constantIndex = memoryJar.getConstantIndex();
+        MemoryClass endpoints = TestJar.getClass(memoryJar, Endpoints.class);
+
+        // check the constant that is loaded in a method
+        List<ConstantPosting> postings = constantIndex.get(123456789L);
+        assert postings.size() == 1;
+        ConstantPosting posting = postings.get(0);
+        assert posting.memoryClass == endpoints;
+        assert posting.memoryMethod == TestJar.getMethod(endpoints, "timeout");
+        assert !posting.isFieldValue();
+        assert posting.memoryMethod.getInstructions().get(posting.index) == posting.instruction;
+
+        // check the constant value of a field
+        postings = constantIndex.get("https://example.com/");
+        assert postings.size() == 1;
+        assert postings.get(0).isFieldValue();
+        assert postings.get(0).memoryField == TestJar.getField(endpoints, "HOME");
+
+        // check a constant that is not used
+        assert constantIndex.get("missing").isEmpty();
+    }
+
+    @Test
+    public void prefixLookups() {
+        // load the fixture classes into memory
+        ConstantIndex constantIndex = TestJar.load(Endpoints.class).getConstantIndex();
+
+        // check that the strings are found by their prefix in order
+        assert constantIndex.getStrings("https://").equals(Arrays.asList("https://api.example.com/", "https://example.com/"));
+        assert constantIndex.getByPrefix("https://api").size() == 2;
+        assert constantIndex.getByPrefix("ftp://").isEmpty();
+    }
+
+    public static class Endpoints {
+
+        static final String HOME = "https://example.com/";
+
+        static String api() {
+            return "https://api.example.com/";
+        }
+
+        static String users() {
+            return "https://api.example.com/";
+        }
+
+        static long timeout() {
+            return 123456789L;
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+package me.mat.jprocess.jar.index;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.index.FieldUsageIndex;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.InsnNode;
+
+public class FieldUsageIndexTest {
+
+    private static final String COUNTER = Counter.class.getName().replace('.', '/');
+
+    @Test
+    public void readsAndWrites() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Counter.class, Reader.class);
+        FieldUsageIndex fieldUsageIndex = memoryJar.getFieldUsageIndex();
+        MemoryClass counter = TestJar.getClass(memoryJar, Counter.class);
+
+        // check the reads and the writes of the mutable field
+        MemoryField count = TestJar.getField(counter, "count");
+        assert fieldUsageIndex.getWrites(count).size() == 2;
+        assert fieldUsageIndex.getReads(count).size() == 3;
+        assert fieldUsageIndex.getReads(count).stream()
+                .anyMatch(fieldUsage -> fieldUsage.memoryClass == TestJar.getClass(memoryJar, Reader.class));
+
+        // check the fields that are only written in the initializers
+        assert fieldUsageIndex.isEffectivelyFinal(TestJar.getField(counter, "name"));
+        assert fieldUsageIndex.isEffectivelyFinal(TestJar.getField(counter, "LIMIT"));
+        assert !fieldUsageIndex.isEffectivelyFinal(count);
+
+        // check the field that is never used
+        assert fieldUsageIndex.isUnused(TestJar.getField(counter, "unused"));
+        assert !fieldUsageIndex.isUnused(count);
+    }
+
+    @Test
+    public void followsInstructionEdits() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Counter.class, Reader.class);
+        FieldUsageIndex fieldUsageIndex = memoryJar.getFieldUsageIndex();
+        MemoryClass counter = TestJar.getClass(memoryJar, Counter.class);
+        MemoryField unused = TestJar.getField(counter, "unused");
+
+        // read the unused field in an existing method
+        MemoryMethod increment = TestJar.getMethod(counter, "increment");
+        FieldInsnNode read = new FieldInsnNode(Opcodes.GETSTATIC, COUNTER, "unused", "I");
+        increment.instructions.insert(new InsnNode(Opcodes.POP));
+        increment.instructions.insert(read);
+        assert fieldUsageIndex.getReads(unused).size() == 1;
+
+        // remove the read again
+        increment.instructions.remove(read);
+        assert fieldUsageIndex.isUnused(unused);
+    }
+
+    @Test
+    public void followsAddedAndRemovedMethods() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Counter.class, Reader.class);
+        FieldUsageIndex fieldUsageIndex = memoryJar.getFieldUsageIndex();
+        MemoryClass counter = TestJar.getClass(memoryJar, Counter.class);
+        MemoryField unused = TestJar.getField(counter, "unused");
+
+        // write to the unused field from a method that is added after the index was built
+        MemoryMethod reset = counter.addMethod(Opcodes.ACC_STATIC, "reset", "()V", null, null);
+        reset.instructions.add(new InsnNode(Opcodes.ICONST_0));
+        reset.instructions.add(new FieldInsnNode(Opcodes.PUTSTATIC, COUNTER, "unused", "I"));
+        reset.instructions.add(new InsnNode(Opcodes.RETURN));
+
+        // check that the index picked up the write
+        assert fieldUsageIndex.getWrites(unused).size() == 1;
+        assert fieldUsageIndex.getWrites(unused).get(0).memoryMethod == reset;
+
+        // check that removing the method drops its usages
+        counter.removeMethod(reset);
+        assert fieldUsageIndex.isUnused(unused);
+
+        // check that the removed method is no longer tracked
+        AbstractInsnNode read = new FieldInsnNode(Opcodes.GETSTATIC, COUNTER, "unused", "I");
+        reset.instructions.insert(read);
+        assert fieldUsageIndex.isUnused(unused);
+    }
+
+    public static class Counter {
+
+        static final int LIMIT = Integer.parseInt("10");
+
+        static int unused;
+
+        final String name;
+
+        int count;
+
+        public Counter(String name) {
+            this.name = name;
+        }
+
+        void increment() {
+            if (count < LIMIT) {
+                count++;
+            }
+        }
+
+        void clear() {
+            count = 0;
+        }
+
+    }
+
+    public static class Reader {
+
+        static int read(Counter counter) {
+            return counter.count;
+        }
+
+    }
+
+}
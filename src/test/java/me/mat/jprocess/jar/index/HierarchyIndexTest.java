@@ -0,0 +1,145 @@
+package me.mat.jprocess.jar.index;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.index.HierarchyIndex;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.List;
+
+public class HierarchyIndexTest {
+
+    private static final String NAMED = Named.class.getName().replace('.', '/');
+
+    @Test
+    public void subClasses() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        HierarchyIndex hierarchyIndex = memoryJar.getHierarchyIndex();
+        MemoryClass base = TestJar.getClass(memoryJar, Base.class);
+        MemoryClass child = TestJar.getClass(memoryJar, Child.class);
+        MemoryClass other = TestJar.getClass(memoryJar, Other.class);
+
+        // check the direct and the indirect sub classes
+        assert hierarchyIndex.getSubClasses(base.name()).size() == 1;
+        assert hierarchyIndex.getSubClasses(base.name()).get(0) == child;
+        assert hierarchyIndex.getAllSubClasses(NAMED).contains(child);
+        assert hierarchyIndex.getAllSubClasses(NAMED).contains(other);
+        assert !hierarchyIndex.getAllSubClasses(NAMED).contains(base);
+
+        // check the sub class lookups
+        assert hierarchyIndex.isSubClassOf(child, base.name());
+        assert hierarchyIndex.isSubClassOf(child, NAMED);
+        assert !hierarchyIndex.isSubClassOf(base, NAMED);
+    }
+
+    @Test
+    public void resolveMembers() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        HierarchyIndex hierarchyIndex = memoryJar.getHierarchyIndex();
+        MemoryClass base = TestJar.getClass(memoryJar, Base.class);
+        MemoryClass child = TestJar.getClass(memoryJar, Child.class);
+
+        // check that the inherited method resolves to the super class
+        assert hierarchyIndex.resolveMethod(child.name(), "name", "()Ljava/lang/String;") == TestJar.getMethod(base, "name");
+
+        // check that the default method resolves to the interface
+        assert hierarchyIndex.resolveMethod(child.name(), "greeting", "()Ljava/lang/String;")
+                == TestJar.getMethod(memoryJar.getClass(NAMED), "greeting");
+
+        // check that the constant of the interface is found through the sub class
+        assert hierarchyIndex.resolveField(child.name(), "PREFIX", "Ljava/lang/String;")
+                == TestJar.getField(memoryJar.getClass(NAMED), "PREFIX");
+
+        // check that a missing method does not resolve
+        assert hierarchyIndex.resolveMethod(child.name(), "missing", "()V") == null;
+    }
+
+    @Test
+    public void virtualTargetsIncludeInheritedImplementations() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        MemoryMethod baseName = TestJar.getMethod(TestJar.getClass(memoryJar, Base.class), "name");
+        MemoryMethod otherName = TestJar.getMethod(TestJar.getClass(memoryJar, Other.class), "name");
+
+        // resolve the targets of a call through the interface
+        List<MemoryMethod> targets = memoryJar.getHierarchyIndex().resolveVirtualTargets(NAMED, "name", "()Ljava/lang/String;");
+
+        // check that the implementation that the child inherits from outside of the interface is a target
+        assert targets.stream().anyMatch(target -> target == baseName);
+        assert targets.stream().anyMatch(target -> target == otherName);
+    }
+
+    @Test
+    public void hierarchyLoaded() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        HierarchyIndex hierarchyIndex = memoryJar.getHierarchyIndex();
+
+        // check that only the classes with a fully loaded hierarchy are reported
+        assert hierarchyIndex.isHierarchyLoaded(Child.class.getName().replace('.', '/'));
+        assert !hierarchyIndex.isHierarchyLoaded(Names.class.getName().replace('.', '/'));
+    }
+
+    /**
+     * Loads all the fixture classes into memory
+     *
+     * @return {@link MemoryJar}
+     */
+
+    private static MemoryJar load() {
+        return TestJar.load(Named.class, Base.class, Child.class, Other.class, Names.class);
+    }
+
+    public interface Named {
+
+        String PREFIX = "hello ";
+
+        String name();
+
+        default String greeting() {
+            return PREFIX + name();
+        }
+
+    }
+
+    public static class Base {
+
+        public String name() {
+            return "base";
+        }
+
+    }
+
+    public static class Child extends Base implements Named {
+
+    }
+
+    public static class Other implements Named {
+
+        @Override
+        public String name() {
+            return "other";
+        }
+
+    }
+
+    public static class Names extends AbstractList<String> {
+
+        @Override
+        public String get(int index) {
+            return "name";
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package me.mat.jprocess.jar.memory;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public class HierarchySetupTest {
+
+    @Test
+    public void parallelSetupResolvesHierarchy() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Shape.class, Square.class, Cube.class);
+        MemoryClass shape = TestJar.getClass(memoryJar, Shape.class);
+        MemoryClass square = TestJar.getClass(memoryJar, Square.class);
+        MemoryClass cube = TestJar.getClass(memoryJar, Cube.class);
+
+        // check that every class was initialized with its members
+        assert TestJar.getMethod(square, "area").getInstructions().size() > 0;
+        assert cube.fields.isEmpty() && square.fields.size() == 1;
+
+        // check that the super types were resolved from the pool
+        assert cube.superClass() == square;
+        assert square.interfaces.get(shape.name()) == shape;
+
+        // check that the overrides were found across the whole chain
+        assert TestJar.getMethod(square, "area").isOverride();
+        assert TestJar.getMethod(cube, "area").isOverride();
+        assert !TestJar.getMethod(cube, "volume").isOverride();
+        assert cube.superMethods.keySet().containsAll(Arrays.asList(square, shape));
+    }
+
+    @Test
+    public void parallelSetupMatchesSequentialBuild() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Shape.class, Square.class, Cube.class);
+
+        // store the hierarchy that was built in parallel
+        Map<MemoryMethod, MemoryMethod> baseMethods = new IdentityHashMap<>();
+        memoryJar.getClasses().values().forEach(memoryClass
+                -> memoryClass.methods.forEach(memoryMethod -> baseMethods.put(memoryMethod, memoryMethod.baseMethod)));
+        Map<MemoryClass, Object> superMethods = new IdentityHashMap<>();
+        memoryJar.getClasses().values().forEach(memoryClass
+                -> superMethods.put(memoryClass, new HashSet<>(memoryClass.superMethods.keySet())));
+
+        // build the hierarchy again one class at a time
+        memoryJar.getClasses().values().forEach(MemoryClass::buildHierarchy);
+
+        // check that both builds found the same hierarchy
+        memoryJar.getClasses().values().forEach(memoryClass -> {
+            assert superMethods.get(memoryClass).equals(new HashSet<>(memoryClass.superMethods.keySet()));
+            memoryClass.methods.forEach(memoryMethod -> {
+                assert baseMethods.get(memoryMethod) == memoryMethod.baseMethod;
+            });
+        });
+    }
+
+    public interface Shape {
+
+        double area();
+
+    }
+
+    public static class Square implements Shape {
+
+        protected final double side;
+
+        public Square(double side) {
+            this.side = side;
+        }
+
+        @Override
+        public double area() {
+            return side * side;
+        }
+
+    }
+
+    public static class Cube extends Square {
+
+        public Cube(double side) {
+            super(side);
+        }
+
+        @Override
+        public double area() {
+            return super.area() * 6;
+        }
+
+        public double volume() {
+            return side * side * side;
+        }
+
+    }
+
+}
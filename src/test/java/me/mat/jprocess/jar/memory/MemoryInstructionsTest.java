@@ -0,0 +1,261 @@
+package me.mat.jprocess.jar.memory;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.*;
+import me.mat.jprocessor.transformer.MethodTransformer;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.LabelNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MemoryInstructionsTest {
+
+    @Test
+    public void labelLookup() {
+        // build the instructions with a label at the start
+        MemoryInstructions instructions = new MemoryInstructions();
+        LabelNode start = new LabelNode();
+        AbstractInsnNode first = new InsnNode(Opcodes.NOP);
+        instructions.add(start);
+        instructions.add(first);
+
+        // check that the first region is found
+        assert instructions.getLabelForInstruction(first) == start;
+
+        // check that an added instruction joins the region of the previous label
+        AbstractInsnNode second = new InsnNode(Opcodes.NOP);
+        instructions.add(second);
+        assert instructions.getLabelForInstruction(second) == start;
+
+        // check that an instruction before all the labels has no label
+        AbstractInsnNode before = new InsnNode(Opcodes.NOP);
+        instructions.insert(before);
+        assert instructions.getLabelForInstruction(before) == null;
+        assert instructions.getLabelForInstruction(first) == start;
+    }
+
+    @Test
+    public void labelRegionsFollowEdits() {
+        // build two instructions in the same region
+        MemoryInstructions instructions = new MemoryInstructions();
+        LabelNode start = new LabelNode();
+        AbstractInsnNode first = new InsnNode(Opcodes.NOP);
+        AbstractInsnNode second = new InsnNode(Opcodes.NOP);
+        instructions.add(start);
+        instructions.add(first);
+        instructions.add(second);
+        assert instructions.getLabelForInstruction(second) == start;
+
+        // split the region with a new label
+        LabelNode split = new LabelNode();
+        instructions.insertAfter(first, split);
+        assert instructions.getLabelForInstruction(first) == start;
+        assert instructions.getLabelForInstruction(second) == split;
+
+        // merge the regions again by removing the label
+        instructions.remove(split);
+        assert instructions.getLabelForInstruction(second) == start;
+
+        // check that a replaced instruction takes over the region
+        AbstractInsnNode replacement = new InsnNode(Opcodes.ICONST_0);
+        instructions.set(second, replacement);
+        assert instructions.getLabelForInstruction(replacement) == start;
+        assert instructions.getLabelForInstruction(second) == null;
+    }
+
+    @Test
+    public void modificationCount() {
+        // check that every edit is counted
+        MemoryInstructions instructions = new MemoryInstructions();
+        int modificationCount = instructions.getModificationCount();
+        AbstractInsnNode instruction = new InsnNode(Opcodes.NOP);
+        instructions.add(instruction);
+        instructions.remove(instruction);
+        assert instructions.getModificationCount() == modificationCount + 2;
+    }
+
+    @Test
+    public void batchesNotifyNetChanges() {
+        // listen to the edits of the instructions
+        MemoryInstructions instructions = new MemoryInstructions();
+        RecordingListener listener = new RecordingListener();
+        instructions.addListener(listener);
+
+        // add and remove instructions in nested batches
+        AbstractInsnNode removed = new InsnNode(Opcodes.NOP);
+        AbstractInsnNode added = new InsnNode(Opcodes.ICONST_0);
+        instructions.begin();
+        instructions.add(removed);
+        instructions.begin();
+        instructions.add(added);
+        instructions.commit();
+
+        // check that nothing was reported before the outer most batch is committed
+        assert instructions.isEditing();
+        assert listener.added.isEmpty();
+        instructions.remove(removed);
+        instructions.commit();
+
+        // check that only the net changes were reported
+        assert !instructions.isEditing();
+        assert listener.added.size() == 1 && listener.added.get(0) == added;
+        assert listener.removed.isEmpty();
+    }
+
+    @Test
+    public void batchesUpdateLabelsOnCommit() {
+        // build two instructions in the same region
+        MemoryInstructions instructions = new MemoryInstructions();
+        LabelNode start = new LabelNode();
+        LabelNode split = new LabelNode();
+        AbstractInsnNode first = new InsnNode(Opcodes.NOP);
+        AbstractInsnNode second = new InsnNode(Opcodes.NOP);
+
+        // add the instructions and split the region in a single batch
+        instructions.edit(batch -> {
+            batch.add(start);
+            batch.add(first);
+            batch.add(second);
+            batch.insertBefore(second, split);
+        });
+
+        // check that the lookup table reflects the whole batch
+        assert instructions.getLabelForInstruction(first) == start;
+        assert instructions.getLabelForInstruction(second) == split;
+    }
+
+    @Test
+    public void batchesAreClosedOnFailure() {
+        // check that a failed edit still closes the batch
+        MemoryInstructions instructions = new MemoryInstructions();
+        assertThrows(IllegalArgumentException.class, () -> instructions.edit(batch -> {
+            batch.add(new InsnNode(Opcodes.NOP));
+            throw new IllegalArgumentException();
+        }));
+        assert !instructions.isEditing();
+
+        // check that committing without a batch fails
+        assertThrows(IllegalStateException.class, instructions::commit);
+    }
+
+    @Test
+    public void traversalSkipsRemovedAndInsertedInstructions() {
+        // build a list of instructions
+        MemoryInstructions instructions = new MemoryInstructions();
+        AbstractInsnNode first = new InsnNode(Opcodes.ICONST_0);
+        AbstractInsnNode second = new InsnNode(Opcodes.ICONST_1);
+        AbstractInsnNode third = new InsnNode(Opcodes.ICONST_2);
+        instructions.add(first);
+        instructions.add(second);
+        instructions.add(third);
+
+        // remove the next instruction and insert a new one while visiting the first
+        List<AbstractInsnNode> visited = new ArrayList<>();
+        instructions.traverse(instruction -> {
+            visited.add(instruction);
+            if (instruction == first) {
+                instructions.remove(second);
+                instructions.insertAfter(first, new InsnNode(Opcodes.ICONST_3));
+            }
+        });
+
+        // check that the removed and the inserted instructions were not visited
+        assert visited.equals(Arrays.asList(first, third));
+        assert instructions.size() == 3;
+    }
+
+    @Test
+    public void cursorEdits() {
+        // build a list of instructions
+        MemoryInstructions instructions = new MemoryInstructions();
+        instructions.add(new InsnNode(Opcodes.ICONST_0));
+        instructions.add(new InsnNode(Opcodes.NOP));
+        instructions.add(new InsnNode(Opcodes.ICONST_1));
+
+        // replace the constants and remove the nops through the cursor
+        int visited = 0;
+        try (InstructionCursor cursor = instructions.cursor()) {
+            while (cursor.hasNext()) {
+                AbstractInsnNode instruction = cursor.next();
+                visited++;
+                if (instruction.getOpcode() == Opcodes.NOP) {
+                    cursor.remove();
+                } else {
+                    cursor.replace(new InsnNode(instruction.getOpcode() + 1));
+                    cursor.insertAfter(new InsnNode(Opcodes.POP));
+                }
+            }
+        }
+
+        // check the edited instructions
+        assert visited == 3;
+        assert instructions.size() == 4;
+        assert instructions.get(0).getOpcode() == Opcodes.ICONST_1;
+        assert instructions.get(1).getOpcode() == Opcodes.POP;
+        assert instructions.get(2).getOpcode() == Opcodes.ICONST_2;
+    }
+
+    @Test
+    public void methodTransformerEditsWhileVisiting() {
+        // load the fixture class into memory
+        MemoryJar memoryJar = TestJar.load(Constants.class);
+        MemoryClass constants = TestJar.getClass(memoryJar, Constants.class);
+
+        // replace every small constant with the next one while visiting
+        constants.transform(new MethodTransformer() {
+
+            @Override
+            public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod) {
+            }
+
+            @Override
+            public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod,
+                                  MemoryInstructions instructions, AbstractInsnNode instruction) {
+                if (instruction.getOpcode() >= Opcodes.ICONST_0 && instruction.getOpcode() < Opcodes.ICONST_5) {
+                    instructions.set(instruction, new InsnNode(instruction.getOpcode() + 1));
+                }
+            }
+
+        });
+
+        // check that every constant was replaced exactly once
+        Class<?> aClass = TestJar.define(memoryJar, constants.name());
+        assert (int) TestJar.invoke(aClass, "sum") == 1 + 2 + 3;
+    }
+
+    public static class Constants {
+
+        static int sum() {
+            int first = 0;
+            int second = 1;
+            return first + second + 2;
+        }
+
+    }
+
+    private static final class RecordingListener implements InstructionListener {
+
+        private final List<AbstractInsnNode> added = new ArrayList<>();
+
+        private final List<AbstractInsnNode> removed = new ArrayList<>();
+
+        @Override
+        public void onAdd(MemoryMethod memoryMethod, AbstractInsnNode instruction) {
+            added.add(instruction);
+        }
+
+        @Override
+        public void onRemove(MemoryMethod memoryMethod, AbstractInsnNode instruction) {
+            removed.add(instruction);
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package me.mat.jprocess.jar.memory;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.JProcessor;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.mappings.generation.GenerationType;
+import me.mat.jprocessor.mappings.generation.MappingGenerateException;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+
+public class RemapTest {
+
+    @Test
+    public void remapKeepsInstances() throws MappingGenerateException {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Animal.class, Dog.class);
+        MemoryClass animal = TestJar.getClass(memoryJar, Animal.class);
+        MemoryClass dog = TestJar.getClass(memoryJar, Dog.class);
+        MemoryMethod speak = TestJar.getMethod(dog, "speak");
+
+        // remap the jar with generated mappings
+        memoryJar.remap(JProcessor.Mapping.generate(GenerationType.ALPHABET, memoryJar));
+
+        // check that the classes were renamed but kept their instances
+        assert !dog.name().equals(Dog.class.getName().replace('.', '/'));
+        assert memoryJar.getClass(animal.name()) == animal;
+        assert memoryJar.getClass(dog.name()) == dog;
+
+        // check that the members were rebound in place
+        assert dog.methods.stream().anyMatch(memoryMethod -> memoryMethod == speak);
+        assert speak.getInstructions().size() > 0;
+
+        // check that the hierarchy points at the remapped classes
+        assert dog.superClass() == animal;
+        assert speak.isOverride() && speak.baseClass == animal;
+
+        // check that the remapped classes still run
+        Object instance = newInstance(TestJar.define(memoryJar, dog.name()));
+        assert invokeVirtual(instance, speak.name()).equals("woof");
+    }
+
+    @Test
+    public void updateHierarchyFindsNewOverrides() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = TestJar.load(Animal.class, Dog.class);
+        MemoryClass animal = TestJar.getClass(memoryJar, Animal.class);
+        MemoryMethod legs = TestJar.getMethod(TestJar.getClass(memoryJar, Dog.class), "legs");
+
+        // the method of the sub class does not override anything yet
+        assert !legs.isOverride();
+
+        // declare the method in the super class and update the hierarchy
+        animal.addMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "legs", "()I", null, null);
+        memoryJar.updateHierarchy(animal);
+
+        // check that the sub class picked up the override
+        assert legs.isOverride() && legs.baseClass == animal;
+    }
+
+    /**
+     * Creates an instance of the provided class
+     *
+     * @param aClass class that you want to instantiate
+     * @return {@link Object}
+     */
+
+    private static Object newInstance(Class<?> aClass) {
+        try {
+            return aClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Invokes the method without arguments on the provided instance
+     *
+     * @param instance instance that you want to invoke the method on
+     * @param name     name of the method
+     * @return {@link Object}
+     */
+
+    private static Object invokeVirtual(Object instance, String name) {
+        try {
+            return instance.getClass().getMethod(name).invoke(instance);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static abstract class Animal {
+
+        public abstract String speak();
+
+    }
+
+    public static class Dog extends Animal {
+
+        @Override
+        public String speak() {
+            return "woof";
+        }
+
+        public int legs() {
+            return 4;
+        }
+
+    }
+
+}
@@ -0,0 +1,138 @@
+package me.mat.jprocess.jar.query;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class QueryTest {
+
+    private static final String SERVICE = Service.class.getName().replace('.', '/');
+
+    @Test
+    public void classQueries() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        MemoryClass users = TestJar.getClass(memoryJar, UserService.class);
+
+        // check the classes that extend the service
+        List<MemoryClass> classes = memoryJar.queryClasses().extending(SERVICE).list();
+        assert classes.size() == 2;
+        assert classes.contains(users);
+
+        // check that the filters are combined
+        assert memoryJar.queryClasses().extending(SERVICE).annotatedWith(Cached.class).list().size() == 1;
+        assert memoryJar.queryClasses().extending(SERVICE).annotatedWith(Cached.class).list().get(0) == users;
+        assert memoryJar.queryClasses().named(SERVICE).extending(SERVICE).list().isEmpty();
+    }
+
+    @Test
+    public void methodQueries() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        MemoryClass users = TestJar.getClass(memoryJar, UserService.class);
+
+        // check the methods that call a method outside of the jar
+        List<MemoryMethod> methods = memoryJar.queryMethods().calling("java/lang/Math", "abs", "(I)I").list();
+        assert methods.size() == 1 && methods.get(0) == TestJar.getMethod(users, "load");
+
+        // check the methods that load a constant
+        assert memoryJar.queryMethods().usingConstant("users").list().size() == 2;
+        assert memoryJar.queryMethods().usingConstant("users").named("save").list().get(0) == TestJar.getMethod(users, "save");
+
+        // check the methods that call a method in the jar
+        MemoryMethod name = TestJar.getMethod(TestJar.getClass(memoryJar, Service.class), "name");
+        assert memoryJar.queryMethods().calling(name).inClass(users.name()).list().size() == 1;
+    }
+
+    @Test
+    public void fieldQueries() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+        MemoryClass users = TestJar.getClass(memoryJar, UserService.class);
+
+        // check the unused fields of the service
+        List<MemoryField> fields = memoryJar.queryFields().inClassesExtending(SERVICE).unused().list();
+        assert fields.size() == 1 && fields.get(0) == TestJar.getField(users, "unused");
+
+        // check the lookups by the name and the description
+        assert memoryJar.queryFields().named("cache").describedAs("Ljava/util/Map;").list().size() == 1;
+        assert memoryJar.queryFields().inClass(users.name()).named("missing").list().isEmpty();
+    }
+
+    @Test
+    public void indexedSourceNarrowsTheQuery() {
+        // load the fixture classes into memory
+        MemoryJar memoryJar = load();
+
+        // count how many methods reach the custom filter
+        AtomicInteger checked = new AtomicInteger();
+        List<MemoryMethod> methods = memoryJar.queryMethods()
+                .matching(memoryMethod -> checked.incrementAndGet() > 0)
+                .calling("java/lang/Math", "abs", "(I)I")
+                .list();
+
+        // check that only the candidates of the index were checked
+        assert methods.size() == 1;
+        assert checked.get() == 1;
+
+        // check that the parallel query finds the same results
+        assert memoryJar.queryMethods().usingConstant("users").parallel().list().size() == 2;
+    }
+
+    /**
+     * Loads all the fixture classes into memory
+     *
+     * @return {@link MemoryJar}
+     */
+
+    private static MemoryJar load() {
+        return TestJar.load(Cached.class, Service.class, UserService.class, OrderService.class);
+    }
+
+    public @interface Cached {
+
+    }
+
+    public static abstract class Service {
+
+        public String name() {
+            return getClass().getSimpleName();
+        }
+
+    }
+
+    @Cached
+    public static class UserService extends Service {
+
+        Map<String, String> cache;
+
+        int unused;
+
+        int load(int id) {
+            return Math.abs(id) + "users".length() + cache.size();
+        }
+
+        String save() {
+            return "users" + name();
+        }
+
+    }
+
+    public static class OrderService extends Service {
+
+        int count;
+
+        int count() {
+            return count;
+        }
+
+    }
+
+}
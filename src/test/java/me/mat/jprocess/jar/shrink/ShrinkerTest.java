@@ -0,0 +1,124 @@
+package me.mat.jprocess.jar.shrink;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ShrinkerTest {
+
+    @Test
+    public void removesUnreachableCode() throws ReflectiveOperationException {
+        // load the fixture classes into memory with the main class as the entry point
+        MemoryJar memoryJar = load(new HashMap<>());
+        memoryJar.shrinker().shrink();
+
+        // check that the unreachable class was removed
+        assert TestJar.getClass(memoryJar, Unused.class) == null;
+
+        // check that only the reachable members of the reachable classes were kept
+        MemoryClass circle = TestJar.getClass(memoryJar, Circle.class);
+        assert circle != null;
+        assert circle.methods.stream().anyMatch(memoryMethod -> memoryMethod.name().equals("area"));
+        assert circle.methods.stream().noneMatch(memoryMethod -> memoryMethod.name().equals("unused"));
+        assert circle.fields.stream().noneMatch(memoryField -> memoryField.name().equals("unused"));
+
+        // check that the shrunk jar still runs
+        Class<?> app = TestJar.define(memoryJar, App.class.getName().replace('.', '/'));
+        TestJar.invoke(app, "main", (Object) new String[0]);
+        assert app.getDeclaredField("result").getDouble(null) == 12.0;
+    }
+
+    @Test
+    public void keepsEntryPoints() {
+        // register the unused class as a service provider
+        Map<String, byte[]> resources = new HashMap<>();
+        resources.put("META-INF/services/" + Runnable.class.getName(), (Unused.class.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+
+        // shrink the jar while keeping a method by a rule
+        MemoryJar memoryJar = load(resources);
+        memoryJar.shrinker()
+                .keepMethods(memoryMethod -> memoryMethod.name().equals("unused"))
+                .shrink();
+
+        // check that the service provider and the kept method survived
+        assert TestJar.getClass(memoryJar, Unused.class) != null;
+        assert TestJar.getClass(memoryJar, Circle.class).methods.stream()
+                .anyMatch(memoryMethod -> memoryMethod.name().equals("unused"));
+    }
+
+    @Test
+    public void keepsJarWithoutEntryPoints() {
+        // load the fixture classes into memory without a main class
+        MemoryJar memoryJar = TestJar.load(App.class, Shape.class, Circle.class, Unused.class);
+        memoryJar.shrinker().shrink();
+
+        // check that nothing was removed
+        assert memoryJar.getClasses().size() == 4;
+    }
+
+    /**
+     * Loads all the fixture classes into memory
+     *
+     * @param resources resources of the jar
+     * @return {@link MemoryJar}
+     */
+
+    private static MemoryJar load(Map<String, byte[]> resources) {
+        return new MemoryJar(
+                TestJar.read(App.class, Shape.class, Circle.class, Unused.class),
+                resources, App.class.getName().replace('.', '/')
+        );
+    }
+
+    public static class App {
+
+        public static double result;
+
+        public static void main(String[] args) {
+            Shape shape = new Circle(2);
+            result = shape.area();
+        }
+
+    }
+
+    public interface Shape {
+
+        double area();
+
+    }
+
+    public static class Circle implements Shape {
+
+        private final double radius;
+
+        private int unused;
+
+        public Circle(double radius) {
+            this.radius = radius;
+        }
+
+        @Override
+        public double area() {
+            return 3 * radius * radius;
+        }
+
+        public int unused() {
+            return unused;
+        }
+
+    }
+
+    public static class Unused implements Runnable {
+
+        @Override
+        public void run() {
+        }
+
+    }
+
+}
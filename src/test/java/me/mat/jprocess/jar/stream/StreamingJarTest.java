@@ -0,0 +1,243 @@
+package me.mat.jprocess.jar.stream;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.stream.StreamingJar;
+import me.mat.jprocessor.transformer.VisitorTransformer;
+import me.mat.jprocessor.util.JarUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.SimpleRemapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StreamingJarTest {
+
+    private static final byte[] INVALID_CLASS = {(byte) 0xCA, (byte) 0xFE, 1, 2, 3};
+
+    private static final byte[] README = "readme".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void computeFramesWithJarClasses() throws IOException {
+        // stream the jar through a transformer that computes all the frames again
+        File input = createJar();
+        File output = new File(directory, "output.jar");
+        StreamingJar.transform(input, output, new ComputeFrames());
+
+        // check that the common super class of the jar classes was found without the class path
+        Class<?> picker = TestJar.define(fixtures(output), new HashMap<>(), "fixture/Picker");
+        assert TestJar.invoke(picker, "pick", true).getClass().getName().equals("fixture.Apple");
+        assert TestJar.invoke(picker, "pick", false).getClass().getName().equals("fixture.Pear");
+    }
+
+    @Test
+    public void computeFramesWithRenamedClasses() throws IOException {
+        // stream the jar through a transformer that renames the classes and one that computes the frames
+        File input = createJar();
+        File output = new File(directory, "output.jar");
+        Map<String, String> names = new HashMap<>();
+        names.put("fixture/Fruit", "fixture/Food");
+        names.put("fixture/Apple", "fixture/Cherry");
+        StreamingJar.transform(input, output, ForkJoinPool.commonPool(), Arrays.asList(
+                next -> new ClassRemapper(next, new SimpleRemapper(names)), new ComputeFrames()
+        ));
+
+        // check that the common super class of the renamed classes was found by their new names
+        Class<?> picker = TestJar.define(fixtures(output), new HashMap<>(), "fixture/Picker");
+        assert TestJar.invoke(picker, "pick", true).getClass().getName().equals("fixture.Cherry");
+        assert TestJar.invoke(picker, "pick", false).getClass().getName().equals("fixture.Pear");
+    }
+
+    @Test
+    public void keepEntries() throws IOException {
+        // stream the jar through a transformer that renames a class
+        File input = createJar();
+        File output = new File(directory, "output.jar");
+        StreamingJar.transform(input, output, ForkJoinPool.commonPool(), Collections.singletonList(
+                next -> new ClassRemapper(next, new SimpleRemapper("fixture/Apple", "fixture/Cherry"))
+        ));
+        Map<String, byte[]> entries = readJar(output);
+
+        // check that the renamed classes kept the prefix of their entries
+        assert entries.containsKey("fixture/Cherry.class") && !entries.containsKey("fixture/Apple.class");
+        assert entries.containsKey("META-INF/versions/9/fixture/Cherry.class");
+        assert !entries.containsKey("META-INF/versions/9/fixture/Apple.class");
+        assert new ClassReader(entries.get("META-INF/versions/9/fixture/Cherry.class")).getClassName().equals("fixture/Cherry");
+
+        // check that the resources and the invalid classes were copied and the signatures dropped
+        assert Arrays.equals(entries.get("data/readme.txt"), README);
+        assert Arrays.equals(entries.get("broken/Invalid.class"), INVALID_CLASS);
+        assert !entries.containsKey("META-INF/SIGNER.SF");
+    }
+
+    @Test
+    public void surfaceFailures() throws IOException {
+        // stream the jar through a transformer that fails
+        File input = createJar();
+        File output = new File(directory, "output.jar");
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> StreamingJar.transform(input, output,
+                next -> {
+                    throw new UnsupportedOperationException("fail");
+                }));
+
+        // check that the failure names the class that could not be transformed and no output was left behind
+        assert exception.getMessage().contains(".class");
+        assert !output.exists();
+    }
+
+    /**
+     * Creates a jar with the fixture classes moved out of
+     * the class path, a multi release copy of one of them,
+     * a resource, a signature and an invalid class
+     *
+     * @return {@link File}
+     * @throws IOException if the jar could not be written
+     */
+
+    private File createJar() throws IOException {
+        // move the fixtures into a package that is not on the class path
+        Map<String, String> names = new HashMap<>();
+        names.put(name(Fruit.class), "fixture/Fruit");
+        names.put(name(Apple.class), "fixture/Apple");
+        names.put(name(Pear.class), "fixture/Pear");
+        names.put(name(Picker.class), "fixture/Picker");
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        TestJar.read(Fruit.class, Apple.class, Pear.class, Picker.class).forEach((name, data) -> {
+            ClassWriter classWriter = new ClassWriter(0);
+            new ClassReader(data).accept(new ClassRemapper(classWriter, new SimpleRemapper(names)), 0);
+            entries.put(names.get(name) + ".class", classWriter.toByteArray());
+        });
+
+        // add all the other entries
+        entries.put("META-INF/versions/9/fixture/Apple.class", entries.get("fixture/Apple.class"));
+        entries.put("META-INF/SIGNER.SF", new byte[0]);
+        entries.put("data/readme.txt", README);
+        entries.put("broken/Invalid.class", INVALID_CLASS);
+
+        // write the jar
+        File file = new File(directory, "input.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(file.toPath()))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                out.putNextEntry(new JarEntry(entry.getKey()));
+                out.write(entry.getValue());
+                out.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Reads all the entries of the provided jar
+     *
+     * @param file jar that you want to read
+     * @return {@link Map}
+     * @throws IOException if the jar could not be read
+     */
+
+    private static Map<String, byte[]> readJar(File file) throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        try (JarFile jarFile = new JarFile(file)) {
+            Enumeration<JarEntry> enumeration = jarFile.entries();
+            while (enumeration.hasMoreElements()) {
+                JarEntry jarEntry = enumeration.nextElement();
+                try (InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+                    entries.put(jarEntry.getName(), JarUtil.read(inputStream));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the fixture classes of the provided jar by their names
+     *
+     * @param file jar that you want to read
+     * @return {@link Map}
+     * @throws IOException if the jar could not be read
+     */
+
+    private static Map<String, byte[]> fixtures(File file) throws IOException {
+        Map<String, byte[]> classData = new HashMap<>();
+        readJar(file).forEach((name, data) -> {
+            if (name.startsWith("fixture/")) {
+                classData.put(name.substring(0, name.length() - ".class".length()), data);
+            }
+        });
+        return classData;
+    }
+
+    /**
+     * Gets the internal name of the provided class
+     *
+     * @param aClass class that you want to get the name of
+     * @return {@link String}
+     */
+
+    private static String name(Class<?> aClass) {
+        return aClass.getName().replace('.', '/');
+    }
+
+    private static final class ComputeFrames implements VisitorTransformer {
+
+        @Override
+        public ClassVisitor transform(ClassVisitor next) {
+            // wrap every method so the writer has to write it again instead of copying it
+            return new ClassVisitor(Opcodes.ASM9, next) {
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    return new MethodVisitor(Opcodes.ASM9, super.visitMethod(access, name, descriptor, signature, exceptions)) {
+                    };
+                }
+            };
+        }
+
+        @Override
+        public int getWriterFlags() {
+            return ClassWriter.COMPUTE_FRAMES;
+        }
+
+    }
+
+    public static class Fruit {
+    }
+
+    public static class Apple extends Fruit {
+    }
+
+    public static class Pear extends Fruit {
+    }
+
+    public static class Picker {
+
+        static Fruit pick(boolean apple) {
+            Fruit fruit;
+            if (apple) {
+                fruit = new Apple();
+            } else {
+                fruit = new Pear();
+            }
+            return fruit;
+        }
+
+    }
+
+}
@@ -0,0 +1,217 @@
+package me.mat.jprocess.transformer;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.transformer.ClassTransformer;
+import me.mat.jprocessor.transformer.ParallelTransformer;
+import me.mat.jprocessor.transformer.impl.PeepholeOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelTransformerTest {
+
+    private static final Class<?>[] CLASSES = {
+            First.class, Second.class, Third.class, Fourth.class, Fifth.class, Sixth.class
+    };
+
+    @Test
+    public void runOnTransformPool() {
+        // transform the jar on a dedicated pool
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        memoryJar.setTransformPool(pool);
+        RecordingTransformer transformer = new RecordingTransformer(true);
+        try {
+            memoryJar.transformClasses(transformer);
+        } finally {
+            pool.shutdown();
+        }
+
+        // check that every class was transformed once on the threads of the pool
+        assert transformer.classes.size() == CLASSES.length;
+        assert transformer.classes.values().stream().allMatch(count -> count == 1);
+        for (Thread thread : transformer.threads) {
+            assert thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool;
+        }
+    }
+
+    @Test
+    public void runSequentially() {
+        // transform the jar with the transformers that can not run in parallel
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        memoryJar.setParallelism(4);
+        RecordingTransformer notParallel = new RecordingTransformer(false);
+        memoryJar.transformClasses(notParallel);
+        List<Thread> threads = new ArrayList<>();
+        memoryJar.transformClasses((ClassTransformer) memoryClass -> threads.add(Thread.currentThread()));
+
+        // check that both ran on the calling thread
+        assert notParallel.threads.equals(Collections.singleton(Thread.currentThread()));
+        assert threads.size() == CLASSES.length && new HashSet<>(threads).equals(Collections.singleton(Thread.currentThread()));
+
+        // check that a single thread disables the pool
+        memoryJar.setParallelism(1);
+        RecordingTransformer parallel = new RecordingTransformer(true);
+        memoryJar.transformClasses(parallel);
+        assert parallel.threads.equals(Collections.singleton(Thread.currentThread()));
+
+        // check that the parallelism has to be positive
+        assertThrows(IllegalArgumentException.class, () -> memoryJar.setParallelism(0));
+    }
+
+    @Test
+    public void sameResultAsSequential() {
+        // optimize the same classes one at a time and in parallel
+        MemoryJar sequential = TestJar.load(CLASSES);
+        sequential.setTransformPool(null);
+        sequential.transformClasses(new PeepholeOptimizer());
+        MemoryJar parallel = TestJar.load(CLASSES);
+        parallel.setParallelism(4);
+        parallel.transformClasses(new PeepholeOptimizer());
+
+        // check that both jars hold the same classes
+        Map<String, byte[]> expected = sequential.getClassData();
+        Map<String, byte[]> actual = parallel.getClassData();
+        assert expected.keySet().equals(actual.keySet());
+        expected.forEach((name, data) -> {
+            assert Arrays.equals(data, actual.get(name));
+        });
+    }
+
+    @Test
+    public void surfaceFailures() {
+        // check that a failure on one of the threads reaches the caller
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        memoryJar.setParallelism(2);
+        assertThrows(IllegalStateException.class, () -> memoryJar.transformClasses(new FailingTransformer()));
+    }
+
+    @Test
+    public void poolOwnership() {
+        // replace a pool that the jar created with another one
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        memoryJar.setParallelism(2);
+        ForkJoinPool owned = memoryJar.getTransformPool();
+        memoryJar.setParallelism(3);
+
+        // check that the replaced pool was shut down
+        assert owned.isShutdown();
+        assert !memoryJar.getTransformPool().isShutdown();
+
+        // check that the pools of the caller are never shut down by the jar
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            owned = memoryJar.getTransformPool();
+            memoryJar.setTransformPool(pool);
+            assert owned.isShutdown();
+            memoryJar.setParallelism(2);
+            assert !pool.isShutdown();
+        } finally {
+            pool.shutdown();
+        }
+
+        // check that disabling the pool shuts down the pool of the jar
+        owned = memoryJar.getTransformPool();
+        memoryJar.setParallelism(1);
+        assert owned.isShutdown() && memoryJar.getTransformPool() == null;
+    }
+
+    private static class RecordingTransformer implements ClassTransformer, ParallelTransformer {
+
+        private final Map<String, Integer> classes = new ConcurrentHashMap<>();
+
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        private final boolean parallel;
+
+        private RecordingTransformer(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        @Override
+        public void transform(MemoryClass memoryClass) {
+            classes.merge(memoryClass.name(), 1, Integer::sum);
+            threads.add(Thread.currentThread());
+        }
+
+        @Override
+        public boolean isParallel() {
+            return parallel;
+        }
+
+    }
+
+    private static class FailingTransformer implements ClassTransformer, ParallelTransformer {
+
+        @Override
+        public void transform(MemoryClass memoryClass) {
+            throw new IllegalStateException("Failed to transform " + memoryClass.name());
+        }
+
+    }
+
+    public static class First {
+
+        static int value() {
+            int unused = 1;
+            return 1;
+        }
+
+    }
+
+    public static class Second {
+
+        static int value(int input) {
+            int unused = input * 2;
+            return input;
+        }
+
+    }
+
+    public static class Third {
+
+        static int value(int input) {
+            return input > 0 ? input : -input;
+        }
+
+    }
+
+    public static class Fourth {
+
+        static long value(long input) {
+            long unused = input << 2;
+            return input + 4;
+        }
+
+    }
+
+    public static class Fifth {
+
+        static String value(String input) {
+            String unused = input.trim();
+            return input;
+        }
+
+    }
+
+    public static class Sixth {
+
+        static int value(int[] input) {
+            int total = 0;
+            for (int element : input) {
+                int unused = element * 3;
+                total += element;
+            }
+            return total;
+        }
+
+    }
+
+}
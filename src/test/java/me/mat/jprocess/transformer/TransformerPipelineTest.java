@@ -0,0 +1,170 @@
+package me.mat.jprocess.transformer;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.transformer.ClassTransformer;
+import me.mat.jprocessor.transformer.FieldTransformer;
+import me.mat.jprocessor.transformer.MethodTransformer;
+import me.mat.jprocessor.transformer.TransformerPipeline;
+import me.mat.jprocessor.transformer.impl.PeepholeOptimizer;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public class TransformerPipelineTest {
+
+    @Test
+    public void fuseTraversals() {
+        // run three transformers as a single pipeline
+        MemoryJar memoryJar = TestJar.load(Piped.class);
+        List<String> log = new ArrayList<>();
+        memoryJar.transformClasses(new TransformerPipeline()
+                .add(new LoggingClassTransformer(log))
+                .add((FieldTransformer) (memoryClass, memoryField) -> log.add("field " + memoryField.name()))
+                .add(new LoggingMethodTransformer(log)));
+
+        // check that every element was handed to the transformers in the order that they were added
+        assert log.get(0).equals("class");
+        assert log.get(1).equals("class field count") && log.get(2).equals("field count");
+        int method = log.indexOf("class method one");
+        assert method > 0 && log.get(method + 1).equals("method one");
+
+        // check that the instructions are handed to every transformer before moving to the next one
+        List<String> instructions = log.subList(method + 2, log.size());
+        assert instructions.get(0).startsWith("class instruction") && instructions.get(1).startsWith("method instruction");
+        assert instructions.get(0).substring("class ".length()).equals(instructions.get(1).substring("method ".length()));
+    }
+
+    @Test
+    public void skipRemovedInstructions() {
+        // replace every constant with a pipeline that checks what the later transformer gets
+        MemoryJar memoryJar = TestJar.load(Piped.class);
+        Set<AbstractInsnNode> replaced = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<AbstractInsnNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        memoryJar.transformMethods(new TransformerPipeline()
+                .add(new InstructionTransformer() {
+                    @Override
+                    public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod,
+                                          MemoryInstructions instructions, AbstractInsnNode instruction) {
+                        if (instruction.getOpcode() == Opcodes.ICONST_1) {
+                            instructions.set(instruction, new InsnNode(Opcodes.ICONST_2));
+                            replaced.add(instruction);
+                        }
+                    }
+                })
+                .add(new InstructionTransformer() {
+                    @Override
+                    public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod,
+                                          MemoryInstructions instructions, AbstractInsnNode instruction) {
+                        visited.add(instruction);
+                    }
+                }));
+
+        // check that the replaced instructions never reached the second transformer
+        assert !replaced.isEmpty();
+        assert replaced.stream().noneMatch(visited::contains);
+
+        // check that the edits were applied
+        Class<?> piped = TestJar.define(memoryJar, Piped.class.getName().replace('.', '/'));
+        assert (int) TestJar.invoke(piped, "one") == 2;
+        assert (int) TestJar.invoke(piped, "add", 5) == 7;
+    }
+
+    @Test
+    public void parallelOnlyIfAllAre() {
+        // check that a pipeline of parallel transformers is parallel
+        TransformerPipeline pipeline = new TransformerPipeline().add(new PeepholeOptimizer());
+        assert pipeline.isParallel();
+
+        // check that a single transformer that is not parallel makes the whole pipeline sequential
+        pipeline.add((ClassTransformer) memoryClass -> {
+        });
+        assert !pipeline.isParallel();
+    }
+
+    private static class LoggingClassTransformer implements ClassTransformer {
+
+        private final List<String> log;
+
+        private LoggingClassTransformer(List<String> log) {
+            this.log = log;
+        }
+
+        @Override
+        public void transform(MemoryClass memoryClass) {
+            log.add("class");
+        }
+
+        @Override
+        public void transform(MemoryClass memoryClass, MemoryField memoryField) {
+            log.add("class field " + memoryField.name());
+        }
+
+        @Override
+        public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod) {
+            log.add("class method " + memoryMethod.name());
+        }
+
+        @Override
+        public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod,
+                              MemoryInstructions instructions, AbstractInsnNode instruction) {
+            log.add("class instruction " + memoryMethod.name() + " " + instructions.indexOf(instruction));
+        }
+
+    }
+
+    private static class LoggingMethodTransformer implements MethodTransformer {
+
+        private final List<String> log;
+
+        private LoggingMethodTransformer(List<String> log) {
+            this.log = log;
+        }
+
+        @Override
+        public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod) {
+            log.add("method " + memoryMethod.name());
+        }
+
+        @Override
+        public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod,
+                              MemoryInstructions instructions, AbstractInsnNode instruction) {
+            log.add("method instruction " + memoryMethod.name() + " " + instructions.indexOf(instruction));
+        }
+
+    }
+
+    private abstract static class InstructionTransformer implements MethodTransformer {
+
+        @Override
+        public void transform(MemoryClass memoryClass, MemoryMethod memoryMethod) {
+        }
+
+    }
+
+    public static class Piped {
+
+        int count;
+
+        static int one() {
+            return 1;
+        }
+
+        static int add(int value) {
+            return value + 1;
+        }
+
+    }
+
+}
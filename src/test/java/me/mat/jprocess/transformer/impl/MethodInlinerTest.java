@@ -0,0 +1,243 @@
+package me.mat.jprocess.transformer.impl;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.index.CallGraph;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.transformer.impl.MethodInliner;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+
+import java.util.List;
+
+public class MethodInlinerTest {
+
+    private static final Class<?>[] CLASSES = {
+            Calls.class, Final.class, Shape.class, Circle.class, Base.class, Square.class, Only.class, Initialized.class
+    };
+
+    @Test
+    public void inlineProvableTargets() {
+        // inline all the calls of the jar
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        MemoryClass memoryClass = TestJar.getClass(memoryJar, Calls.class);
+        new MethodInliner(memoryJar).inline();
+
+        // check that the static and final calls were inlined
+        assert !calls(TestJar.getMethod(memoryClass, "sumOfSquares"), "square");
+        assert !calls(TestJar.getMethod(memoryClass, "viaFinal"), "value");
+
+        // check that the calls that could reach more than one method were kept
+        assert calls(TestJar.getMethod(memoryClass, "viaShape"), "area");
+        assert calls(TestJar.getMethod(memoryClass, "viaOnly"), "value");
+
+        // check that the recursive method and the class with an initializer were not inlined
+        assert calls(TestJar.getMethod(memoryClass, "useFactorial"), "factorial");
+        assert calls(TestJar.getMethod(memoryClass, "viaInitialized"), "get");
+
+        // check that the inlined code returns the same values
+        assertSameResults(memoryJar);
+    }
+
+    @Test
+    public void inheritedImplementations() {
+        // check that the implementation that the square inherits from outside of the shape hierarchy is a target
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        List<MemoryMethod> targets = memoryJar.getHierarchyIndex().resolveVirtualTargets(name(Shape.class), "area", "()I");
+        assert targets.contains(TestJar.getMethod(TestJar.getClass(memoryJar, Circle.class), "area"));
+        assert targets.contains(TestJar.getMethod(TestJar.getClass(memoryJar, Base.class), "area"));
+
+        // check that the call on the shape is not inlined even if the jar is the whole program
+        new MethodInliner(memoryJar).closedWorld(true).inline();
+        MemoryClass memoryClass = TestJar.getClass(memoryJar, Calls.class);
+        assert calls(TestJar.getMethod(memoryClass, "viaShape"), "area");
+        assertSameResults(memoryJar);
+    }
+
+    @Test
+    public void closedWorld() {
+        // inline the calls knowing that no class outside of the jar extends the classes
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        CallGraph callGraph = memoryJar.getCallGraph();
+        new MethodInliner(memoryJar).closedWorld(true).inline();
+
+        // check that the overridable method without any overrides was inlined
+        MemoryClass memoryClass = TestJar.getClass(memoryJar, Calls.class);
+        assert !calls(TestJar.getMethod(memoryClass, "viaOnly"), "value");
+        assertSameResults(memoryJar);
+
+        // check that the call graph of the jar was dropped
+        assert memoryJar.getCallGraph() != callGraph;
+    }
+
+    @Test
+    public void maxSize() {
+        // inline with a size limit that no method fits into
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        MethodInliner methodInliner = new MethodInliner(memoryJar).maxSize(0);
+
+        // check that none of the calls was inlined
+        assert !methodInliner.inline(TestJar.getMethod(TestJar.getClass(memoryJar, Calls.class), "sumOfSquares"));
+
+        // check that the indexes of the jar are kept when nothing was inlined
+        CallGraph callGraph = memoryJar.getCallGraph();
+        methodInliner.inline();
+        assert memoryJar.getCallGraph() == callGraph;
+    }
+
+    @Test
+    public void transformSingleClass() {
+        // inline the calls of a single class
+        MemoryJar memoryJar = TestJar.load(CLASSES);
+        MemoryClass memoryClass = TestJar.getClass(memoryJar, Calls.class);
+        CallGraph callGraph = memoryJar.getCallGraph();
+        new MethodInliner(memoryJar).transform(memoryClass);
+
+        // check that the class was inlined and the call graph of the jar was dropped
+        assert !calls(TestJar.getMethod(memoryClass, "sumOfSquares"), "square");
+        assert memoryClass.computeFrames;
+        assert memoryJar.getCallGraph() != callGraph;
+        assertSameResults(memoryJar);
+    }
+
+    /**
+     * Defines the classes of the jar and checks that every method
+     * returns the same value as the original method does
+     *
+     * @param memoryJar jar that holds the inlined classes
+     */
+
+    private static void assertSameResults(MemoryJar memoryJar) {
+        // define the inlined class
+        Class<?> inlined = TestJar.define(memoryJar, name(Calls.class));
+
+        // check all the methods against the original ones
+        assert TestJar.invoke(inlined, "sumOfSquares", 3, 4).equals(Calls.sumOfSquares(3, 4));
+        assert TestJar.invoke(inlined, "viaFinal").equals(Calls.viaFinal());
+        assert TestJar.invoke(inlined, "viaShape", true).equals(Calls.viaShape(true));
+        assert TestJar.invoke(inlined, "viaShape", false).equals(Calls.viaShape(false));
+        assert TestJar.invoke(inlined, "viaOnly").equals(Calls.viaOnly());
+        assert TestJar.invoke(inlined, "useFactorial", 5).equals(Calls.useFactorial(5));
+        assert TestJar.invoke(inlined, "viaInitialized").equals(Calls.viaInitialized());
+    }
+
+    /**
+     * Checks if the method calls a method with the provided name
+     *
+     * @param memoryMethod method that you want to check
+     * @param name         name of the called method
+     * @return {@link Boolean}
+     */
+
+    private static boolean calls(MemoryMethod memoryMethod, String name) {
+        for (AbstractInsnNode instruction : memoryMethod.getInstructions()) {
+            if (instruction instanceof MethodInsnNode && ((MethodInsnNode) instruction).name.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the internal name of the provided class
+     *
+     * @param aClass class that you want to get the name of
+     * @return {@link String}
+     */
+
+    private static String name(Class<?> aClass) {
+        return aClass.getName().replace('.', '/');
+    }
+
+    public static class Calls {
+
+        static int square(int value) {
+            return value * value;
+        }
+
+        static int sumOfSquares(int first, int second) {
+            return square(first) + square(second);
+        }
+
+        static int viaFinal() {
+            return new Final().value();
+        }
+
+        static int viaShape(boolean circle) {
+            Shape shape = circle ? new Circle() : new Square();
+            return shape.area();
+        }
+
+        static int viaOnly() {
+            return new Only().value();
+        }
+
+        static int factorial(int value) {
+            return value <= 1 ? 1 : value * factorial(value - 1);
+        }
+
+        static int useFactorial(int value) {
+            return factorial(value) + 1;
+        }
+
+        static int viaInitialized() {
+            return Initialized.get();
+        }
+
+    }
+
+    public static final class Final {
+
+        public int value() {
+            return 7;
+        }
+
+    }
+
+    public interface Shape {
+
+        int area();
+
+    }
+
+    public static class Circle implements Shape {
+
+        @Override
+        public int area() {
+            return 3;
+        }
+
+    }
+
+    public static class Base {
+
+        public int area() {
+            return 4;
+        }
+
+    }
+
+    public static class Square extends Base implements Shape {
+    }
+
+    public static class Only {
+
+        public int value() {
+            return 11;
+        }
+
+    }
+
+    public static class Initialized {
+
+        static int value = 13;
+
+        static int get() {
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package me.mat.jprocess.transformer.impl;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryInstructions;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.transformer.impl.PeepholeOptimizer;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+public class PeepholeOptimizerTest {
+
+    @Test
+    public void foldConstants() {
+        // replace the body of the method with constant arithmetic
+        MemoryJar memoryJar = TestJar.load(Optimized.class);
+        MemoryMethod memoryMethod = TestJar.getMethod(TestJar.getClass(memoryJar, Optimized.class), "constant");
+        MemoryInstructions instructions = memoryMethod.instructions;
+        instructions.clear();
+        instructions.add(new IntInsnNode(Opcodes.BIPUSH, 6));
+        instructions.add(new InsnNode(Opcodes.ICONST_3));
+        instructions.add(new InsnNode(Opcodes.IMUL));
+        instructions.add(new InsnNode(Opcodes.ICONST_2));
+        instructions.add(new InsnNode(Opcodes.IADD));
+        instructions.add(new InsnNode(Opcodes.IRETURN));
+
+        // check that the arithmetic was folded into a single constant
+        memoryJar.transformClasses(new PeepholeOptimizer());
+        assert instructions.size() == 2;
+        assert instructions.getFirst() instanceof IntInsnNode && ((IntInsnNode) instructions.getFirst()).operand == 20;
+
+        // check that the folded method still returns the same value
+        assert (int) TestJar.invoke(TestJar.define(memoryJar, name(Optimized.class)), "constant") == 20;
+    }
+
+    @Test
+    public void resolveJumps() {
+        // replace the body of the method with a jump on a constant
+        MemoryJar memoryJar = TestJar.load(Optimized.class);
+        MemoryMethod memoryMethod = TestJar.getMethod(TestJar.getClass(memoryJar, Optimized.class), "constant");
+        MemoryInstructions instructions = memoryMethod.instructions;
+        LabelNode target = new LabelNode();
+        instructions.clear();
+        instructions.add(new InsnNode(Opcodes.ICONST_0));
+        instructions.add(new JumpInsnNode(Opcodes.IFEQ, target));
+        instructions.add(new InsnNode(Opcodes.ICONST_1));
+        instructions.add(new InsnNode(Opcodes.IRETURN));
+        instructions.add(target);
+        instructions.add(new InsnNode(Opcodes.ICONST_2));
+        instructions.add(new InsnNode(Opcodes.IRETURN));
+
+        // check that the jump and the skipped branch were removed
+        memoryJar.transformClasses(new PeepholeOptimizer());
+        for (AbstractInsnNode instruction : memoryMethod.getInstructions()) {
+            assert !(instruction instanceof JumpInsnNode);
+            assert instruction.getOpcode() != Opcodes.ICONST_1;
+        }
+
+        // check that the method still returns the taken branch
+        assert (int) TestJar.invoke(TestJar.define(memoryJar, name(Optimized.class)), "constant") == 2;
+    }
+
+    @Test
+    public void removeDeadStores() {
+        // optimize the method that stores a value that is never read
+        MemoryJar memoryJar = TestJar.load(Optimized.class);
+        MemoryMethod memoryMethod = TestJar.getMethod(TestJar.getClass(memoryJar, Optimized.class), "dead");
+        assert new PeepholeOptimizer().optimize(memoryMethod);
+
+        // check that only the store into the unused local was removed
+        boolean readsResult = false;
+        for (AbstractInsnNode instruction : memoryMethod.getInstructions()) {
+            if (instruction instanceof VarInsnNode) {
+                assert instruction.getOpcode() != Opcodes.ISTORE || ((VarInsnNode) instruction).var != 1;
+                readsResult |= instruction.getOpcode() == Opcodes.ILOAD && ((VarInsnNode) instruction).var == 2;
+            }
+        }
+        assert readsResult;
+
+        // check that the optimized method returns the same values as the original one
+        memoryJar.getClass(name(Optimized.class)).computeFrames = true;
+        Class<?> optimized = TestJar.define(memoryJar, name(Optimized.class));
+        for (int value = -3; value <= 3; value++) {
+            assert TestJar.invoke(optimized, "dead", value).equals(Optimized.dead(value));
+            assert TestJar.invoke(optimized, "loop", value).equals(Optimized.loop(value));
+        }
+    }
+
+    @Test
+    public void keepOptimalMethods() {
+        // check that a method that can not be optimized is not changed
+        MemoryJar memoryJar = TestJar.load(Optimized.class);
+        MemoryClass memoryClass = TestJar.getClass(memoryJar, Optimized.class);
+        MemoryMethod memoryMethod = TestJar.getMethod(memoryClass, "identity");
+        int modification = memoryMethod.instructions.getModificationCount();
+        assert !new PeepholeOptimizer().optimize(memoryMethod);
+        assert memoryMethod.instructions.getModificationCount() == modification;
+    }
+
+    /**
+     * Gets the internal name of the provided class
+     *
+     * @param aClass class that you want to get the name of
+     * @return {@link String}
+     */
+
+    private static String name(Class<?> aClass) {
+        return aClass.getName().replace('.', '/');
+    }
+
+    public static class Optimized {
+
+        static int constant() {
+            return 0;
+        }
+
+        static int dead(int value) {
+            int unused = value * 7;
+            int result = value + 1;
+            return result;
+        }
+
+        static int loop(int value) {
+            int total = 0;
+            for (int i = 0; i < value; i++) {
+                int ignored = i * 2;
+                total += i;
+            }
+            return total;
+        }
+
+        static int identity(int value) {
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package me.mat.jprocess.transformer.impl.instrument;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.transformer.impl.instrument.AllocationInstrumentation;
+import me.mat.jprocessor.transformer.impl.instrument.Probe;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+public class AllocationInstrumentationTest {
+
+    @Test
+    public void countAllocations() {
+        // instrument the jar and run the fixture twice
+        MemoryJar memoryJar = TestJar.load(Allocating.class);
+        Instrumented instrumented = new Instrumented(memoryJar,
+                new AllocationInstrumentation(memoryJar, memoryMethod -> memoryMethod.name().equals("build")), Allocating.class);
+        for (int i = 0; i < 2; i++) {
+            assert (int) instrumented.invoke("build", 3) == Allocating.build(3);
+        }
+
+        // check that every allocation site got a probe with the allocated type
+        assert instrumented.instrumentation.getProbeTable().size() == 4;
+        assert (long) instrumented.runtime("getCount", site(instrumented, "[I").id) == 2;
+        assert (long) instrumented.runtime("getCount", site(instrumented, "[Ljava/lang/String;").id) == 2;
+        assert (long) instrumented.runtime("getCount", site(instrumented, "[[I").id) == 2;
+        assert (long) instrumented.runtime("getCount", site(instrumented, "java/lang/Object").id) == 6;
+
+        // check that the probes know the lines of the sites
+        assert site(instrumented, "java/lang/Object").line > 0;
+
+        // check that the dump lists the allocated types
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        instrumented.runtime("dump", new PrintStream(out, true));
+        assert out.toString().contains("java/lang/Object");
+
+        // check that the counters can be reset
+        instrumented.runtime("reset");
+        assert (long) instrumented.runtime("getCount", site(instrumented, "[I").id) == 0;
+    }
+
+    @Test
+    public void skipMethodsWithoutAllocations() {
+        // instrument the method that does not allocate anything
+        MemoryJar memoryJar = TestJar.load(Allocating.class);
+        AllocationInstrumentation instrumentation = new AllocationInstrumentation(memoryJar,
+                memoryMethod -> memoryMethod.name().equals("sum"));
+        instrumentation.instrument();
+
+        // check that no probe was placed and the class keeps its frames
+        assert instrumentation.getProbeTable().size() == 0;
+        assert !TestJar.getClass(memoryJar, Allocating.class).computeFrames;
+    }
+
+    /**
+     * Gets the probe of the allocation site of the provided type
+     *
+     * @param instrumented instrumented jar
+     * @param type         allocated type
+     * @return {@link Probe}
+     */
+
+    private static Probe site(Instrumented instrumented, String type) {
+        return instrumented.instrumentation.getProbeTable().getProbes().stream()
+                .filter(probe -> probe.detail.equals(type))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No allocation of '" + type + "' was found"));
+    }
+
+    public static class Allocating {
+
+        static int build(int size) {
+            int[] values = new int[size];
+            String[] names = new String[size];
+            int[][] grid = new int[2][size];
+            Object last = null;
+            for (int i = 0; i < size; i++) {
+                last = new Object();
+            }
+            return values.length + names.length + grid.length + (last != null ? 1 : 0);
+        }
+
+        static int sum(int first, int second) {
+            return first + second;
+        }
+
+    }
+
+}
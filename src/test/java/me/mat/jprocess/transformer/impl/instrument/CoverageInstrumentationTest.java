@@ -0,0 +1,122 @@
+package me.mat.jprocess.transformer.impl.instrument;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.transformer.impl.instrument.CoverageInstrumentation;
+import me.mat.jprocessor.transformer.impl.instrument.CoverageReport;
+import me.mat.jprocessor.transformer.impl.instrument.Probe;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CoverageInstrumentationTest {
+
+    @Test
+    public void coverBlocks() throws IOException {
+        // instrument the jar and run only the positive branch
+        MemoryJar memoryJar = TestJar.load(Covered.class);
+        Instrumented instrumented = instrument(memoryJar);
+        assert instrumented.invoke("classify", 5).equals("positive");
+
+        // check that only some of the lines of the method were covered
+        MemoryClass memoryClass = TestJar.getClass(memoryJar, Covered.class);
+        MemoryMethod classify = TestJar.getMethod(memoryClass, "classify");
+        CoverageReport report = report(instrumented);
+        Set<Integer> covered = report.getCoveredLines(classify);
+        Set<Integer> missed = report.getMissedLines(classify);
+        assert !covered.isEmpty() && !missed.isEmpty();
+        assert covered.stream().noneMatch(missed::contains);
+
+        // check that the method that was never called is fully missed
+        MemoryMethod unused = TestJar.getMethod(memoryClass, "unused");
+        assert report.getCoveredLines(unused).isEmpty();
+        assert report.getProbes(unused).stream().noneMatch(report::isCovered);
+
+        // check that every probe maps back to its method
+        for (Probe probe : report.getProbes(classify)) {
+            assert report.getMethod(probe) == classify;
+        }
+
+        // run the other branches and check that the whole method is covered
+        assert instrumented.invoke("classify", -5).equals("negative");
+        assert instrumented.invoke("classify", 0).equals("zero");
+        report = report(instrumented);
+        assert report.getMissedLines(classify).isEmpty();
+        assert report.getCoveredCount() == report.getProbes(classify).size();
+
+        // check that the probes can be reset
+        instrumented.runtime("reset");
+        assert report(instrumented).getCoveredCount() == 0;
+    }
+
+    @Test
+    public void rejectInvalidInput() {
+        // check that a jar without the coverage table can not be reported on
+        assertThrows(IOException.class, () -> CoverageReport.read(new ByteArrayInputStream(new byte[8]), TestJar.load(Covered.class)));
+
+        // check that data that is not a dump can not be read
+        Instrumented instrumented = instrument(TestJar.load(Covered.class));
+        assertThrows(IOException.class, () -> CoverageReport.read(new ByteArrayInputStream(new byte[8]), instrumented.memoryJar));
+    }
+
+    /**
+     * Instruments all the methods of the provided jar except the constructors
+     *
+     * @param memoryJar jar that you want to instrument
+     * @return {@link Instrumented}
+     */
+
+    private static Instrumented instrument(MemoryJar memoryJar) {
+        return new Instrumented(memoryJar,
+                new CoverageInstrumentation(memoryJar, memoryMethod -> !memoryMethod.name().startsWith("<")), Covered.class);
+    }
+
+    /**
+     * Dumps the probes of the instrumented jar and reads the report
+     *
+     * @param instrumented instrumented jar
+     * @return {@link CoverageReport}
+     * @throws IOException if the report could not be read
+     */
+
+    private static CoverageReport report(Instrumented instrumented) throws IOException {
+        // dump the probes, the runtime has a dump for readers and streams
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            instrumented.runtime.getMethod("dump", OutputStream.class).invoke(null, out);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+
+        // read the report
+        return CoverageReport.read(new ByteArrayInputStream(out.toByteArray()), instrumented.memoryJar);
+    }
+
+    public static class Covered {
+
+        static String classify(int value) {
+            if (value > 0) {
+                return "positive";
+            }
+            if (value < 0) {
+                return "negative";
+            }
+            return "zero";
+        }
+
+        static int unused(int value) {
+            return value + 1;
+        }
+
+    }
+
+}
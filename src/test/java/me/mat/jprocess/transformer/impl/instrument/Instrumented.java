@@ -0,0 +1,81 @@
+package me.mat.jprocess.transformer.impl.instrument;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.transformer.impl.instrument.Instrumentation;
+import me.mat.jprocessor.transformer.impl.instrument.Probe;
+
+public final class Instrumented {
+
+    public final MemoryJar memoryJar;
+
+    public final Instrumentation instrumentation;
+
+    public final Class<?> fixture;
+
+    public final Class<?> runtime;
+
+    /**
+     * Instruments the jar and defines the provided
+     * fixture and the embedded runtime in a class loader
+     *
+     * @param memoryJar       jar that you want to instrument
+     * @param instrumentation instrumentation that you want to run
+     * @param fixture         class that you want to load from the instrumented jar
+     */
+
+    public Instrumented(MemoryJar memoryJar, Instrumentation instrumentation, Class<?> fixture) {
+        this.memoryJar = memoryJar;
+        this.instrumentation = instrumentation;
+
+        // instrument the jar and define the fixture
+        instrumentation.instrument();
+        this.fixture = TestJar.define(memoryJar, fixture.getName().replace('.', '/'));
+
+        // load the runtime from the same class loader as the fixture
+        try {
+            this.runtime = Class.forName(instrumentation.runtime().replace('/', '.'), true, this.fixture.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Invokes a static method of the instrumented fixture
+     *
+     * @param name      name of the method
+     * @param arguments arguments that are passed to the method
+     * @return {@link Object}
+     */
+
+    public Object invoke(String name, Object... arguments) {
+        return TestJar.invoke(fixture, name, arguments);
+    }
+
+    /**
+     * Invokes a static method of the embedded runtime
+     *
+     * @param name      name of the method
+     * @param arguments arguments that are passed to the method
+     * @return {@link Object}
+     */
+
+    public Object runtime(String name, Object... arguments) {
+        return TestJar.invoke(runtime, name, arguments);
+    }
+
+    /**
+     * Gets the first probe that was placed into the method with the provided name
+     *
+     * @param name name of the method
+     * @return {@link Probe}
+     */
+
+    public Probe probe(String name) {
+        return instrumentation.getProbeTable().getProbes().stream()
+                .filter(probe -> probe.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No probe was placed into '" + name + "'"));
+    }
+
+}
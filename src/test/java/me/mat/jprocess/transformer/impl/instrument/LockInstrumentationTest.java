@@ -0,0 +1,126 @@
+package me.mat.jprocess.transformer.impl.instrument;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.transformer.impl.instrument.LockInstrumentation;
+import me.mat.jprocessor.transformer.impl.instrument.Probe;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LockInstrumentationTest {
+
+    @Test
+    public void measureLocks() {
+        // instrument the jar and run the fixture
+        MemoryJar memoryJar = TestJar.load(Locked.class);
+        Instrumented instrumented = new Instrumented(memoryJar, new LockInstrumentation(memoryJar, memoryMethod -> true), Locked.class);
+        for (int i = 0; i < 3; i++) {
+            assert (boolean) instrumented.invoke("holdsClassLock");
+            assert (boolean) instrumented.invoke("holdsLock", new Object());
+        }
+
+        // check that both kinds of lock sites were measured
+        assert (long) instrumented.runtime("getAcquires", site(instrumented, "holdsClassLock", "synchronized").id) == 3;
+        assert (long) instrumented.runtime("getAcquires", site(instrumented, "holdsLock", "monitorenter").id) == 3;
+
+        // check that the synchronized method now locks explicitly
+        MemoryMethod memoryMethod = TestJar.getMethod(TestJar.getClass(memoryJar, Locked.class), "holdsClassLock");
+        assert !memoryMethod.isSynchronized();
+    }
+
+    @Test
+    public void releaseOnException() {
+        // instrument the jar and let the synchronized method throw
+        MemoryJar memoryJar = TestJar.load(Locked.class);
+        Instrumented instrumented = new Instrumented(memoryJar, new LockInstrumentation(memoryJar, memoryMethod -> true), Locked.class);
+        try {
+            instrumented.invoke("fail");
+            assert false;
+        } catch (RuntimeException ignored) {
+        }
+
+        // check that the lock was released when the exception left the method
+        assert !Thread.holdsLock(instrumented.fixture);
+        assert (boolean) instrumented.invoke("holdsClassLock");
+    }
+
+    @Test
+    public void versionMask() {
+        // load the class with an old major version and a minor version
+        Map<String, byte[]> classData = TestJar.read(Locked.class);
+        String name = Locked.class.getName().replace('.', '/');
+        classData.put(name, withVersion(classData.get(name), Opcodes.V1_4 | (3 << 16)));
+        MemoryJar memoryJar = new MemoryJar(classData, new HashMap<>(), null);
+
+        // instrument the class
+        LockInstrumentation instrumentation = new LockInstrumentation(memoryJar, memoryMethod -> true);
+        instrumentation.instrument();
+
+        // check that the static synchronized method is kept since the old version can not load its class
+        MemoryMethod memoryMethod = TestJar.getMethod(TestJar.getClass(memoryJar, Locked.class), "holdsClassLock");
+        assert memoryMethod.isSynchronized();
+        assert instrumentation.getProbeTable().getProbes().stream().noneMatch(probe -> probe.name.equals("holdsClassLock"));
+    }
+
+    /**
+     * Gets the probe of the lock site of the provided kind in the method
+     *
+     * @param instrumented instrumented jar
+     * @param name         name of the method
+     * @param kind         kind of the lock site
+     * @return {@link Probe}
+     */
+
+    private static Probe site(Instrumented instrumented, String name, String kind) {
+        return instrumented.instrumentation.getProbeTable().getProbes().stream()
+                .filter(probe -> probe.name.equals(name) && probe.detail.equals(kind))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No " + kind + " site was found in '" + name + "'"));
+    }
+
+    /**
+     * Rewrites the class file version of the provided class,
+     * the frames are dropped since the old versions have none
+     *
+     * @param data    data of the class
+     * @param version version that you want the class to have
+     * @return {@link Byte[]}
+     */
+
+    private static byte[] withVersion(byte[] data, int version) {
+        ClassWriter classWriter = new ClassWriter(0);
+        new ClassReader(data).accept(new ClassVisitor(Opcodes.ASM9, classWriter) {
+            @Override
+            public void visit(int ignored, int access, String name, String signature, String superName, String[] interfaces) {
+                super.visit(version, access, name, signature, superName, interfaces);
+            }
+        }, ClassReader.SKIP_FRAMES);
+        return classWriter.toByteArray();
+    }
+
+    public static class Locked {
+
+        static synchronized boolean holdsClassLock() {
+            return Thread.holdsLock(Locked.class);
+        }
+
+        static boolean holdsLock(Object lock) {
+            synchronized (lock) {
+                return Thread.holdsLock(lock);
+            }
+        }
+
+        static synchronized void fail() {
+            throw new IllegalStateException("fail");
+        }
+
+    }
+
+}
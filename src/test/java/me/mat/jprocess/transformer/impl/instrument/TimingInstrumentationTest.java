@@ -0,0 +1,140 @@
+package me.mat.jprocess.transformer.impl.instrument;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.runtime.MethodTimings;
+import me.mat.jprocessor.transformer.impl.instrument.ProbeTable;
+import me.mat.jprocessor.transformer.impl.instrument.TimingInstrumentation;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TimingInstrumentationTest {
+
+    @Test
+    public void recordCalls() {
+        // instrument the jar and run the fixture
+        Instrumented instrumented = instrument(TestJar.load(Timed.class));
+        for (int i = 0; i < 3; i++) {
+            assert (int) instrumented.invoke("work", 10) == Timed.work(10);
+        }
+        assertThrows(RuntimeException.class, () -> instrumented.invoke("fail"));
+
+        // check that every call was counted and timed
+        int work = instrumented.probe("work").id;
+        assert (long) instrumented.runtime("getCalls", work) == 3;
+        assert (long) instrumented.runtime("getSamples", work) == 3;
+        assert (long) instrumented.runtime("getNanos", work) > 0;
+
+        // check that the exit of a thrown exception was recorded too
+        int fail = instrumented.probe("fail").id;
+        assert (long) instrumented.runtime("getCalls", fail) == 1;
+        assert (long) instrumented.runtime("getSamples", fail) == 1;
+
+        // check that the dump names the methods with the embedded probe table
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        instrumented.runtime("dump", new PrintStream(out, true));
+        assert out.toString().contains(Timed.class.getName() + ".work(I)I");
+    }
+
+    @Test
+    public void relocateRuntime() {
+        // instrument the jar
+        MemoryJar memoryJar = TestJar.load(Timed.class);
+        Instrumented instrumented = instrument(memoryJar);
+        String runtime = instrumented.instrumentation.runtime();
+
+        // check that the runtime was embedded into a package of its own inside of the package of the jar
+        assert !runtime.equals(Type.getInternalName(MethodTimings.class));
+        String jarPackage = Type.getInternalName(Timed.class).substring(0, Type.getInternalName(Timed.class).lastIndexOf('/') + 1);
+        assert runtime.startsWith(jarPackage + "jprocessor_runtime/");
+        assert memoryJar.getClasses().containsKey(runtime);
+        assert instrumented.runtime != MethodTimings.class;
+
+        // check that the probes call the embedded runtime
+        for (AbstractInsnNode instruction : TestJar.getMethod(TestJar.getClass(memoryJar, Timed.class), "work").getInstructions()) {
+            if (instruction instanceof MethodInsnNode && ((MethodInsnNode) instruction).name.equals("enter")) {
+                assert ((MethodInsnNode) instruction).owner.equals(runtime);
+            }
+        }
+
+        // check that the table can be read back from the jar
+        ProbeTable probeTable = ProbeTable.read(memoryJar, TimingInstrumentation.KIND);
+        assert probeTable != null && probeTable.size() == instrumented.instrumentation.getProbeTable().size();
+
+        // check that a jar with other classes gets another package
+        TimingInstrumentation other = new TimingInstrumentation(TestJar.load(Timed.class, Other.class), memoryMethod -> true);
+        assert !other.getRuntimePackage().equals(instrumented.instrumentation.getRuntimePackage());
+    }
+
+    @Test
+    public void instrumentOnce() {
+        // instrument the jar
+        MemoryJar memoryJar = TestJar.load(Timed.class);
+        instrument(memoryJar);
+
+        // check that the jar can not be instrumented into the same package again
+        assertThrows(IllegalStateException.class, () -> new TimingInstrumentation(memoryJar, memoryMethod -> true).instrument());
+
+        // check that the sample rate has to be positive
+        assertThrows(IllegalArgumentException.class, () -> new TimingInstrumentation(memoryJar, memoryMethod -> true).sampleRate(0));
+    }
+
+    @Test
+    public void sampleCalls() {
+        // instrument the jar with a sample rate that times every fourth call
+        MemoryJar memoryJar = TestJar.load(Timed.class);
+        Instrumented instrumented = new Instrumented(memoryJar,
+                new TimingInstrumentation(memoryJar, memoryMethod -> true).sampleRate(4), Timed.class);
+        for (int i = 0; i < 10_000; i++) {
+            instrumented.invoke("work", 1);
+        }
+
+        // check that only a part of the calls was timed
+        int work = instrumented.probe("work").id;
+        long samples = (long) instrumented.runtime("getSamples", work);
+        assert samples > 0 && samples < 10_000;
+
+        // check that the amount of the calls is scaled from the timed calls
+        long calls = (long) instrumented.runtime("getCalls", work);
+        assert calls == samples * 4;
+        assert calls > 8_000 && calls < 12_000;
+    }
+
+    /**
+     * Instruments all the methods of the provided jar
+     *
+     * @param memoryJar jar that you want to instrument
+     * @return {@link Instrumented}
+     */
+
+    private static Instrumented instrument(MemoryJar memoryJar) {
+        return new Instrumented(memoryJar, new TimingInstrumentation(memoryJar, memoryMethod -> true), Timed.class);
+    }
+
+    public static class Timed {
+
+        static int work(int size) {
+            int total = 0;
+            for (int i = 0; i < size; i++) {
+                total += i * i;
+            }
+            return total;
+        }
+
+        static void fail() {
+            throw new IllegalStateException("fail");
+        }
+
+    }
+
+    public static class Other {
+    }
+
+}
@@ -0,0 +1,95 @@
+package me.mat.jprocess.transformer.impl.instrument;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.transformer.impl.instrument.TraceEvent;
+import me.mat.jprocessor.transformer.impl.instrument.TraceInstrumentation;
+import me.mat.jprocessor.transformer.impl.instrument.TraceReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TraceInstrumentationTest {
+
+    @Test
+    public void traceCalls() throws IOException {
+        // instrument the jar and run the fixture
+        MemoryJar memoryJar = TestJar.load(Traced.class);
+        Instrumented instrumented = new Instrumented(memoryJar,
+                new TraceInstrumentation(memoryJar, memoryMethod -> !memoryMethod.name().startsWith("<")), Traced.class);
+        assert (int) instrumented.invoke("outer") == Traced.outer();
+
+        // read the events back with the table of the jar
+        List<TraceEvent> events = TraceReader.read(dump(instrumented), memoryJar);
+        assert events.size() == 6;
+
+        // check that the events are in the order of the calls
+        String[] names = {"outer", "inner", "inner", "inner", "inner", "outer"};
+        boolean[] entries = {true, true, false, true, false, false};
+        for (int i = 0; i < events.size(); i++) {
+            TraceEvent event = events.get(i);
+            assert event.probe.name.equals(names[i]);
+            assert event.entry == entries[i];
+            assert event.threadId == Thread.currentThread().getId();
+            assert i == 0 || events.get(i - 1).timestamp <= event.timestamp;
+        }
+    }
+
+    @Test
+    public void overwriteOldestEvents() throws IOException {
+        // instrument the jar with a buffer that only holds four events
+        MemoryJar memoryJar = TestJar.load(Traced.class);
+        Instrumented instrumented = new Instrumented(memoryJar,
+                new TraceInstrumentation(memoryJar, memoryMethod -> !memoryMethod.name().startsWith("<")).capacity(4), Traced.class);
+        instrumented.invoke("outer");
+
+        // check that every event was counted but only the newest ones were kept
+        assert (long) instrumented.runtime("getWritten") == 6;
+        List<TraceEvent> events = TraceReader.read(dump(instrumented), memoryJar);
+        assert events.size() == 4;
+        assert !events.get(0).entry && events.get(0).probe.name.equals("inner");
+        assert !events.get(3).entry && events.get(3).probe.name.equals("outer");
+    }
+
+    @Test
+    public void rejectInvalidInput() {
+        // check that the capacity has to be a power of two
+        TraceInstrumentation instrumentation = new TraceInstrumentation(TestJar.load(Traced.class), memoryMethod -> true);
+        assertThrows(IllegalArgumentException.class, () -> instrumentation.capacity(3));
+        assertThrows(IllegalArgumentException.class, () -> instrumentation.capacity(0));
+
+        // check that data that is not a dump can not be read
+        assertThrows(IOException.class, () -> TraceReader.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}), null));
+    }
+
+    /**
+     * Dumps the trace buffer of the instrumented jar
+     *
+     * @param instrumented instrumented jar
+     * @return {@link Byte[]}
+     */
+
+    private static byte[] dump(Instrumented instrumented) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        instrumented.runtime("dump", out);
+        return out.toByteArray();
+    }
+
+    public static class Traced {
+
+        static int inner(int value) {
+            return value * 2;
+        }
+
+        static int outer() {
+            return inner(1) + inner(2);
+        }
+
+    }
+
+}
@@ -0,0 +1,175 @@
+package me.mat.jprocess.transformer.pattern;
+
+import me.mat.jprocess.util.TestJar;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.transformer.pattern.Pattern;
+import me.mat.jprocessor.transformer.pattern.PatternMatch;
+import me.mat.jprocessor.transformer.pattern.PatternMatcher;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.*;
+
+import java.util.List;
+
+public class PatternMatcherTest {
+
+    @Test
+    public void sequenceSkipsPseudoInstructions() {
+        // build the instructions with a label in the middle of the sequence
+        InsnList instructions = new InsnList();
+        AbstractInsnNode first = new InsnNode(Opcodes.ICONST_1);
+        AbstractInsnNode last = new InsnNode(Opcodes.IADD);
+        instructions.add(first);
+        instructions.add(new LabelNode());
+        instructions.add(new InsnNode(Opcodes.ICONST_2));
+        instructions.add(last);
+        instructions.add(new InsnNode(Opcodes.POP));
+
+        // match the sequence
+        List<PatternMatch> matches = new PatternMatcher(Pattern.sequence(
+                Pattern.opcode(Opcodes.ICONST_1),
+                Pattern.opcode(Opcodes.ICONST_2),
+                Pattern.opcode(Opcodes.IADD)
+        )).match(instructions);
+
+        // check that the match spans the label
+        assert matches.size() == 1;
+        assert matches.get(0).first == first && matches.get(0).last == last;
+        assert matches.get(0).instructions().size() == 4;
+    }
+
+    @Test
+    public void optionalAndAlternatives() {
+        // build two returns, one with a cast and one without
+        InsnList instructions = new InsnList();
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, "java/lang/String"));
+        instructions.add(new InsnNode(Opcodes.ARETURN));
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 1));
+        instructions.add(new InsnNode(Opcodes.ARETURN));
+        instructions.add(new InsnNode(Opcodes.ACONST_NULL));
+        instructions.add(new InsnNode(Opcodes.ARETURN));
+
+        // match a load that is optionally cast before it is returned
+        List<PatternMatch> matches = new PatternMatcher(Pattern.sequence(
+                Pattern.anyOf(Pattern.opcode(Opcodes.ALOAD), Pattern.opcode(Opcodes.ACONST_NULL)),
+                Pattern.optional(Pattern.type(Opcodes.CHECKCAST, null)),
+                Pattern.opcode(Opcodes.ARETURN)
+        )).match(instructions);
+
+        // check that all three returns were matched
+        assert matches.size() == 3;
+        assert matches.get(0).instructions().size() == 3;
+        assert matches.get(1).instructions().size() == 2;
+    }
+
+    @Test
+    public void matchesDoNotOverlap() {
+        // build a run of instructions
+        InsnList instructions = new InsnList();
+        for (int i = 0; i < 3; i++) {
+            instructions.add(new InsnNode(Opcodes.NOP));
+        }
+
+        // check that the repetition takes the whole run as a single match
+        List<PatternMatch> matches = new PatternMatcher(Pattern.oneOrMore(Pattern.opcode(Opcodes.NOP))).match(instructions);
+        assert matches.size() == 1;
+        assert matches.get(0).first == instructions.getFirst() && matches.get(0).last == instructions.getLast();
+
+        // check that the repeated sequence does not reuse the instructions
+        assert new PatternMatcher(Pattern.sequence(Pattern.opcode(Opcodes.NOP), Pattern.opcode(Opcodes.NOP)))
+                .match(instructions).size() == 1;
+    }
+
+    @Test
+    public void greedyTails() {
+        // build a load followed by two casts and a return
+        InsnList instructions = new InsnList();
+        instructions.add(new VarInsnNode(Opcodes.ALOAD, 0));
+        instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, "java/lang/Object"));
+        instructions.add(new TypeInsnNode(Opcodes.CHECKCAST, "java/lang/String"));
+        instructions.add(new InsnNode(Opcodes.ARETURN));
+
+        // check that a trailing repetition takes every instruction that it can
+        List<PatternMatch> matches = new PatternMatcher(Pattern.sequence(
+                Pattern.opcode(Opcodes.ALOAD),
+                Pattern.oneOrMore(Pattern.opcode(Opcodes.CHECKCAST))
+        )).match(instructions);
+        assert matches.size() == 1 && matches.get(0).instructions().size() == 3;
+
+        // check that a trailing repetition that can be empty is greedy too
+        matches = new PatternMatcher(Pattern.sequence(
+                Pattern.opcode(Opcodes.ALOAD),
+                Pattern.zeroOrMore(Pattern.opcode(Opcodes.CHECKCAST))
+        )).match(instructions);
+        assert matches.size() == 1 && matches.get(0).instructions().size() == 3;
+
+        // check that a trailing optional consumes its instruction and only the end of the input stops the match
+        matches = new PatternMatcher(Pattern.sequence(
+                Pattern.opcode(Opcodes.CHECKCAST),
+                Pattern.optional(Pattern.opcode(Opcodes.ARETURN))
+        )).match(instructions);
+        assert matches.size() == 2;
+        assert matches.get(0).instructions().size() == 1;
+        assert matches.get(1).instructions().size() == 2 && matches.get(1).last == instructions.getLast();
+    }
+
+    @Test
+    public void leftmostPriority() {
+        // build three instructions where the middle one matches on its own
+        InsnList instructions = new InsnList();
+        instructions.add(new InsnNode(Opcodes.ICONST_0));
+        instructions.add(new InsnNode(Opcodes.ICONST_1));
+        instructions.add(new InsnNode(Opcodes.ICONST_2));
+        instructions.add(new InsnNode(Opcodes.ICONST_1));
+
+        // check that the longer match that starts earlier wins over the shorter one that completes first
+        List<PatternMatch> matches = new PatternMatcher(Pattern.anyOf(
+                Pattern.sequence(Pattern.opcode(Opcodes.ICONST_0), Pattern.opcode(Opcodes.ICONST_1), Pattern.opcode(Opcodes.ICONST_2)),
+                Pattern.opcode(Opcodes.ICONST_1)
+        )).match(instructions);
+        assert matches.size() == 2;
+        assert matches.get(0).first == instructions.getFirst() && matches.get(0).instructions().size() == 3;
+
+        // check that the instructions after the match are matched again
+        assert matches.get(1).first == instructions.getLast();
+    }
+
+    @Test
+    public void capturesInTheJar() {
+        // define the patterns that are matched in a single pass
+        Pattern property = Pattern.sequence(
+                Pattern.ldc(constant -> constant instanceof String).capture("key"),
+                Pattern.method(Opcodes.INVOKESTATIC, "java/lang/System", "getProperty", null).capture("call")
+        );
+        Pattern environment = Pattern.method(Opcodes.INVOKESTATIC, "java/lang/System", "getenv", null);
+
+        // match the patterns against the fixture
+        MemoryJar memoryJar = TestJar.load(Config.class);
+        List<PatternMatch> matches = new PatternMatcher(property, environment).match(memoryJar);
+
+        // check the matches of the property pattern
+        assert matches.size() == 3;
+        PatternMatch match = matches.stream().filter(patternMatch -> patternMatch.pattern == property).findFirst().orElseThrow(IllegalStateException::new);
+        assert ((LdcInsnNode) match.get("key")).cst.equals("user.home");
+        assert ((MethodInsnNode) match.get("call")).name.equals("getProperty");
+        assert match.memoryMethod == TestJar.getMethod(TestJar.getClass(memoryJar, Config.class), "home");
+        assert match.get("missing") == null;
+
+        // check the matches of the environment pattern
+        assert matches.stream().filter(patternMatch -> patternMatch.pattern == environment).count() == 2;
+    }
+
+    public static class Config {
+
+        static String home() {
+            return System.getProperty("user.home");
+        }
+
+        static String path() {
+            return System.getenv("PATH") + System.getenv("HOME");
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package me.mat.jprocess.util;
+
+import me.mat.jprocessor.jar.memory.MemoryAnnotation;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryLocalVariable;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.jar.memory.MemoryParameter;
+import me.mat.jprocessor.util.LazyList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LazyListTest {
+
+    @Test
+    public void loadsOnFirstAccess() {
+        // set up a list with a loader that counts its calls
+        AtomicInteger loads = new AtomicInteger();
+        LazyList<String> list = new LazyList<>();
+        list.reset(() -> {
+            loads.incrementAndGet();
+            return Arrays.asList("a", "b");
+        });
+
+        // check that nothing was loaded yet
+        assert !list.isLoaded();
+        assert loads.get() == 0;
+
+        // check that the loader runs once on the first access
+        assert list.size() == 2;
+        assert list.get(1).equals("b");
+        assert list.isLoaded();
+        assert loads.get() == 1;
+
+        // check that the loaded list can be edited
+        list.add("c");
+        list.remove("a");
+        assert list.equals(Arrays.asList("b", "c"));
+    }
+
+    @Test
+    public void clearDropsTheLoader() {
+        // set up a list with a loader that must never run
+        LazyList<String> list = new LazyList<>();
+        list.reset(() -> {
+            throw new IllegalStateException();
+        });
+
+        // check that clearing the list replaces the loader
+        list.clear();
+        assert list.isLoaded();
+        assert list.isEmpty();
+    }
+
+    @Test
+    public void membersAreWrappedOnFirstAccess() {
+        // load the fixture class into memory
+        MemoryJar memoryJar = TestJar.load(Marker.class, Sample.class);
+        MemoryMethod memoryMethod = TestJar.getMethod(TestJar.getClass(memoryJar, Sample.class), "sum");
+
+        // check that the wrappers were not created while loading
+        assert !((LazyList<MemoryLocalVariable>) memoryMethod.localVariables).isLoaded();
+        assert !((LazyList<MemoryAnnotation>) memoryMethod.annotations).isLoaded();
+        assert !((LazyList<MemoryParameter>) memoryMethod.parameters).isLoaded();
+
+        // check that the wrappers are created on the first access
+        assert memoryMethod.localVariables.stream().anyMatch(localVariable -> localVariable.name().equals("total"));
+        assert memoryMethod.isAnnotationPresent(Marker.class);
+        assert memoryMethod.parameters.size() == 2;
+        assert memoryMethod.parameters.get(1).isAnnotationPresent(Marker.class);
+    }
+
+    public @interface Marker {
+
+    }
+
+    public static class Sample {
+
+        @Marker
+        static int sum(int first, @Marker int second) {
+            int total = first + second;
+            return total;
+        }
+
+    }
+
+}
@@ -0,0 +1,215 @@
+package me.mat.jprocess.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import me.mat.jprocessor.jar.memory.MemoryClass;
+import me.mat.jprocessor.jar.memory.MemoryField;
+import me.mat.jprocessor.jar.memory.MemoryJar;
+import me.mat.jprocessor.jar.memory.MemoryMethod;
+import me.mat.jprocessor.util.JarUtil;
+import me.mat.jprocessor.util.ResourceUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TestJar {
+
+    /**
+     * Loads the provided classes from
+     * the test class path into a memory jar
+     *
+     * @param classes classes that you want to load
+     * @return {@link MemoryJar}
+     */
+
+    public static MemoryJar load(Class<?>... classes) {
+        return new MemoryJar(read(classes), new HashMap<>(), null);
+    }
+
+    /**
+     * Reads the bytes of the provided classes
+     * mapped by their internal names
+     *
+     * @param classes classes that you want to read
+     * @return {@link Map}
+     */
+
+    public static Map<String, byte[]> read(Class<?>... classes) {
+        // define a map that will hold the data of all the classes
+        Map<String, byte[]> data = new HashMap<>();
+
+        // loop through all the classes and read them from the class path
+        for (Class<?> aClass : classes) {
+            try (InputStream in = ResourceUtil.getClassResource(aClass)) {
+                data.put(aClass.getName().replace('.', '/'), JarUtil.read(in));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        // return the data
+        return data;
+    }
+
+    /**
+     * Gets the memory class of the provided class from the jar
+     *
+     * @param memoryJar jar that the class is in
+     * @param aClass    class that you want to get
+     * @return {@link MemoryClass}
+     */
+
+    public static MemoryClass getClass(MemoryJar memoryJar, Class<?> aClass) {
+        return memoryJar.getClass(aClass.getName().replace('.', '/'));
+    }
+
+    /**
+     * Gets the first method with the provided name from the class
+     *
+     * @param memoryClass class that the method is in
+     * @param name        name of the method
+     * @return {@link MemoryMethod}
+     */
+
+    public static MemoryMethod getMethod(MemoryClass memoryClass, String name) {
+        return memoryClass.methods.stream()
+                .filter(memoryMethod -> memoryMethod.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("The class '" + memoryClass.name() + "' has no method named '" + name + "'"));
+    }
+
+    /**
+     * Gets the field with the provided name from the class
+     *
+     * @param memoryClass class that the field is in
+     * @param name        name of the field
+     * @return {@link MemoryField}
+     */
+
+    public static MemoryField getField(MemoryClass memoryClass, String name) {
+        return memoryClass.fields.stream()
+                .filter(memoryField -> memoryField.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("The class '" + memoryClass.name() + "' has no field named '" + name + "'"));
+    }
+
+    /**
+     * Defines all the classes and resources of the provided jar in
+     * a new class loader and loads the class with the provided name
+     *
+     * @param memoryJar jar that you want to define
+     * @param className internal name of the class that you want to load
+     * @return {@link Class}
+     */
+
+    public static Class<?> define(MemoryJar memoryJar, String className) {
+        return define(memoryJar.getClassData(), memoryJar.getResourceData(), className);
+    }
+
+    /**
+     * Defines all the provided classes and resources in a new
+     * class loader and loads the class with the provided name
+     *
+     * @param classData    data of the classes mapped by their internal names
+     * @param resourceData data of the resources mapped by their paths
+     * @param className    internal name of the class that you want to load
+     * @return {@link Class}
+     */
+
+    public static Class<?> define(Map<String, byte[]> classData, Map<String, byte[]> resourceData, String className) {
+        try {
+            return Class.forName(className.replace('/', '.'), true, new JarClassLoader(classData, resourceData));
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Invokes the static method with the provided name,
+     * the method must be the only one with that name
+     *
+     * @param aClass    class that the method is in
+     * @param name      name of the method
+     * @param arguments arguments that are passed to the method
+     * @return {@link Object}
+     */
+
+    public static Object invoke(Class<?> aClass, String name, Object... arguments) {
+        // loop through all the methods of the class
+        for (Method method : aClass.getDeclaredMethods()) {
+
+            // if the method has the provided name
+            if (method.getName().equals(name)) {
+
+                // invoke it and return the result
+                try {
+                    method.setAccessible(true);
+                    return method.invoke(null, arguments);
+                } catch (IllegalAccessException e) {
+                    throw new RuntimeException(e);
+                } catch (InvocationTargetException e) {
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        }
+
+        // if the method was not found throw an exception
+        throw new IllegalArgumentException("The class '" + aClass.getName() + "' has no method named '" + name + "'");
+    }
+
+    private static final class JarClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classData;
+
+        private final Map<String, byte[]> resourceData;
+
+        private JarClassLoader(Map<String, byte[]> classData, Map<String, byte[]> resourceData) {
+            super(TestJar.class.getClassLoader());
+            this.classData = classData;
+            this.resourceData = resourceData;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                // get the data of the class from the jar
+                byte[] data = classData.get(name.replace('.', '/'));
+
+                // if the class is not in the jar load it from the parent
+                if (data == null) {
+                    return super.loadClass(name, resolve);
+                }
+
+                // else define the copy from the jar before the parent gets a chance to load it
+                Class<?> loadedClass = findLoadedClass(name);
+                if (loadedClass == null) {
+                    loadedClass = defineClass(name, data, 0, data.length);
+                }
+                if (resolve) {
+                    resolveClass(loadedClass);
+                }
+                return loadedClass;
+            }
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            // if the resource is in the jar read it from the jar
+            byte[] data = resourceData.get(name);
+            if (data != null) {
+                return new ByteArrayInputStream(data);
+            }
+
+            // else look it up in the parent
+            return super.getResourceAsStream(name);
+        }
+
+    }
+
+}